@@ -17,9 +17,13 @@ import java.net.HttpURLConnection;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
 
 import javax.json.Json;
+import javax.json.JsonArray;
+import javax.json.JsonArrayBuilder;
 import javax.json.JsonObject;
 import javax.json.JsonReader;
 
@@ -28,6 +32,8 @@ public class Client {
     private static final String PROPERTIES_FILE_PATH = "/version.properties";
 
     private static final String LOCAL_API_ENDPOINT = "http://localhost:54321/v2/commandline";
+    private static final String LOCAL_API_BATCH_ENDPOINT = LOCAL_API_ENDPOINT + "/batch";
+    private static final int BATCH_SIZE = 100;
     private static final String WINDOWS_IOFOG_PATH = System.getenv("IOFOG_PATH") != null ? System.getenv("IOFOG_PATH") : "./";
     private static final String SNAP_COMMON = System.getenv("SNAP_COMMON") != null ? System.getenv("SNAP_COMMON") : "";
     private static final String CONFIG_DIR = isWindows() ? WINDOWS_IOFOG_PATH : SNAP_COMMON + "/etc/iofog-agent/";
@@ -72,9 +78,11 @@ public class Client {
         params = new StringBuilder(params.toString().trim() + "\"}");
         byte[] postData = params.toString().trim().getBytes(StandardCharsets.UTF_8);
 
-        String accessToken = fetchAccessToken();
+        return postRequest(LOCAL_API_ENDPOINT, postData, fetchAccessToken());
+    }
 
-        URL url = new URL(LOCAL_API_ENDPOINT);
+    private static HttpURLConnection postRequest(String endpoint, byte[] postData, String accessToken) throws IOException {
+        URL url = new URL(endpoint);
         HttpURLConnection conn = (HttpURLConnection) url.openConnection();
         conn.setRequestMethod("POST");
         conn.setRequestProperty("Content-Type", "application/json");
@@ -126,6 +134,97 @@ public class Client {
         }
     }
 
+    /**
+     * runs commands from file or standard input, one command per line
+     * commands are sent in batches over one keep-alive connection, so scripts do not pay
+     * for JVM startup and connection setup per command
+     * when standard input is a terminal, each command is sent as soon as it is entered
+     *
+     * @param args - batch command and optional file name
+     */
+    private static void runBatch(String... args) {
+        boolean interactive = args.length < 2 && System.console() != null;
+        boolean failed = false;
+        try (BufferedReader in = args.length < 2
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                : new BufferedReader(new FileReader(args[1]))) {
+            String accessToken = fetchAccessToken();
+            List<String> commands = new ArrayList<>();
+            String line;
+            while (true) {
+                if (interactive) {
+                    System.out.print("iofog-agent> ");
+                    System.out.flush();
+                }
+                if ((line = in.readLine()) == null) {
+                    break;
+                }
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                if (interactive && (line.equals("exit") || line.equals("quit"))) {
+                    break;
+                }
+                commands.add(line);
+                if (interactive || commands.size() == BATCH_SIZE) {
+                    failed |= !sendBatch(commands, accessToken);
+                    commands.clear();
+                }
+            }
+            if (!commands.isEmpty()) {
+                failed |= !sendBatch(commands, accessToken);
+            }
+        } catch (Exception e) {
+            System.out.println(e);
+            failed = true;
+        }
+        System.exit(failed ? 1 : 0);
+    }
+
+    /**
+     * sends batch of commands to ioFog daemon and prints their responses in order
+     * response is read completely, so connection is kept alive for next batch
+     *
+     * @param commands    - commands without "iofog-agent" prefix
+     * @param accessToken - local api access token
+     * @return true if all commands succeeded
+     */
+    private static boolean sendBatch(List<String> commands, String accessToken) throws IOException {
+        JsonArrayBuilder commandsBuilder = Json.createArrayBuilder();
+        commands.forEach(commandsBuilder::add);
+        byte[] postData = Json.createObjectBuilder()
+                .add("commands", commandsBuilder)
+                .build()
+                .toString()
+                .getBytes(StandardCharsets.UTF_8);
+
+        HttpURLConnection conn = postRequest(LOCAL_API_BATCH_ENDPOINT, postData, accessToken);
+        boolean success = conn.getResponseCode() == 200;
+        StringBuilder result = new StringBuilder();
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(
+                success ? conn.getInputStream() : conn.getErrorStream(), StandardCharsets.UTF_8))) {
+            String output;
+            while ((output = br.readLine()) != null) {
+                result.append(output);
+            }
+        }
+        if (!success) {
+            System.out.println(result);
+            return false;
+        }
+
+        try (JsonReader reader = Json.createReader(new StringReader(result.toString()))) {
+            JsonArray responses = reader.readObject().getJsonArray("responses");
+            for (int i = 0; i < responses.size(); i++) {
+                JsonObject response = responses.getJsonObject(i);
+                System.out.println(response.getString("response", "").replace("\\n", "\n"));
+                success &= !response.containsKey("error");
+            }
+        }
+        return success;
+    }
+
     private static String fetchAccessToken() {
         String line = "";
         try (BufferedReader reader = new BufferedReader(new FileReader(LOCAL_API_TOKEN_PATH))) {
@@ -165,6 +264,9 @@ public class Client {
                 "                                         configured ioFog controller\n" +
                 "deprovision                              Detach this software from all\n" +
                 "                                         ioFog controllers\n" +
+                "batch            <file>                  Run commands from the file or standard\n" +
+                "                                         input, one command per line, over\n" +
+                "                                         one connection\n" +
                 "info                                     Display the current configuration\n" +
                 "                                         and other information about the\n" +
                 "                                         software\n" +
@@ -246,6 +348,9 @@ public class Client {
                 case "start":
                     System.out.println("ioFog Agent is already running.");
                     break;
+                case "batch":
+                    runBatch(args);
+                    break;
                 default:
                     sendCommandlineParameters(args);
                     break;
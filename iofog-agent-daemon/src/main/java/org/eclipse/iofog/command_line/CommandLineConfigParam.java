@@ -55,6 +55,11 @@ public enum CommandLineConfigParam {
     DEV_MODE ("on", "dev", "dev_mode", ""),
     ROUTER_HOST ("", "", "router_host", "routerHost"),
     ROUTER_PORT ("0", "", "router_port", "routerPort"),
+    ROUTER_PREFETCH ("0", "", "router_prefetch", ""),
+    ROUTER_ASYNC_SEND ("off", "", "router_async_send", ""),
+    LOCAL_ROUTING ("off", "", "local_routing", ""),
+    RESOURCE_ENFORCEMENT ("off", "", "resource_enforcement", ""),
+    CHANGES_LONG_POLL ("0", "", "get_changes_long_poll", ""),
     DOCKER_PRUNING_FREQUENCY ("1", "pf", "docker_pruning_freq", "dockerPruningFrequency"),
     AVAILABLE_DISK_THRESHOLD ("20", "dt", "available_disk_threshold", "availableDiskThreshold"),
     READY_TO_UPGRADE_SCAN_FREQUENCY ("24", "uf", "upgrade_scan_frequency", "readyToUpgradeScanFrequency");
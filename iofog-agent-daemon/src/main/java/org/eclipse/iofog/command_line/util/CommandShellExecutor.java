@@ -20,6 +20,7 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -57,6 +58,33 @@ public class CommandShellExecutor {
         return executeDynamic(fullCommand, resultSet, isRun, killOrphanedProcessesRunnable);
     }
 
+    /**
+     * executes command and streams its output and errors to sinks until isRun is reset or process exits
+     *
+     * @param command - command to execute
+     * @param output - sink of standard output, ignored if null
+     * @param error - sink of standard error, ignored if null
+     * @param isRun - flag to stop reading
+     * @param killOrphanedProcessesRunnable - runs after the process has been destroyed
+     * @return started {@link Process}
+     */
+    public static Process executeDynamicCommand(String command,
+                                                OutputStream output,
+                                                OutputStream error,
+                                                AtomicBoolean isRun,
+                                                Runnable killOrphanedProcessesRunnable) {
+        String[] fullCommand = computeCommand(command);
+        try {
+            Process process = Runtime.getRuntime().exec(fullCommand);
+            new Thread(() -> pipeOutputDynamic(process, Process::getInputStream, output, isRun, killOrphanedProcessesRunnable)).start();
+            new Thread(() -> pipeOutputDynamic(process, Process::getErrorStream, error, isRun, killOrphanedProcessesRunnable)).start();
+            return process;
+        } catch (IOException e) {
+            LoggingService.logError(MODULE_NAME, e.getMessage(), e);
+            return null;
+        }
+    }
+
     private static CommandShellResultSet<List<String>, List<String>> execute(String[] fullCommand) {
         CommandShellResultSet<List<String>, List<String>> resultSet = null;
         try {
@@ -134,30 +162,47 @@ public class CommandShellExecutor {
                                           List<String> result,
                                           AtomicBoolean isRun,
                                           Runnable killOrphanedProcessesRunnable) {
-        StringBuilder line = new StringBuilder();
         if (result == null) {
             return;
         }
         try (BufferedReader reader = new BufferedReader(new
             InputStreamReader(streamExtractor.apply(process)))) {
 
-            while (isRun != null && isRun.get()) {
-                if (reader.ready()) {
-                    int c = reader.read();
-                    if (c == -1) {
-                        break;
-                    }
-                    if (System.lineSeparator().contains(Character.toString((char)c)) && line.length() != 0) {
-                        result.add(line.toString());
-                        line.setLength(0);
-                    } else {
-                        line.append((char)c);
-                    }
-                } else {
-                    Thread.sleep(3000);
+            String line;
+            while (isRun != null && isRun.get() && (line = reader.readLine()) != null) {
+                if (line.length() != 0) {
+                    result.add(line);
                 }
             }
-        } catch (InterruptedException | IOException e) {
+        } catch (IOException e) {
+            LoggingService.logError(MODULE_NAME, e.getMessage(), e);
+        } finally {
+            process.destroy();
+            if (killOrphanedProcessesRunnable != null) {
+                killOrphanedProcessesRunnable.run();
+            }
+        }
+    }
+
+    /**
+     * copies output of process to sink in bulk, blocking until data is available
+     *
+     */
+    private static void pipeOutputDynamic(Process process,
+                                          Function<Process, InputStream> streamExtractor,
+                                          OutputStream sink,
+                                          AtomicBoolean isRun,
+                                          Runnable killOrphanedProcessesRunnable) {
+        if (sink == null) {
+            return;
+        }
+        try (InputStream input = streamExtractor.apply(process)) {
+            byte[] buffer = new byte[8 * 1024];
+            int read;
+            while (isRun != null && isRun.get() && (read = input.read(buffer)) != -1) {
+                sink.write(buffer, 0, read);
+            }
+        } catch (IOException e) {
             LoggingService.logError(MODULE_NAME, e.getMessage(), e);
         } finally {
             process.destroy();
@@ -13,9 +13,7 @@
 
 package org.eclipse.iofog.diagnostics.strace;
 
-import java.util.List;
 import java.util.Objects;
-import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 public class MicroserviceStraceData {
@@ -23,7 +21,8 @@ public class MicroserviceStraceData {
 	private final String microserviceUuid;
 	private int pid;
 	private final AtomicBoolean straceRun = new AtomicBoolean();
-	private List<String> resultBuffer = new CopyOnWriteArrayList<>();
+	private StraceRingBuffer resultBuffer = new StraceRingBuffer();
+	private Process process;
 
 	public MicroserviceStraceData(String microserviceUuid, int pid, boolean straceRun) {
 		this.microserviceUuid = microserviceUuid;
@@ -35,14 +34,22 @@ public class MicroserviceStraceData {
 		return microserviceUuid;
 	}
 
-	public List<String> getResultBuffer() {
+	public StraceRingBuffer getResultBuffer() {
 		return resultBuffer;
 	}
 
-	public void setResultBuffer(List<String> resultBuffer) {
+	public void setResultBuffer(StraceRingBuffer resultBuffer) {
 		this.resultBuffer = resultBuffer;
 	}
 
+	public Process getProcess() {
+		return process;
+	}
+
+	public void setProcess(Process process) {
+		this.process = process;
+	}
+
 	public int getPid() {
 		return pid;
 	}
@@ -65,7 +72,7 @@ public class MicroserviceStraceData {
 				"microserviceUuid='" + microserviceUuid + '\'' +
 				", pid=" + pid +
 				", straceRun=" + straceRun +
-				", resultBuffer=" + resultBuffer +
+				", pendingBytes=" + resultBuffer.getPendingBytes() +
 				'}';
 	}
 
@@ -76,21 +83,16 @@ public class MicroserviceStraceData {
 		MicroserviceStraceData that = (MicroserviceStraceData) o;
 		return pid == that.pid &&
 				Objects.equals(microserviceUuid, that.microserviceUuid) &&
-				Objects.equals(straceRun.get(), that.straceRun.get()) &&
-				Objects.equals(resultBuffer, that.resultBuffer);
+				Objects.equals(straceRun.get(), that.straceRun.get());
 	}
 
 	@Override
 	public int hashCode() {
 
-		return Objects.hash(microserviceUuid, pid, straceRun.get(), resultBuffer);
+		return Objects.hash(microserviceUuid, pid, straceRun.get());
 	}
 
 	public String getResultBufferAsString() {
-		StringBuilder stringBuilder = new StringBuilder("");
-		for (String line: this.resultBuffer) {
-			stringBuilder.append(line).append("\n");
-		}
-		return stringBuilder.toString();
+		return resultBuffer.toString();
 	}
 }
@@ -92,6 +92,7 @@ public class StraceDiagnosticManager {
 		try {
 			int pid = getPidByContainerName(DockerUtil.getIoFogContainerName(microserviceUuid));
 			MicroserviceStraceData newMicroserviceStraceData = new MicroserviceStraceData(microserviceUuid, pid, true);
+			getStraceDataByMicroserviceUuid(microserviceUuid).ifPresent(this::stopStrace);
 			this.monitoringMicroservices.removeIf(
 				oldMicroserviceStraceData -> oldMicroserviceStraceData.getMicroserviceUuid().equals(microserviceUuid)
 			);
@@ -107,11 +108,24 @@ public class StraceDiagnosticManager {
 	public void disableMicroserviceStraceDiagnostics(String microserviceUuid) {
 		LoggingService.logDebug(MODULE_NAME, "Disabling microservice strace diagnostics for miroservice : " + microserviceUuid);
         getStraceDataByMicroserviceUuid(microserviceUuid).ifPresent(microserviceStraceData -> {
-            microserviceStraceData.setStraceRun(false);
+            stopStrace(microserviceStraceData);
             this.monitoringMicroservices.remove(microserviceStraceData);
         });
     }
 
+	/**
+	 * stops strace process, so the blocked reader gets end of stream
+	 *
+	 * @param microserviceStraceData - {@link MicroserviceStraceData} of traced microservice
+	 */
+	private void stopStrace(MicroserviceStraceData microserviceStraceData) {
+		microserviceStraceData.setStraceRun(false);
+		Process process = microserviceStraceData.getProcess();
+		if (process != null) {
+			process.destroy();
+		}
+	}
+
 	private int getPidByContainerName(String containerName) throws IllegalArgumentException {
 		LoggingService.logDebug(MODULE_NAME, "Start getting pid of microservice by container name : "+ containerName);
 		CommandShellResultSet<List<String>, List<String>> resultSet = CommandShellExecutor.executeCommand("docker top " + containerName);
@@ -127,13 +141,14 @@ public class StraceDiagnosticManager {
 	private void runStrace(MicroserviceStraceData microserviceStraceData) {
 		LoggingService.logDebug(MODULE_NAME, "Start running strace ");
 		String straceCommand = "strace -p " + microserviceStraceData.getPid();
-		CommandShellResultSet<List<String>, List<String>> resultSet = new CommandShellResultSet<>(null, microserviceStraceData.getResultBuffer());
-		CommandShellExecutor.executeDynamicCommand(
+		Process process = CommandShellExecutor.executeDynamicCommand(
 			straceCommand,
-			resultSet,
+			null,
+			microserviceStraceData.getResultBuffer(),
 			microserviceStraceData.getStraceRun(),
 			killOrphanedStraceProcessesRunnable()
 		);
+		microserviceStraceData.setProcess(process);
 		LoggingService.logDebug(MODULE_NAME, "Finished running strace ");
 	}
 
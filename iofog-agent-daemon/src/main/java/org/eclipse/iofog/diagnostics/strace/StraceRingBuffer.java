@@ -0,0 +1,152 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.diagnostics.strace;
+
+import org.eclipse.iofog.utils.Constants;
+
+import java.io.OutputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * bounded byte ring buffer of strace output
+ * keeps bytes which have not been acknowledged by controller yet, oldest bytes are dropped when it is full
+ */
+public class StraceRingBuffer extends OutputStream {
+	public static final int DEFAULT_CAPACITY = Constants.MiB;
+
+	private final byte[] buffer;
+	private long written;
+	private long acknowledged;
+	private long dropped;
+
+	/**
+	 * part of buffered output starting at offset
+	 */
+	public static class Chunk {
+		private final long offset;
+		private final byte[] data;
+
+		Chunk(long offset, byte[] data) {
+			this.offset = offset;
+			this.data = data;
+		}
+
+		public long getOffset() {
+			return offset;
+		}
+
+		public long getEnd() {
+			return offset + data.length;
+		}
+
+		public byte[] getData() {
+			return data;
+		}
+
+		public boolean isEmpty() {
+			return data.length == 0;
+		}
+
+		@Override
+		public String toString() {
+			return new String(data, UTF_8);
+		}
+	}
+
+	public StraceRingBuffer() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	public StraceRingBuffer(int capacity) {
+		this.buffer = new byte[capacity];
+	}
+
+	@Override
+	public synchronized void write(int b) {
+		write(new byte[] {(byte) b}, 0, 1);
+	}
+
+	@Override
+	public synchronized void write(byte[] b, int off, int len) {
+		if (len > buffer.length) {
+			written += len - buffer.length;
+			off += len - buffer.length;
+			len = buffer.length;
+		}
+		int position = (int) (written % buffer.length);
+		int firstPart = Math.min(len, buffer.length - position);
+		System.arraycopy(b, off, buffer, position, firstPart);
+		System.arraycopy(b, off + firstPart, buffer, 0, len - firstPart);
+		written += len;
+
+		if (written - acknowledged > buffer.length) {
+			dropped += written - buffer.length - acknowledged;
+			acknowledged = written - buffer.length;
+		}
+	}
+
+	/**
+	 * returns oldest bytes not acknowledged yet without removing them.
+	 * if there are more than maxBytes, chunk is cut after the last complete line
+	 *
+	 * @param maxBytes - maximum size of chunk
+	 * @return {@link Chunk}
+	 */
+	public synchronized Chunk peek(int maxBytes) {
+		int length = (int) Math.min(written - acknowledged, maxBytes);
+		byte[] data = new byte[length];
+		int position = (int) (acknowledged % buffer.length);
+		int firstPart = Math.min(length, buffer.length - position);
+		System.arraycopy(buffer, position, data, 0, firstPart);
+		System.arraycopy(buffer, 0, data, firstPart, length - firstPart);
+
+		if (length < written - acknowledged) {
+			for (int i = length - 1; i >= 0; i--) {
+				if (data[i] == '\n') {
+					byte[] lines = new byte[i + 1];
+					System.arraycopy(data, 0, lines, 0, lines.length);
+					return new Chunk(acknowledged, lines);
+				}
+			}
+		}
+		return new Chunk(acknowledged, data);
+	}
+
+	/**
+	 * releases bytes up to offset, after controller has received them
+	 *
+	 * @param offset - end of acknowledged {@link Chunk}
+	 */
+	public synchronized void acknowledge(long offset) {
+		acknowledged = Math.max(acknowledged, Math.min(offset, written));
+	}
+
+	public synchronized long getPendingBytes() {
+		return written - acknowledged;
+	}
+
+	/**
+	 * returns number of bytes dropped because controller did not acknowledge them in time
+	 *
+	 * @return dropped bytes
+	 */
+	public synchronized long getDroppedBytes() {
+		return dropped;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return peek(buffer.length).toString();
+	}
+}
@@ -0,0 +1,261 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.field_agent;
+
+import org.eclipse.iofog.exception.AgentSystemException;
+import org.eclipse.iofog.utils.Constants;
+import org.eclipse.iofog.utils.logging.LoggingService;
+
+import javax.json.JsonObject;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * processes change set received from controller config/changes endpoint
+ * each kind of change runs on a long-lived thread pool concurrently with other kinds,
+ * unless it depends on another kind, with its own timeout and retries, and is acknowledged separately
+ */
+public class ChangeSetProcessor {
+    private static final String MODULE_NAME = "Field Agent";
+    private static final int PROCESS_WAIT_SECONDS = 30;
+
+    /**
+     * applies one kind of change
+     */
+    interface ChangeHandler {
+        void handle(JsonObject changes) throws Exception;
+    }
+
+    private static class ChangeKind {
+        private final String name;
+        private final String[] flags;
+        private final int timeoutSeconds;
+        private final int retries;
+        private final boolean onInitialization;
+        private final boolean exclusive;
+        private final ChangeHandler handler;
+        private final List<ChangeKind> dependencies = new ArrayList<>();
+        private Future<?> running;
+        private volatile String appliedVersion;
+
+        ChangeKind(String name, String[] flags, int timeoutSeconds, int retries, boolean onInitialization,
+                   boolean exclusive, ChangeHandler handler) {
+            this.name = name;
+            this.flags = flags;
+            this.timeoutSeconds = timeoutSeconds;
+            this.retries = retries;
+            this.onInitialization = onInitialization;
+            this.exclusive = exclusive;
+            this.handler = handler;
+        }
+
+        boolean isRequested(JsonObject changes, boolean initialization) {
+            if (initialization) {
+                return onInitialization;
+            }
+            return Arrays.stream(flags).anyMatch(flag -> changes.getBoolean(flag, false));
+        }
+
+        boolean isRunning() {
+            return running != null && !running.isDone();
+        }
+    }
+
+    private final List<ChangeKind> kinds = new ArrayList<>();
+    private final ExecutorService executor;
+
+    /**
+     * idle threads are reused, each running kind takes two threads, one waiting for attempts and one running
+     * current attempt, as timed out attempt is waited for before next one is started
+     * and kind is not started again while its previous run is still waiting
+     */
+    public ChangeSetProcessor() {
+        executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, Constants.FIELD_AGENT_PROCESS_CHANGES);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * registers handler of a change kind
+     *
+     * @param name             - name of change kind used in logs
+     * @param flags            - config/changes flags which trigger this kind
+     * @param timeoutSeconds   - timeout of one attempt
+     * @param retries          - number of attempts after first failed one
+     * @param onInitialization - true if this kind runs on first change set regardless of flags
+     * @param exclusive        - true if no other kind runs when this one is requested
+     * @param handler          - {@link ChangeHandler}
+     */
+    synchronized void register(String name, String[] flags, int timeoutSeconds, int retries, boolean onInitialization,
+                               boolean exclusive, ChangeHandler handler) {
+        kinds.add(new ChangeKind(name, flags, timeoutSeconds, retries, onInitialization, exclusive, handler));
+    }
+
+    /**
+     * makes change kind wait until another kind, which has been registered before, is finished,
+     * when both are processed at the same time
+     *
+     * @param name       - name of dependent change kind
+     * @param dependency - name of change kind which has to be applied first
+     */
+    synchronized void registerDependency(String name, String dependency) {
+        getKind(name).dependencies.add(getKind(dependency));
+    }
+
+    private ChangeKind getKind(String name) {
+        return kinds.stream()
+                .filter(kind -> kind.name.equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown change " + name));
+    }
+
+    /**
+     * runs requested change kinds and waits for them at most {@value #PROCESS_WAIT_SECONDS} seconds,
+     * kinds which take longer go on in background and are acknowledged with one of next change sets.
+     * kind already applied for the same lastUpdated value is not run again,
+     * kind still running from previous change set is not started twice
+     *
+     * @param changes        - response of config/changes endpoint
+     * @param initialization - true if it is first change set after start
+     * @return true if all requested kinds have been applied and change flags can be reset
+     */
+    public synchronized boolean process(JsonObject changes, boolean initialization) {
+        String version = changes.getString("lastUpdated", "");
+        List<ChangeKind> requested = new ArrayList<>();
+        for (ChangeKind kind : kinds) {
+            if (kind.isRequested(changes, initialization)) {
+                if (kind.exclusive) {
+                    requested.clear();
+                    requested.add(kind);
+                    break;
+                }
+                requested.add(kind);
+            }
+        }
+
+        boolean applied = true;
+        List<ChangeKind> started = new ArrayList<>();
+        for (ChangeKind kind : requested) {
+            if (!initialization && version.equals(kind.appliedVersion)) {
+                continue;
+            }
+            if (kind.isRunning()) {
+                LoggingService.logWarning(MODULE_NAME, String.format("Change \"%s\" is still being processed", kind.name));
+                applied = false;
+                continue;
+            }
+            List<Future<?>> dependencies = new ArrayList<>();
+            kind.dependencies.stream()
+                    .filter(ChangeKind::isRunning)
+                    .forEach(dependency -> dependencies.add(dependency.running));
+            kind.appliedVersion = null;
+            kind.running = executor.submit(() -> run(kind, changes, version, dependencies));
+            started.add(kind);
+        }
+
+        long deadline = System.currentTimeMillis() + PROCESS_WAIT_SECONDS * 1000L;
+        for (ChangeKind kind : started) {
+            try {
+                kind.running.get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                LoggingService.logWarning(MODULE_NAME, String.format("Change \"%s\" is still being processed", kind.name));
+            } catch (Exception e) {
+                LoggingService.logError(MODULE_NAME, String.format("Unable to process change \"%s\"", kind.name),
+                        new AgentSystemException(e.getMessage(), e));
+            }
+            if (!version.equals(kind.appliedVersion)) {
+                applied = false;
+            }
+        }
+        return applied;
+    }
+
+    /**
+     * waits for kinds this kind depends on and runs attempts of the kind, each one until its own timeout
+     *
+     * @param kind         - {@link ChangeKind} to be applied
+     * @param changes      - response of config/changes endpoint
+     * @param version      - lastUpdated value of change set
+     * @param dependencies - running kinds which have to be finished first
+     */
+    private void run(ChangeKind kind, JsonObject changes, String version, List<Future<?>> dependencies) {
+        for (Future<?> dependency : dependencies) {
+            try {
+                dependency.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                // failure of dependency is logged by its own run
+            }
+        }
+
+        for (int attempt = 0; attempt <= kind.retries; attempt++) {
+            CountDownLatch finished = new CountDownLatch(1);
+            Future<?> result = executor.submit(() -> {
+                try {
+                    kind.handler.handle(changes);
+                    return null;
+                } finally {
+                    finished.countDown();
+                }
+            });
+            try {
+                result.get(kind.timeoutSeconds, TimeUnit.SECONDS);
+                kind.appliedVersion = version;
+                return;
+            } catch (InterruptedException e) {
+                result.cancel(true);
+                Thread.currentThread().interrupt();
+                return;
+            } catch (TimeoutException e) {
+                result.cancel(true);
+                LoggingService.logError(MODULE_NAME, String.format("Change \"%s\" timed out, attempt %d of %d",
+                        kind.name, attempt + 1, kind.retries + 1), new AgentSystemException(e.getMessage(), e));
+                if (!awaitCancelled(kind, finished)) {
+                    return;
+                }
+            } catch (ExecutionException e) {
+                LoggingService.logError(MODULE_NAME, String.format("Unable to process change \"%s\", attempt %d of %d",
+                        kind.name, attempt + 1, kind.retries + 1), new AgentSystemException(e.getCause().getMessage(), e.getCause()));
+            }
+        }
+    }
+
+    /**
+     * waits until cancelled attempt is finished, as handler blocked in I/O does not respond to interrupt
+     * and must not run concurrently with next attempt of the same kind
+     *
+     * @param kind     - {@link ChangeKind} of cancelled attempt
+     * @param finished - latch counted down when attempt is finished
+     * @return false if waiting has been interrupted
+     */
+    private boolean awaitCancelled(ChangeKind kind, CountDownLatch finished) {
+        try {
+            if (finished.getCount() > 0) {
+                LoggingService.logWarning(MODULE_NAME, String.format("Waiting for timed out change \"%s\" to finish", kind.name));
+            }
+            finished.await();
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
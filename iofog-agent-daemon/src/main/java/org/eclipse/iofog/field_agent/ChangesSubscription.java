@@ -0,0 +1,114 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.field_agent;
+
+import org.eclipse.iofog.utils.configuration.Configuration;
+import org.eclipse.iofog.utils.logging.LoggingService;
+
+/**
+ * decides how config changes are fetched from controller
+ * long-poll request is held by controller until changes exist, if controller answers
+ * long-poll requests right away it does not support them and fixed interval polling is used,
+ * long-poll is retried later with growing delay
+ */
+public class ChangesSubscription {
+    private static final String MODULE_NAME = "Field Agent";
+
+    static final int MAX_UNHELD_RESPONSES = 3;
+    static final int MAX_RETRY_DELAY = 3600;
+
+    private int unheldResponses;
+    private int retryDelay;
+    private long retryLongPollAt;
+    private boolean lastRequestFailed;
+    private boolean changesPending;
+
+    /**
+     * returns seconds controller holds long-poll request for, 0 if fixed interval polling is used
+     *
+     * @param now - current time in milliseconds
+     * @return hold time in seconds
+     */
+    public synchronized int getHoldTime(long now) {
+        int holdTime = Configuration.getChangesLongPoll();
+        if (holdTime <= 0 || now < retryLongPollAt) {
+            return 0;
+        }
+        return holdTime;
+    }
+
+    /**
+     * returns milliseconds to wait before next config changes request
+     *
+     * @param now - current time in milliseconds
+     * @return delay in milliseconds
+     */
+    public synchronized long getDelay(long now) {
+        if (getHoldTime(now) > 0 && !lastRequestFailed && !changesPending) {
+            return 0;
+        }
+        return Configuration.getChangeFrequency() * 1000L;
+    }
+
+    /**
+     * updates state after controller has answered
+     *
+     * @param holdTime - hold time request has been sent with
+     * @param elapsed - milliseconds until controller answered
+     * @param hasChanges - true if any change flag is set
+     * @param resetChanges - true if changes have been applied and flags reset
+     * @param now - current time in milliseconds
+     */
+    public synchronized void onResponse(int holdTime, long elapsed, boolean hasChanges, boolean resetChanges, long now) {
+        lastRequestFailed = false;
+        changesPending = hasChanges && !resetChanges;
+        if (holdTime <= 0) {
+            return;
+        }
+
+        if (hasChanges || elapsed >= holdTime * 1000L / 2) {
+            unheldResponses = 0;
+            retryDelay = 0;
+            return;
+        }
+
+        if (++unheldResponses >= MAX_UNHELD_RESPONSES) {
+            fallBack(now);
+        }
+    }
+
+    /**
+     * updates state after request has failed
+     *
+     * @param holdTime - hold time request has been sent with
+     * @param unsupported - true if controller rejected long-poll request
+     * @param now - current time in milliseconds
+     */
+    public synchronized void onFailure(int holdTime, boolean unsupported, long now) {
+        lastRequestFailed = true;
+        if (holdTime > 0 && unsupported) {
+            fallBack(now);
+        }
+    }
+
+    private void fallBack(long now) {
+        retryDelay = retryDelay == 0
+                ? Math.max(Configuration.getChangeFrequency(), 60)
+                : Math.min(retryDelay * 2, MAX_RETRY_DELAY);
+        retryLongPollAt = now + retryDelay * 1000L;
+        unheldResponses = 0;
+        LoggingService.logInfo(MODULE_NAME, String.format(
+                "Controller does not hold config changes requests, polling every %d second(s), long-poll is retried in %d second(s)",
+                Configuration.getChangeFrequency(), retryDelay));
+    }
+}
@@ -19,6 +19,7 @@ import org.eclipse.iofog.command_line.util.CommandShellResultSet;
 import org.eclipse.iofog.diagnostics.ImageDownloadManager;
 import org.eclipse.iofog.diagnostics.strace.MicroserviceStraceData;
 import org.eclipse.iofog.diagnostics.strace.StraceDiagnosticManager;
+import org.eclipse.iofog.diagnostics.strace.StraceRingBuffer;
 import org.eclipse.iofog.exception.AgentSystemException;
 import org.eclipse.iofog.exception.AgentUserException;
 import org.eclipse.iofog.field_agent.enums.RequestType;
@@ -31,6 +32,7 @@ import org.eclipse.iofog.process_manager.ProcessManager;
 import org.eclipse.iofog.proxy.SshConnection;
 import org.eclipse.iofog.proxy.SshProxyManager;
 import org.eclipse.iofog.pruning.DockerPruningManager;
+import org.eclipse.iofog.resource_manager.HalInfoCache;
 import org.eclipse.iofog.status_reporter.StatusReporter;
 import org.eclipse.iofog.tracking.Tracker;
 import org.eclipse.iofog.tracking.TrackingEventType;
@@ -40,11 +42,14 @@ import org.eclipse.iofog.utils.Orchestrator;
 import org.eclipse.iofog.utils.configuration.Configuration;
 import org.eclipse.iofog.utils.functional.Pair;
 import org.eclipse.iofog.utils.logging.LoggingService;
+import org.eclipse.iofog.utils.scheduler.AgentScheduler;
 
 import javax.json.*;
 import javax.net.ssl.SSLHandshakeException;
+import javax.ws.rs.BadRequestException;
 import javax.ws.rs.ForbiddenException;
 import javax.ws.rs.HttpMethod;
+import javax.ws.rs.NotFoundException;
 import java.io.*;
 import java.net.*;
 import java.nio.file.Files;
@@ -81,22 +86,27 @@ import static org.eclipse.iofog.utils.Constants.ControllerStatus.*;
 public class FieldAgent implements IOFogModule {
 
     private final String MODULE_NAME = "Field Agent";
+    private static final int STRACE_UPLOAD_CHUNK_SIZE = 256 * Constants.KiB;
+    private static final int HAL_TIMEOUT = 5000;
     private final String filesPath = SystemUtils.IS_OS_WINDOWS ? SNAP_COMMON + "./etc/iofog-agent/" : SNAP_COMMON + "/etc/iofog-agent/";
 
     private Orchestrator orchestrator;
     private SshProxyManager sshProxyManager;
     private long lastGetChangesList;
+    private final ChangesSubscription changesSubscription = new ChangesSubscription();
     private MicroserviceManager microserviceManager;
     private static FieldAgent instance;
     private boolean initialization;
     private boolean connected = false;
     private ReentrantLock provisioningLock = new ReentrantLock();
-    private ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(5);
-    private ScheduledFuture<?> futureTask;
+    private final ChangeSetProcessor changeSetProcessor = new ChangeSetProcessor();
+    private final HalInfoCache hwInfoCache = new HalInfoCache();
+    private final HalInfoCache usbInfoCache = new HalInfoCache();
 
     private FieldAgent() {
         lastGetChangesList = 0;
         initialization = true;
+        registerChangeHandlers();
     }
 
     @Override
@@ -226,63 +236,70 @@ public class FieldAgent implements IOFogModule {
     }
 
     private final Runnable postStatus = () -> {
-        while (true) {
-            try {
-                if (microserviceManager.getCurrentMicroservices().size() == StatusReporter.getProcessManagerStatus().getRunningMicroservicesCount()) {
-                    Thread.sleep(Configuration.getStatusFrequency() * 1000);
-                } else {
-                    Thread.sleep(1 * 1000);
-                }
-                postStatusHelper();
-            } catch (Exception e) {
-                logError("Unable to send status ", new AgentSystemException(e.getMessage(), e));
-            }
-
+        try {
+            postStatusHelper();
+        } catch (Exception e) {
+            logError("Unable to send status ", new AgentSystemException(e.getMessage(), e));
         }
     };
 
+    /**
+     * status is posted every second while microservices are starting
+     *
+     * @return interval of posting status in seconds
+     */
+    private long getPostStatusInterval() {
+        if (microserviceManager.getCurrentMicroservices().size() == StatusReporter.getProcessManagerStatus().getRunningMicroservicesCount()) {
+            return Configuration.getStatusFrequency();
+        }
+        return 1;
+    }
+
     private final Runnable postDiagnostics = () -> {
-        while (true) {
-        	logDebug("Start posting diagnostic");
-            if (StraceDiagnosticManager.getInstance().getMonitoringMicroservices().size() > 0) {
-                JsonBuilderFactory factory = Json.createBuilderFactory(null);
-                JsonArrayBuilder arrayBuilder = factory.createArrayBuilder();
-
-                for (MicroserviceStraceData microservice : StraceDiagnosticManager.getInstance().getMonitoringMicroservices()) {
-                    arrayBuilder.add(factory.createObjectBuilder()
-                        .add("microserviceUuid", microservice.getMicroserviceUuid())
-                        .add("buffer", microservice.getResultBufferAsString())
-                    );
-                    microservice.getResultBuffer().clear();
+    	logDebug("Start posting diagnostic");
+        if (StraceDiagnosticManager.getInstance().getMonitoringMicroservices().size() > 0) {
+            JsonBuilderFactory factory = Json.createBuilderFactory(null);
+            JsonArrayBuilder arrayBuilder = factory.createArrayBuilder();
+            Map<StraceRingBuffer, StraceRingBuffer.Chunk> chunks = new HashMap<>();
+
+            for (MicroserviceStraceData microservice : StraceDiagnosticManager.getInstance().getMonitoringMicroservices()) {
+                StraceRingBuffer.Chunk chunk = microservice.getResultBuffer().peek(STRACE_UPLOAD_CHUNK_SIZE);
+                if (chunk.isEmpty()) {
+                    continue;
                 }
+                chunks.put(microservice.getResultBuffer(), chunk);
+                arrayBuilder.add(factory.createObjectBuilder()
+                    .add("microserviceUuid", microservice.getMicroserviceUuid())
+                    .add("buffer", chunk.toString())
+                );
+            }
 
+            if (!chunks.isEmpty()) {
                 JsonObject json = factory.createObjectBuilder()
                     .add("straceData", arrayBuilder).build();
 
                 try {
                     orchestrator.request("strace", RequestType.PUT, null, json);
+                    // only uploaded bytes are released, the rest is sent with next post
+                    chunks.forEach((buffer, chunk) -> buffer.acknowledge(chunk.getEnd()));
                 } catch (Exception e) {
-                	logError("Unable send strace logs", new AgentSystemException("Unable send strace logs", e));
+                    logError("Unable send strace logs", new AgentSystemException("Unable send strace logs", e));
                 }
             }
-
-            try {
-                Thread.sleep(Configuration.getPostDiagnosticsFreq() * 1000);
-            } catch (InterruptedException e) {
-                logError("Error posting diagnostic", new AgentSystemException(e.getMessage(), e));
-            }
-            logDebug("Finished posting diagnostic");
         }
+        logDebug("Finished posting diagnostic");
     };
 
-    public final void postTracking(JsonObject events) {
-    	logDebug("Start posting tracking");
-        try {
-            orchestrator.request("tracking", RequestType.POST, null, events);
-        } catch (Exception e) {
-        	logError("Unable send tracking logs", new AgentSystemException(e.getMessage(), e));
-        }
-        logDebug("Finished posting tracking");
+    /**
+     * posts a batch of tracking events to controller
+     *
+     * @param events - gzip compressed Json of events
+     * @throws Exception if controller has not accepted the batch
+     */
+    public final void postTrackingBatch(byte[] events) throws Exception {
+        logDebug("Start posting tracking batch");
+        orchestrator.requestCompressed("tracking", RequestType.POST, events);
+        logDebug("Finished posting tracking batch");
     }
 
     /**
@@ -306,204 +323,164 @@ public class FieldAgent implements IOFogModule {
         logDebug("Finished verification Failed of Controller");
     }
 
-    private final Future<Boolean> processChanges(JsonObject changes) {
-        ExecutorService executor = Executors.newSingleThreadExecutor();
-        return executor.submit(() -> {
-            boolean resetChanges = true;
+    /**
+     * registers handlers of config/changes flags
+     * independent kinds of changes are processed concurrently by {@link ChangeSetProcessor}
+     */
+    private void registerChangeHandlers() {
+        changeSetProcessor.register("deleteNode", new String[] {"deleteNode"}, 30, 0, false, true,
+                changes -> deleteNode());
+        changeSetProcessor.register("reboot", new String[] {"reboot"}, 30, 0, false, false,
+                changes -> reboot());
+        changeSetProcessor.register("isImageSnapshot", new String[] {"isImageSnapshot"}, 30, 0, false, false,
+                changes -> createImageSnapshot());
+        changeSetProcessor.register("config", new String[] {"config"}, 30, 1, false, false,
+                changes -> getFogConfig());
+        changeSetProcessor.register("version", new String[] {"version"}, 30, 0, false, false,
+                changes -> changeVersion());
+        changeSetProcessor.register("registries", new String[] {"registries"}, 30, 1, true, false,
+                changes -> {
+                    loadRegistries(false);
+                    ProcessManager.getInstance().update();
+                });
+        changeSetProcessor.register("prune", new String[] {"prune"}, 300, 0, false, false,
+                changes -> DockerPruningManager.getInstance().pruneAgent());
+        changeSetProcessor.register("microservices", new String[] {"microserviceConfig", "microserviceList", "routing"}, 60, 1, true, false,
+                this::updateMicroservices);
+        changeSetProcessor.register("tunnel", new String[] {"tunnel"}, 30, 1, false, false,
+                changes -> sshProxyManager.update(getProxyConfig()));
+        changeSetProcessor.register("diagnostics", new String[] {"diagnostics"}, 30, 1, false, false,
+                changes -> updateDiagnostics());
+        changeSetProcessor.register("routerChanged", new String[] {"routerChanged"}, 30, 1, false, false,
+                changes -> MessageBus.getInstance().update());
+        changeSetProcessor.registerDependency("microservices", "registries");
+        changeSetProcessor.registerDependency("routerChanged", "microservices");
+    }
 
-            if (changes.getBoolean("deleteNode",false) && !initialization) {
+    /**
+     * reloads microservices and applies their config and routes
+     *
+     * @param changes - response of config/changes endpoint
+     * @throws Exception
+     */
+    private void updateMicroservices(JsonObject changes) throws Exception {
+        boolean microserviceConfig = changes.getBoolean("microserviceConfig", false);
+        boolean routing = changes.getBoolean("routing", false);
+        int defaultFreq = Configuration.getStatusFrequency();
+        Configuration.setStatusFrequency(1);
+        Exception failure = null;
+        try {
+            List<Microservice> microservices = loadMicroservices(false);
+
+            if (microserviceConfig) {
                 try {
-                    deleteNode();
+                    processMicroserviceConfig(microservices);
+                    LocalApi.getInstance().update();
                 } catch (Exception e) {
-                    logError("Unable to delete node", e);
-                    resetChanges = false;
-                }
-            } else {
-                if (changes.getBoolean("reboot",false) && !initialization) {
-                    try {
-                        reboot();
-                    } catch (Exception e) {
-                        logError("Unable to perform reboot", e);
-                        resetChanges = false;
-                    }
-                }
-                if (changes.getBoolean("isImageSnapshot",false) && !initialization) {
-                    try {
-                        createImageSnapshot();
-                    } catch (Exception e) {
-                        logError("Unable to create snapshot", e);
-                        resetChanges = false;
-                    }
-                }
-                if (changes.getBoolean("config",false) && !initialization) {
-                    try {
-                        getFogConfig();
-                    } catch (Exception e) {
-                        logError("Unable to get config", e);
-                        resetChanges = false;
-                    }
-                }
-                if (changes.getBoolean("version",false) && !initialization) {
-                    try {
-                        changeVersion();
-                    } catch (Exception e) {
-                        logError("Unable to change version", e);
-                        resetChanges = false;
-                    }
-                }
-                if (changes.getBoolean("registries",false) || initialization) {
-                    try {
-                        loadRegistries(false);
-                        ProcessManager.getInstance().update();
-                    } catch (Exception e) {
-                        logError("Unable to update registries", e);
-                        resetChanges = false;
-                    }
-                }
-                if (changes.getBoolean("prune", false) && !initialization) {
-                    try {
-                        DockerPruningManager.getInstance().pruneAgent();
-                    } catch (Exception e) {
-                        logError("Unable to update registries", e);
-                        resetChanges = false;
-                    }
-                }
-                if (changes.getBoolean("microserviceConfig",false) || changes.getBoolean("microserviceList",false) ||
-                        changes.getBoolean("routing",false) || initialization) {
-                    boolean microserviceConfig = changes.getBoolean("microserviceConfig");
-                    boolean routing = changes.getBoolean("routing");
-                    int defaultFreq = Configuration.getStatusFrequency();
-                    Configuration.setStatusFrequency(1);
-                    try {
-                        List<Microservice> microservices = loadMicroservices(false);
-
-                        if (microserviceConfig) {
-                            try {
-                                processMicroserviceConfig(microservices);
-                                LocalApi.getInstance().update();
-                            } catch (Exception e) {
-                                logError("Unable to update microservices config", e);
-                                resetChanges = false;
-                            }
-                        }
-
-                        if (routing) {
-                            try {
-                                processRoutes(microservices);
-                                if (!changes.getBoolean("routerChanged",false) || initialization) {
-                                    MessageBus.getInstance().update();
-                                }
-                            } catch (Exception e) {
-                                logError("Unable to update microservices routes", e);
-                                resetChanges = false;
-                            }
-                        }
-
-                        Tracker.getInstance().handleEvent(TrackingEventType.MICROSERVICE,
-                                TrackingInfoUtils.getMicroservicesInfo(loadMicroservicesJsonFile()));
-                    } catch (Exception e) {
-                        logError("Unable to get microservices list", e);
-                        resetChanges = false;
-                    } finally {
-                        Configuration.setStatusFrequency(defaultFreq);
-                    }
+                    logError("Unable to update microservices config", e);
+                    failure = e;
                 }
+            }
 
-                if (changes.getBoolean("tunnel",false) && !initialization) {
-                    try {
-                        sshProxyManager.update(getProxyConfig());
-                    } catch (Exception e) {
-                        logError("Unable to create tunnel", e);
-                        resetChanges = false;
-                    }
-                }
-                if (changes.getBoolean("diagnostics",false) && !initialization) {
-                    try {
-                        updateDiagnostics();
-                    } catch (Exception e) {
-                        logError("Unable to update diagnostics", e);
-                        resetChanges = false;
-                    }
-                }
-                if (changes.getBoolean("routerChanged",false) && !initialization) {
-                    try {
-                        MessageBus.getInstance().update();
-                    } catch (Exception e) {
-                        logError("Unable to update router info", e);
-                        resetChanges = false;
-                    }
+            if (routing) {
+                try {
+                    processRoutes(microservices);
+                    MessageBus.getInstance().update();
+                } catch (Exception e) {
+                    logError("Unable to update microservices routes", e);
+                    failure = e;
                 }
             }
-            return resetChanges;
-        });
+
+            Tracker.getInstance().handleEvent(TrackingEventType.MICROSERVICE,
+                    TrackingInfoUtils.getMicroservicesInfo(loadMicroservicesJsonFile()));
+        } finally {
+            Configuration.setStatusFrequency(defaultFreq);
+        }
+        if (failure != null) {
+            throw failure;
+        }
     }
 
     /**
      * retrieves IOFog changes list from IOFog controller
      */
     private final Runnable getChangesList = () -> {
-        while (true) {
-            try {
-                int frequency = Configuration.getChangeFrequency() * 1000;
-                Thread.sleep(frequency);
-                logDebug("Start get IOFog changes list from IOFog controller");
+        try {
+            logDebug("Start get IOFog changes list from IOFog controller");
 
-                if (notProvisioned() || !isControllerConnected(false)) {
-                    logDebug("Cannot get change list due to controller status not provisioned or controller not connected");
-                    continue;
-                }
+            if (notProvisioned() || !isControllerConnected(false)) {
+                logDebug("Cannot get change list due to controller status not provisioned or controller not connected");
+                changesSubscription.onFailure(0, false, System.currentTimeMillis());
+                return;
+            }
 
 
-                JsonObject result;
-                try {
-                    result = orchestrator.request("config/changes", RequestType.GET, null, null);
-                } catch (CertificateException | SSLHandshakeException e) {
-                    verificationFailed(e);
-                    logError("Unable to get changes due to broken certificate",
-                    		new AgentSystemException(e.getMessage(), e));
-                    continue;
-                } catch (SocketTimeoutException e) {
-                    IOFogNetworkInterfaceManager.getInstance().updateIOFogNetworkInterface();
-                    continue;
-                } catch (Exception e) {
-                    logError("Unable to get changes ", new AgentSystemException(e.getMessage(), e));
-                    continue;
-                }
+            JsonObject result;
+            long requestTime = System.currentTimeMillis();
+            int holdTime = changesSubscription.getHoldTime(requestTime);
+            try {
+                result = holdTime > 0
+                        ? orchestrator.longPoll("config/changes", holdTime)
+                        : orchestrator.request("config/changes", RequestType.GET, null, null);
+            } catch (CertificateException | SSLHandshakeException e) {
+                changesSubscription.onFailure(holdTime, false, System.currentTimeMillis());
+                verificationFailed(e);
+                logError("Unable to get changes due to broken certificate",
+                		new AgentSystemException(e.getMessage(), e));
+                return;
+            } catch (SocketTimeoutException e) {
+                changesSubscription.onFailure(holdTime, false, System.currentTimeMillis());
+                IOFogNetworkInterfaceManager.getInstance().updateIOFogNetworkInterface();
+                return;
+            } catch (BadRequestException | NotFoundException e) {
+                changesSubscription.onFailure(holdTime, true, System.currentTimeMillis());
+                logError("Unable to get changes ", new AgentSystemException(e.getMessage(), e));
+                return;
+            } catch (Exception e) {
+                changesSubscription.onFailure(holdTime, false, System.currentTimeMillis());
+                logError("Unable to get changes ", new AgentSystemException(e.getMessage(), e));
+                return;
+            }
+            long elapsed = System.currentTimeMillis() - requestTime;
 
 
-                StatusReporter.setFieldAgentStatus().setLastCommandTime(lastGetChangesList);
+            StatusReporter.setFieldAgentStatus().setLastCommandTime(lastGetChangesList);
 
-                String lastUpdated = result.getString("lastUpdated", null);
-                boolean resetChanges;
-                Future<Boolean> changesProcessor = processChanges(result);
+            String lastUpdated = result.getString("lastUpdated", null);
+            boolean resetChanges = changeSetProcessor.process(result, initialization);
 
+            if (lastUpdated != null && resetChanges) {
+                logInfo("Resetting config changes flags");
                 try {
-                    resetChanges = changesProcessor.get(30, TimeUnit.SECONDS);
+                    JsonObject req = Json.createObjectBuilder()
+                            .add("lastUpdated", lastUpdated)
+                            .build();
+                    orchestrator.request("config/changes", RequestType.PATCH, null, req);
                 } catch (Exception e) {
-                    resetChanges = false;
-                    changesProcessor.cancel(true);
-                }
-
-                if (lastUpdated != null && resetChanges) {
-                    logInfo("Resetting config changes flags");
-                    try {
-                        JsonObject req = Json.createObjectBuilder()
-                                .add("lastUpdated", lastUpdated)
-                                .build();
-                        orchestrator.request("config/changes", RequestType.PATCH, null, req);
-                    } catch (Exception e) {
-                        logError("Resetting config changes has failed", e);
-                    }
+                    logError("Resetting config changes has failed", e);
                 }
-
-                initialization = initialization && !resetChanges;
-            } catch (Exception e) {
-            	logError("Error getting changes list ", new AgentSystemException(e.getMessage(), e));
             }
-            logDebug("Finish get IOFog changes list from IOFog controller");
+
+            changesSubscription.onResponse(holdTime, elapsed, hasChanges(result), resetChanges, System.currentTimeMillis());
+            initialization = initialization && !resetChanges;
+        } catch (Exception e) {
+            changesSubscription.onFailure(0, false, System.currentTimeMillis());
+        	logError("Error getting changes list ", new AgentSystemException(e.getMessage(), e));
         }
+        logDebug("Finish get IOFog changes list from IOFog controller");
     };
 
+    /**
+     * checks if any change flag is set in config changes response
+     *
+     * @param changes - response of config/changes endpoint
+     * @return true if there is something to process
+     */
+    private boolean hasChanges(JsonObject changes) {
+        return changes.values().stream().anyMatch(JsonValue.TRUE::equals);
+    }
+
     /**
      * Deletes current fog node from controller and makes deprovision
      */
@@ -687,6 +664,9 @@ public class FieldAgent implements IOFogModule {
 
             for (String jsonRoute : jsonRoutes) {
                 microserviceRoute.getReceivers().add(jsonRoute);
+                if (microservice.getRoutePredicates() != null) {
+                    microserviceRoute.setPredicate(jsonRoute, microservice.getRoutePredicates().get(jsonRoute));
+                }
             }
 
             routes.put(microserviceUuid, microserviceRoute);
@@ -726,7 +706,6 @@ public class FieldAgent implements IOFogModule {
                 JsonObject result = orchestrator.request("microservices", RequestType.GET, null, null);
                 if(result.containsKey("microservices")) {
                     microservicesJson = result.getJsonArray("microservices");
-                    saveFile(microservicesJson, filesPath + filename);
                 } else {
                     logError("Error loading microservices from IOFog controller",
                             new AgentUserException("Error loading microservices from IOFog controller"));
@@ -734,11 +713,33 @@ public class FieldAgent implements IOFogModule {
             }
             try {
                 if (microservicesJson != null){
+                    List<Microservice> previousMicroservices = microserviceManager.getLatestMicroservices();
+                    Map<String, Microservice> unchangedCandidates = previousMicroservices.stream()
+                            .filter(microservice -> microservice.getContentHash() != null)
+                            .collect(Collectors.toMap(Microservice::getMicroserviceUuid, Function.identity(), (a, b) -> b));
                     List<Microservice> microservices = IntStream.range(0, microservicesJson.size())
                             .boxed()
                             .map(microservicesJson::getJsonObject)
-                            .map(containerJsonObjectToMicroserviceFunction())
+                            .map(jsonObj -> {
+                                String contentHash = checksum(jsonObj.toString());
+                                Microservice previous = unchangedCandidates.get(jsonObj.getString("uuid"));
+                                if (previous != null && contentHash.equals(previous.getContentHash())) {
+                                    // flags are cleared by the agent once handled, so they are taken from the payload again
+                                    setControllerFlags(previous, jsonObj);
+                                    return previous;
+                                }
+                                Microservice microservice = containerJsonObjectToMicroserviceFunction().apply(jsonObj);
+                                microservice.setContentHash(contentHash);
+                                return microservice;
+                            })
                             .collect(toList());
+                    MicroserviceDiff diff = MicroserviceDiff.compute(previousMicroservices, microservices);
+                    if (!diff.isEmpty()) {
+                        logInfo("Microservices updated, " + diff);
+                        if (!fromFile) {
+                            saveFile(microservicesJson, filesPath + filename);
+                        }
+                    }
                     microserviceManager.setLatestMicroservices(microservices);
                     microserviceList.addAll(microservices);
                 }
@@ -770,21 +771,66 @@ public class FieldAgent implements IOFogModule {
         return null;
     }
 
+    /**
+     * parses filters of routes, object of receiver id to its header conditions
+     * e.g. {"receiverUuid": {"infoType": "image/*", "tag": "alarm", "infoFormat": "jpeg", "groupId": "cam1", "minPriority": 5}}
+     */
+    private Map<String, RoutePredicate> getRoutePredicates(JsonValue jsonValue) {
+        if (jsonValue == null || !jsonValue.getValueType().equals(JsonValue.ValueType.OBJECT)) {
+            return null;
+        }
+        JsonObject filters = (JsonObject) jsonValue;
+        Map<String, RoutePredicate> predicates = new HashMap<>();
+        for (String receiver : filters.keySet()) {
+            JsonValue filterValue = filters.get(receiver);
+            if (!filterValue.getValueType().equals(JsonValue.ValueType.OBJECT)) {
+                logWarning(format("Route filter of receiver %s is not an object, ignored", receiver));
+                continue;
+            }
+            JsonObject filter = (JsonObject) filterValue;
+            JsonValue minPriority = filter.get("minPriority");
+            if (minPriority != null && !minPriority.getValueType().equals(JsonValue.ValueType.NUMBER)) {
+                logWarning(format("Route filter of receiver %s has invalid minPriority, ignored", receiver));
+                continue;
+            }
+            predicates.put(receiver, new RoutePredicate(
+                    filter.getString("tag", null),
+                    filter.getString("infoType", null),
+                    filter.getString("infoFormat", null),
+                    filter.getString("groupId", null),
+                    filter.getInt("minPriority", 0)));
+        }
+        return predicates;
+    }
+
+    /**
+     * sets rebuild and delete flags of microservice, as requested by controller
+     *
+     * @param microservice - {@link Microservice}
+     * @param jsonObj - microservice json from controller
+     */
+    private void setControllerFlags(Microservice microservice, JsonObject jsonObj) {
+        microservice.setRebuild(jsonObj.getBoolean("rebuild"));
+        microservice.setDelete(jsonObj.getBoolean("delete"));
+        microservice.setDeleteWithCleanup(jsonObj.getBoolean("deleteWithCleanup"));
+    }
+
     private Function<JsonObject, Microservice> containerJsonObjectToMicroserviceFunction() {
         return jsonObj -> {
             Microservice microservice = new Microservice(jsonObj.getString("uuid"), jsonObj.getString("imageId"));
             microservice.setConfig(jsonObj.getString("config"));
-            microservice.setRebuild(jsonObj.getBoolean("rebuild"));
             microservice.setRootHostAccess(jsonObj.getBoolean("rootHostAccess"));
             microservice.setRegistryId(jsonObj.getInt("registryId"));
             microservice.setLogSize(jsonObj.getJsonNumber("logSize").longValue());
-            microservice.setDelete(jsonObj.getBoolean("delete"));
-            microservice.setDeleteWithCleanup(jsonObj.getBoolean("deleteWithCleanup"));
+            setControllerFlags(microservice, jsonObj);
 
             JsonValue routesValue = jsonObj.get("routes");
             microservice.setRoutes(getStringList(routesValue));
+            microservice.setRoutePredicates(getRoutePredicates(jsonObj.get("routeFilters")));
 
             microservice.setConsumer(jsonObj.getBoolean("isConsumer"));
+            microservice.setArchiveCodec(jsonObj.getString("archiveCodec", null));
+            microservice.setArchiveSegmentSize(jsonObj.getInt("archiveSegmentSize", 0));
 
             JsonValue portMappingValue = jsonObj.get("portMappings");
             if (!portMappingValue.getValueType().equals(JsonValue.ValueType.NULL)) {
@@ -883,16 +929,13 @@ public class FieldAgent implements IOFogModule {
      * pings IOFog controller
      */
     private final Runnable pingController = () -> {
-        while (true) {
-            try {
-                Thread.sleep(Configuration.getPingControllerFreqSeconds() * 1000);
-                logDebug("Start Ping controller");
-                ping();
-            } catch (Exception e) {
-                logError("Exception pinging controller", new AgentUserException(e.getMessage(), e));
-            }
-            logDebug("Finished Ping controller");
+        try {
+            logDebug("Start Ping controller");
+            ping();
+        } catch (Exception e) {
+            logError("Exception pinging controller", new AgentUserException(e.getMessage(), e));
         }
+        logDebug("Finished Ping controller");
     };
 
     /**
@@ -1242,6 +1285,8 @@ public class FieldAgent implements IOFogModule {
             processRoutes(microservices);
             notifyModules();
 
+            hwInfoCache.invalidate();
+            usbInfoCache.invalidate();
             sendHWInfoFromHalToController();
 
             postStatusHelper();
@@ -1394,19 +1439,50 @@ public class FieldAgent implements IOFogModule {
             List<Microservice> microservices = loadMicroservices(!isConnected);
             processMicroserviceConfig(microservices);
             processRoutes(microservices);
+            if (isConnected) {
+                // local api and message bus have been started from cached state
+                LocalApi.getInstance().update();
+                try {
+                    MessageBus.getInstance().update();
+                } catch (Exception e) {
+                    logWarning("Unable to update Message Bus" + " : " + e.getMessage());
+                }
+            }
         }
 
-        new Thread(pingController, Constants.FIELD_AGENT_PING_CONTROLLER).start();
-        new Thread(getChangesList, Constants.FIELD_AGENT_GET_CHANGE_LIST).start();
-        new Thread(postStatus, Constants.FIELD_AGENT_POST_STATUS).start();
-        new Thread(postDiagnostics, Constants.FIELD_AGENT_POST_DIAGNOSTIC).start();
-        
+        AgentScheduler scheduler = AgentScheduler.getInstance();
+        scheduler.scheduleBlockingAtFixedRate(Constants.FIELD_AGENT_PING_CONTROLLER, pingController,
+                Configuration.getPingControllerFreqSeconds(), Configuration::getPingControllerFreqSeconds, TimeUnit.SECONDS);
+        scheduler.scheduleBlockingWithFixedDelay(Constants.FIELD_AGENT_GET_CHANGE_LIST, getChangesList,
+                0, () -> changesSubscription.getDelay(System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+        scheduler.scheduleBlockingAtFixedRate(Constants.FIELD_AGENT_POST_STATUS, postStatus,
+                getPostStatusInterval(), this::getPostStatusInterval, TimeUnit.SECONDS);
+        scheduler.scheduleBlockingAtFixedRate(Constants.FIELD_AGENT_POST_DIAGNOSTIC, postDiagnostics,
+                0, Configuration::getPostDiagnosticsFreq, TimeUnit.SECONDS);
+
         StatusReporter.setFieldAgentStatus().setReadyToUpgrade(VersionHandler.isReadyToUpgrade());
         StatusReporter.setFieldAgentStatus().setReadyToRollback(VersionHandler.isReadyToRollback());
-        futureTask = scheduler.scheduleAtFixedRate(getAgentReadyToUpgradeStatus, 0, Configuration.getReadyToUpgradeScanFrequency(), TimeUnit.HOURS);
+        scheduler.scheduleBlockingAtFixedRate(Constants.FIELD_AGENT_READY_TO_UPGRADE, getAgentReadyToUpgradeStatus,
+                0, Configuration::getReadyToUpgradeScanFrequency, TimeUnit.HOURS);
         logDebug("Field Agent started");
     }
 
+    /**
+     * loads microservices, registries and routes saved from last run, without calling controller,
+     * so local api and message bus can start before controller is reachable
+     */
+    public void loadCachedState() {
+        logDebug("Start loading cached state");
+        microserviceManager = MicroserviceManager.getInstance();
+        // loadMicroservices falls back to controller if file is missing or corrupted
+        if (!notProvisioned() && loadMicroservicesJsonFile() != null) {
+            List<Microservice> microservices = loadMicroservices(true);
+            processMicroserviceConfig(microservices);
+            processRoutes(microservices);
+        }
+        logDebug("Finished loading cached state");
+    }
+
     /**
      * checks if IOFog controller connection is broken
      *
@@ -1416,7 +1492,7 @@ public class FieldAgent implements IOFogModule {
     private boolean isControllerConnected(boolean fromFile) {
     	logDebug("check is Controller Connected");
         boolean isConnected = false;
-        if ((!StatusReporter.getFieldAgentStatus().getControllerStatus().equals(OK) && !ping()) && !fromFile) {
+        if (!fromFile && !StatusReporter.getFieldAgentStatus().getControllerStatus().equals(OK) && !ping()) {
             handleBadControllerStatus();
         } else {
             isConnected = true;
@@ -1445,12 +1521,17 @@ public class FieldAgent implements IOFogModule {
         if (isResponseValid(response)) {
             String usbInfo = response.get().toString();
             StatusReporter.setResourceManagerStatus().setUsbConnectionsInfo(usbInfo);
+            if (!usbInfoCache.isUploadRequired(usbInfo, System.currentTimeMillis())) {
+                logDebug("USB Info has not changed");
+                return;
+            }
 
             JsonObject json = Json.createObjectBuilder()
                     .add("info", usbInfo)
                     .build();
             try {
                 orchestrator.request(COMMAND_USB_INFO, RequestType.PUT, null, json);
+                usbInfoCache.uploaded(usbInfo, System.currentTimeMillis());
             } catch (Exception e) {
                 LoggingService.logError(MODULE_NAME, "Error while sending USBInfo from hal to controller",
                 		new AgentSystemException(e.getMessage(), e));
@@ -1468,6 +1549,10 @@ public class FieldAgent implements IOFogModule {
         if (isResponseValid(response)) {
             String hwInfo = response.get().toString();
             StatusReporter.setResourceManagerStatus().setHwInfo(hwInfo);
+            if (!hwInfoCache.isUploadRequired(hwInfo, System.currentTimeMillis())) {
+                logDebug("HW Info has not changed");
+                return;
+            }
 
             JsonObject json = Json.createObjectBuilder()
                     .add("info", hwInfo)
@@ -1483,6 +1568,8 @@ public class FieldAgent implements IOFogModule {
 
             if (jsonSendHWInfoResult == null) {
                 LoggingService.logInfo(MODULE_NAME, "Can't get HW Info from HAL.");
+            } else {
+                hwInfoCache.uploaded(hwInfo, System.currentTimeMillis());
             }
         }
         logDebug("Finished send HW Info from HAL To Controller");
@@ -1507,8 +1594,8 @@ public class FieldAgent implements IOFogModule {
                 }
             } catch (IOException exc) {
                 logWarning("HAL is not enabled for this Iofog Agent at the moment");
+                connection.get().disconnect();
             }
-            connection.get().disconnect();
         }
         logDebug("Finished get response");
         return Optional.ofNullable(content);
@@ -1521,6 +1608,8 @@ public class FieldAgent implements IOFogModule {
             URL url = new URL(spec);
             connection = (HttpURLConnection) url.openConnection();
             if(connection != null){
+                connection.setConnectTimeout(HAL_TIMEOUT);
+                connection.setReadTimeout(HAL_TIMEOUT);
                 connection.setRequestMethod(HttpMethod.GET);
                 connection.getResponseCode();
             }
@@ -1600,15 +1689,4 @@ public class FieldAgent implements IOFogModule {
         LoggingService.logDebug(MODULE_NAME, "Finished scan of isReadyToUpgrade and isReadyToRollback Status");
 
     };
-    /**
-     * This method will reschedule "myTask" with the new param time
-     */
-    public void changeReadInterval()
-    {
-        if (futureTask != null)
-        {
-            futureTask.cancel(true);
-        }
-        futureTask = scheduler.scheduleAtFixedRate(getAgentReadyToUpgradeStatus, 0, Configuration.getReadyToUpgradeScanFrequency(), TimeUnit.HOURS);
-    }
 }
\ No newline at end of file
@@ -56,6 +56,10 @@ public class ApiHandlerHelpers {
         return createResponse(outputBuffer, content, OK);
     }
 
+    public static FullHttpResponse serializedSuccessResponse(ByteBuf outputBuffer, byte[] content) {
+        return createBytesResponse(outputBuffer, content, OK);
+    }
+
     public static FullHttpResponse methodNotAllowedResponse() {
         return createResponse(null, null, METHOD_NOT_ALLOWED);
     }
@@ -77,8 +81,12 @@ public class ApiHandlerHelpers {
     }
     
     private static FullHttpResponse createResponse(ByteBuf outputBuffer, String content, HttpResponseStatus status) {
+        return createBytesResponse(outputBuffer, content != null ? content.getBytes(UTF_8) : null, status);
+    }
+
+    private static FullHttpResponse createBytesResponse(ByteBuf outputBuffer, byte[] content, HttpResponseStatus status) {
     	if (outputBuffer != null && content != null) {
-            outputBuffer.writeBytes(content.getBytes(UTF_8));
+            outputBuffer.writeBytes(content);
             FullHttpResponse res = new DefaultFullHttpResponse(HTTP_1_1, status, outputBuffer);
             HttpUtil.setContentLength(res, outputBuffer.readableBytes());
             return res;
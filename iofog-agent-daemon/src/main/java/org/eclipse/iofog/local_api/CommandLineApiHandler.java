@@ -22,13 +22,17 @@ import org.eclipse.iofog.utils.logging.LoggingService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import javax.json.Json;
+import javax.json.JsonArray;
 import javax.json.JsonObject;
 import javax.json.JsonReader;
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
 
@@ -40,6 +44,8 @@ import static org.eclipse.iofog.utils.Constants.LOCAL_API_TOKEN_PATH;
 
 public class CommandLineApiHandler implements Callable<FullHttpResponse> {
 	private static final String MODULE_NAME = "Local API : CommandLineApiHandler";
+	static final String BATCH_PATH = "/v2/commandline/batch";
+	static final int MAX_BATCH_SIZE = 1000;
 
 	private final HttpRequest req;
 	private final ByteBuf outputBuffer;
@@ -76,6 +82,10 @@ public class CommandLineApiHandler implements Callable<FullHttpResponse> {
 			JsonReader reader = Json.createReader(new StringReader(msgString));
 			JsonObject jsonObject = reader.readObject();
 
+			if (BATCH_PATH.equals(req.uri())) {
+				return handleBatch(jsonObject);
+			}
+
 			String command = jsonObject.getString("command");
 			Map<String, String> resultMap = new HashMap<>();
 			ObjectMapper objectMapper = new ObjectMapper();
@@ -101,4 +111,37 @@ public class CommandLineApiHandler implements Callable<FullHttpResponse> {
 			return ApiHandlerHelpers.badRequestResponse(outputBuffer, errorMsg);
 		}
 	}
+
+	/**
+	 * Runs batch of commands one after another, so scripts can send many commands in one request
+	 * Failure of a command is reported in its response and does not stop the batch
+	 *
+	 * @param jsonObject - request with array of commands
+	 * @return response with array of results in order of commands
+	 */
+	private FullHttpResponse handleBatch(JsonObject jsonObject) throws Exception {
+		JsonArray commands = jsonObject.getJsonArray("commands");
+		if (commands == null || commands.size() > MAX_BATCH_SIZE) {
+			String errorMsg = "Batch has to contain up to " + MAX_BATCH_SIZE + " commands";
+			LoggingService.logError(MODULE_NAME, errorMsg, new AgentUserException(errorMsg));
+			return ApiHandlerHelpers.badRequestResponse(outputBuffer, errorMsg);
+		}
+
+		List<Map<String, String>> responses = new ArrayList<>(commands.size());
+		for (int i = 0; i < commands.size(); i++) {
+			Map<String, String> resultMap = new HashMap<>();
+			try {
+				resultMap.put("response", CommandLineParser.parse(commands.getString(i)));
+			} catch (Exception e) {
+				resultMap.put("response", e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+				resultMap.put("error", "Internal server error");
+				LoggingService.logError(MODULE_NAME, "Error in handling command of batch command line http request", e);
+			}
+			responses.add(resultMap);
+		}
+
+		String jsonResult = new ObjectMapper().writeValueAsString(Collections.singletonMap("responses", responses));
+		LoggingService.logDebug(MODULE_NAME, "Finished processing batch of " + commands.size() + " commands");
+		return ApiHandlerHelpers.successResponse(outputBuffer, jsonResult);
+	}
 }
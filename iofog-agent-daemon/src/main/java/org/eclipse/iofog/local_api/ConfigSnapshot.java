@@ -0,0 +1,63 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.local_api;
+
+import javax.json.Json;
+import javax.json.JsonObjectBuilder;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Immutable configuration of a container with pre-serialized response of config/get endpoint
+ */
+public final class ConfigSnapshot {
+	private static final AtomicLong lastVersion = new AtomicLong();
+
+	private final String config;
+	private final long version;
+	private final byte[] response;
+
+	ConfigSnapshot(String config) {
+		this.config = config;
+		this.version = lastVersion.incrementAndGet();
+		JsonObjectBuilder builder = Json.createObjectBuilder()
+				.add("status", "okay");
+		if (config != null) {
+			builder.add("config", config);
+		} else {
+			builder.addNull("config");
+		}
+		this.response = builder.build().toString().getBytes(UTF_8);
+	}
+
+	public String getConfig() {
+		return config;
+	}
+
+	/**
+	 * Version of snapshot, grows each time configuration of any container changes
+	 * @return long
+	 */
+	public long getVersion() {
+		return version;
+	}
+
+	/**
+	 * Body of config/get response, shared by all requests, must not be modified
+	 * @return byte[]
+	 */
+	byte[] getResponse() {
+		return response;
+	}
+}
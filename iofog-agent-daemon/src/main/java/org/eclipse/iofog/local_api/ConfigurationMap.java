@@ -12,8 +12,11 @@
  */
 package org.eclipse.iofog.local_api;
 
-import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Configuration map to store the current containers configurations
@@ -21,9 +24,39 @@ import java.util.Map;
  * @since 2016
  */
 public final class ConfigurationMap {
-	public static Map<String, String> containerConfigMap = new HashMap<>();
+	private static final Map<String, ConfigSnapshot> configSnapshots = new ConcurrentHashMap<>();
 
 	private ConfigurationMap(){
 		throw new UnsupportedOperationException(ConfigurationMap.class + "could not be instantiated");
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Get current configuration snapshot of the container
+	 * @param id - microservice uuid
+	 * @return ConfigSnapshot or null
+	 */
+	public static ConfigSnapshot getSnapshot(String id) {
+		return configSnapshots.get(id);
+	}
+
+	/**
+	 * Replace snapshots of changed configurations and drop snapshots of removed containers
+	 * Unchanged microservices are reused by field agent, so their configs are the same instances
+	 * and only changed configs are compared by content and serialized
+	 *
+	 * @param configs - latest configurations by microservice uuid
+	 * @return ids of containers whose configuration has been added or changed
+	 */
+	public static synchronized Set<String> update(Map<String, String> configs) {
+		Set<String> changed = new HashSet<>();
+		for (Map.Entry<String, String> entry : configs.entrySet()) {
+			ConfigSnapshot snapshot = configSnapshots.get(entry.getKey());
+			if (snapshot == null || !Objects.equals(snapshot.getConfig(), entry.getValue())) {
+				configSnapshots.put(entry.getKey(), new ConfigSnapshot(entry.getValue()));
+				changed.add(entry.getKey());
+			}
+		}
+		configSnapshots.keySet().retainAll(configs.keySet());
+		return changed;
+	}
+}
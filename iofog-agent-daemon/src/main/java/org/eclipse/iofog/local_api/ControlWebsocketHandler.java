@@ -21,8 +21,9 @@ import org.eclipse.iofog.exception.AgentSystemException;
 import org.eclipse.iofog.status_reporter.StatusReporter;
 import org.eclipse.iofog.utils.logging.LoggingService;
 
-import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import static io.netty.handler.codec.http.HttpHeaders.Names.HOST;
 
@@ -43,6 +44,9 @@ public class ControlWebsocketHandler {
 
 	private static final String WEBSOCKET_PATH = "/v2/control/socket";
 
+	static final int RETRANSMIT_TIMEOUT = 20;
+	static final int MAX_SEND_TRIES = 10;
+
 	/**
 	 * Handler to open the websocket for the real-time control signals
 	 * 
@@ -134,42 +138,60 @@ public class ControlWebsocketHandler {
 	}
 
 	/**
-	 * Helper method to compare the configuration map to start control signals
-	 * 
-	 * @param oldConfigMap
-	 * @param newConfigMap
+	 * Sends control signals to microservices whose configuration has changed
+	 *
+	 * @param changedConfigElmtIds - ids of microservices
 	 * @return void
 	 */
-	public void initiateControlSignal(Map<String, String> oldConfigMap, Map<String, String> newConfigMap) {
-		// Compare the old and new config map
+	public void initiateControlSignal(Collection<String> changedConfigElmtIds) {
 		Map<String, ChannelHandlerContext> controlMap = WebSocketMap.controlWebsocketMap;
-		ArrayList<String> changedConfigElmtsList = new ArrayList<>();
-		if (newConfigMap != null && newConfigMap.size() > 0) {
-			for (Map.Entry<String, String> newEntry : newConfigMap.entrySet()) {
-				String newMapKey = newEntry.getKey();
-				if (!oldConfigMap.containsKey(newMapKey)) {
-					changedConfigElmtsList.add(newMapKey);
-				} else {
-
-					String newConfigValue = newEntry.getValue();
-					String oldConfigValue = oldConfigMap.get(newMapKey);
-					if (!newConfigValue.equals(oldConfigValue)) {
-						changedConfigElmtsList.add(newMapKey);
-					}
-				}
+		for (String changedConfigElmtId : changedConfigElmtIds) {
+			ChannelHandlerContext ctx = controlMap.get(changedConfigElmtId);
+			if (ctx != null) {
+				sendControlSignal(ctx, 1);
 			}
 		}
+	}
 
+	/**
+	 * Sends control signal and schedules its retransmit on event loop of the channel
+	 * signal is sent again until it is acknowledged, a newer signal replaces it or tries are exhausted
+	 *
+	 * @param ctx
+	 * @param tryCount - number of this try
+	 * @return void
+	 */
+	static void sendControlSignal(ChannelHandlerContext ctx, int tryCount) {
+		ControlSignalSentInfo sentInfo = new ControlSignalSentInfo(tryCount, System.currentTimeMillis());
+		WebSocketMap.unackControlSignalsMap.put(ctx, sentInfo);
 
-		for (String changedConfigElmtId : changedConfigElmtsList) {
-			if (controlMap.containsKey(changedConfigElmtId)) {
-				ChannelHandlerContext ctx = controlMap.get(changedConfigElmtId);
-				WebSocketMap.unackControlSignalsMap.put(ctx, new ControlSignalSentInfo(1, System.currentTimeMillis()));
+		ByteBuf buffer1 = ctx.alloc().buffer();
+		buffer1.writeByte(OPCODE_CONTROL_SIGNAL);
+		ctx.channel().writeAndFlush(new BinaryWebSocketFrame(buffer1));
 
-				ByteBuf buffer1 = ctx.alloc().buffer();
-				buffer1.writeByte(OPCODE_CONTROL_SIGNAL);
-				ctx.channel().writeAndFlush(new BinaryWebSocketFrame(buffer1));
-			}
+		ctx.executor().schedule(() -> retransmitControlSignal(ctx, sentInfo), RETRANSMIT_TIMEOUT, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * Sends unacknowledged control signal again
+	 * If tried for 10 times, then disable real-time service for the channel
+	 *
+	 * @param ctx
+	 * @param sentInfo - info of signal the retransmit has been scheduled for
+	 * @return void
+	 */
+	static void retransmitControlSignal(ChannelHandlerContext ctx, ControlSignalSentInfo sentInfo) {
+		if (WebSocketMap.unackControlSignalsMap.get(ctx) != sentInfo) {
+			return;
+		}
+
+		if (sentInfo.getSendTryCount() < MAX_SEND_TRIES && ctx.channel().isActive()) {
+			sendControlSignal(ctx, sentInfo.getSendTryCount() + 1);
+		} else {
+			LoggingService.logDebug(MODULE_NAME, " Initiating control signal expires");
+			WebSocketMap.unackControlSignalsMap.remove(ctx);
+			WebsocketUtil.removeWebsocketContextFromMap(ctx, WebSocketMap.controlWebsocketMap);
+			StatusReporter.setLocalApiStatus().setOpenConfigSocketsCount(WebSocketMap.controlWebsocketMap.size());
 		}
 	}
 
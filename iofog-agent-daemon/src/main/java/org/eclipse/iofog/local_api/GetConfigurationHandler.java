@@ -84,16 +84,10 @@ public class GetConfigurationHandler implements Callable<FullHttpResponse> {
 
 		String receiverId = jsonObject.getString("id");
 
-		if (ConfigurationMap.containerConfigMap.containsKey(receiverId)) {
-			String containerConfig = ConfigurationMap.containerConfigMap.get(receiverId);
-			JsonBuilderFactory factory = Json.createBuilderFactory(null);
-			JsonObjectBuilder builder = factory.createObjectBuilder();
-			builder.add("status", "okay");
-			builder.add("config", containerConfig);
-			String result = builder.build().toString();
-
+		ConfigSnapshot snapshot = ConfigurationMap.getSnapshot(receiverId);
+		if (snapshot != null) {
 			LoggingService.logDebug(MODULE_NAME, "Finished processing config request");
-			return ApiHandlerHelpers.successResponse(outputBuffer, result);
+			return ApiHandlerHelpers.serializedSuccessResponse(outputBuffer, snapshot.getResponse());
 		} else {
 			String errorMsg = "No configuration found for the id " + receiverId;
 			LoggingService.logError(MODULE_NAME, errorMsg, new AgentUserException(errorMsg));
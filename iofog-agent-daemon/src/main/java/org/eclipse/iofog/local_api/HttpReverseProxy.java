@@ -0,0 +1,176 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.local_api;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoop;
+import io.netty.channel.pool.AbstractChannelPoolHandler;
+import io.netty.channel.pool.AbstractChannelPoolMap;
+import io.netty.channel.pool.FixedChannelPool;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.codec.http.HttpClientCodec;
+import io.netty.util.AttributeKey;
+import io.netty.util.ReferenceCountUtil;
+import io.netty.util.concurrent.Future;
+import org.eclipse.iofog.utils.logging.LoggingService;
+
+/**
+ * http service running on the same host, e.g. RESTblue or HAL, which is reverse proxied by local api
+ * connections to service are kept alive in pools per event loop of local api,
+ * so proxied requests neither create threads nor connect for every request
+ */
+public class HttpReverseProxy {
+	private static final String MODULE_NAME = "Local API : Reverse Proxy";
+	private static final int MAX_CONNECTIONS_PER_EVENT_LOOP = 8;
+	static final AttributeKey<ReverseProxyHandler> CLIENT = AttributeKey.valueOf("reverseProxyClient");
+
+	public static final HttpReverseProxy RESTBLUE = new HttpReverseProxy("RESTblue container", "/v2/restblue", "localhost", 10500);
+
+	private final String name;
+	private final String pathPrefix;
+	private final String host;
+	private final int port;
+	private final AbstractChannelPoolMap<EventLoop, FixedChannelPool> pools;
+
+	public HttpReverseProxy(String name, String pathPrefix, String host, int port) {
+		this.name = name;
+		this.pathPrefix = pathPrefix;
+		this.host = host;
+		this.port = port;
+
+		Bootstrap bootstrap = new Bootstrap()
+				.channel(NioSocketChannel.class)
+				.option(ChannelOption.SO_KEEPALIVE, true)
+				.remoteAddress(host, port);
+		this.pools = new AbstractChannelPoolMap<EventLoop, FixedChannelPool>() {
+			@Override
+			protected FixedChannelPool newPool(EventLoop eventLoop) {
+				return new FixedChannelPool(bootstrap.clone(eventLoop), new AbstractChannelPoolHandler() {
+					@Override
+					public void channelCreated(Channel ch) {
+						ch.pipeline().addLast(new HttpClientCodec(), new BackendHandler());
+					}
+				}, MAX_CONNECTIONS_PER_EVENT_LOOP);
+			}
+		};
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * checks if request has to be proxied to this service
+	 *
+	 * @param uri - uri of local api request
+	 * @return true if uri starts with path prefix of service
+	 */
+	public boolean matches(String uri) {
+		return uri.startsWith(pathPrefix);
+	}
+
+	/**
+	 * strips path prefix of service from uri of local api request
+	 *
+	 * @param uri - uri of local api request
+	 * @return uri of request to service
+	 */
+	public String getBackendUri(String uri) {
+		String backendUri = uri.substring(pathPrefix.length());
+		return backendUri.startsWith("/") ? backendUri : "/" + backendUri;
+	}
+
+	public String getAuthority() {
+		return host + ":" + port;
+	}
+
+	/**
+	 * acquires connection to service, which runs on given event loop
+	 *
+	 * @param eventLoop - event loop of local api channel
+	 * @return future of connection
+	 */
+	Future<Channel> acquire(EventLoop eventLoop) {
+		return pools.get(eventLoop).acquire();
+	}
+
+	/**
+	 * returns connection to pool, connection which can not be reused is closed
+	 *
+	 * @param channel  - connection to service
+	 * @param reusable - true if connection can serve next request
+	 */
+	void release(Channel channel, boolean reusable) {
+		channel.attr(CLIENT).set(null);
+		channel.config().setAutoRead(true);
+		if (!reusable) {
+			channel.close();
+		}
+		pools.get(channel.eventLoop()).release(channel);
+	}
+
+	/**
+	 * closes pooled connections to service, has to be called before event loops of local api are shut down
+	 * pools are created again by next proxied request
+	 */
+	public void close() {
+		try {
+			pools.close();
+		} catch (Exception e) {
+			LoggingService.logWarning(MODULE_NAME, "Error closing connections to " + name + ": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * passes response of service to local api channel connection is currently acquired by
+	 */
+	private static class BackendHandler extends ChannelInboundHandlerAdapter {
+		@Override
+		public void channelRead(ChannelHandlerContext ctx, Object msg) {
+			ReverseProxyHandler client = ctx.channel().attr(CLIENT).get();
+			if (client != null) {
+				client.backendRead(msg);
+			} else {
+				ReferenceCountUtil.release(msg);
+			}
+		}
+
+		@Override
+		public void channelInactive(ChannelHandlerContext ctx) {
+			ReverseProxyHandler client = ctx.channel().attr(CLIENT).get();
+			if (client != null) {
+				client.backendClosed();
+			}
+			ctx.fireChannelInactive();
+		}
+
+		@Override
+		public void channelWritabilityChanged(ChannelHandlerContext ctx) {
+			ReverseProxyHandler client = ctx.channel().attr(CLIENT).get();
+			if (client != null) {
+				client.backendWritabilityChanged(ctx.channel().isWritable());
+			}
+			ctx.fireChannelWritabilityChanged();
+		}
+
+		@Override
+		public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+			LoggingService.logDebug(MODULE_NAME, "Closing connection to service: " + cause.getMessage());
+			ctx.close();
+		}
+	}
+}
@@ -19,8 +19,7 @@ import org.eclipse.iofog.utils.Constants;
 import org.eclipse.iofog.utils.Constants.ModulesStatus;
 import org.eclipse.iofog.utils.logging.LoggingService;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Set;
 
 /**
  * Local api point of start using iofog.
@@ -92,16 +91,18 @@ public class LocalApi implements Runnable {
 	 * Get the containers configuration and store it.
 	 */
 	private void retrieveContainerConfig() {
-			ConfigurationMap.containerConfigMap = MicroserviceManager.getInstance().getConfigs();
+			ConfigurationMap.update(MicroserviceManager.getInstance().getConfigs());
 			LoggingService.logDebug(MODULE_NAME, "Container configuration retrieved");
 	}
 
 	/**
 	 * Update the containers configuration and store it.
+	 * @return ids of containers whose configuration has changed
 	 */
-	private void updateContainerConfig() {
-		ConfigurationMap.containerConfigMap = MicroserviceManager.getInstance().getConfigs();
-		LoggingService.logDebug(MODULE_NAME, "Container configuration updated");
+	private Set<String> updateContainerConfig() {
+		Set<String> changedConfigs = ConfigurationMap.update(MicroserviceManager.getInstance().getConfigs());
+		LoggingService.logDebug(MODULE_NAME, "Container configuration updated, changed: " + changedConfigs.size());
+		return changedConfigs;
 	}
 
 	/**
@@ -110,13 +111,11 @@ public class LocalApi implements Runnable {
 	 */
 	public void update(){
 		LoggingService.logDebug(MODULE_NAME, "Start the real-time control signal when the configuration updated");
-		Map<String, String> oldConfigMap = new HashMap<>();
-		oldConfigMap.putAll(ConfigurationMap.containerConfigMap);
-		updateContainerConfig();
-		Map<String, String> newConfigMap = new HashMap<>();
-		newConfigMap.putAll(ConfigurationMap.containerConfigMap);
-		ControlWebsocketHandler handler = new ControlWebsocketHandler();
-		handler.initiateControlSignal(oldConfigMap, newConfigMap);
+		Set<String> changedConfigs = updateContainerConfig();
+		if (!changedConfigs.isEmpty()) {
+			ControlWebsocketHandler handler = new ControlWebsocketHandler();
+			handler.initiateControlSignal(changedConfigs);
+		}
 		LoggingService.logDebug(MODULE_NAME, "Finish the real-time control signal when the configuration updated");
 	}
 }
\ No newline at end of file
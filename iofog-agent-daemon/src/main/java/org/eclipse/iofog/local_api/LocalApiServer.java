@@ -12,11 +12,12 @@
  */
 package org.eclipse.iofog.local_api;
 
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
+import org.eclipse.iofog.utils.Constants;
 import org.eclipse.iofog.utils.logging.LoggingService;
+import org.eclipse.iofog.utils.scheduler.AgentScheduler;
+import org.eclipse.iofog.utils.scheduler.ScheduledTask;
 
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.Channel;
@@ -40,6 +41,8 @@ public final class LocalApiServer {
 
 	static final boolean SSL = System.getProperty("ssl") != null;
 	private static final int PORT = 54321;
+	private ScheduledTask messageWebsocketWorker;
+	private LocalApiServerPipelineFactory pipelineFactory;
 
 	/**
 	 * Create and start local api server
@@ -53,20 +56,23 @@ public final class LocalApiServer {
 			sslCtx = null;
 		}
 		try{
+			pipelineFactory = new LocalApiServerPipelineFactory(sslCtx);
 			ServerBootstrap b = new ServerBootstrap();
 			b.group(bossGroup, workerGroup)
 			.channel(NioServerSocketChannel.class)
-			.childHandler(new LocalApiServerPipelineFactory(sslCtx));
+			.childHandler(pipelineFactory);
 
 			Channel ch = b.bind(PORT).sync().channel();	
 			
 			LoggingService.logDebug(MODULE_NAME, "Local api server started at port: " + PORT + "\n");
 			
-			ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
-			scheduler.scheduleAtFixedRate(new ControlWebsocketWorker(), 10, 10, TimeUnit.SECONDS);
-			scheduler.scheduleAtFixedRate(new MessageWebsocketWorker(), 10, 10, TimeUnit.SECONDS);
+			messageWebsocketWorker = AgentScheduler.getInstance().scheduleAtFixedRate(Constants.LOCAL_API_MESSAGE_WEBSOCKET_WORKER,
+					new MessageWebsocketWorker(), 10, () -> 10, TimeUnit.SECONDS);
 			ch.closeFuture().sync();
 		}finally{
+			if (messageWebsocketWorker != null)
+				messageWebsocketWorker.cancel();
+			closeProxies();
 			bossGroup.shutdownGracefully();
 			workerGroup.shutdownGracefully();
 		}
@@ -77,7 +83,14 @@ public final class LocalApiServer {
 	 */
 	void stop() {
 		LoggingService.logDebug(MODULE_NAME, "Stopping Local api server\n");
+		closeProxies();
 		bossGroup.shutdownGracefully();
 		workerGroup.shutdownGracefully();
 	}
+
+	private void closeProxies() {
+		if (pipelineFactory != null) {
+			pipelineFactory.closeProxies();
+		}
+	}
 }
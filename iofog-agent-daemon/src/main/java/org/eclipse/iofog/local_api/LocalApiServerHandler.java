@@ -68,7 +68,7 @@ public class LocalApiServerHandler extends SimpleChannelInboundHandler<Object> {
      */
     @Override
     public void channelRead0(ChannelHandlerContext ctx, Object msg) {
-    	LoggingService.logInfo(MODULE_NAME, "Start channel initializing");
+    	LoggingService.logDebug(MODULE_NAME, "Start channel initializing");
         try {
             if (msg instanceof FullHttpRequest) {
                 // full request
@@ -136,7 +136,7 @@ public class LocalApiServerHandler extends SimpleChannelInboundHandler<Object> {
         } catch (Exception e) {
             LoggingService.logError(MODULE_NAME, "Failed to initialize channel for the request", e);
         }
-        LoggingService.logInfo(MODULE_NAME, "Finished channel initializing");
+        LoggingService.logDebug(MODULE_NAME, "Finished channel initializing");
     }
 
     /**
@@ -180,14 +180,6 @@ public class LocalApiServerHandler extends SimpleChannelInboundHandler<Object> {
             return;
         }
 
-        if (request.uri().startsWith("/v2/restblue")) {
-        	LoggingService.logInfo(MODULE_NAME, "Start Processing restblue request");
-            Callable<FullHttpResponse> callable = new BluetoothApiHandler((FullHttpRequest) request, ctx.alloc().buffer(), content);
-            runTask(callable, ctx, request);
-            LoggingService.logInfo(MODULE_NAME, "Finished Processing restblue request");
-            return;
-        }
-
         if (request.uri().startsWith("/v2/log")) {
         	LoggingService.logInfo(MODULE_NAME, "Start Processing log request");
             Callable<FullHttpResponse> callable = new LogApiHandler(request, ctx.alloc().buffer(), content);
@@ -286,22 +278,13 @@ public class LocalApiServerHandler extends SimpleChannelInboundHandler<Object> {
     }
 
     private String findContextMapName(ChannelHandlerContext ctx) {
-    	LoggingService.logInfo(MODULE_NAME, "Start find context map name");
-    	
         if (WebsocketUtil.hasContextInMap(ctx, WebSocketMap.controlWebsocketMap)) {
-        	LoggingService.logInfo(MODULE_NAME, "Finished finding context map name : control");
-        	return "control";
-        }          
-        else if (WebsocketUtil.hasContextInMap(ctx, WebSocketMap.messageWebsocketMap)) {
-        	LoggingService.logInfo(MODULE_NAME, "Finished finding context map name : message");
-        	return "message";
-        }
-            
-        else {
-        	LoggingService.logInfo(MODULE_NAME, "Finished finding context map name : null");
-        	return null;
+            return "control";
+        } else if (WebsocketUtil.hasContextInMap(ctx, WebSocketMap.messageWebsocketMap)) {
+            return "message";
+        } else {
+            return null;
         }
-            
     }
 
     /**
@@ -314,6 +297,19 @@ public class LocalApiServerHandler extends SimpleChannelInboundHandler<Object> {
         ctx.flush();
     }
 
+    /**
+     * Resumes real-time messages which have been held back while message websocket was not writable
+     *
+     * @param ctx ChannelHandlerContext
+     */
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) {
+        if (ctx.channel().isWritable() && WebsocketUtil.hasContextInMap(ctx, WebSocketMap.messageWebsocketMap)) {
+            MessageWebsocketHandler.drainPendingMessages(ctx);
+        }
+        ctx.fireChannelWritabilityChanged();
+    }
+
     /**
      * Helper for request thread
      *
@@ -365,7 +361,7 @@ public class LocalApiServerHandler extends SimpleChannelInboundHandler<Object> {
     }
 
     private void release(Object obj) {
-    	LoggingService.logInfo(MODULE_NAME, "Releasing object lock");
+    	LoggingService.logDebug(MODULE_NAME, "Releasing object lock");
         if ((obj instanceof ReferenceCounted) && ((ReferenceCounted) obj).refCnt() > 0) {
             ReferenceCountUtil.release(obj);
         }
@@ -19,10 +19,15 @@ import io.netty.channel.ChannelPipeline;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.handler.codec.http.HttpObjectAggregator;
 import io.netty.handler.codec.http.HttpServerCodec;
+import io.netty.handler.codec.http.websocketx.extensions.compression.WebSocketServerCompressionHandler;
+import io.netty.handler.flush.FlushConsolidationHandler;
 import io.netty.handler.ssl.SslContext;
 import io.netty.util.concurrent.DefaultEventExecutorGroup;
 import io.netty.util.concurrent.EventExecutorGroup;
 
+import java.util.Collections;
+import java.util.List;
+
 /**
  * Pipeline factory to initialize the channel and assign handler for the request.
  * Thread pool for the performance
@@ -32,6 +37,7 @@ import io.netty.util.concurrent.EventExecutorGroup;
 public class LocalApiServerPipelineFactory extends ChannelInitializer<SocketChannel>{
 	private final SslContext sslCtx;
 	private final EventExecutorGroup executor;
+	private final List<HttpReverseProxy> proxies = Collections.singletonList(HttpReverseProxy.RESTBLUE);
 	private static final String MODULE_NAME = "Local API : LocalApi ServerPipelineFactory";
 	
 	public LocalApiServerPipelineFactory(SslContext sslCtx) {
@@ -50,9 +56,20 @@ public class LocalApiServerPipelineFactory extends ChannelInitializer<SocketChan
 		if (sslCtx != null) {
 			pipeline.addLast(sslCtx.newHandler(ch.alloc()));
 		}
+		// real-time messages are flushed one by one from message bus threads, consolidate them into fewer syscalls
+		pipeline.addLast(new FlushConsolidationHandler(FlushConsolidationHandler.DEFAULT_EXPLICIT_FLUSH_AFTER_FLUSHES, true));
 		pipeline.addLast(new HttpServerCodec());
+		pipeline.addLast(new ReverseProxyHandler(proxies));
 		pipeline.addLast(new HttpObjectAggregator(Integer.MAX_VALUE));
+		pipeline.addLast(new WebSocketServerCompressionHandler());
 		pipeline.addLast(new LocalApiServerHandler(executor));	
 		LoggingService.logDebug(MODULE_NAME, "Finished Initialize channel for communication and assign handler");
 	}
+
+	/**
+	 * closes pooled connections of reverse proxied services
+	 */
+	void closeProxies() {
+		proxies.forEach(HttpReverseProxy::close);
+	}
 }	
\ No newline at end of file
@@ -0,0 +1,159 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.local_api;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
+import io.netty.util.AttributeKey;
+import org.eclipse.iofog.message_bus.Message;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * packs real-time messages of one message websocket into batch frames
+ * microservice opts in with "batchMaxDelay" (milliseconds) and/or "batchMaxBytes" query parameters of websocket url
+ * batch is written when it reaches max bytes or max delay after its first message, whichever comes first
+ *
+ * batch frame: opcode 0xF, number of messages (4 bytes), then for each message its length (4 bytes) and bytes
+ */
+public class MessageBatcher {
+	static final byte OPCODE_MSG_BATCH = 0xF;
+	static final AttributeKey<MessageBatcher> BATCHER = AttributeKey.valueOf("messageBatcher");
+
+	static final String MAX_DELAY_PARAMETER = "batchMaxDelay";
+	static final String MAX_BYTES_PARAMETER = "batchMaxBytes";
+	private static final long DEFAULT_MAX_DELAY = 10;
+	private static final long MAX_MAX_DELAY = 1000;
+	private static final int DEFAULT_MAX_BYTES = 64 * 1024;
+	private static final int MAX_MAX_BYTES = 1024 * 1024;
+
+	private final ChannelHandlerContext ctx;
+	private final long maxDelay;
+	private final int maxBytes;
+	private List<Message> messages = new ArrayList<>();
+	private List<byte[]> messageBytes = new ArrayList<>();
+	private int size;
+	private ScheduledFuture<?> flushTask;
+
+	MessageBatcher(ChannelHandlerContext ctx, long maxDelay, int maxBytes) {
+		this.ctx = ctx;
+		this.maxDelay = maxDelay;
+		this.maxBytes = maxBytes;
+	}
+
+	/**
+	 * creates batcher if websocket url asks for batching
+	 *
+	 * @param ctx - context of message websocket
+	 * @param uri - websocket url
+	 * @return batcher or null if messages are sent one per frame
+	 */
+	static MessageBatcher fromUri(ChannelHandlerContext ctx, String uri) {
+		QueryStringDecoder decoder = new QueryStringDecoder(uri);
+		long maxDelay = getParameter(decoder, MAX_DELAY_PARAMETER);
+		long maxBytes = getParameter(decoder, MAX_BYTES_PARAMETER);
+		if (maxDelay <= 0 && maxBytes <= 0) {
+			return null;
+		}
+		return new MessageBatcher(ctx,
+				maxDelay > 0 ? Math.min(maxDelay, MAX_MAX_DELAY) : DEFAULT_MAX_DELAY,
+				maxBytes > 0 ? (int) Math.min(maxBytes, MAX_MAX_BYTES) : DEFAULT_MAX_BYTES);
+	}
+
+	private static long getParameter(QueryStringDecoder decoder, String name) {
+		List<String> values = decoder.parameters().get(name);
+		if (values == null || values.isEmpty()) {
+			return 0;
+		}
+		try {
+			return Long.parseLong(values.get(0).trim());
+		} catch (NumberFormatException e) {
+			return 0;
+		}
+	}
+
+	/**
+	 * adds message to current batch, schedules write of batch on event loop of websocket when batch is new
+	 *
+	 * @param message - message to be sent
+	 */
+	void add(Message message) {
+		byte[] bytes = message.getBytes();
+		synchronized (this) {
+			if (messages.isEmpty()) {
+				flushTask = ctx.executor().schedule(this::flush, maxDelay, TimeUnit.MILLISECONDS);
+			}
+			messages.add(message);
+			messageBytes.add(bytes);
+			size += Integer.BYTES + bytes.length;
+			if (size >= maxBytes) {
+				flush();
+			}
+		}
+	}
+
+	/**
+	 * writes current batch, if any, and cancels its scheduled write, so it does not flush next batch early
+	 */
+	synchronized void flush() {
+		if (messages.isEmpty()) {
+			return;
+		}
+		if (flushTask != null) {
+			flushTask.cancel(false);
+			flushTask = null;
+		}
+		WebSocketMap.unackMessageSendingMap.put(ctx, new MessageSentInfo(messages, 1, System.currentTimeMillis()));
+		// written while holding lock, so batches of different threads keep their order
+		ctx.channel().writeAndFlush(new BinaryWebSocketFrame(encode(ctx.alloc(), messageBytes)));
+		messages = new ArrayList<>();
+		messageBytes = new ArrayList<>();
+		size = 0;
+	}
+
+	/**
+	 * encodes batch frame content
+	 *
+	 * @param alloc - allocator of websocket channel
+	 * @param batch - bytes of messages
+	 * @return frame content
+	 */
+	static ByteBuf encode(ByteBufAllocator alloc, List<byte[]> batch) {
+		int length = 1 + Integer.BYTES;
+		for (byte[] bytes : batch) {
+			length += Integer.BYTES + bytes.length;
+		}
+		ByteBuf buffer = alloc.buffer(length);
+		buffer.writeByte(OPCODE_MSG_BATCH);
+		buffer.writeInt(batch.size());
+		for (byte[] bytes : batch) {
+			buffer.writeInt(bytes.length);
+			buffer.writeBytes(bytes);
+		}
+		return buffer;
+	}
+
+	long getMaxDelay() {
+		return maxDelay;
+	}
+
+	int getMaxBytes() {
+		return maxBytes;
+	}
+}
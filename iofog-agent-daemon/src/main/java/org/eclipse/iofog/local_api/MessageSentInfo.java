@@ -14,6 +14,8 @@ package org.eclipse.iofog.local_api;
 
 import org.eclipse.iofog.message_bus.Message;
 
+import java.util.List;
+
 /**
  * Unacknowledged message with the try count.
  * @author ashita
@@ -21,6 +23,7 @@ import org.eclipse.iofog.message_bus.Message;
  */
 public class MessageSentInfo {
 	private Message message;
+	private List<Message> batch;
 	private int sendTryCount = 0;
 	private long timeMillis;
 	
@@ -31,6 +34,12 @@ public class MessageSentInfo {
 		this.sendTryCount = count;
 		this.timeMillis = timeMillis;
 	}
+
+	MessageSentInfo(List<Message> batch, int count, long timeMillis){
+		this.batch = batch;
+		this.sendTryCount = count;
+		this.timeMillis = timeMillis;
+	}
 	
 	public long getTimeMillis() {
 		return timeMillis;
@@ -57,6 +66,14 @@ public class MessageSentInfo {
 		this.message = message;
 	}
 	
+	/**
+	 * Get messages sent in one batch frame
+	 * @return messages or null if single message has been sent
+	 */
+	public List<Message> getBatch() {
+		return batch;
+	}
+
 	/**
 	 * Get message sending trial count
 	 * @return int
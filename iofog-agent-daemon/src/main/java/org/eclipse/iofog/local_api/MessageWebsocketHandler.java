@@ -22,20 +22,24 @@ import org.eclipse.iofog.exception.AgentUserException;
 import org.eclipse.iofog.message_bus.Message;
 import org.eclipse.iofog.message_bus.MessageBus;
 import org.eclipse.iofog.message_bus.MessageBusUtil;
+import org.eclipse.iofog.message_bus.PriorityMessageQueue;
 import org.eclipse.iofog.status_reporter.StatusReporter;
 import org.eclipse.iofog.utils.BytesUtil;
 import org.eclipse.iofog.utils.logging.LoggingService;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.http.HttpRequest;
 import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
 import io.netty.handler.codec.http.websocketx.CloseWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.ContinuationWebSocketFrame;
 import io.netty.handler.codec.http.websocketx.PingWebSocketFrame;
 import io.netty.handler.codec.http.websocketx.PongWebSocketFrame;
 import io.netty.handler.codec.http.websocketx.WebSocketFrame;
 import io.netty.handler.codec.http.websocketx.WebSocketServerHandshaker;
 import io.netty.handler.codec.http.websocketx.WebSocketServerHandshakerFactory;
+import io.netty.util.AttributeKey;
 
 /**
  * Hadler for the real-time message websocket Open real-time message websocket
@@ -55,6 +59,10 @@ public class MessageWebsocketHandler {
 
 	private static final String WEBSOCKET_PATH = "/v2/message/socket";
 
+	private static final AttributeKey<PriorityMessageQueue> PENDING_MESSAGES = AttributeKey.valueOf("pendingMessages");
+	private static final int PENDING_MESSAGES_CAPACITY = 1024;
+	private static final int FRAME_FRAGMENT_SIZE = 64 * 1024;
+
 	/**
 	 * Handler to open the websocket for the real-time message websocket
 	 * 
@@ -85,9 +93,9 @@ public class MessageWebsocketHandler {
 			handshaker.handshake(ctx.channel(), req);
 		}
 
-		Map<String, ChannelHandlerContext> messageSocketMap = WebSocketMap.messageWebsocketMap;
-		messageSocketMap.put(publisherId, ctx);
-		StatusReporter.setLocalApiStatus().setOpenConfigSocketsCount(WebSocketMap.messageWebsocketMap.size());
+		WebSocketMap.addWebsocket('M', publisherId, ctx);
+		ctx.channel().attr(MessageBatcher.BATCHER).set(MessageBatcher.fromUri(ctx, req.uri()));
+		StatusReporter.setLocalApiStatus().setOpenMessageSocketsCount(WebSocketMap.messageWebsocketMap.size());
 		MessageBus.getInstance().enableRealTimeReceiving(publisherId);
 
 		LoggingService.logInfo(MODULE_NAME, "Finished Handler to open the websocket for the real-time message websocket. Handshake end....");
@@ -179,11 +187,11 @@ public class MessageWebsocketHandler {
 
 		// Check for closing frame
 		if (frame instanceof CloseWebSocketFrame) {
-			ctx.channel().close();
 			MessageBus.getInstance()
 			.disableRealTimeReceiving(WebsocketUtil.getIdForWebsocket(ctx, WebSocketMap.messageWebsocketMap));
 			WebsocketUtil.removeWebsocketContextFromMap(ctx, WebSocketMap.messageWebsocketMap);
-			StatusReporter.setLocalApiStatus().setOpenConfigSocketsCount(WebSocketMap.messageWebsocketMap.size());
+			StatusReporter.setLocalApiStatus().setOpenMessageSocketsCount(WebSocketMap.messageWebsocketMap.size());
+			ctx.channel().close();
 		}
 		LoggingService.logDebug(MODULE_NAME, "Finished real-time message receive and sending real time-time messages");
 	}
@@ -201,27 +209,96 @@ public class MessageWebsocketHandler {
 
 		if (messageSocketMap != null && messageSocketMap.containsKey(receiverId)) {
 			ctx = messageSocketMap.get(receiverId);
-			WebSocketMap.unackMessageSendingMap.put(ctx, new MessageSentInfo(message, 1, System.currentTimeMillis()));
-
-			int totalMsgLength;
-			byte[] bytesMsg = message.getBytes();
-
-			totalMsgLength = bytesMsg.length;
+			PriorityMessageQueue pending = ctx.channel().attr(PENDING_MESSAGES).get();
+			if (pending == null) {
+				pending = new PriorityMessageQueue(PENDING_MESSAGES_CAPACITY);
+				PriorityMessageQueue existing = ctx.channel().attr(PENDING_MESSAGES).setIfAbsent(pending);
+				if (existing != null)
+					pending = existing;
+			}
 
-			ByteBuf buffer1 = ctx.alloc().buffer(totalMsgLength + 5);
-			// Send Opcode
-			buffer1.writeByte(OPCODE_MSG);
-			// Total Length
-			buffer1.writeBytes(BytesUtil.integerToBytes(totalMsgLength));
-			// Message
-			buffer1.writeBytes(bytesMsg);
-			ctx.channel().writeAndFlush(new BinaryWebSocketFrame(buffer1));
+			PriorityMessageQueue.OfferResult result = pending.offer(message);
+			if (result.getDropped() != null)
+				StatusReporter.setMessageBusStatus().increaseDroppedMessages(result.getDropped().getPriority());
+			if (!result.isAccepted()) {
+				StatusReporter.setMessageBusStatus().increaseDroppedMessages(message.getPriority());
+				LoggingService.logWarning(MODULE_NAME, "Real-time websocket of " + receiverId + " is too slow, message dropped");
+			} else if (result.wasEmpty()) {
+				ctx.executor().execute(() -> drainPendingMessages(ctx));
+			}
 		} else {
 			LoggingService.logError(MODULE_NAME, "No active real-time websocket found for " + receiverId, 
 					new AgentSystemException("No active real-time websocket found for " + receiverId, null));
 		}
 	}
 
+	/**
+	 * Writes pending messages of real-time websocket, highest priority first,
+	 * while websocket is writable. Called on event loop of websocket
+	 *
+	 * @param ctx
+	 */
+	static void drainPendingMessages(ChannelHandlerContext ctx) {
+		PriorityMessageQueue pending = ctx.channel().attr(PENDING_MESSAGES).get();
+		if (pending == null)
+			return;
+
+		MessageBatcher batcher = ctx.channel().attr(MessageBatcher.BATCHER).get();
+		Message message;
+		while (ctx.channel().isWritable() && (message = pending.poll()) != null) {
+			StatusReporter.setMessageBusStatus().increaseDeliveredMessages(message.getPriority(),
+					System.currentTimeMillis() - message.getTimestamp());
+			if (batcher != null) {
+				batcher.add(message);
+				continue;
+			}
+			WebSocketMap.unackMessageSendingMap.put(ctx, new MessageSentInfo(message, 1, System.currentTimeMillis()));
+			writeMessage(ctx, message);
+		}
+	}
+
+	/**
+	 * Writes message frame. Content data of message is wrapped, not copied, and
+	 * large frame is split into fragments which are all queued on the event loop at once
+	 *
+	 * @param ctx
+	 * @param message
+	 */
+	static void writeMessage(ChannelHandlerContext ctx, Message message) {
+		if (!ctx.executor().inEventLoop()) {
+			// fragments of one frame must not interleave with other frames
+			ctx.executor().execute(() -> writeMessage(ctx, message));
+			return;
+		}
+
+		byte[] envelope = message.getEnvelopeBytes();
+		byte[] content = message.getContentData() == null ? new byte[0] : message.getContentData();
+		int totalMsgLength = envelope.length + content.length;
+
+		ByteBuf prefix = ctx.alloc().buffer(5);
+		// Send Opcode
+		prefix.writeByte(OPCODE_MSG);
+		// Total Length
+		prefix.writeBytes(BytesUtil.integerToBytes(totalMsgLength));
+		// Message
+		ByteBuf frame = Unpooled.wrappedBuffer(prefix, Unpooled.wrappedBuffer(envelope), Unpooled.wrappedBuffer(content));
+		if (frame.readableBytes() <= FRAME_FRAGMENT_SIZE) {
+			ctx.channel().writeAndFlush(new BinaryWebSocketFrame(frame));
+			return;
+		}
+
+		int length = frame.readableBytes();
+		for (int offset = 0; offset < length; offset += FRAME_FRAGMENT_SIZE) {
+			ByteBuf fragment = frame.retainedSlice(offset, Math.min(FRAME_FRAGMENT_SIZE, length - offset));
+			boolean last = offset + FRAME_FRAGMENT_SIZE >= length;
+			WebSocketFrame webSocketFrame = offset == 0
+					? new BinaryWebSocketFrame(false, 0, fragment)
+					: new ContinuationWebSocketFrame(last, 0, fragment);
+			ctx.channel().writeAndFlush(webSocketFrame);
+		}
+		frame.release();
+	}
+
 	/**
 	 * Websocket path
 	 * 
@@ -12,16 +12,15 @@
  */
 package org.eclipse.iofog.local_api;
 
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import org.eclipse.iofog.message_bus.Message;
 import org.eclipse.iofog.message_bus.MessageBus;
 import org.eclipse.iofog.status_reporter.StatusReporter;
-import org.eclipse.iofog.utils.BytesUtil;
-import org.eclipse.iofog.utils.Constants;
 import org.eclipse.iofog.utils.logging.LoggingService;
 
-import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
 
@@ -33,7 +32,6 @@ import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
  */
 public class MessageWebsocketWorker implements Runnable{
 	private static final String MODULE_NAME = "Local API";
-	private static final Byte OPCODE_MSG = 0xD;
 //	private static int count = 0;
 	
 	/**
@@ -43,7 +41,6 @@ public class MessageWebsocketWorker implements Runnable{
 	 */
 	@Override
 	public void run() {
-		Thread.currentThread().setName(Constants.LOCAL_API_MESSAGE_WEBSOCKET_WORKER);
 		LoggingService.logDebug(MODULE_NAME,"Initiating message sending for the unacknowledged messages");
 
 		for(Map.Entry<ChannelHandlerContext, MessageSentInfo> contextEntry : WebSocketMap.unackMessageSendingMap.entrySet()){
@@ -60,7 +57,7 @@ public class MessageWebsocketWorker implements Runnable{
 					WebSocketMap.unackMessageSendingMap.remove(ctx);
 					MessageBus.getInstance().disableRealTimeReceiving(WebsocketUtil.getIdForWebsocket(ctx, WebSocketMap.messageWebsocketMap));
 					WebsocketUtil.removeWebsocketContextFromMap(ctx, WebSocketMap.messageWebsocketMap);	
-					StatusReporter.setLocalApiStatus().setOpenConfigSocketsCount(WebSocketMap.messageWebsocketMap.size());
+					StatusReporter.setLocalApiStatus().setOpenMessageSocketsCount(WebSocketMap.messageWebsocketMap.size());
 					return;
 				}
 			}
@@ -79,18 +76,14 @@ public class MessageWebsocketWorker implements Runnable{
 		int tryCount = messageContextAndCount.getSendTryCount();
 		Message message = messageContextAndCount.getMessage();
 		tryCount = tryCount + 1;
+		List<Message> batch = messageContextAndCount.getBatch();
+		if (batch != null) {
+			WebSocketMap.unackMessageSendingMap.put(ctx, new MessageSentInfo(batch, tryCount, System.currentTimeMillis()));
+			List<byte[]> batchBytes = batch.stream().map(Message::getBytes).collect(Collectors.toList());
+			ctx.channel().writeAndFlush(new BinaryWebSocketFrame(MessageBatcher.encode(ctx.alloc(), batchBytes)));
+			return;
+		}
 		WebSocketMap.unackMessageSendingMap.put(ctx, new MessageSentInfo(message, tryCount, System.currentTimeMillis()));
-		ByteBuf buffer1 = ctx.alloc().buffer();
-
-		//Send Opcode
-		buffer1.writeByte(OPCODE_MSG);
-
-		byte[] bytesMsg = message.getBytes();
-		int totalMsgLength = bytesMsg.length;
-		//Total Length
-		buffer1.writeBytes(BytesUtil.integerToBytes(totalMsgLength));
-		//Message
-		buffer1.writeBytes(bytesMsg);
-		ctx.channel().writeAndFlush(new BinaryWebSocketFrame(buffer1));
+		MessageWebsocketHandler.writeMessage(ctx, message);
 	}
 }
@@ -0,0 +1,286 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.local_api;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpObject;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpStatusClass;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.util.ReferenceCountUtil;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.FutureListener;
+import org.eclipse.iofog.exception.AgentSystemException;
+import org.eclipse.iofog.utils.logging.LoggingService;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * streams requests matching {@link HttpReverseProxy} to service and its responses back, without aggregating bodies
+ * sits in front of {@link io.netty.handler.codec.http.HttpObjectAggregator}, other requests are passed on untouched
+ * all work is done on event loop of local api channel, pooled connections to service run on the same event loop
+ */
+public class ReverseProxyHandler extends ChannelInboundHandlerAdapter {
+	private static final String MODULE_NAME = "Local API : Reverse Proxy";
+
+	private final List<HttpReverseProxy> proxies;
+	private final List<HttpObject> pending = new ArrayList<>();
+	private ChannelHandlerContext ctx;
+	private HttpReverseProxy proxy;
+	private Channel backend;
+	private ChannelFuture lastWrite;
+	private boolean keepAlive;
+	private boolean backendKeepAlive;
+	private boolean interimResponse;
+	private boolean requestComplete;
+	private boolean responseStarted;
+	private boolean responseComplete;
+
+	public ReverseProxyHandler(List<HttpReverseProxy> proxies) {
+		this.proxies = proxies;
+	}
+
+	@Override
+	public void handlerAdded(ChannelHandlerContext ctx) {
+		this.ctx = ctx;
+	}
+
+	@Override
+	public void channelRead(ChannelHandlerContext ctx, Object msg) {
+		if (proxy == null) {
+			HttpReverseProxy matched = msg instanceof HttpRequest ? findProxy(((HttpRequest) msg).uri()) : null;
+			if (matched == null) {
+				ctx.fireChannelRead(msg);
+				return;
+			}
+			startRequest(matched, (HttpRequest) msg);
+		} else if (msg instanceof HttpRequest) {
+			LoggingService.logWarning(MODULE_NAME, "Closing connection, pipelined requests to " + proxy.getName() + " are not supported");
+			ReferenceCountUtil.release(msg);
+			ctx.close();
+			return;
+		} else {
+			toBackend((HttpObject) msg);
+		}
+
+		if (msg instanceof LastHttpContent) {
+			requestComplete = true;
+			completeIfDone();
+		}
+	}
+
+	private HttpReverseProxy findProxy(String uri) {
+		for (HttpReverseProxy reverseProxy : proxies) {
+			if (reverseProxy.matches(uri)) {
+				return reverseProxy;
+			}
+		}
+		return null;
+	}
+
+	private void startRequest(HttpReverseProxy matched, HttpRequest request) {
+		LoggingService.logDebug(MODULE_NAME, "Proxy request to " + matched.getName());
+		proxy = matched;
+		keepAlive = HttpUtil.isKeepAlive(request);
+		interimResponse = requestComplete = responseStarted = responseComplete = false;
+		lastWrite = null;
+
+		request.setUri(matched.getBackendUri(request.uri()));
+		request.headers().set(HttpHeaderNames.HOST, matched.getAuthority());
+		HttpUtil.setKeepAlive(request, true);
+		toBackend(request);
+
+		// request parts are queued until connection is acquired, stop reading them meanwhile
+		ctx.channel().config().setAutoRead(false);
+		matched.acquire(ctx.channel().eventLoop()).addListener((FutureListener<Channel>) future -> connected(matched, future));
+	}
+
+	private void connected(HttpReverseProxy requestProxy, Future<Channel> future) {
+		if (!future.isSuccess()) {
+			if (proxy == requestProxy) {
+				connectFailed(future.cause());
+			}
+			return;
+		}
+		Channel channel = future.getNow();
+		if (proxy != requestProxy || !ctx.channel().isActive()) {
+			// local api channel has been closed meanwhile, connection has not been used
+			releasePending();
+			requestProxy.release(channel, true);
+			return;
+		}
+		backend = channel;
+		backend.attr(HttpReverseProxy.CLIENT).set(this);
+		pending.forEach(backend::write);
+		pending.clear();
+		backend.flush();
+		ctx.channel().config().setAutoRead(backend.isWritable());
+	}
+
+	private void toBackend(HttpObject msg) {
+		if (responseComplete) {
+			ReferenceCountUtil.release(msg);
+		} else if (backend == null) {
+			pending.add(msg);
+		} else {
+			backend.writeAndFlush(msg);
+			if (!backend.isWritable()) {
+				ctx.channel().config().setAutoRead(false);
+			}
+		}
+	}
+
+	private void connectFailed(Throwable cause) {
+		LoggingService.logError(MODULE_NAME, "Error unable to reach " + proxy.getName(),
+				new AgentSystemException(cause.getMessage(), cause));
+		sendError(HttpResponseStatus.NOT_FOUND, "unable to reach " + proxy.getName() + "!");
+	}
+
+	private void sendError(HttpResponseStatus status, String error) {
+		releasePending();
+		responseComplete = true;
+		String responseString = "{\"error\":\"" + error + "\"}";
+		FullHttpResponse response = status == HttpResponseStatus.NOT_FOUND
+				? ApiHandlerHelpers.notFoundResponse(ctx.alloc().buffer(), responseString)
+				: ApiHandlerHelpers.internalServerErrorResponse(ctx.alloc().buffer(), responseString);
+		response.headers().set(HttpHeaderNames.CONTENT_TYPE, "application/json");
+		ctx.writeAndFlush(response).addListener(ChannelFutureListener.CLOSE);
+	}
+
+	/**
+	 * passes part of response of service to local api channel
+	 *
+	 * @param msg - response or its content
+	 */
+	void backendRead(Object msg) {
+		if (msg instanceof HttpResponse) {
+			HttpResponse response = (HttpResponse) msg;
+			interimResponse = response.status().codeClass() == HttpStatusClass.INFORMATIONAL;
+			if (!interimResponse) {
+				responseStarted = true;
+				backendKeepAlive = HttpUtil.isKeepAlive(response);
+				if (!requestComplete) {
+					// rest of request is not read by service, so connection can not serve next request
+					keepAlive = false;
+				}
+				HttpUtil.setKeepAlive(response, keepAlive);
+			}
+		}
+
+		ChannelFuture written = ctx.writeAndFlush(msg);
+		if (backend != null && !ctx.channel().isWritable()) {
+			backend.config().setAutoRead(false);
+		}
+
+		if (msg instanceof LastHttpContent) {
+			if (interimResponse) {
+				interimResponse = false;
+				return;
+			}
+			responseComplete = true;
+			lastWrite = written;
+			if (!requestComplete) {
+				// service has answered before whole request was sent, rest of request is discarded with connection
+				releaseBackend(false);
+				written.addListener(ChannelFutureListener.CLOSE);
+				return;
+			}
+			completeIfDone();
+		}
+	}
+
+	/**
+	 * called when connection to service has been closed before response was complete
+	 */
+	void backendClosed() {
+		releaseBackend(false);
+		if (responseStarted) {
+			ctx.close();
+		} else {
+			LoggingService.logWarning(MODULE_NAME, "Connection to " + proxy.getName() + " closed before response");
+			sendError(HttpResponseStatus.INTERNAL_SERVER_ERROR, "connection to " + proxy.getName() + " closed!");
+		}
+	}
+
+	void backendWritabilityChanged(boolean writable) {
+		if (!requestComplete) {
+			ctx.channel().config().setAutoRead(writable);
+		}
+	}
+
+	private void completeIfDone() {
+		if (!requestComplete || !responseComplete) {
+			return;
+		}
+		if (backend != null) {
+			releaseBackend(backendKeepAlive);
+		}
+		proxy = null;
+		if (keepAlive) {
+			ctx.channel().config().setAutoRead(true);
+		} else if (lastWrite != null) {
+			lastWrite.addListener(ChannelFutureListener.CLOSE);
+		}
+	}
+
+	private void releaseBackend(boolean reusable) {
+		Channel channel = backend;
+		backend = null;
+		if (channel != null) {
+			proxy.release(channel, reusable);
+		}
+	}
+
+	private void releasePending() {
+		pending.forEach(ReferenceCountUtil::release);
+		pending.clear();
+	}
+
+	@Override
+	public void channelWritabilityChanged(ChannelHandlerContext ctx) {
+		if (backend != null) {
+			backend.config().setAutoRead(ctx.channel().isWritable());
+		}
+		ctx.fireChannelWritabilityChanged();
+	}
+
+	@Override
+	public void channelInactive(ChannelHandlerContext ctx) {
+		releasePending();
+		releaseBackend(false);
+		proxy = null;
+		ctx.fireChannelInactive();
+	}
+
+	@Override
+	public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+		if (proxy == null) {
+			ctx.fireExceptionCaught(cause);
+			return;
+		}
+		LoggingService.logError(MODULE_NAME, "Error proxying request to " + proxy.getName(),
+				new AgentSystemException(cause.getMessage(), cause));
+		ctx.close();
+	}
+}
@@ -15,9 +15,12 @@ package org.eclipse.iofog.local_api;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
+import org.eclipse.iofog.message_bus.MessageBus;
+import org.eclipse.iofog.status_reporter.StatusReporter;
 import org.eclipse.iofog.utils.logging.LoggingService;
 
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.util.AttributeKey;
 
 /**
  * Real-time message and cotrol open websockets map.
@@ -32,25 +35,97 @@ public final class WebSocketMap {
 	static final Map<ChannelHandlerContext, MessageSentInfo> unackMessageSendingMap = new ConcurrentHashMap<>();
 	static final Map<ChannelHandlerContext, ControlSignalSentInfo> unackControlSignalsMap = new ConcurrentHashMap<>();
 
-
+	private static final AttributeKey<String> CONTROL_WEBSOCKET_ID = AttributeKey.valueOf("controlWebsocketId");
+	private static final AttributeKey<String> MESSAGE_WEBSOCKET_ID = AttributeKey.valueOf("messageWebsocketId");
 
 	private WebSocketMap(){
 		throw new UnsupportedOperationException(WebSocketMap.class + "could not be instantiated");
 	}
 	
+	/**
+	 * binds websocket channel to id of microservice
+	 * id is also stored as attribute of channel, so that lookups by channel do not scan the map,
+	 * binding is removed when channel is closed
+	 *
+	 * @param ws - 'C' for control websocket, 'M' for message websocket
+	 * @param id - id of microservice
+	 * @param ctx - context of websocket channel
+	 */
 	public static void addWebsocket(char ws, String id, ChannelHandlerContext ctx) {
 		LoggingService.logDebug("WebSocketMap", "Adding web socket");
+		Map<String, ChannelHandlerContext> socketMap;
+		switch (ws) {
+			case 'C':
+				socketMap = controlWebsocketMap;
+				break;
+			case 'M':
+				socketMap = messageWebsocketMap;
+				break;
+			default:
+				return;
+		}
+
+		AttributeKey<String> idKey = getIdKey(socketMap);
 		synchronized (WebSocketMap.class) {
-			switch (ws) {
-				case 'C':
-					controlWebsocketMap.put(id, ctx);
-					break;
-				case 'M':
-					messageWebsocketMap.put(id, ctx);
+			ChannelHandlerContext previous = socketMap.put(id, ctx);
+			if (previous != null && previous != ctx) {
+				previous.channel().attr(idKey).compareAndSet(id, null);
+			}
+			String previousId = ctx.channel().attr(idKey).getAndSet(id);
+			if (previousId != null && !previousId.equals(id)) {
+				socketMap.remove(previousId, ctx);
+			}
+			if (previousId == null) {
+				ctx.channel().closeFuture().addListener(future -> websocketClosed(ws, ctx, socketMap));
 			}
 		}
 	}
 
+	/**
+	 * returns id of microservice websocket channel is bound to
+	 *
+	 * @param ctx - context of websocket channel
+	 * @param socketMap - control or message websocket map
+	 * @return id or null if channel is not bound
+	 */
+	static String getWebsocketId(ChannelHandlerContext ctx, Map<String, ChannelHandlerContext> socketMap) {
+		String id = ctx.channel().attr(getIdKey(socketMap)).get();
+		return id != null && socketMap.get(id) == ctx ? id : null;
+	}
+
+	/**
+	 * removes binding of websocket channel
+	 *
+	 * @param ctx - context of websocket channel
+	 * @param socketMap - control or message websocket map
+	 * @return id the channel has been bound to or null
+	 */
+	static String removeWebsocket(ChannelHandlerContext ctx, Map<String, ChannelHandlerContext> socketMap) {
+		synchronized (WebSocketMap.class) {
+			String id = ctx.channel().attr(getIdKey(socketMap)).getAndSet(null);
+			return id != null && socketMap.remove(id, ctx) ? id : null;
+		}
+	}
+
+	private static void websocketClosed(char ws, ChannelHandlerContext ctx, Map<String, ChannelHandlerContext> socketMap) {
+		String id = removeWebsocket(ctx, socketMap);
+		unackMessageSendingMap.remove(ctx);
+		unackControlSignalsMap.remove(ctx);
+		if (id == null) {
+			return;
+		}
+		if (ws == 'M') {
+			MessageBus.getInstance().disableRealTimeReceiving(id);
+			StatusReporter.setLocalApiStatus().setOpenMessageSocketsCount(messageWebsocketMap.size());
+		} else {
+			StatusReporter.setLocalApiStatus().setOpenConfigSocketsCount(controlWebsocketMap.size());
+		}
+	}
+
+	private static AttributeKey<String> getIdKey(Map<String, ChannelHandlerContext> socketMap) {
+		return socketMap == controlWebsocketMap ? CONTROL_WEBSOCKET_ID : MESSAGE_WEBSOCKET_ID;
+	}
+
 	public static Map<String, ChannelHandlerContext> getMessageWebsocketMap() {
 		return messageWebsocketMap;
 	}
@@ -12,7 +12,6 @@
  */
 package org.eclipse.iofog.local_api;
 
-import java.util.Iterator;
 import java.util.Map;
 
 import org.eclipse.iofog.utils.logging.LoggingService;
@@ -33,15 +32,9 @@ public class WebsocketUtil {
 	 * @param socketMap
 	 * @return void
 	 */
-	public static synchronized void removeWebsocketContextFromMap(ChannelHandlerContext ctx, Map<String, ChannelHandlerContext> socketMap){
+	public static void removeWebsocketContextFromMap(ChannelHandlerContext ctx, Map<String, ChannelHandlerContext> socketMap){
 		LoggingService.logDebug(MODULE_NAME, "Removing real-time websocket context for the id ");
-		for (Iterator<Map.Entry<String,ChannelHandlerContext>> it = socketMap.entrySet().iterator(); it.hasNext();) {
-			Map.Entry<String,ChannelHandlerContext> e = it.next();
-			if (ctx.equals(e.getValue())) {
-				it.remove();
-			}
-		}
-		LoggingService.logDebug(MODULE_NAME, "Finished Removing real-time websocket context for the id ");
+		WebSocketMap.removeWebsocket(ctx, socketMap);
 	}
 	
 	/**
@@ -51,13 +44,7 @@ public class WebsocketUtil {
 	 * @return boolean
 	 */
 	public static boolean hasContextInMap(ChannelHandlerContext ctx, Map<String, ChannelHandlerContext> socketMap) {
-		for (ChannelHandlerContext context: socketMap.values())
-			if (context.equals(ctx)) {
-				LoggingService.logInfo(MODULE_NAME, "Container has open real-time websocket : " + true);
-				return true;
-			}
-		LoggingService.logInfo(MODULE_NAME, "Container has open real-time websocket : " + false);
-		return false;
+		return WebSocketMap.getWebsocketId(ctx, socketMap) != null;
 	}
 	
 	/**
@@ -67,13 +54,7 @@ public class WebsocketUtil {
 	 * @return String
 	 */
 	public static String getIdForWebsocket(ChannelHandlerContext ctx, Map<String, ChannelHandlerContext> socketMap){
-		LoggingService.logDebug(MODULE_NAME, "Get id for the real-time socket channel");
-		String id = "";
-		for (Map.Entry<String, ChannelHandlerContext> e : socketMap.entrySet()) {
-			if (ctx.equals(e.getValue())) {
-				return e.getKey();
-			}
-		}
-		return id;
+		String id = WebSocketMap.getWebsocketId(ctx, socketMap);
+		return id != null ? id : "";
 	}
 }
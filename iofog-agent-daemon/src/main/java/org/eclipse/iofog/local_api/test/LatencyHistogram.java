@@ -0,0 +1,95 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.local_api.test;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * lock free log-linear histogram of latencies in microseconds
+ * each power of two is split into 16 buckets, so recorded values are accurate to ~6%
+ */
+public class LatencyHistogram {
+	private static final int SUB_BUCKETS = 16;
+	private static final int SUB_BUCKET_BITS = 4;
+
+	private final AtomicLongArray counts = new AtomicLongArray(64 * SUB_BUCKETS);
+	private final AtomicLong total = new AtomicLong();
+	private final AtomicLong max = new AtomicLong();
+
+	public void record(long micros) {
+		long value = Math.max(0, micros);
+		counts.incrementAndGet(indexOf(value));
+		total.incrementAndGet();
+		long currentMax;
+		while (value > (currentMax = max.get()) && !max.compareAndSet(currentMax, value)) {
+		}
+	}
+
+	public long getCount() {
+		return total.get();
+	}
+
+	public long getMax() {
+		return max.get();
+	}
+
+	/**
+	 * returns lower bound of bucket containing given percentile
+	 *
+	 * @param percentile - percentile between 0 and 100
+	 * @return latency in microseconds
+	 */
+	public long getPercentile(double percentile) {
+		long count = total.get();
+		if (count == 0)
+			return 0;
+		long rank = Math.max(1, (long) Math.ceil(count * percentile / 100));
+		long cumulative = 0;
+		for (int i = 0; i < counts.length(); i++) {
+			cumulative += counts.get(i);
+			if (cumulative >= rank)
+				return valueOf(i);
+		}
+		return max.get();
+	}
+
+	public void reset() {
+		for (int i = 0; i < counts.length(); i++)
+			counts.set(i, 0);
+		total.set(0);
+		max.set(0);
+	}
+
+	static int indexOf(long value) {
+		if (value < SUB_BUCKETS)
+			return (int) value;
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int subBucket = (int) ((value >> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1));
+		return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+	}
+
+	static long valueOf(int index) {
+		if (index < SUB_BUCKETS)
+			return index;
+		int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+		int subBucket = index % SUB_BUCKETS;
+		return (long) (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("p50=%dus p90=%dus p99=%dus p99.9=%dus max=%dus",
+				getPercentile(50), getPercentile(90), getPercentile(99), getPercentile(99.9), getMax());
+	}
+}
@@ -0,0 +1,39 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.local_api.test;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.http.websocketx.WebSocketClientHandshaker;
+
+/**
+ * holds control websocket open and acknowledges control signals
+ */
+public class LoadControlHandler extends LoadWebSocketClientHandler {
+
+	public LoadControlHandler(WebSocketClientHandshaker handshaker, LoadStats stats) {
+		super(handshaker, stats);
+	}
+
+	@Override
+	protected void onConnected(ChannelHandlerContext ctx) {
+	}
+
+	@Override
+	protected void onFrame(ChannelHandlerContext ctx, ByteBuf content) {
+		if (content.getByte(content.readerIndex()) == OPCODE_CONTROL_SIGNAL) {
+			stats.controlSignals.incrementAndGet();
+			sendOpcode(ctx, OPCODE_ACK);
+		}
+	}
+}
@@ -0,0 +1,165 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.local_api.test;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.HttpClientCodec;
+import io.netty.handler.codec.http.HttpObjectAggregator;
+import io.netty.handler.codec.http.websocketx.WebSocketClientHandshaker;
+import io.netty.handler.codec.http.websocketx.WebSocketClientHandshakerFactory;
+import io.netty.handler.codec.http.websocketx.WebSocketVersion;
+import io.netty.handler.codec.http.websocketx.extensions.compression.WebSocketClientCompressionHandler;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * load generator and soak test for local api websockets
+ * opens many message and control sockets on shared event loops, publishes at target rate through real message bus
+ * of running agent and reports throughput, loss and latency percentiles
+ *
+ * configured with system properties:
+ * url - base url of local api (default ws://127.0.0.1:54321)
+ * publishers, receivers, controls - comma separated microservice ids
+ * connections - sockets per id (default 1)
+ * rate - messages per second per publisher socket (default 10)
+ * payload - content data size in bytes (default 1024)
+ * duration, warmup, drain, report - seconds (defaults 60, 5, 5, 10)
+ * threads - event loop threads (default 0, netty default)
+ * batchMaxDelay, batchMaxBytes - ask agent to batch messages of receiver sockets (default 0, one message per frame)
+ * compression - negotiate permessage-deflate (default false)
+ *
+ * publishers have to be routed to receivers in agent configuration
+ */
+public class LoadGeneratorMain {
+	private static final int MAX_PENDING_CONNECTS = 256;
+	private static final int MAX_FRAME_SIZE = 65536 * 16;
+
+	private final String url = System.getProperty("url", "ws://127.0.0.1:54321");
+	private final int connections = Integer.getInteger("connections", 1);
+	private final int rate = Integer.getInteger("rate", 10);
+	private final int payload = Integer.getInteger("payload", 1024);
+	private final boolean compression = Boolean.getBoolean("compression");
+	private final Semaphore pendingConnects = new Semaphore(MAX_PENDING_CONNECTS);
+	private final EventLoopGroup group = new NioEventLoopGroup(Integer.getInteger("threads", 0));
+	private final List<Channel> channels = new ArrayList<>();
+	private final List<LoadSenderHandler> senders = new ArrayList<>();
+	private LoadStats stats;
+
+	public static void main(String[] args) throws Exception {
+		new LoadGeneratorMain().run();
+	}
+
+	private void run() throws Exception {
+		String[] publishers = ids("publishers");
+		String[] receivers = ids("receivers");
+		String[] controls = ids("controls");
+		stats = new LoadStats(publishers.length * connections);
+
+		try {
+			for (String id : controls)
+				for (int i = 0; i < connections; i++)
+					connect("/v2/control/socket/id/" + id, handshaker -> new LoadControlHandler(handshaker, stats));
+			for (String id : receivers)
+				for (int i = 0; i < connections; i++)
+					connect("/v2/message/socket/id/" + id + batchQuery(), handshaker -> new LoadReceiverHandler(handshaker, stats));
+			int senderIndex = 0;
+			for (String id : publishers) {
+				for (int i = 0; i < connections; i++) {
+					int index = senderIndex++;
+					connect("/v2/message/socket/id/" + id, handshaker -> {
+						LoadSenderHandler sender = new LoadSenderHandler(handshaker, stats, id, index, rate, payload);
+						senders.add(sender);
+						return sender;
+					});
+				}
+			}
+
+			int reportInterval = Integer.getInteger("report", 10);
+			group.scheduleAtFixedRate(() -> stats.report("load"), reportInterval, reportInterval, TimeUnit.SECONDS);
+
+			TimeUnit.SECONDS.sleep(Integer.getInteger("warmup", 5));
+			stats.latency.reset();
+			stats.report("warmup done");
+			TimeUnit.SECONDS.sleep(Integer.getInteger("duration", 60));
+
+			senders.forEach(LoadSenderHandler::stop);
+			TimeUnit.SECONDS.sleep(Integer.getInteger("drain", 5));
+			stats.countTailLoss();
+			stats.report("final");
+		} finally {
+			channels.forEach(Channel::close);
+			group.shutdownGracefully().sync();
+		}
+	}
+
+	private String[] ids(String property) {
+		String value = System.getProperty(property, "").trim();
+		return value.isEmpty() ? new String[0] : value.split("\\s*,\\s*");
+	}
+
+	private String batchQuery() {
+		int maxDelay = Integer.getInteger("batchMaxDelay", 0);
+		int maxBytes = Integer.getInteger("batchMaxBytes", 0);
+		if (maxDelay <= 0 && maxBytes <= 0)
+			return "";
+		return "?batchMaxDelay=" + maxDelay + "&batchMaxBytes=" + maxBytes;
+	}
+
+	private void connect(String path, Function<WebSocketClientHandshaker, LoadWebSocketClientHandler> handlerFactory)
+			throws Exception {
+		URI uri = new URI(url + path);
+		WebSocketClientHandshaker handshaker = WebSocketClientHandshakerFactory.newHandshaker(
+				uri, WebSocketVersion.V13, null, compression, new DefaultHttpHeaders(), MAX_FRAME_SIZE);
+		LoadWebSocketClientHandler handler = handlerFactory.apply(handshaker);
+
+		Bootstrap b = new Bootstrap();
+		b.group(group)
+		.channel(NioSocketChannel.class)
+		.option(ChannelOption.TCP_NODELAY, true)
+		.handler(new ChannelInitializer<SocketChannel>() {
+			@Override
+			protected void initChannel(SocketChannel ch) {
+				ch.pipeline().addLast(
+						new HttpClientCodec(),
+						new HttpObjectAggregator(MAX_FRAME_SIZE));
+				if (compression)
+					ch.pipeline().addLast(WebSocketClientCompressionHandler.INSTANCE);
+				ch.pipeline().addLast(handler);
+			}
+		});
+
+		// limit connects in flight, so thousands of sockets do not overflow accept backlog of local api
+		pendingConnects.acquire();
+		ChannelFuture future = b.connect(uri.getHost(), uri.getPort());
+		future.addListener(f -> {
+			pendingConnects.release();
+			if (!f.isSuccess())
+				stats.connectFailures.incrementAndGet();
+		});
+		channels.add(future.channel());
+	}
+}
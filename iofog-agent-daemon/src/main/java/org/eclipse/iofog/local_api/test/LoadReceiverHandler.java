@@ -0,0 +1,94 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.local_api.test;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.http.websocketx.WebSocketClientHandshaker;
+import org.eclipse.iofog.message_bus.Message;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * receives messages routed by message bus, records their latency and counts gaps in sequence numbers as lost
+ * latency is measured with System.nanoTime, so senders and receivers must run in the same process
+ */
+public class LoadReceiverHandler extends LoadWebSocketClientHandler {
+	private final Map<Integer, Integer> lastSequences = new ConcurrentHashMap<>();
+
+	public LoadReceiverHandler(WebSocketClientHandshaker handshaker, LoadStats stats) {
+		super(handshaker, stats);
+		stats.addReceiver(this);
+	}
+
+	@Override
+	protected void onConnected(ChannelHandlerContext ctx) {
+	}
+
+	@Override
+	protected void onFrame(ChannelHandlerContext ctx, ByteBuf content) {
+		byte opcode = content.readByte();
+		if (opcode == OPCODE_MSG_BATCH && content.readableBytes() >= Integer.BYTES) {
+			long now = System.nanoTime();
+			int count = content.readInt();
+			for (int i = 0; i < count && content.readableBytes() >= Integer.BYTES; i++)
+				received(now, readMessage(content));
+			sendOpcode(ctx, OPCODE_ACK);
+		} else if (opcode == OPCODE_MSG && content.readableBytes() >= Integer.BYTES) {
+			long now = System.nanoTime();
+			byte[] bytes = readMessage(content);
+			sendOpcode(ctx, OPCODE_ACK);
+			received(now, bytes);
+		}
+	}
+
+	private static byte[] readMessage(ByteBuf content) {
+		int length = content.readInt();
+		byte[] bytes = new byte[Math.min(length, content.readableBytes())];
+		content.readBytes(bytes);
+		return bytes;
+	}
+
+	private void received(long now, byte[] bytes) {
+		byte[] contentData = new Message(bytes).getContentData();
+		if (contentData == null || contentData.length < LoadSenderHandler.HEADER_SIZE)
+			return;
+		ByteBuffer data = ByteBuffer.wrap(contentData);
+		long sentTime = data.getLong();
+		int senderIndex = data.getInt();
+		int sequence = data.getInt();
+
+		stats.received.incrementAndGet();
+		stats.latency.record(TimeUnit.NANOSECONDS.toMicros(now - sentTime));
+
+		Integer last = lastSequences.get(senderIndex);
+		int expected = last == null ? 1 : last + 1;
+		if (sequence > expected)
+			stats.lost.addAndGet(sequence - expected);
+		if (last == null || sequence > last)
+			lastSequences.put(senderIndex, sequence);
+	}
+
+	/**
+	 * returns number of messages sent after the last one this socket received from each sender
+	 */
+	long getTailLoss(LoadStats stats) {
+		long tailLoss = 0;
+		for (Map.Entry<Integer, Integer> entry : lastSequences.entrySet())
+			tailLoss += Math.max(0, stats.getLastSentSequence(entry.getKey()) - entry.getValue());
+		return tailLoss;
+	}
+}
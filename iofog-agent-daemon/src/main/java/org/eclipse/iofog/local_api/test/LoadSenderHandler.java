@@ -0,0 +1,121 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.local_api.test;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketClientHandshaker;
+import io.netty.util.concurrent.ScheduledFuture;
+import org.eclipse.iofog.message_bus.Message;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * publishes messages at fixed rate from event loop of its socket
+ * content data starts with send time, sender index and sequence number, so receivers can measure latency and loss
+ */
+public class LoadSenderHandler extends LoadWebSocketClientHandler {
+	static final int HEADER_SIZE = Long.BYTES + Integer.BYTES + Integer.BYTES;
+	private static final int MAX_TICKS_PER_SECOND = 1000;
+
+	private final String publisherId;
+	private final int senderIndex;
+	private final int rate;
+	private final byte[] padding;
+	private int sequence;
+	private double credit;
+	private volatile ScheduledFuture<?> sendTask;
+
+	public LoadSenderHandler(WebSocketClientHandshaker handshaker, LoadStats stats, String publisherId,
+							 int senderIndex, int rate, int payloadSize) {
+		super(handshaker, stats);
+		this.publisherId = publisherId;
+		this.senderIndex = senderIndex;
+		this.rate = rate;
+		this.padding = new byte[Math.max(0, payloadSize - HEADER_SIZE)];
+	}
+
+	@Override
+	protected void onConnected(ChannelHandlerContext ctx) {
+		if (rate <= 0)
+			return;
+		int ticks = Math.min(rate, MAX_TICKS_PER_SECOND);
+		long period = TimeUnit.SECONDS.toNanos(1) / ticks;
+		double messagesPerTick = (double) rate / ticks;
+		// spread sockets over the period so they do not send in bursts
+		long initialDelay = ThreadLocalRandom.current().nextLong(period);
+		sendTask = ctx.executor().scheduleAtFixedRate(() -> {
+			credit += messagesPerTick;
+			boolean written = false;
+			while (credit >= 1) {
+				credit--;
+				written |= send(ctx);
+			}
+			if (written)
+				ctx.flush();
+		}, initialDelay, period, TimeUnit.NANOSECONDS);
+	}
+
+	private boolean send(ChannelHandlerContext ctx) {
+		if (!ctx.channel().isWritable()) {
+			stats.throttled.incrementAndGet();
+			return false;
+		}
+
+		int seq = ++sequence;
+		byte[] contentData = ByteBuffer.allocate(HEADER_SIZE + padding.length)
+				.putLong(System.nanoTime())
+				.putInt(senderIndex)
+				.putInt(seq)
+				.put(padding)
+				.array();
+
+		Message message = new Message();
+		message.setPublisher(publisherId);
+		message.setTag("load");
+		message.setContentData(contentData);
+		byte[] bytes = message.getBytes();
+
+		ByteBuf buffer = ctx.alloc().buffer(bytes.length + 5);
+		buffer.writeByte(OPCODE_MSG);
+		buffer.writeInt(bytes.length);
+		buffer.writeBytes(bytes);
+		ctx.write(new BinaryWebSocketFrame(buffer));
+		stats.sent(senderIndex, seq);
+		return true;
+	}
+
+	@Override
+	protected void onFrame(ChannelHandlerContext ctx, ByteBuf content) {
+		if (content.getByte(content.readerIndex()) == OPCODE_RECEIPT)
+			stats.receipts.incrementAndGet();
+	}
+
+	/**
+	 * stops sending, socket stays open to collect outstanding receipts
+	 */
+	public void stop() {
+		ScheduledFuture<?> task = sendTask;
+		if (task != null)
+			task.cancel(false);
+	}
+
+	@Override
+	public void channelInactive(ChannelHandlerContext ctx) {
+		stop();
+		super.channelInactive(ctx);
+	}
+}
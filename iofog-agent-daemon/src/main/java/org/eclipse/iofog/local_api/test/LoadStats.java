@@ -0,0 +1,86 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.local_api.test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * counters shared by all sockets of {@link LoadGeneratorMain}
+ */
+public class LoadStats {
+	final AtomicLong connected = new AtomicLong();
+	final AtomicLong connectFailures = new AtomicLong();
+	final AtomicLong disconnected = new AtomicLong();
+	final AtomicLong sent = new AtomicLong();
+	final AtomicLong throttled = new AtomicLong();
+	final AtomicLong receipts = new AtomicLong();
+	final AtomicLong received = new AtomicLong();
+	final AtomicLong lost = new AtomicLong();
+	final AtomicLong controlSignals = new AtomicLong();
+	final LatencyHistogram latency = new LatencyHistogram();
+
+	private final AtomicLongArray lastSentSequence;
+	private final List<LoadReceiverHandler> receivers = new CopyOnWriteArrayList<>();
+	private long lastSent;
+	private long lastReceived;
+	private long lastReportTime = System.currentTimeMillis();
+
+	LoadStats(int senders) {
+		lastSentSequence = new AtomicLongArray(senders);
+	}
+
+	void sent(int senderIndex, int sequence) {
+		sent.incrementAndGet();
+		lastSentSequence.set(senderIndex, sequence);
+	}
+
+	long getLastSentSequence(int senderIndex) {
+		return senderIndex < lastSentSequence.length() ? lastSentSequence.get(senderIndex) : 0;
+	}
+
+	void addReceiver(LoadReceiverHandler receiver) {
+		receivers.add(receiver);
+	}
+
+	/**
+	 * counts messages sent before the end of the run which have not arrived after draining
+	 */
+	void countTailLoss() {
+		for (LoadReceiverHandler receiver : receivers)
+			lost.addAndGet(receiver.getTailLoss(this));
+	}
+
+	/**
+	 * prints rates since previous report and totals
+	 *
+	 * @param title - name of report
+	 */
+	synchronized void report(String title) {
+		long now = System.currentTimeMillis();
+		double seconds = Math.max(1, now - lastReportTime) / 1000.0;
+		long sentNow = sent.get();
+		long receivedNow = received.get();
+		System.out.println(String.format("[%s] sockets: %d connected, %d failed, %d closed | "
+						+ "send %.0f msg/s, receive %.0f msg/s | sent %d, receipts %d, received %d, lost %d, throttled %d, "
+						+ "control signals %d | latency %s",
+				title, connected.get(), connectFailures.get(), disconnected.get(),
+				(sentNow - lastSent) / seconds, (receivedNow - lastReceived) / seconds,
+				sentNow, receipts.get(), receivedNow, lost.get(), throttled.get(), controlSignals.get(), latency));
+		lastSent = sentNow;
+		lastReceived = receivedNow;
+		lastReportTime = now;
+	}
+}
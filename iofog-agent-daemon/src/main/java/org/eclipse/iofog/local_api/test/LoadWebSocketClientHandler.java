@@ -0,0 +1,93 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.local_api.test;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.CloseWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketClientHandshaker;
+
+/**
+ * websocket client handler of {@link LoadGeneratorMain}, completes handshake and passes binary frames on
+ * unlike other clients of this package it does not print per frame, so thousands of sockets can share event loops
+ */
+public abstract class LoadWebSocketClientHandler extends SimpleChannelInboundHandler<Object> {
+	static final byte OPCODE_ACK = 0xB;
+	static final byte OPCODE_CONTROL_SIGNAL = 0xC;
+	static final byte OPCODE_MSG = 0xD;
+	static final byte OPCODE_RECEIPT = 0xE;
+	static final byte OPCODE_MSG_BATCH = 0xF;
+
+	private final WebSocketClientHandshaker handshaker;
+	protected final LoadStats stats;
+
+	protected LoadWebSocketClientHandler(WebSocketClientHandshaker handshaker, LoadStats stats) {
+		this.handshaker = handshaker;
+		this.stats = stats;
+	}
+
+	/**
+	 * called on event loop of socket when handshake is complete
+	 */
+	protected abstract void onConnected(ChannelHandlerContext ctx);
+
+	/**
+	 * called on event loop of socket for each binary frame
+	 */
+	protected abstract void onFrame(ChannelHandlerContext ctx, ByteBuf content);
+
+	@Override
+	public void channelActive(ChannelHandlerContext ctx) {
+		handshaker.handshake(ctx.channel());
+	}
+
+	@Override
+	public void channelInactive(ChannelHandlerContext ctx) {
+		if (handshaker.isHandshakeComplete())
+			stats.disconnected.incrementAndGet();
+	}
+
+	@Override
+	public void channelRead0(ChannelHandlerContext ctx, Object msg) {
+		if (!handshaker.isHandshakeComplete()) {
+			handshaker.finishHandshake(ctx.channel(), (FullHttpResponse) msg);
+			stats.connected.incrementAndGet();
+			onConnected(ctx);
+			return;
+		}
+
+		if (msg instanceof BinaryWebSocketFrame) {
+			ByteBuf content = ((BinaryWebSocketFrame) msg).content();
+			if (content.isReadable())
+				onFrame(ctx, content);
+		} else if (msg instanceof CloseWebSocketFrame) {
+			ctx.close();
+		}
+	}
+
+	protected void sendOpcode(ChannelHandlerContext ctx, byte opcode) {
+		ByteBuf buffer = ctx.alloc().buffer(1);
+		buffer.writeByte(opcode);
+		ctx.writeAndFlush(new BinaryWebSocketFrame(buffer));
+	}
+
+	@Override
+	public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+		if (!handshaker.isHandshakeComplete())
+			stats.connectFailures.incrementAndGet();
+		ctx.close();
+	}
+}
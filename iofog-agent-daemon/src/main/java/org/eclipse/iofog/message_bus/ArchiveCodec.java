@@ -0,0 +1,94 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.message_bus;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * block codec used to compress sealed {@link MessageArchive} data segments
+ *
+ */
+public enum ArchiveCodec {
+	NONE("none", ""),
+	DEFLATE("deflate", ".dfl"),
+	GZIP("gzip", ".gz");
+
+	private final String codecName;
+	private final String extension;
+
+	ArchiveCodec(String codecName, String extension) {
+		this.codecName = codecName;
+		this.extension = extension;
+	}
+
+	public String getCodecName() {
+		return codecName;
+	}
+
+	/**
+	 * returns suffix appended to ".iomsg" for segments compressed with this codec
+	 *
+	 * @return file extension
+	 */
+	public String getExtension() {
+		return extension;
+	}
+
+	public boolean isCompressed() {
+		return this != NONE;
+	}
+
+	OutputStream compress(OutputStream out) throws IOException {
+		switch (this) {
+			case DEFLATE:
+				return new DeflaterOutputStream(out);
+			case GZIP:
+				return new GZIPOutputStream(out);
+			default:
+				return out;
+		}
+	}
+
+	InputStream decompress(InputStream in) throws IOException {
+		switch (this) {
+			case DEFLATE:
+				return new InflaterInputStream(in);
+			case GZIP:
+				return new GZIPInputStream(in);
+			default:
+				return in;
+		}
+	}
+
+	/**
+	 * parses codec name sent by controller
+	 *
+	 * @param codecName - name of codec, case insensitive
+	 * @return {@link ArchiveCodec}, NONE if name is empty or unknown
+	 */
+	public static ArchiveCodec parse(String codecName) {
+		if (codecName == null)
+			return NONE;
+		for (ArchiveCodec codec : values()) {
+			if (codec.codecName.equalsIgnoreCase(codecName.trim()))
+				return codec;
+		}
+		return NONE;
+	}
+}
@@ -34,9 +34,15 @@ public class IOMessageListener implements MessageListener {
 	private static final String MODULE_NAME = "MessageListener";
 
 	private final MessageCallback callback;
+	private final MessageAssembler assembler;
 	
 	public IOMessageListener(MessageCallback callback) {
+		this(callback, new MessageAssembler());
+	}
+
+	IOMessageListener(MessageCallback callback, MessageAssembler assembler) {
 		this.callback = callback;
+		this.assembler = assembler;
 	}
 	
 	@Override
@@ -49,8 +55,9 @@ public class IOMessageListener implements MessageListener {
 			JsonObject json = jsonReader.readObject();
 			jsonReader.close();
 
-			Message message = new Message(json);
-			callback.sendRealtimeMessage(message);
+			Message message = assembler.add(textMessage, new Message(json));
+			if (message != null)
+				callback.sendRealtimeMessage(message);
 		} catch (Exception exp) {
 			LoggingService.logError(MODULE_NAME, "Error acknowledging message",
 					new AgentSystemException("Error acknowledging message", exp));
@@ -58,4 +65,13 @@ public class IOMessageListener implements MessageListener {
 
 		LoggingService.logDebug(MODULE_NAME, "Finish acknowledging message onMessage");
 	}
+
+	/**
+	 * delivers {@link Message} of a co-located publisher, which has not gone through router
+	 *
+	 * @param message - {@link Message} to be delivered
+	 */
+	void onLocalMessage(Message message) {
+		callback.sendRealtimeMessage(message);
+	}
 }
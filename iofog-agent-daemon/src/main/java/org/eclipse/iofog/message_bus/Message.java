@@ -14,6 +14,7 @@ package org.eclipse.iofog.message_bus;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Base64;
 import javax.json.Json;
 import javax.json.JsonObject;
@@ -505,6 +506,21 @@ public class Message {
 	}
 
 	public byte[] getBytes() {
+		byte[] envelope = getEnvelopeBytes();
+		if (envelope.length == 0 || getContentData() == null)
+			return envelope;
+		byte[] result = Arrays.copyOf(envelope, envelope.length + getContentData().length);
+		System.arraycopy(getContentData(), 0, result, envelope.length, getContentData().length);
+		return result;
+	}
+
+	/**
+	 * bytes of this message without its content data, which follows them in {@link #getBytes()}
+	 * lets large content be written without copying it
+	 *
+	 * @return bytes of header and all fields but content data
+	 */
+	public byte[] getEnvelopeBytes() {
 		try (ByteArrayOutputStream headerBaos = new ByteArrayOutputStream();
 			 ByteArrayOutputStream dataBaos = new ByteArrayOutputStream()){
 			//version
@@ -636,10 +652,8 @@ public class Message {
 			// contentData
 			if (getContentData() == null)
 				headerBaos.write(BytesUtil.integerToBytes(0));
-			else {
+			else
 				headerBaos.write(BytesUtil.integerToBytes(getContentData().length));
-				dataBaos.write(getContentData());
-			}
 
 			ByteArrayOutputStream result = new ByteArrayOutputStream();
 			headerBaos.writeTo(result);
@@ -687,6 +701,16 @@ public class Message {
 	}
 
 	public JsonObject toJson() {
+		return toJson(contentData);
+	}
+
+	/**
+	 * json of this message with given content data, used to send chunks of large content
+	 *
+	 * @param contentData - content data to be put in json instead of content data of this message
+	 * @return json of message
+	 */
+	JsonObject toJson(byte[] contentData) {
 		return Json.createObjectBuilder()
 				.add("id", id == null ? "" : id)
 				.add("tag", tag == null ? "" : tag)
@@ -12,16 +12,31 @@
  */
 package org.eclipse.iofog.message_bus;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileNotFoundException;
 import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Stack;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.CRC32;
 
 import org.eclipse.iofog.exception.AgentSystemException;
 import org.eclipse.iofog.microservice.Microservice;
+import org.eclipse.iofog.status_reporter.StatusReporter;
 import org.eclipse.iofog.utils.BytesUtil;
 import org.eclipse.iofog.utils.Constants;
 import org.eclipse.iofog.utils.configuration.Configuration;
@@ -39,15 +54,45 @@ public class MessageArchive implements AutoCloseable{
 	private static final byte HEADER_SIZE = 33;
 	private static final short MAXIMUM_MESSAGE_PER_FILE = 1000;
 	private static final int MAXIMUM_ARCHIVE_SIZE_MB = 1;
+	private static final int MAXIMUM_SEGMENT_SIZE_MB = 64;
+	private static final String DATA_FILE_EXTENSION = ".iomsg";
+
+	// index file layout: file header, entries of header + data position + checksum, footer once sealed
+	private static final int FILE_MAGIC = 0x494F4641;
+	private static final int FORMAT_VERSION = 1;
+	private static final int FILE_HEADER_SIZE = Integer.BYTES * 2;
+	private static final int ENTRY_SIZE = HEADER_SIZE + Long.BYTES + Integer.BYTES;
+	private static final int SEAL_MAGIC = 0x5345414C;
+	private static final int FOOTER_SIZE = Integer.BYTES * 2 + Long.BYTES;
+
+	private static final ExecutorService compressor = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, Constants.MESSAGE_BUS_ARCHIVE_COMPRESSOR);
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private static final String ARCHIVE_DIRECTORY = "messages/archive/";
 
 	private final String name;
+	private final String directory;
 	private String diskDirectory;
 	private String currentFileName;
 	private RandomAccessFile indexFile;
 	private RandomAccessFile dataFile;
+	private ArchiveCodec codec = ArchiveCodec.NONE;
+	private int segmentSizeMb = MAXIMUM_ARCHIVE_SIZE_MB;
 	
 	public MessageArchive(String name) {
+		this(name, ARCHIVE_DIRECTORY);
+	}
+
+	/**
+	 * @param name - name of archive, used as prefix of segment files
+	 * @param directory - directory of segment files, relative to disk directory
+	 */
+	MessageArchive(String name, String directory) {
 		this.name = name;
+		this.directory = directory;
 		init();
 	}
 	
@@ -57,7 +102,7 @@ public class MessageArchive implements AutoCloseable{
 	 */
 	private void init() {
 		currentFileName = "";
-		diskDirectory = Configuration.getDiskDirectory() + "messages/archive/";
+		diskDirectory = Configuration.getDiskDirectory() + directory;
 		
 		File lastFile = null;
 		long lastFileTimestamp = 0;
@@ -68,6 +113,7 @@ public class MessageArchive implements AutoCloseable{
 		FilenameFilter filter = (dir, fileName) -> fileName.substring(0, name.length()).equals(name)
 				&& fileName.substring(fileName.indexOf(".")).equals(".idx");
 		
+		List<File> openSegments = new ArrayList<>();
 		for (File file : workingDirectory.listFiles(filter)) {
 			if (!file.isFile())
 				continue;
@@ -79,11 +125,343 @@ public class MessageArchive implements AutoCloseable{
 					lastFileTimestamp = timestamp;
 					lastFile = file; 
 				}
+				if (recover(file))
+					openSegments.add(file);
 			}
 		}
 		
-		if (lastFileTimestamp > 0 && lastFile.length() < ((HEADER_SIZE + Long.BYTES) * MAXIMUM_MESSAGE_PER_FILE))
+		if (lastFileTimestamp > 0 && openSegments.contains(lastFile)
+				&& lastFile.length() < (FILE_HEADER_SIZE + (long) ENTRY_SIZE * MAXIMUM_MESSAGE_PER_FILE))
 			currentFileName = lastFile.getPath();
+		for (File file : openSegments) {
+			if (!file.getPath().equals(currentFileName))
+				writeFooter(file.getPath());
+		}
+	}
+
+	/**
+	 * drops torn records at the tail of a segment left open by a crash.
+	 * only the tail is scanned, from the last entry back to the first one with a valid checksum
+	 *
+	 * @param file - index file of the segment
+	 * @return true if segment is in current format, unsealed and can be appended
+	 */
+	private boolean recover(File file) {
+		File rawFile = new File(getDataFileName(file.getPath()));
+		if (!rawFile.exists())
+			return false;
+		try (RandomAccessFile index = new RandomAccessFile(file, "rw");
+			 RandomAccessFile data = new RandomAccessFile(rawFile, "rw")) {
+			if (!isCurrentFormat(index) || isSealed(index))
+				return false;
+			long entries = (index.length() - FILE_HEADER_SIZE) / ENTRY_SIZE;
+			long validEntries = entries;
+			long validDataLength = 0;
+			byte[] header = new byte[HEADER_SIZE];
+			while (validEntries > 0) {
+				index.seek(FILE_HEADER_SIZE + (validEntries - 1) * ENTRY_SIZE);
+				index.readFully(header);
+				long dataPos = index.readLong();
+				int checksum = index.readInt();
+				int dataSize = getDataSize(header);
+				if (isValidHeader(header) && dataSize >= 0 && dataPos >= 0 && dataPos + dataSize <= data.length()) {
+					byte[] body = new byte[dataSize];
+					data.seek(dataPos);
+					data.readFully(body);
+					if (checksum(header, body) == checksum) {
+						validDataLength = dataPos + dataSize;
+						break;
+					}
+				}
+				validEntries--;
+			}
+
+			long validIndexLength = FILE_HEADER_SIZE + validEntries * ENTRY_SIZE;
+			if (validIndexLength < index.length() || validDataLength < data.length()) {
+				LoggingService.logWarning(MODULE_NAME, String.format("Recovered archive segment %s, dropped %d torn record(s)",
+						file.getName(), entries - validEntries));
+				index.setLength(validIndexLength);
+				data.setLength(validDataLength);
+			}
+			return true;
+		} catch (Exception e) {
+			LoggingService.logError(MODULE_NAME, "Error recovering archive segment " + file.getName(),
+					new AgentSystemException(e.getMessage(), e));
+			return false;
+		}
+	}
+
+	/**
+	 * appends commit marker to index file, so the segment is not recovered or appended anymore
+	 *
+	 * @param indexFileName - name of index file of the segment
+	 */
+	private static void writeFooter(String indexFileName) {
+		File rawFile = new File(getDataFileName(indexFileName));
+		try (RandomAccessFile index = new RandomAccessFile(new File(indexFileName), "rw")) {
+			if (!isCurrentFormat(index) || isSealed(index))
+				return;
+			long entries = (index.length() - FILE_HEADER_SIZE) / ENTRY_SIZE;
+			index.setLength(FILE_HEADER_SIZE + entries * ENTRY_SIZE);
+			index.seek(index.length());
+			index.write(ByteBuffer.allocate(FOOTER_SIZE)
+					.putInt(SEAL_MAGIC)
+					.putInt((int) entries)
+					.putLong(rawFile.exists() ? rawFile.length() : 0)
+					.array());
+		} catch (Exception e) {
+			LoggingService.logError(MODULE_NAME, "Error sealing archive segment",
+					new AgentSystemException(e.getMessage(), e));
+		}
+	}
+
+	/**
+	 * checks if index file starts with file header.
+	 * index files written before checksums were introduced start with {@link Message} header
+	 *
+	 * @param index - index file
+	 * @return boolean
+	 * @throws IOException
+	 */
+	private static boolean isCurrentFormat(RandomAccessFile index) throws IOException {
+		if (index.length() < FILE_HEADER_SIZE)
+			return false;
+		index.seek(0);
+		return index.readInt() == FILE_MAGIC;
+	}
+
+	private static boolean isSealed(RandomAccessFile index) throws IOException {
+		long length = index.length();
+		if (length < FILE_HEADER_SIZE + FOOTER_SIZE || (length - FILE_HEADER_SIZE) % ENTRY_SIZE != FOOTER_SIZE)
+			return false;
+		index.seek(length - FOOTER_SIZE);
+		return index.readInt() == SEAL_MAGIC;
+	}
+
+	private static boolean isValidHeader(byte[] header) {
+		return ((header[0] * 256) + header[1]) == 4;
+	}
+
+	private static int checksum(byte[] header, byte[] data) {
+		CRC32 crc = new CRC32();
+		crc.update(header, 0, header.length);
+		crc.update(data, 0, data.length);
+		return (int) crc.getValue();
+	}
+
+	/**
+	 * sets codec of sealed data segments and maximum size of a data segment
+	 * segments sealed before are compressed in background if codec has changed
+	 *
+	 * @param codec - {@link ArchiveCodec} of sealed segments
+	 * @param segmentSizeMb - maximum size of data segment in MB, default size is used if not positive
+	 */
+	void configure(ArchiveCodec codec, int segmentSizeMb) {
+		ArchiveCodec newCodec = codec == null ? ArchiveCodec.NONE : codec;
+		boolean codecChanged = newCodec != this.codec;
+		this.codec = newCodec;
+		this.segmentSizeMb = segmentSizeMb > 0 ? Math.min(segmentSizeMb, MAXIMUM_SEGMENT_SIZE_MB) : MAXIMUM_ARCHIVE_SIZE_MB;
+		if (codecChanged && newCodec.isCompressed())
+			sealSegments();
+	}
+
+	ArchiveCodec getCodec() {
+		return codec;
+	}
+
+	int getSegmentSizeMb() {
+		return segmentSizeMb;
+	}
+
+	/**
+	 * returns data file name of index file
+	 *
+	 * @param indexFileName - name of index file
+	 * @return data file name
+	 */
+	private static String getDataFileName(String indexFileName) {
+		return indexFileName.substring(0, indexFileName.lastIndexOf(".")) + DATA_FILE_EXTENSION;
+	}
+
+	/**
+	 * schedules compression of all uncompressed data segments except the one being written
+	 *
+	 */
+	private void sealSegments() {
+		File[] indexFiles = new File(diskDirectory).listFiles((dir, fileName) -> fileName.startsWith(name + "_")
+				&& fileName.endsWith(".idx"));
+		if (indexFiles == null)
+			return;
+		for (File file : indexFiles) {
+			if (!file.getPath().equals(currentFileName))
+				seal(file.getPath());
+		}
+	}
+
+	/**
+	 * marks data segment which is not going to be written anymore as sealed
+	 * and schedules its compression
+	 *
+	 * @param indexFileName - name of index file of the segment
+	 */
+	private void seal(String indexFileName) {
+		if (indexFileName.equals(""))
+			return;
+		writeFooter(indexFileName);
+		if (!codec.isCompressed())
+			return;
+		final ArchiveCodec segmentCodec = codec;
+		final String dataFileName = getDataFileName(indexFileName);
+		compressor.submit(() -> compressSegment(dataFileName, segmentCodec));
+	}
+
+	/**
+	 * compresses data segment and replaces it by compressed one
+	 *
+	 * @param dataFileName - name of data file
+	 * @param codec - {@link ArchiveCodec} to compress with
+	 */
+	private static void compressSegment(String dataFileName, ArchiveCodec codec) {
+		File rawFile = new File(dataFileName);
+		if (!rawFile.exists())
+			return;
+		LoggingService.logDebug(MODULE_NAME, "Start compressing archive segment " + dataFileName);
+		File compressedFile = new File(dataFileName + codec.getExtension());
+		File tempFile = new File(compressedFile.getPath() + ".tmp");
+		try (InputStream in = new BufferedInputStream(new FileInputStream(rawFile));
+			 OutputStream out = codec.compress(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+			byte[] buffer = new byte[64 * Constants.KiB];
+			int read;
+			while ((read = in.read(buffer)) != -1)
+				out.write(buffer, 0, read);
+		} catch (Exception e) {
+			tempFile.delete();
+			LoggingService.logError(MODULE_NAME, "Error compressing archive segment",
+					new AgentSystemException(e.getMessage(), e));
+			return;
+		}
+
+		long rawSize = rawFile.length();
+		if (!tempFile.renameTo(compressedFile)) {
+			tempFile.delete();
+			LoggingService.logWarning(MODULE_NAME, "Unable to replace archive segment " + dataFileName);
+			return;
+		}
+		rawFile.delete();
+		StatusReporter.setMessageBusStatus().increaseArchiveCompressedBytes(rawSize, compressedFile.length());
+		LoggingService.logDebug(MODULE_NAME, "Finished compressing archive segment " + dataFileName);
+	}
+
+	/**
+	 * opens uncompressed data segment for reading
+	 *
+	 * @param dataFileName - name of uncompressed data file
+	 * @return open data file or null if it does not exist, e.g. because it has been compressed
+	 */
+	private static RandomAccessFile openRawSegment(String dataFileName) {
+		try {
+			return new RandomAccessFile(new File(dataFileName), "r");
+		} catch (FileNotFoundException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * reads and decompresses data segment, if it has been compressed
+	 *
+	 * @param dataFileName - name of uncompressed data file
+	 * @return content of data segment or null if there is no compressed segment
+	 * @throws IOException
+	 */
+	private byte[] readCompressedSegment(String dataFileName) throws IOException {
+		for (ArchiveCodec segmentCodec : ArchiveCodec.values()) {
+			if (!segmentCodec.isCompressed())
+				continue;
+			File file = new File(dataFileName + segmentCodec.getExtension());
+			if (!file.exists())
+				continue;
+			try (InputStream in = segmentCodec.decompress(new BufferedInputStream(new FileInputStream(file)))) {
+				ByteArrayOutputStream out = new ByteArrayOutputStream();
+				byte[] buffer = new byte[64 * Constants.KiB];
+				int read;
+				while ((read = in.read(buffer)) != -1)
+					out.write(buffer, 0, read);
+				return out.toByteArray();
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * seals segment being written, so all archived messages are in sealed segments
+	 *
+	 */
+	void rollOver() {
+		String sealedFileName = currentFileName;
+		close();
+		seal(sealedFileName);
+	}
+
+	/**
+	 * returns index files of all segments, oldest first
+	 *
+	 * @return list of index files
+	 */
+	List<File> getSegments() {
+		File[] indexFiles = new File(diskDirectory).listFiles((dir, fileName) -> fileName.startsWith(name + "_")
+				&& fileName.endsWith(".idx"));
+		List<File> segments = new ArrayList<>();
+		if (indexFiles == null)
+			return segments;
+		segments.addAll(Arrays.asList(indexFiles));
+		segments.sort(Comparator.comparingLong(file ->
+				Long.parseLong(file.getName().substring(name.length() + 1, file.getName().indexOf(".")))));
+		return segments;
+	}
+
+	/**
+	 * returns number of entries in index file of a segment
+	 *
+	 * @param indexFile - index file of the segment
+	 * @return number of archived messages
+	 */
+	static long getMessageCount(File indexFile) {
+		return Math.max(0, (indexFile.length() - FILE_HEADER_SIZE) / ENTRY_SIZE);
+	}
+
+	/**
+	 * reads all messages of a segment
+	 *
+	 * @param indexFile - index file of the segment
+	 * @return list of {@link Message}
+	 * @throws Exception
+	 */
+	List<Message> readSegment(File indexFile) throws Exception {
+		List<Message> result = new ArrayList<>();
+		if (!readSegment(indexFile, Long.MIN_VALUE, Long.MAX_VALUE, result))
+			throw new Exception("not enough memory to read segment " + indexFile.getName());
+		return result;
+	}
+
+	/**
+	 * deletes index and data files of a segment
+	 *
+	 * @param indexFile - index file of the segment
+	 * @return number of bytes freed
+	 */
+	public static long deleteSegment(File indexFile) {
+		String dataFileName = getDataFileName(indexFile.getPath());
+		long freed = 0;
+		List<File> segmentFiles = new ArrayList<>();
+		segmentFiles.add(indexFile);
+		for (ArchiveCodec segmentCodec : ArchiveCodec.values())
+			segmentFiles.add(new File(dataFileName + segmentCodec.getExtension()));
+		for (File file : segmentFiles) {
+			long length = file.length();
+			if (file.delete())
+				freed += length;
+		}
+		return freed;
 	}
 	
 	/**
@@ -93,15 +471,19 @@ public class MessageArchive implements AutoCloseable{
 	 * @throws Exception
 	 */
 	private void openFiles(long timestamp) throws Exception {
-		if (currentFileName.equals(""))
+		if (currentFileName.equals("")) {
+			// a sealed segment must never be appended, even if its first message has the same timestamp
+			while (new File(diskDirectory + name + "_" + timestamp + ".idx").exists())
+				timestamp++;
 			currentFileName = diskDirectory + name + "_" + timestamp + ".idx";
+		}
 		indexFile = new RandomAccessFile(new File(currentFileName), "rw");
-		dataFile = new RandomAccessFile(new File(currentFileName.substring(0, currentFileName.indexOf(".")) + ".iomsg"), "rw");
+		dataFile = new RandomAccessFile(new File(getDataFileName(currentFileName)), "rw");
 	}
 	
 	/**
 	 * archives {@link Message} to file. If size of the data file becomes more than
-	 * defined value, creates a new file 
+	 * defined value, seals it and creates a new file
 	 * 
 	 * @param message - {@link Message} to be archived
 	 * @param timestamp - timestamp of the {@link Message}
@@ -111,20 +493,40 @@ public class MessageArchive implements AutoCloseable{
 		if (indexFile == null)
 			openFiles(timestamp);
 		
-		if ((message.length + dataFile.length()) >= (MAXIMUM_ARCHIVE_SIZE_MB * 1_000_000)) {
+		if ((message.length + dataFile.length()) >= (segmentSizeMb * 1_000_000L)) {
+			String sealedFileName = currentFileName;
 			close();
+			seal(sealedFileName);
 			openFiles(timestamp);
 		}
-		indexFile.seek(indexFile.length());
+		if (indexFile.length() == 0)
+			indexFile.write(ByteBuffer.allocate(FILE_HEADER_SIZE).putInt(FILE_MAGIC).putInt(FORMAT_VERSION).array());
+		long indexPos = indexFile.length();
+		indexFile.seek(indexPos);
 		dataFile.seek(dataFile.length());
 		long dataPos = dataFile.getFilePointer();
+		CRC32 crc = new CRC32();
+		crc.update(message, 0, message.length);
+		byte[] entry = ByteBuffer.allocate(ENTRY_SIZE)
+				.put(Arrays.copyOf(message, HEADER_SIZE))
+				.putLong(dataPos)
+				.putInt((int) crc.getValue())
+				.array();
 		try {
-			indexFile.write(message, 0, HEADER_SIZE);
-			indexFile.writeLong(dataPos);
+			// data goes first, so an index entry never points to data which has not been written
 			dataFile.write(message, HEADER_SIZE, message.length - HEADER_SIZE);
+			indexFile.write(entry);
 		} catch(Exception e) {
 			LoggingService.logError(MODULE_NAME, "Error saving archive",
 					new AgentSystemException(e.getMessage(), e));
+			try {
+				dataFile.setLength(dataPos);
+				indexFile.setLength(indexPos);
+			} catch (IOException ex) {
+				LoggingService.logError(MODULE_NAME, "Error rolling back archive",
+						new AgentSystemException(ex.getMessage(), ex));
+			}
+			throw e;
 		}
 	}
 	
@@ -224,34 +626,10 @@ public class MessageArchive implements AutoCloseable{
 				resultSet.push(listOfFiles[i]);
 		}
 		
-		byte[] header = new byte[HEADER_SIZE];
 		while (!resultSet.isEmpty() && !outOfMemory) {
 			File file = resultSet.pop();
-			String fileName = file.getName();
-			String dataFileName = diskDirectory + fileName.substring(0, fileName.indexOf(".")) + ".iomsg";
-			try (RandomAccessFile indexFile = new RandomAccessFile(new File(diskDirectory + fileName), "r");
-				RandomAccessFile dataFile = new RandomAccessFile(new File(dataFileName), "r")){
-				long dataFileLength = dataFile.length();
-				while (indexFile.getFilePointer() < indexFile.length()) {
-					if (freeMemory() < 32 * Constants.MiB) {
-						outOfMemory = true;
-						break;
-					}
-
-					indexFile.read(header, 0, HEADER_SIZE);
-					if (((header[0] * 256) + header[1]) != 4)
-						throw new Exception("invalid index file format");
-					long dataPos = indexFile.readLong();
-					int dataSize = getDataSize(header);
-					if (dataPos + dataSize > dataFileLength || dataSize > dataFileLength)
-						throw new Exception("invalid data file format");
-					byte[] data = new byte[dataSize];
-					dataFile.read(data, 0, dataSize);
-					Message message = new Message(header, data);
-					if (message.getTimestamp() < from || message.getTimestamp() > to)
-						continue;
-					result.add(message);
-				}
+			try {
+				outOfMemory = !readSegment(new File(diskDirectory + file.getName()), from, to, result);
 			} catch (Exception e) {
 				LoggingService.logError("Message Archive", e.getMessage(), e);
 			}
@@ -259,4 +637,70 @@ public class MessageArchive implements AutoCloseable{
 		LoggingService.logDebug(MODULE_NAME, "Finish message query");
 		return result;
 	}
+
+	/**
+	 * reads messages of a segment within the time frame
+	 *
+	 * @param file - index file of the segment
+	 * @param from - beginning of time frame in milliseconds
+	 * @param to - end of time frame in milliseconds
+	 * @param result - list to add {@link Message} to
+	 * @return false if reading stopped because of low memory
+	 * @throws Exception
+	 */
+	private boolean readSegment(File file, long from, long to, List<Message> result) throws Exception {
+		String fileName = file.getName();
+		String dataFileName = getDataFileName(file.getPath());
+		byte[] header = new byte[HEADER_SIZE];
+		// raw file may be replaced by compressed one in background any time before it is open
+		RandomAccessFile rawFile = openRawSegment(dataFileName);
+		byte[] segment = null;
+		if (rawFile == null) {
+			segment = readCompressedSegment(dataFileName);
+			if (segment == null)
+				throw new FileNotFoundException(dataFileName);
+		}
+		try (RandomAccessFile indexFile = new RandomAccessFile(new File(diskDirectory + fileName), "r");
+			RandomAccessFile dataFile = rawFile) {
+			long dataFileLength = segment == null ? dataFile.length() : segment.length;
+			boolean checksummed = isCurrentFormat(indexFile);
+			long indexLength = indexFile.length();
+			indexFile.seek(checksummed ? FILE_HEADER_SIZE : 0);
+			while (indexFile.getFilePointer() + (checksummed ? ENTRY_SIZE : 1) <= indexLength) {
+				if (freeMemory() < 32 * Constants.MiB)
+					return false;
+
+				indexFile.read(header, 0, HEADER_SIZE);
+				if (!isValidHeader(header) && !checksummed)
+					throw new Exception("invalid index file format");
+				long dataPos = indexFile.readLong();
+				int checksum = checksummed ? indexFile.readInt() : 0;
+				int dataSize = getDataSize(header);
+				if (dataPos + dataSize > dataFileLength || dataSize > dataFileLength) {
+					if (!checksummed)
+						throw new Exception("invalid data file format");
+					continue;
+				}
+				if (checksummed && (!isValidHeader(header) || dataSize < 0 || dataPos < 0))
+					continue;
+				byte[] data = new byte[dataSize];
+				if (segment != null)
+					System.arraycopy(segment, (int) dataPos, data, 0, dataSize);
+				else {
+					if (checksummed)
+						dataFile.seek(dataPos);
+					dataFile.read(data, 0, dataSize);
+				}
+				if (checksummed && checksum(header, data) != checksum) {
+					LoggingService.logWarning(MODULE_NAME, "Skipping corrupted archived message in " + fileName);
+					continue;
+				}
+				Message message = new Message(header, data);
+				if (message.getTimestamp() < from || message.getTimestamp() > to)
+					continue;
+				result.add(message);
+			}
+		}
+		return true;
+	}
 }
@@ -0,0 +1,155 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.message_bus;
+
+import org.eclipse.iofog.status_reporter.StatusReporter;
+import org.eclipse.iofog.utils.logging.LoggingService;
+
+import javax.jms.JMSException;
+import javax.jms.TextMessage;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.eclipse.iofog.message_bus.MessageChunker.CHUNK_ID_PROPERTY;
+import static org.eclipse.iofog.message_bus.MessageChunker.CHUNK_OFFSET_PROPERTY;
+import static org.eclipse.iofog.message_bus.MessageChunker.CONTENT_LENGTH_PROPERTY;
+
+/**
+ * reassembles {@link Message} sent in chunks by {@link MessageChunker}
+ * content is buffered once, in an array of its full length which chunks are copied into as they arrive,
+ * number and size of incomplete messages are bounded, oldest incomplete message is dropped to stay within bounds
+ *
+ */
+class MessageAssembler {
+	private static final String MODULE_NAME = "MessageAssembler";
+	private static final int MAX_PENDING_MESSAGES = 16;
+	private static final long MAX_PENDING_BYTES = 64L * 1024 * 1024;
+	private static final long PENDING_TIMEOUT_MILLIS = 60_000;
+
+	private final int maxPendingMessages;
+	private final long maxPendingBytes;
+	private final long timeout;
+	private final Map<String, PendingMessage> pending = new LinkedHashMap<>();
+	private long pendingBytes;
+
+	private static class PendingMessage {
+		private final Message message;
+		private final byte[] content;
+		private final Set<Integer> offsets = new HashSet<>();
+		private final long started;
+		private int received;
+
+		private PendingMessage(Message message, int length, long started) {
+			this.message = message;
+			this.content = new byte[length];
+			this.started = started;
+		}
+	}
+
+	MessageAssembler() {
+		this(MAX_PENDING_MESSAGES, MAX_PENDING_BYTES, PENDING_TIMEOUT_MILLIS);
+	}
+
+	MessageAssembler(int maxPendingMessages, long maxPendingBytes, long timeout) {
+		this.maxPendingMessages = maxPendingMessages;
+		this.maxPendingBytes = maxPendingBytes;
+		this.timeout = timeout;
+	}
+
+	/**
+	 * adds received JMS message
+	 *
+	 * @param msg - received JMS message
+	 * @param message - {@link Message} decoded from msg
+	 * @return message if it has not been chunked, reassembled message if msg is its last chunk, null otherwise
+	 * @throws JMSException
+	 */
+	Message add(TextMessage msg, Message message) throws JMSException {
+		if (!msg.propertyExists(CHUNK_ID_PROPERTY))
+			return message;
+		return add(msg.getStringProperty(CHUNK_ID_PROPERTY), msg.getIntProperty(CHUNK_OFFSET_PROPERTY),
+				msg.getIntProperty(CONTENT_LENGTH_PROPERTY), message, System.currentTimeMillis());
+	}
+
+	synchronized Message add(String chunkId, int offset, int length, Message chunk, long now) {
+		expire(now);
+		byte[] data = chunk.getContentData() == null ? new byte[0] : chunk.getContentData();
+		PendingMessage message = pending.get(chunkId);
+		int contentLength = message != null ? message.content.length : length;
+		if (contentLength > maxPendingBytes || offset < 0 || offset + data.length > contentLength) {
+			LoggingService.logWarning(MODULE_NAME, String.format("Invalid or too large chunk %s, %d bytes at %d of %d dropped",
+					chunkId, data.length, offset, contentLength));
+			drop(chunk);
+			return null;
+		}
+
+		if (message == null) {
+			while (!pending.isEmpty() && (pending.size() >= maxPendingMessages || pendingBytes + length > maxPendingBytes))
+				dropOldest();
+			message = new PendingMessage(chunk, length, now);
+			pending.put(chunkId, message);
+			pendingBytes += length;
+		}
+
+		if (message.offsets.add(offset)) {
+			System.arraycopy(data, 0, message.content, offset, data.length);
+			message.received += data.length;
+		}
+		if (message.received < message.content.length)
+			return null;
+
+		pending.remove(chunkId);
+		pendingBytes -= message.content.length;
+		message.message.setContentData(message.content);
+		return message.message;
+	}
+
+	private void expire(long now) {
+		Iterator<PendingMessage> iterator = pending.values().iterator();
+		while (iterator.hasNext()) {
+			PendingMessage message = iterator.next();
+			if (now - message.started < timeout)
+				break;
+			iterator.remove();
+			pendingBytes -= message.content.length;
+			LoggingService.logWarning(MODULE_NAME, String.format("Incomplete message of %d bytes dropped: chunks timed out",
+					message.content.length));
+			drop(message.message);
+		}
+	}
+
+	private void dropOldest() {
+		Iterator<PendingMessage> iterator = pending.values().iterator();
+		PendingMessage message = iterator.next();
+		iterator.remove();
+		pendingBytes -= message.content.length;
+		LoggingService.logWarning(MODULE_NAME, String.format("Incomplete message of %d bytes dropped: too many incomplete messages",
+				message.content.length));
+		drop(message.message);
+	}
+
+	private void drop(Message message) {
+		StatusReporter.setMessageBusStatus().increaseDroppedMessages(message.getPriority());
+	}
+
+	synchronized int getPendingCount() {
+		return pending.size();
+	}
+
+	synchronized long getPendingBytes() {
+		return pendingBytes;
+	}
+}
@@ -21,23 +21,31 @@ import org.eclipse.iofog.exception.AgentSystemException;
 import org.eclipse.iofog.field_agent.enums.RequestType;
 import org.eclipse.iofog.local_api.WebSocketMap;
 import org.eclipse.iofog.microservice.Microservice;
+import org.eclipse.iofog.microservice.MicroserviceDiff;
 import org.eclipse.iofog.microservice.MicroserviceManager;
 import org.eclipse.iofog.microservice.Route;
+import org.eclipse.iofog.microservice.RoutePredicate;
 import org.eclipse.iofog.status_reporter.StatusReporter;
 import org.eclipse.iofog.utils.Constants;
 import org.eclipse.iofog.utils.Orchestrator;
 import org.eclipse.iofog.utils.configuration.Configuration;
 import org.eclipse.iofog.utils.logging.LoggingService;
+import org.eclipse.iofog.utils.scheduler.AgentScheduler;
+import org.eclipse.iofog.utils.scheduler.ScheduledTask;
 
 import javax.jms.ExceptionListener;
 import javax.jms.JMSException;
 import javax.jms.MessageConsumer;
+import javax.jms.MessageProducer;
 import javax.json.JsonObject;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
 
 import static org.eclipse.iofog.utils.Constants.MESSAGE_BUS;
@@ -52,11 +60,16 @@ import static org.eclipse.iofog.utils.Constants.ModulesStatus.STOPPED;
 public class MessageBus implements IOFogModule {
 	
 	final static String MODULE_NAME = "Message Bus";
+	private static final int OUTBOX_REPLAY_FREQ_MILLIS = 1000;
+	private static final int OUTBOX_REPLAY_RATE = 1000;
 
 	private MessageBusServer messageBusServer;
 	private Map<String, Route> routes;
 	private Map<String, MessagePublisher> publishers = new ConcurrentHashMap<>();
 	private Map<String, MessageReceiver> receivers = new ConcurrentHashMap<>();
+	private final Map<String, MessageOutbox> outboxes = new ConcurrentHashMap<>();
+	private volatile Set<String> localMicroservices = new HashSet<>();
+	private List<Microservice> appliedMicroservices = new ArrayList<>();
 	private MessageIdGenerator idGenerator = new MessageIdGenerator();;
 	private static MessageBus instance;
 	private MicroserviceManager microserviceManager;
@@ -66,6 +79,7 @@ public class MessageBus implements IOFogModule {
 	private ReentrantLock messageBusLock = new ReentrantLock();
 
 	private long lastSpeedTime, lastSpeedMessageCount;
+	private ScheduledTask speedCalculation;
 
 	private MessageBus() {}
 
@@ -140,31 +154,142 @@ public class MessageBus implements IOFogModule {
 	 * 
 	 */
 	private final Runnable calculateSpeed = () -> {
-		while (true) {
-			try {
-				Thread.sleep(Configuration.getSpeedCalculationFreqMinutes() * 60 * 1000);
+		try {
+			logDebug("Start calculating message processing speed");
 
-				logDebug("Start calculating message processing speed");
+			long now = System.currentTimeMillis();
+			long msgs = StatusReporter.getMessageBusStatus().getProcessedMessages();
 
-				long now = System.currentTimeMillis();
-				long msgs = StatusReporter.getMessageBusStatus().getProcessedMessages();
+			float speed = ((float)(msgs - lastSpeedMessageCount)) / ((now - lastSpeedTime) / 1000f);
+			StatusReporter.setMessageBusStatus().setAverageSpeed(speed);
+			StatusReporter.setMessageBusStatus().calculatePrioritySpeeds((now - lastSpeedTime) / 1000f);
+			StatusReporter.setMessageBusStatus().setRouteFilterReport(getRouteFilterReport());
+			lastSpeedMessageCount = msgs;
+			lastSpeedTime = now;
+		} catch (Exception exp) {
+			logError(MODULE_NAME,
+					new AgentSystemException("unable to calculate message processing speed", exp));
+		}
+		logDebug("Finished calculating message processing speed");
+	};
 
-				float speed = ((float)(msgs - lastSpeedMessageCount)) / ((now - lastSpeedTime) / 1000f);
-				StatusReporter.setMessageBusStatus().setAverageSpeed(speed);
-				lastSpeedMessageCount = msgs;
-				lastSpeedTime = now;
-			} catch (Exception exp) {
-				logError(MODULE_NAME,
-						new AgentSystemException("unable to calculate message processing speed", exp));
+	/**
+	 * reports hit counters of {@link RoutePredicate} of all routes
+	 *
+	 * @return report, "none" if no route is filtered
+	 */
+	private String getRouteFilterReport() {
+		StringBuilder result = new StringBuilder();
+		publishers.forEach((name, publisher) -> {
+			Route route = publisher.getRoute();
+			if (route == null)
+				return;
+			route.getPredicates().forEach((receiver, predicate) -> {
+				if (result.length() > 0)
+					result.append("; ");
+				result.append(String.format(Locale.US, "%s -> %s: %,d matched, %,d filtered", name, receiver,
+						predicate.getHits(), predicate.getMisses()));
+			});
+		});
+		return result.length() > 0 ? result.toString() : "none";
+	}
+
+	/**
+	 * replays messages buffered while router was not reachable,
+	 * sends locally queued messages which are not polled anymore through router
+	 * and updates backlog depth of the outboxes
+	 *
+	 */
+	private final Runnable replayOutboxes = () -> {
+		try {
+			if (messageBusServer.isConnected()) {
+				receivers.forEach((name, receiver) -> rerouteLocalMessages(name, receiver.takeUndeliveredMessages()));
+				for (MessagePublisher publisher : publishers.values()) {
+					try {
+						publisher.replayOutbox(OUTBOX_REPLAY_RATE);
+					} catch (Exception exp) {
+						logWarning("Unable to replay buffered messages of " + publisher.getName() + " : " + exp.getMessage());
+					}
+				}
 			}
-			logDebug("Finished calculating message processing speed");
+
+			long backlog = outboxes.values().stream().mapToLong(MessageOutbox::getDepth).sum();
+			StatusReporter.setMessageBusStatus().setOutboxBacklog(backlog);
+		} catch (Exception exp) {
+			logError(MODULE_NAME,
+					new AgentSystemException("unable to replay buffered messages", exp));
 		}
 	};
 
+	/**
+	 * sends messages queued for co-located receiver through router,
+	 * when the receiver does not take them from its in-memory queue anymore
+	 *
+	 * @param receiver - ID of receiver {@link Microservice}
+	 * @param messages - list of {@link Message} taken from queue of receiver
+	 */
+	private void rerouteLocalMessages(String receiver, List<Message> messages) {
+		for (Message message : messages) {
+			MessagePublisher publisher = publishers.get(message.getPublisher());
+			try {
+				if (publisher == null)
+					throw new JMSException("publisher " + message.getPublisher() + " has been removed");
+				publisher.sendThroughRouter(receiver, message);
+			} catch (Exception exp) {
+				StatusReporter.setMessageBusStatus().increaseDroppedMessages(message.getPriority());
+				logWarning("Unable to send locally queued message to " + receiver + " through router : " + exp.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * returns {@link MessageOutbox} of publisher, creating it if needed
+	 *
+	 * @param publisher - ID of {@link Microservice}
+	 * @return {@link MessageOutbox}
+	 */
+	private MessageOutbox getOrCreateOutbox(String publisher) {
+		return outboxes.computeIfAbsent(publisher, key -> new MessageOutbox(key));
+	}
+
+	/**
+	 * returns {@link MessageReceiver} of receiver running on this agent, if local routing is enabled
+	 *
+	 * @param receiver - ID of {@link Microservice}
+	 * @return {@link MessageReceiver} or null if {@link Message} has to go through router
+	 */
+	private MessageReceiver getLocalReceiver(String receiver) {
+		if (!Configuration.isLocalRouting() || !localMicroservices.contains(receiver))
+			return null;
+		return receivers.get(receiver);
+	}
+
+	/**
+	 * applies archive settings of publisher {@link Microservice}
+	 *
+	 * @param publisher - {@link MessagePublisher}
+	 * @param microservices - list of latest {@link Microservice}
+	 */
+	private void configureArchive(MessagePublisher publisher, List<Microservice> microservices) {
+		microservices.stream()
+				.filter(microservice -> microservice.getMicroserviceUuid().equals(publisher.getName()))
+				.findFirst()
+				.ifPresent(microservice -> publisher.configureArchive(ArchiveCodec.parse(microservice.getArchiveCodec()),
+						microservice.getArchiveSegmentSize()));
+	}
+
 	private void updatePublishersAndReceivers() throws Exception {
 		Map<String, Route> newRoutes = microserviceManager.getRoutes();
+		List<Microservice> latestMicroservices = microserviceManager.getLatestMicroservices();
+		MicroserviceDiff diff = MicroserviceDiff.compute(appliedMicroservices, latestMicroservices);
 		List<String> newPublishers = new ArrayList<>();
-		List<String> newReceivers = new ArrayList<>();
+		Set<String> newReceivers = new HashSet<>();
+		Set<String> latestLocalMicroservices = new HashSet<>();
+		latestMicroservices.forEach(microservice -> latestLocalMicroservices.add(microservice.getMicroserviceUuid()));
+		localMicroservices = latestLocalMicroservices;
+		latestMicroservices.stream()
+				.filter(Microservice::isConsumer)
+				.forEach(microservice -> newReceivers.add(microservice.getMicroserviceUuid()));
 
 		for (Map.Entry<String, Route> entry: newRoutes.entrySet()) {
 			if (entry.getValue() == null || entry.getValue().getReceivers() == null) {
@@ -177,6 +302,13 @@ public class MessageBus implements IOFogModule {
 			}
 		}
 
+		outboxes.keySet().removeIf(key -> {
+			if (newPublishers.contains(key))
+				return false;
+			outboxes.get(key).clear();
+			return true;
+		});
+
 		Set<String> keys = publishers.keySet();
 		for (String key: keys) {
 			if (!newPublishers.contains(key)) {
@@ -187,9 +319,13 @@ public class MessageBus implements IOFogModule {
 				MessagePublisher publisher = publishers.get(key);
 				Route route = newRoutes.get(key);
 				Route currentRoute = publisher.getRoute();
-				if (!currentRoute.equals(route)) {
+				if (!currentRoute.equals(route) || publisher.isClosed()) {
 					messageBusServer.removeProducer(key);
-					publisher.updateRoute(route, messageBusServer.getProducer(key, route.getReceivers()));
+					Map<String, MessageProducer> producers = messageBusServer.getProducer(key, route.getReceivers());
+					publisher.updateRoute(route, messageBusServer.getProducerSession(key), producers);
+				}
+				if (diff.isAddedOrChanged(key)) {
+					configureArchive(publisher, latestMicroservices);
 				}
 			}
 		}
@@ -199,7 +335,12 @@ public class MessageBus implements IOFogModule {
 				continue;
 			}
 			Route route = newRoutes.get(newPublisher);
-			MessagePublisher messagePublisher = new MessagePublisher(newPublisher, route, messageBusServer.getProducer(newPublisher, route.getReceivers()));
+			Map<String, MessageProducer> producers = messageBusServer.getProducer(newPublisher, route.getReceivers());
+			MessagePublisher messagePublisher = new MessagePublisher(newPublisher, route,
+					messageBusServer.getProducerSession(newPublisher), producers);
+			messagePublisher.setOutbox(getOrCreateOutbox(newPublisher));
+			messagePublisher.setLocalReceivers(this::getLocalReceiver);
+			configureArchive(messagePublisher, latestMicroservices);
 			publishers.put(newPublisher, messagePublisher);
 		}
 
@@ -208,47 +349,41 @@ public class MessageBus implements IOFogModule {
 			if (newReceivers.contains(rec)) {
 				continue;
 			}
-			receivers.get(rec).close();
+			MessageReceiver receiver = receivers.get(rec);
+			receiver.close();
+			rerouteLocalMessages(rec, receiver.takeUndeliveredMessages());
 			messageBusServer.removeConsumer(rec);
-			publishers.remove(rec);
+			receivers.remove(rec);
 		}
 
+		Map<String, ChannelHandlerContext> messageSocketMap = WebSocketMap.getMessageWebsocketMap();
 		for (String newReceiver: newReceivers) {
-			if (receivers.containsKey(newReceiver)) {
-				continue;
+			MessageReceiver currentReceiver = receivers.get(newReceiver);
+			if (currentReceiver != null) {
+				if (!currentReceiver.isClosed()) {
+					continue;
+				}
+				messageBusServer.removeConsumer(newReceiver);
+			}
+			MessageConsumer consumer = messageBusServer.getConsumer(newReceiver);
+			if (consumer == null) {
+				throw new Exception("Unable to create consumer " + newReceiver);
 			}
-			MessageReceiver messageReceiver = new MessageReceiver(newReceiver, messageBusServer.getConsumer(newReceiver));
+			MessageReceiver messageReceiver = new MessageReceiver(newReceiver, consumer);
 			receivers.put(newReceiver, messageReceiver);
+			if (messageSocketMap.containsKey(newReceiver)) {
+				messageReceiver.enableRealTimeReceiving();
+			}
 		}
 
 		routes = newRoutes;
+		appliedMicroservices = latestMicroservices;
 
-		List<Microservice> latestMicroservices = microserviceManager.getLatestMicroservices();
 		Map<String, Long> publishedMessagesPerMicroservice = StatusReporter.getMessageBusStatus().getPublishedMessagesPerMicroservice();
 		publishedMessagesPerMicroservice.keySet().removeIf(key -> !microserviceManager.microserviceExists(latestMicroservices, key));
 
 		for (Microservice microservice: latestMicroservices) {
-			if (!publishedMessagesPerMicroservice.keySet().contains(microservice.getMicroserviceUuid())) {
-				publishedMessagesPerMicroservice.put(microservice.getMicroserviceUuid(), 0L);
-			}
-
-			if (!microservice.isConsumer()) {
-				continue;
-			}
-
-			String id = microservice.getMicroserviceUuid();
-			MessageConsumer consumer = messageBusServer.getConsumer(id);
-			if (consumer != null) {
-				MessageReceiver messageReceiver = new MessageReceiver(id, consumer);
-				receivers.put(id, messageReceiver);
-
-				Map<String, ChannelHandlerContext> messageSocketMap = WebSocketMap.getMessageWebsocketMap();
-				if (messageSocketMap.containsKey(id)) {
-					messageReceiver.enableRealTimeReceiving();
-				}
-			} else {
-				throw new Exception("Unable to create consumer " + id);
-			}
+			publishedMessagesPerMicroservice.putIfAbsent(microservice.getMicroserviceUuid(), 0L);
 		}
 	}
 
@@ -311,8 +446,10 @@ public class MessageBus implements IOFogModule {
 		messageBusServer.initialize();
 
 		logInfo("MESSAGE BUS SERVER STARTED");
-		Thread speedCalc = new Thread(calculateSpeed, Constants.MESSAGE_BUS_CALCULATE_SPEED);
-		speedCalc.start();
+		if (speedCalculation == null) {
+			speedCalculation = AgentScheduler.getInstance().scheduleAtFixedRate(Constants.MESSAGE_BUS_CALCULATE_SPEED, calculateSpeed,
+					Configuration.getSpeedCalculationFreqMinutes(), Configuration::getSpeedCalculationFreqMinutes, TimeUnit.MINUTES);
+		}
 	}
 
 	private Runnable startServer = new Runnable() {
@@ -357,6 +494,9 @@ public class MessageBus implements IOFogModule {
 		messageBusServer = new MessageBusServer();
 
 		new Thread(startServer).start();
+
+		AgentScheduler.getInstance().scheduleAtFixedRate(Constants.MESSAGE_BUS_OUTBOX_REPLAY, replayOutboxes,
+				OUTBOX_REPLAY_FREQ_MILLIS, () -> OUTBOX_REPLAY_FREQ_MILLIS, TimeUnit.MILLISECONDS);
 	}
 	
 	/**
@@ -370,6 +510,8 @@ public class MessageBus implements IOFogModule {
 			for (MessageReceiver receiver : receivers.values()) {
 				try {
 					receiver.close();
+					if (messageBusServer != null && messageBusServer.isConnected())
+						rerouteLocalMessages(receiver.getName(), receiver.takeUndeliveredMessages());
 				} catch (Exception e) {
 					logError("Error closing receiver " + receiver.getName(), new AgentSystemException(e.getMessage(), e));
 				}
@@ -406,6 +548,16 @@ public class MessageBus implements IOFogModule {
 		return publishers.get(publisher);
 	}
 
+	/**
+	 * returns {@link MessageOutbox} buffering messages of publisher while router is not reachable
+	 *
+	 * @param publisher - ID of {@link Microservice}
+	 * @return {@link MessageOutbox} or null if publisher has no route
+	 */
+	public MessageOutbox getOutbox(String publisher) {
+		return outboxes.get(publisher);
+	}
+
 	/**
 	 * returns {@link MessageReceiver}
 	 * 
@@ -15,17 +15,20 @@ package org.eclipse.iofog.message_bus;
 import org.apache.qpid.jms.JmsConnectionFactory;
 import org.eclipse.iofog.exception.AgentSystemException;
 import org.eclipse.iofog.microservice.Microservice;
+import org.eclipse.iofog.utils.configuration.Configuration;
 import org.eclipse.iofog.utils.logging.LoggingService;
 
 import javax.jms.*;
 import javax.jms.IllegalStateException;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * ActiveMQ server
+ * every publisher and receiver has its own {@link Session}, as a session must not be used by concurrent threads
  *
  * @author saeid
  */
@@ -37,17 +40,14 @@ public class MessageBusServer {
     private static final String MODULE_NAME = "Message Bus Server";
 
     private Connection connection;
-    private static Session session;
 
     private Map<String, MessageConsumer> consumers = new ConcurrentHashMap<>();
-    private Map<String, List<MessageProducer>> producers = new ConcurrentHashMap<>();
+    private Map<String, Map<String, MessageProducer>> producers = new ConcurrentHashMap<>();
+    private Map<String, Session> consumerSessions = new ConcurrentHashMap<>();
+    private Map<String, Session> producerSessions = new ConcurrentHashMap<>();
 
     private boolean isConnected = false;
 
-	static TextMessage createMessage(String text) throws Exception {
-		return session.createTextMessage(text);
-	}
-
     /**
      * Sets {@link ExceptionListener}
      *
@@ -67,21 +67,36 @@ public class MessageBusServer {
      */
     void startServer(String routerHost, int routerPort) throws Exception {
         LoggingService.logDebug(MODULE_NAME, "Starting server");
-        JmsConnectionFactory connectionFactory = new JmsConnectionFactory(String.format("amqp://%s:%d", routerHost, routerPort));
+        JmsConnectionFactory connectionFactory = new JmsConnectionFactory(getConnectionUri(routerHost, routerPort));
         connection = connectionFactory.createConnection();
         LoggingService.logDebug(MODULE_NAME, "Finished starting server");
     }
 
     /**
-     * creates IOFog {@link javax.jms.Message} producers
-     * and {@link Session}
+     * builds router uri with optional consumer prefetch and async send settings
+     *
+     * @param routerHost - host of router
+     * @param routerPort - port of router
+     * @return connection uri
+     */
+    static String getConnectionUri(String routerHost, int routerPort) {
+        List<String> options = new ArrayList<>();
+        if (Configuration.getRouterPrefetch() > 0)
+            options.add("jms.prefetchPolicy.all=" + Configuration.getRouterPrefetch());
+        if (Configuration.isRouterAsyncSend())
+            options.add("jms.forceAsyncSend=true");
+        String uri = String.format("amqp://%s:%d", routerHost, routerPort);
+        return options.isEmpty() ? uri : uri + "?" + String.join("&", options);
+    }
+
+    /**
+     * starts delivery of messages of {@link Connection}
      *
      * @throws Exception
      */
     void initialize() throws Exception {
         LoggingService.logDebug(MODULE_NAME, "Starting initialization");
         synchronized (messageBusSessionLock) {
-            session = connection.createSession(false, Session.CLIENT_ACKNOWLEDGE);
             connection.start();
         }
         LoggingService.logDebug(MODULE_NAME, "Finished initialization");
@@ -97,9 +112,11 @@ public class MessageBusServer {
         LoggingService.logDebug(MODULE_NAME, "Starting create consumer");
 
         synchronized (consumerLock) {
-            Destination messageQueue = session.createQueue(name);
-            MessageConsumer consumer = session.createConsumer(messageQueue);
+            Session consumerSession = connection.createSession(false, Session.CLIENT_ACKNOWLEDGE);
+            Destination messageQueue = consumerSession.createQueue(name);
+            MessageConsumer consumer = consumerSession.createConsumer(messageQueue);
             consumers.put(name, consumer);
+            consumerSessions.put(name, consumerSession);
         }
 
         LoggingService.logDebug(MODULE_NAME, "Finished create consumer");
@@ -138,6 +155,7 @@ public class MessageBusServer {
                 MessageConsumer consumer = consumers.remove(name);
                 consumer.close();
             }
+            closeSession(consumerSessions.remove(name));
         }
 
         LoggingService.logDebug(MODULE_NAME, "Finished remove consumer");
@@ -154,13 +172,15 @@ public class MessageBusServer {
 
         synchronized (producerLock) {
             if (receivers != null && receivers.size() > 0) {
-                List<MessageProducer> messageProducers = new ArrayList<>();
+                Session producerSession = connection.createSession(false, Session.CLIENT_ACKNOWLEDGE);
+                Map<String, MessageProducer> messageProducers = new LinkedHashMap<>();
                 for (String receiver: receivers) {
-                    Destination messageQueue = session.createQueue(receiver);
-                    MessageProducer producer = session.createProducer(messageQueue);
-                    messageProducers.add(producer);
+                    Destination messageQueue = producerSession.createQueue(receiver);
+                    MessageProducer producer = producerSession.createProducer(messageQueue);
+                    messageProducers.put(receiver, producer);
                 }
                 producers.put(name, messageProducers);
+                producerSessions.put(name, producerSession);
             }
         }
 
@@ -171,9 +191,9 @@ public class MessageBusServer {
      * returns {@link MessageProducer} of a publisher {@link Microservice}
      *
      * @param publisher - ID of {@link Microservice}
-     * @return {@link MessageProducer}
+     * @return {@link MessageProducer} by ID of receiver {@link Microservice}
      */
-    List<MessageProducer> getProducer(String publisher, List<String> receivers) throws Exception {
+    Map<String, MessageProducer> getProducer(String publisher, List<String> receivers) throws Exception {
         LoggingService.logDebug(MODULE_NAME, "Start get Producer");
 
         if (!producers.containsKey(publisher)) {
@@ -189,6 +209,17 @@ public class MessageBusServer {
         return producers.get(publisher);
     }
 
+    /**
+     * returns {@link Session} owning {@link MessageProducer} of a publisher {@link Microservice},
+     * messages sent by these producers have to be created from it
+     *
+     * @param publisher - ID of {@link Microservice}
+     * @return {@link Session} or null if publisher has no producers
+     */
+    Session getProducerSession(String publisher) {
+        return producerSessions.get(publisher);
+    }
+
     /**
      * removes {@link MessageConsumer} when a receiver {@link Microservice} has been removed
      *
@@ -199,8 +230,8 @@ public class MessageBusServer {
 
 		synchronized (producerLock) {
 			if (producers != null && producers.containsKey(name)) {
-				List<MessageProducer> messageProducers = producers.remove(name);
-				messageProducers.forEach(producer -> {
+				Map<String, MessageProducer> messageProducers = producers.remove(name);
+				messageProducers.values().forEach(producer -> {
 				    try {
 				        producer.close();
                     } catch (Exception e) {
@@ -208,6 +239,7 @@ public class MessageBusServer {
                     }
                 });
 			}
+			closeSession(producerSessions.remove(name));
 		}
 
         LoggingService.logDebug(MODULE_NAME, "Finish remove Producer");
@@ -233,7 +265,7 @@ public class MessageBusServer {
         }
         if (producers != null) {
             producers.forEach((key, value) -> {
-                value.forEach(producer -> {
+                value.values().forEach(producer -> {
                     try {
                         producer.close();
                     } catch (Exception e) {
@@ -244,10 +276,10 @@ public class MessageBusServer {
             });
             producers.clear();
         }
-
-        if (session != null) {
-            session.close();
-        }
+        consumerSessions.values().forEach(this::closeSession);
+        consumerSessions.clear();
+        producerSessions.values().forEach(this::closeSession);
+        producerSessions.clear();
 
         if (connection != null) {
             connection.close();
@@ -256,6 +288,16 @@ public class MessageBusServer {
         LoggingService.logInfo(MODULE_NAME, "stopped server");
     }
 
+    private void closeSession(Session sessionToClose) {
+        if (sessionToClose == null)
+            return;
+        try {
+            sessionToClose.close();
+        } catch (Exception e) {
+            LoggingService.logWarning(MODULE_NAME, "Unable to close session");
+        }
+    }
+
     public boolean isConnected() {
         synchronized (messageBusSessionLock) {
             return isConnected;
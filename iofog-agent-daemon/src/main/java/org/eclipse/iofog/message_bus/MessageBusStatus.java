@@ -12,8 +12,11 @@
  */
 package org.eclipse.iofog.message_bus;
 
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
+import java.util.TreeMap;
 
 import javax.json.Json;
 import javax.json.JsonArrayBuilder;
@@ -29,6 +32,26 @@ public class MessageBusStatus {
 	private long processedMessages;
 	private final Map<String, Long> publishedMessagesPerMicroservice;
 	private float averageSpeed;
+	private long archiveRawBytes;
+	private long archiveCompressedBytes;
+	private long outboxBacklog;
+	private long locallyRoutedMessages;
+	private long routerRoutedMessages;
+	private final Map<Byte, PriorityStats> priorityStats = new TreeMap<>(Comparator.reverseOrder());
+	private String routeFilterReport = "none";
+
+	/**
+	 * delivery metrics of messages of one priority
+	 *
+	 */
+	private static class PriorityStats {
+		private long delivered;
+		private long dropped;
+		private long totalLatency;
+		private long maxLatency;
+		private long lastDelivered;
+		private float speed;
+	}
 	
 	public MessageBusStatus() {
 		publishedMessagesPerMicroservice = new HashMap<>();
@@ -67,6 +90,127 @@ public class MessageBusStatus {
 		return this;
 	}
 	
+	public synchronized MessageBusStatus increaseArchiveCompressedBytes(long rawBytes, long compressedBytes) {
+		this.archiveRawBytes += rawBytes;
+		this.archiveCompressedBytes += compressedBytes;
+		return this;
+	}
+
+	/**
+	 * returns ratio of raw to compressed size of archive segments compressed since start
+	 *
+	 * @return compression ratio, 0 if nothing has been compressed yet
+	 */
+	public synchronized float getArchiveCompressionRatio() {
+		return archiveCompressedBytes == 0 ? 0 : (float) archiveRawBytes / archiveCompressedBytes;
+	}
+
+	public long getOutboxBacklog() {
+		return outboxBacklog;
+	}
+
+	public MessageBusStatus setOutboxBacklog(long outboxBacklog) {
+		this.outboxBacklog = outboxBacklog;
+		return this;
+	}
+
+	public synchronized long getLocallyRoutedMessages() {
+		return locallyRoutedMessages;
+	}
+
+	public synchronized MessageBusStatus increaseLocallyRoutedMessages() {
+		this.locallyRoutedMessages++;
+		return this;
+	}
+
+	public synchronized long getRouterRoutedMessages() {
+		return routerRoutedMessages;
+	}
+
+	public synchronized MessageBusStatus increaseRouterRoutedMessages() {
+		this.routerRoutedMessages++;
+		return this;
+	}
+
+	/**
+	 * counts {@link Message} delivered to receiver
+	 *
+	 * @param priority - priority of {@link Message}
+	 * @param latency - milliseconds between publishing and delivery
+	 * @return this
+	 */
+	public synchronized MessageBusStatus increaseDeliveredMessages(byte priority, long latency) {
+		PriorityStats stats = priorityStats.computeIfAbsent(priority, p -> new PriorityStats());
+		stats.delivered++;
+		stats.totalLatency += Math.max(0, latency);
+		stats.maxLatency = Math.max(stats.maxLatency, latency);
+		return this;
+	}
+
+	/**
+	 * counts {@link Message} dropped by priority drop policy under back-pressure
+	 *
+	 * @param priority - priority of {@link Message}
+	 * @return this
+	 */
+	public synchronized MessageBusStatus increaseDroppedMessages(byte priority) {
+		priorityStats.computeIfAbsent(priority, p -> new PriorityStats()).dropped++;
+		return this;
+	}
+
+	/**
+	 * computes delivery speed of each priority since previous call
+	 *
+	 * @param seconds - seconds since previous call
+	 */
+	public synchronized void calculatePrioritySpeeds(float seconds) {
+		priorityStats.values().forEach(stats -> {
+			stats.speed = seconds > 0 ? (stats.delivered - stats.lastDelivered) / seconds : 0;
+			stats.lastDelivered = stats.delivered;
+		});
+	}
+
+	public synchronized long getDeliveredMessages(byte priority) {
+		PriorityStats stats = priorityStats.get(priority);
+		return stats != null ? stats.delivered : 0;
+	}
+
+	public synchronized long getDroppedMessages(byte priority) {
+		PriorityStats stats = priorityStats.get(priority);
+		return stats != null ? stats.dropped : 0;
+	}
+
+	/**
+	 * returns delivery metrics per priority, highest priority first
+	 *
+	 * @return report, "none" if nothing has been delivered yet
+	 */
+	public synchronized String getPriorityReport() {
+		if (priorityStats.isEmpty())
+			return "none";
+		StringBuilder result = new StringBuilder();
+		priorityStats.forEach((priority, stats) -> {
+			if (result.length() > 0)
+				result.append("; ");
+			result.append(String.format(Locale.US, "priority %d: %,d delivered (%.2f msg/s), latency avg %d ms max %d ms, %,d dropped",
+					priority, stats.delivered, stats.speed, stats.delivered > 0 ? stats.totalLatency / stats.delivered : 0,
+					stats.maxLatency, stats.dropped));
+		});
+		return result.toString();
+	}
+
+	/**
+	 * @return matched and filtered out messages per filtered route, "none" if no route is filtered
+	 */
+	public synchronized String getRouteFilterReport() {
+		return routeFilterReport;
+	}
+
+	public synchronized MessageBusStatus setRouteFilterReport(String routeFilterReport) {
+		this.routeFilterReport = routeFilterReport;
+		return this;
+	}
+
 	public void removePublishedMessagesPerMicroservice(String microservice) {
 		if (publishedMessagesPerMicroservice.containsKey(microservice))
 			publishedMessagesPerMicroservice.remove(microservice);
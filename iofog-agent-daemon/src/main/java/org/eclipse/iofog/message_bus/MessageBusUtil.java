@@ -50,6 +50,16 @@ public class MessageBusUtil {
 				LoggingService.logError(MODULE_NAME, "Unable to send message : Message Publisher (" + publisher.getName()+ ")",
 						new AgentSystemException(e.getMessage(), e));
 			}
+		} else {
+			MessageOutbox outbox = messageBus.getOutbox(message.getPublisher());
+			if (outbox != null) {
+				try {
+					outbox.offer(message);
+				} catch (Exception e) {
+					LoggingService.logError(MODULE_NAME, "Unable to buffer message : Message Outbox (" + outbox.getName() + ")",
+							new AgentSystemException(e.getMessage(), e));
+				}
+			}
 		}
 		LoggingService.logInfo(MODULE_NAME, "Finishing publish message");
 	}
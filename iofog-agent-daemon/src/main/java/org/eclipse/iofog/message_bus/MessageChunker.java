@@ -0,0 +1,87 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.message_bus;
+
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+import javax.jms.TextMessage;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * splits content of large {@link Message} into chunks, which are sent to router as separate JMS messages
+ * each chunk is json of the message with a slice of its content data, JMS properties of chunk tell where slice belongs,
+ * so group id and sequence fields of {@link Message} stay as microservice has set them
+ *
+ */
+final class MessageChunker {
+	static final String CHUNK_ID_PROPERTY = "iofogChunkId";
+	static final String CHUNK_OFFSET_PROPERTY = "iofogChunkOffset";
+	static final String CONTENT_LENGTH_PROPERTY = "iofogContentLength";
+	static final int CHUNK_SIZE = 64 * 1024;
+
+	private MessageChunker() {
+	}
+
+	/**
+	 * @param message - {@link Message} to be sent
+	 * @return number of chunks, 1 if content of message fits in one chunk
+	 */
+	static int getChunkCount(Message message) {
+		byte[] content = message.getContentData();
+		if (content == null || content.length <= CHUNK_SIZE)
+			return 1;
+		return (content.length + CHUNK_SIZE - 1) / CHUNK_SIZE;
+	}
+
+	/**
+	 * creates JMS message of one chunk, only one slice of content is copied at a time
+	 *
+	 * @param session - {@link Session} owning producer the chunk is sent by
+	 * @param message - {@link Message} to be sent
+	 * @param chunkId - id shared by all chunks of message
+	 * @param index - index of chunk
+	 * @return JMS message of chunk, whole message if it is not chunked
+	 * @throws Exception
+	 */
+	static TextMessage createChunk(Session session, Message message, String chunkId, int index) throws Exception {
+		if (getChunkCount(message) == 1)
+			return session.createTextMessage(message.toJson().toString());
+
+		byte[] content = message.getContentData();
+		int offset = index * CHUNK_SIZE;
+		byte[] slice = Arrays.copyOfRange(content, offset, Math.min(content.length, offset + CHUNK_SIZE));
+		TextMessage msg = session.createTextMessage(message.toJson(slice).toString());
+		msg.setStringProperty(CHUNK_ID_PROPERTY, chunkId);
+		msg.setIntProperty(CHUNK_OFFSET_PROPERTY, offset);
+		msg.setIntProperty(CONTENT_LENGTH_PROPERTY, content.length);
+		return msg;
+	}
+
+	/**
+	 * sends {@link Message} to router, in chunks if its content is large
+	 *
+	 * @param session - {@link Session} owning producer
+	 * @param producer - producer of receiver
+	 * @param message - {@link Message} to be sent
+	 * @param deliveryMode - JMS delivery mode
+	 * @param priority - JMS priority
+	 * @throws Exception
+	 */
+	static void send(Session session, MessageProducer producer, Message message, int deliveryMode, int priority) throws Exception {
+		int count = getChunkCount(message);
+		String chunkId = count > 1 ? UUID.randomUUID().toString() : null;
+		for (int i = 0; i < count; i++)
+			producer.send(createChunk(session, message, chunkId, i), deliveryMode, priority, javax.jms.Message.DEFAULT_TIME_TO_LIVE);
+	}
+}
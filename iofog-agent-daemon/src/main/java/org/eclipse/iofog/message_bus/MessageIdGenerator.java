@@ -12,13 +12,15 @@
  */
 package org.eclipse.iofog.message_bus;
 
+import org.eclipse.iofog.utils.scheduler.AgentScheduler;
+
 import java.util.LinkedList;
 import java.util.Queue;
 import java.util.UUID;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
+import static org.eclipse.iofog.utils.Constants.MESSAGE_BUS_ID_GENERATOR;
+
 /**
  * class to generate unique id for {@link Message}
  * 
@@ -78,26 +80,31 @@ public class MessageIdGenerator {
 		isRefilling = true;
 		while (generatedIds.size() < PRE_GENERATED_IDS_COUNT)
 			synchronized (generatedIds) {
-				generatedIds.offer(UUID.randomUUID().toString().replaceAll("-", ""));
+				generatedIds.offer(newId());
 			}
 		isRefilling = false;
 	};
 	
+	private static String newId() {
+		return UUID.randomUUID().toString().replaceAll("-", "");
+	}
+
 	/**
 	 * returns next generated id from list
+	 * generates id in place if list has not been refilled yet
 	 * 
 	 * @return id
 	 */
 	public String getNextId() {
-		while (generatedIds.size() == 0);
+		String id;
 		synchronized (generatedIds) {
-			return generatedIds.poll();
+			id = generatedIds.poll();
 		}
+		return id != null ? id : newId();
 	}
 	
 	public MessageIdGenerator() {
-		ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
-		scheduler.scheduleAtFixedRate(refill, 0, 5, TimeUnit.SECONDS);
+		AgentScheduler.getInstance().scheduleAtFixedRate(MESSAGE_BUS_ID_GENERATOR, refill, 0, () -> 5, TimeUnit.SECONDS);
 	}
 	
 //			 			 1         2         3         4         5         6         7         8         9         0         1         2         3         4         5         6         7         
@@ -0,0 +1,284 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.message_bus;
+
+import org.eclipse.iofog.exception.AgentSystemException;
+import org.eclipse.iofog.microservice.Microservice;
+import org.eclipse.iofog.utils.configuration.Configuration;
+import org.eclipse.iofog.utils.logging.LoggingService;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * disk backed store-and-forward buffer of a publisher {@link Microservice}
+ * keeps {@link Message} which could not be sent to router and replays them in order.
+ * every receiver has its own queue, so a message is replayed only to receivers which have not got it yet
+ *
+ */
+public class MessageOutbox implements AutoCloseable {
+	private static final String MODULE_NAME = "MessageOutbox";
+	private static final String OUTBOX_DIRECTORY = "messages/outbox/";
+
+	private final String name;
+	private final String directory;
+	private final Map<String, ReceiverQueue> queues = new LinkedHashMap<>();
+	private List<String> receivers = new ArrayList<>();
+	private long windowStart;
+	private int windowMessages;
+
+	/**
+	 * sends replayed {@link Message} to router
+	 *
+	 */
+	interface Sender {
+		void send(String receiver, Message message) throws Exception;
+	}
+
+	/**
+	 * messages waiting to be replayed to one receiver
+	 *
+	 */
+	private static class ReceiverQueue {
+		private final String receiver;
+		private final MessageArchive store;
+		private long depth;
+		private String replayedSegment = "";
+		private int replayedMessages;
+
+		private ReceiverQueue(String receiver, String directory) {
+			this.receiver = receiver;
+			this.store = new MessageArchive(receiver, directory);
+			reconcileDepth();
+		}
+
+		/**
+		 * counts messages of all segments which have not been replayed yet
+		 *
+		 */
+		private void reconcileDepth() {
+			long count = 0;
+			for (File segment : store.getSegments()) {
+				count += MessageArchive.getMessageCount(segment);
+				if (segment.getPath().equals(replayedSegment))
+					count -= replayedMessages;
+			}
+			depth = Math.max(0, count);
+		}
+	}
+
+	MessageOutbox(String name) {
+		this.name = name;
+		this.directory = OUTBOX_DIRECTORY + name + "/";
+		File[] indexFiles = new File(Configuration.getDiskDirectory() + directory).listFiles((dir, fileName) ->
+				fileName.endsWith(".idx") && fileName.lastIndexOf("_") > 0);
+		if (indexFiles == null)
+			return;
+		for (File indexFile : indexFiles) {
+			String receiver = indexFile.getName().substring(0, indexFile.getName().lastIndexOf("_"));
+			if (!queues.containsKey(receiver))
+				queues.put(receiver, new ReceiverQueue(receiver, directory));
+		}
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * returns number of {@link Message} waiting to be replayed, counted once per receiver
+	 *
+	 * @return backlog depth
+	 */
+	public synchronized long getDepth() {
+		return queues.values().stream().mapToLong(queue -> queue.depth).sum();
+	}
+
+	synchronized boolean isEmpty() {
+		return getDepth() == 0;
+	}
+
+	/**
+	 * sets receivers of the route of publisher, messages still waiting for other receivers are deleted
+	 *
+	 * @param receivers - IDs of receiver {@link Microservice}
+	 */
+	synchronized void setReceivers(Collection<String> receivers) {
+		this.receivers = receivers != null ? new ArrayList<>(receivers) : new ArrayList<>();
+		queues.keySet().removeIf(receiver -> {
+			if (this.receivers.contains(receiver))
+				return false;
+			clear(queues.get(receiver));
+			return true;
+		});
+	}
+
+	/**
+	 * buffers {@link Message} for all receivers of the route
+	 *
+	 * @param message - {@link Message} to be buffered
+	 * @throws Exception
+	 */
+	synchronized void offer(Message message) throws Exception {
+		offer(message, receivers);
+	}
+
+	/**
+	 * buffers {@link Message} for the receivers which have not got it
+	 *
+	 * @param message - {@link Message} to be buffered
+	 * @param receivers - IDs of receiver {@link Microservice}
+	 * @throws Exception
+	 */
+	synchronized void offer(Message message, Collection<String> receivers) throws Exception {
+		byte[] bytes = message.getBytes();
+		for (String receiver : receivers) {
+			ReceiverQueue queue = queues.computeIfAbsent(receiver, key -> new ReceiverQueue(key, directory));
+			queue.store.save(bytes, message.getTimestamp());
+			queue.depth++;
+		}
+	}
+
+	/**
+	 * buffers {@link Message} if there are older messages waiting for the receiver, so the order is kept
+	 *
+	 * @param message - {@link Message} to be buffered
+	 * @param receiver - ID of receiver {@link Microservice}
+	 * @return true if {@link Message} has been buffered
+	 * @throws Exception
+	 */
+	synchronized boolean offerIfPending(Message message, String receiver) throws Exception {
+		ReceiverQueue queue = queues.get(receiver);
+		if (queue == null || queue.depth == 0)
+			return false;
+		queue.store.save(message.getBytes(), message.getTimestamp());
+		queue.depth++;
+		return true;
+	}
+
+	/**
+	 * sends buffered {@link Message} oldest first, at most maxMessagesPerSecond.
+	 * a segment is deleted after all of its messages have been sent,
+	 * replay to a receiver stops at its first failure, other receivers are still replayed
+	 *
+	 * @param sender - {@link Sender} to send messages with
+	 * @param maxMessagesPerSecond - replay rate limit
+	 * @return number of replayed messages
+	 * @throws Exception first failure, after all receivers have been replayed
+	 */
+	long replay(Sender sender, int maxMessagesPerSecond) throws Exception {
+		Map<ReceiverQueue, List<File>> pending = new LinkedHashMap<>();
+		synchronized (this) {
+			for (ReceiverQueue queue : queues.values()) {
+				if (queue.depth == 0)
+					continue;
+				queue.store.rollOver();
+				pending.put(queue, queue.store.getSegments());
+			}
+		}
+
+		long replayed = 0;
+		Exception failure = null;
+		windowStart = System.currentTimeMillis();
+		windowMessages = 0;
+		for (Map.Entry<ReceiverQueue, List<File>> entry : pending.entrySet()) {
+			ReceiverQueue queue = entry.getKey();
+			try {
+				replayed += replay(queue, entry.getValue(), sender, maxMessagesPerSecond);
+			} catch (Exception e) {
+				if (failure == null)
+					failure = e;
+			} finally {
+				synchronized (this) {
+					queue.reconcileDepth();
+				}
+			}
+		}
+		if (replayed > 0)
+			LoggingService.logInfo(MODULE_NAME, String.format("Replayed %d buffered message(s) of %s", replayed, name));
+		if (failure != null)
+			throw failure;
+		return replayed;
+	}
+
+	private long replay(ReceiverQueue queue, List<File> segments, Sender sender, int maxMessagesPerSecond)
+			throws Exception {
+		long replayed = 0;
+		for (File segment : segments) {
+			List<Message> messages = queue.store.readSegment(segment);
+			if (!segment.getPath().equals(queue.replayedSegment)) {
+				queue.replayedSegment = segment.getPath();
+				queue.replayedMessages = 0;
+			}
+			for (int i = queue.replayedMessages; i < messages.size(); i++) {
+				throttle(maxMessagesPerSecond);
+				sender.send(queue.receiver, messages.get(i));
+				queue.replayedMessages = i + 1;
+				replayed++;
+				synchronized (this) {
+					queue.depth--;
+				}
+			}
+
+			synchronized (this) {
+				MessageArchive.deleteSegment(segment);
+				queue.replayedSegment = "";
+				queue.replayedMessages = 0;
+			}
+		}
+		return replayed;
+	}
+
+	private void throttle(int maxMessagesPerSecond) throws InterruptedException {
+		if (windowMessages >= maxMessagesPerSecond) {
+			long wait = windowStart + 1000 - System.currentTimeMillis();
+			if (wait > 0)
+				Thread.sleep(wait);
+			windowStart = System.currentTimeMillis();
+			windowMessages = 0;
+		}
+		windowMessages++;
+	}
+
+	/**
+	 * deletes all buffered {@link Message}
+	 *
+	 */
+	synchronized void clear() {
+		queues.values().forEach(this::clear);
+		queues.clear();
+	}
+
+	private void clear(ReceiverQueue queue) {
+		queue.store.close();
+		for (File segment : queue.store.getSegments())
+			MessageArchive.deleteSegment(segment);
+		queue.depth = 0;
+	}
+
+	@Override
+	public synchronized void close() {
+		for (ReceiverQueue queue : queues.values()) {
+			try {
+				queue.store.close();
+			} catch (Exception e) {
+				LoggingService.logError(MODULE_NAME, "Error closing message outbox",
+						new AgentSystemException(e.getMessage(), e));
+			}
+		}
+	}
+}
@@ -15,10 +15,15 @@ package org.eclipse.iofog.message_bus;
 import org.eclipse.iofog.exception.AgentSystemException;
 import org.eclipse.iofog.microservice.Microservice;
 import org.eclipse.iofog.microservice.Route;
+import org.eclipse.iofog.microservice.RoutePredicate;
+import org.eclipse.iofog.status_reporter.StatusReporter;
 import org.eclipse.iofog.utils.logging.LoggingService;
 
 import javax.jms.*;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 import static org.eclipse.iofog.message_bus.MessageBus.MODULE_NAME;
 import static org.eclipse.iofog.utils.logging.LoggingService.logError;
@@ -32,13 +37,18 @@ import static org.eclipse.iofog.utils.logging.LoggingService.logError;
 public class MessagePublisher implements AutoCloseable{
 	private final MessageArchive archive;
 	private final String name;
-	private List<MessageProducer> producers;
+	private Map<String, MessageProducer> producers;
+	private Session session;
 	private Route route;
+	private MessageOutbox outbox;
+	private boolean closed;
+	private Function<String, MessageReceiver> localReceivers;
 
-	public MessagePublisher(String name, Route route, List<MessageProducer> producers) {
+	public MessagePublisher(String name, Route route, Session session, Map<String, MessageProducer> producers) {
 		this.archive = new MessageArchive(name);
 		this.route = route;
 		this.name = name;
+		this.session = session;
 		this.producers = producers;
 	}
 	
@@ -63,26 +73,197 @@ public class MessagePublisher implements AutoCloseable{
 					new AgentSystemException(e.getMessage(), e));
 		}
 
-		for (MessageProducer producer: producers) {
-			try {
-				TextMessage msg = MessageBusServer.createMessage(message.toJson().toString());
-				producer.send(msg, DeliveryMode.NON_PERSISTENT, javax.jms.Message.DEFAULT_PRIORITY, javax.jms.Message.DEFAULT_TIME_TO_LIVE);
-			} catch (Exception e) {
-				logError(MODULE_NAME, "Message Publisher (" + this.name + ") unable to send message",
-						new AgentSystemException(e.getMessage(), e));
+		List<String> failedReceivers = new ArrayList<>();
+		if (closed) {
+			buffer(message, null);
+		} else if (producers != null) {
+			for (Map.Entry<String, MessageProducer> producer : producers.entrySet()) {
+				String receiver = producer.getKey();
+				if (!accepts(receiver, message) || bufferIfPending(message, receiver))
+					continue;
+				MessageReceiver localReceiver = localReceivers != null ? localReceivers.apply(receiver) : null;
+				if (localReceiver != null && localReceiver.deliverLocally(message)) {
+					StatusReporter.setMessageBusStatus().increaseLocallyRoutedMessages();
+					continue;
+				}
+				try {
+					MessageChunker.send(session, producer.getValue(), message, DeliveryMode.NON_PERSISTENT, getJmsPriority(message));
+					StatusReporter.setMessageBusStatus().increaseRouterRoutedMessages();
+				} catch (Exception e) {
+					failedReceivers.add(receiver);
+					logError(MODULE_NAME, "Message Publisher (" + this.name + ") unable to send message",
+							new AgentSystemException(e.getMessage(), e));
+				}
 			}
 		}
+
+		if (!failedReceivers.isEmpty())
+			buffer(message, failedReceivers);
 		LoggingService.logDebug(MODULE_NAME, "Finished publish message : " + this.name);
 	}
 
-	synchronized void updateRoute(Route route, List<MessageProducer> producers) {
+	/**
+	 * buffers {@link Message} in {@link MessageOutbox}, so it is replayed to receivers which have not got it
+	 *
+	 * @param message - {@link Message} to be buffered
+	 * @param receivers - IDs of receivers, null for all receivers of the route
+	 */
+	private void buffer(Message message, List<String> receivers) {
+		if (outbox == null)
+			return;
+		try {
+			if (receivers == null)
+				outbox.offer(message);
+			else
+				outbox.offer(message, receivers);
+		} catch (Exception e) {
+			logError(MODULE_NAME, "Message Publisher (" + this.name + ") unable to buffer message",
+					new AgentSystemException(e.getMessage(), e));
+		}
+	}
+
+	/**
+	 * buffers {@link Message} if older messages are still waiting for the receiver, so the order is kept
+	 *
+	 * @param message - {@link Message} to be sent
+	 * @param receiver - ID of receiver
+	 * @return true if {@link Message} has been buffered
+	 */
+	private boolean bufferIfPending(Message message, String receiver) {
+		if (outbox == null)
+			return false;
+		try {
+			return outbox.offerIfPending(message, receiver);
+		} catch (Exception e) {
+			logError(MODULE_NAME, "Message Publisher (" + this.name + ") unable to buffer message",
+					new AgentSystemException(e.getMessage(), e));
+			return false;
+		}
+	}
+
+	/**
+	 * enables delivery to co-located receivers without going through router
+	 *
+	 * @param localReceivers - returns {@link MessageReceiver} of receiver if it runs on this agent, null otherwise
+	 */
+	synchronized void setLocalReceivers(Function<String, MessageReceiver> localReceivers) {
+		this.localReceivers = localReceivers;
+	}
+
+	/**
+	 * sets {@link MessageOutbox} buffering messages while router is not reachable
+	 *
+	 * @param outbox - {@link MessageOutbox} of this publisher
+	 */
+	synchronized void setOutbox(MessageOutbox outbox) {
+		this.outbox = outbox;
+		if (outbox != null && route != null)
+			outbox.setReceivers(route.getReceivers());
+	}
+
+	/**
+	 * replays messages buffered while router was not reachable
+	 *
+	 * @param maxMessagesPerSecond - replay rate limit
+	 * @return number of replayed messages
+	 * @throws Exception
+	 */
+	long replayOutbox(int maxMessagesPerSecond) throws Exception {
+		MessageOutbox currentOutbox;
+		synchronized (this) {
+			if (outbox == null || closed)
+				return 0;
+			currentOutbox = outbox;
+		}
+		return currentOutbox.replay(this::sendPersistent, maxMessagesPerSecond);
+	}
+
+	/**
+	 * sends replayed {@link Message} and waits for router to accept it,
+	 * so buffered messages are deleted only after they have been delivered
+	 *
+	 * @param receiver - receiver of route
+	 * @param message - {@link Message} to be sent
+	 * @throws Exception
+	 */
+	private synchronized void sendPersistent(String receiver, Message message) throws Exception {
+		if (closed)
+			throw new JMSException("Message Publisher (" + this.name + ") is closed");
+		if (accepts(receiver, message))
+			sendThroughRouter(receiver, message);
+	}
+
+	/**
+	 * sends {@link Message} through router and waits for router to accept it,
+	 * used when co-located receiver does not take locally queued message anymore
+	 *
+	 * @param receiver - receiver of route
+	 * @param message - {@link Message} to be sent
+	 * @throws Exception
+	 */
+	synchronized void sendThroughRouter(String receiver, Message message) throws Exception {
+		MessageProducer producer = producers != null ? producers.get(receiver) : null;
+		if (closed || producer == null)
+			throw new JMSException("Message Publisher (" + this.name + ") has no producer of " + receiver);
+		MessageChunker.send(session, producer, message, DeliveryMode.PERSISTENT, getJmsPriority(message));
+	}
+
+	/**
+	 * tests {@link Message} against {@link RoutePredicate} of receiver, if any
+	 *
+	 * @param receiver - receiver of route
+	 * @param message - {@link Message} to be sent
+	 * @return true if message has to be sent to receiver
+	 */
+	private boolean accepts(String receiver, Message message) {
+		RoutePredicate predicate = route != null ? route.getPredicate(receiver) : null;
+		return predicate == null || predicate.test(message);
+	}
+
+	/**
+	 * maps priority of {@link Message} to JMS priority, which is 0 (lowest) to 9 (highest)
+	 *
+	 * @param message - {@link Message} to be sent
+	 * @return JMS priority
+	 */
+	static int getJmsPriority(Message message) {
+		return Math.max(0, Math.min(9, message.getPriority()));
+	}
+
+	synchronized boolean isClosed() {
+		return closed;
+	}
+
+	/**
+	 * sets archive codec and segment size of this publisher
+	 *
+	 * @param codec - {@link ArchiveCodec} of sealed archive segments
+	 * @param segmentSizeMb - maximum size of archive segment in MB
+	 */
+	synchronized void configureArchive(ArchiveCodec codec, int segmentSizeMb) {
+		archive.configure(codec, segmentSizeMb);
+	}
+
+	/**
+	 * updates {@link Route} and producers, messages are created from {@link Session} owning the producers
+	 *
+	 * @param route - new {@link Route}
+	 * @param session - {@link Session} of producers
+	 * @param producers - producers by receiver
+	 */
+	synchronized void updateRoute(Route route, Session session, Map<String, MessageProducer> producers) {
 		LoggingService.logDebug(MODULE_NAME, "Updating route");
 		this.route = route;
+		this.session = session;
 		this.producers = producers;
+		this.closed = false;
+		if (outbox != null && route != null)
+			outbox.setReceivers(route.getReceivers());
 	}
 
 	public synchronized void close() {
 		LoggingService.logDebug(MODULE_NAME, "Start closing publish");
+		closed = true;
 		try {
 			archive.close();
 		} catch (Exception exp) {
@@ -90,7 +271,7 @@ public class MessagePublisher implements AutoCloseable{
 		}
 
 		if (producers != null && producers.size() > 0) {
-			for (MessageProducer producer: producers) {
+			for (MessageProducer producer: producers.values()) {
 				try {
 					producer.close();
 				} catch (Exception exp) {
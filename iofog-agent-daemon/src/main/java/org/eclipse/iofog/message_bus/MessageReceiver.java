@@ -15,6 +15,8 @@ package org.eclipse.iofog.message_bus;
 import org.eclipse.iofog.exception.AgentSystemException;
 import org.eclipse.iofog.microservice.Microservice;
 import org.eclipse.iofog.local_api.MessageCallback;
+import org.eclipse.iofog.local_api.WebSocketMap;
+import org.eclipse.iofog.status_reporter.StatusReporter;
 import org.eclipse.iofog.utils.logging.LoggingService;
 
 import javax.jms.MessageConsumer;
@@ -24,6 +26,7 @@ import javax.json.JsonObject;
 import javax.json.JsonReader;
 import java.io.StringReader;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 
 import static org.eclipse.iofog.utils.logging.LoggingService.logError;
@@ -36,11 +39,17 @@ import static org.eclipse.iofog.utils.logging.LoggingService.logError;
  */
 public class MessageReceiver implements AutoCloseable{
 	private static final String MODULE_NAME = "MessageReceiver";
+	private static final int LOCAL_QUEUE_CAPACITY = 10_000;
+	private static final long POLLING_WINDOW_MILLIS = 5_000;
 
 	private final String name;
 
-	private IOMessageListener listener;
+	private volatile IOMessageListener listener;
 	private final MessageConsumer consumer;
+	private final PriorityMessageQueue localMessages = new PriorityMessageQueue(LOCAL_QUEUE_CAPACITY);
+	private final MessageAssembler assembler = new MessageAssembler();
+	private volatile long lastPollTime;
+	private volatile boolean closed;
 
 	public MessageReceiver(String name, MessageConsumer consumer) {
 		this.name = name;
@@ -57,6 +66,7 @@ public class MessageReceiver implements AutoCloseable{
 	synchronized List<Message> getMessages() throws Exception {
 		LoggingService.logDebug(MODULE_NAME, String.format("Start getting message \"%s\"", name));
 		List<Message> result = new ArrayList<>();
+		lastPollTime = System.currentTimeMillis();
 		
 		if (consumer != null || listener == null) {
 			Message message = getMessage();
@@ -65,38 +75,87 @@ public class MessageReceiver implements AutoCloseable{
 				message = getMessage();
 			}
 		}
+		localMessages.drainTo(result);
+		// stable sort, so messages of the same priority keep their order
+		result.sort(Comparator.comparing(Message::getPriority).reversed());
+		long now = System.currentTimeMillis();
+		result.forEach(message -> StatusReporter.setMessageBusStatus()
+				.increaseDeliveredMessages(message.getPriority(), now - message.getTimestamp()));
 		LoggingService.logDebug(MODULE_NAME, String.format("Finished getting message \"%s\"", name));
 		return result;
 	}
 
 	/**
-	 * receives only one {@link Message}
+	 * receives only one {@link Message}, chunks of large message are received until it is complete
 	 * 
-	 * @return {@link Message}
+	 * @return {@link Message}, null if there is no complete message
 	 * @throws Exception
 	 */
 	private Message getMessage() throws Exception {
 		if (consumer == null || listener != null)
 			return null;
 
-		Message result = null;
 		TextMessage msg;
 		msg = (TextMessage) consumer.receiveNoWait();
-		if (msg != null) {
+		while (msg != null) {
 			msg.acknowledge();
 			JsonReader jsonReader = Json.createReader(new StringReader(msg.getText()));
 			JsonObject json = jsonReader.readObject();
 			jsonReader.close();
 
-			result = new Message(json);
+			Message result = assembler.add(msg, new Message(json));
+			if (result != null)
+				return result;
+			msg = (TextMessage) consumer.receiveNoWait();
 		}
-		return result;
+		return null;
 	}
 
 	protected String getName() {
 		return name;
 	}
+
+	/**
+	 * delivers {@link Message} of a co-located publisher without going through router,
+	 * either to real-time websocket or to in-memory queue if this {@link Microservice} polls messages
+	 *
+	 * @param message - {@link Message} to be delivered
+	 * @return false if nobody is listening or queue is full of messages of the same or higher priority,
+	 * so {@link Message} has to go through router
+	 */
+	boolean deliverLocally(Message message) {
+		if (closed)
+			return false;
+		IOMessageListener currentListener = listener;
+		if (currentListener != null) {
+			if (!WebSocketMap.getMessageWebsocketMap().containsKey(name))
+				return false;
+			currentListener.onLocalMessage(message);
+			return true;
+		}
+		if (System.currentTimeMillis() - lastPollTime > POLLING_WINDOW_MILLIS)
+			return false;
+		PriorityMessageQueue.OfferResult result = localMessages.offer(message);
+		if (result.getDropped() != null)
+			StatusReporter.setMessageBusStatus().increaseDroppedMessages(result.getDropped().getPriority());
+		return result.isAccepted();
+	}
 	
+	/**
+	 * takes {@link Message} queued for local delivery which are not going to be polled,
+	 * because poller of this {@link Microservice} has stopped or receiver has been closed,
+	 * so they can be sent through router instead of being lost
+	 *
+	 * @return list of {@link Message}, empty if poller is still active
+	 */
+	synchronized List<Message> takeUndeliveredMessages() {
+		List<Message> result = new ArrayList<>();
+		boolean pollerStopped = listener == null && System.currentTimeMillis() - lastPollTime > POLLING_WINDOW_MILLIS;
+		if (closed || pollerStopped)
+			localMessages.drainTo(result);
+		return result;
+	}
+
 	/**
 	 * enables real-time receiving for this {@link Microservice}
 	 * 
@@ -104,9 +163,12 @@ public class MessageReceiver implements AutoCloseable{
 	void enableRealTimeReceiving() {
 		LoggingService.logDebug(MODULE_NAME, "Start enable real time receiving");
 
-		listener = new IOMessageListener(new MessageCallback(name));
+		listener = new IOMessageListener(new MessageCallback(name), assembler);
 		try {
 			consumer.setMessageListener(listener);
+			List<Message> pending = new ArrayList<>();
+			localMessages.drainTo(pending);
+			pending.forEach(listener::onLocalMessage);
 		} catch (Exception e) {
 			listener = null;
 			LoggingService.logError(MODULE_NAME, "Error in enabling real time listener",
@@ -134,8 +196,13 @@ public class MessageReceiver implements AutoCloseable{
 		LoggingService.logDebug(MODULE_NAME, "Finished disable real time receiving");
 	}
 	
+	boolean isClosed() {
+		return closed;
+	}
+
 	public void close() {
 		LoggingService.logDebug(MODULE_NAME, "Start closing receiver");
+		closed = true;
 		if (consumer == null)
 			return;
 		disableRealTimeReceiving();
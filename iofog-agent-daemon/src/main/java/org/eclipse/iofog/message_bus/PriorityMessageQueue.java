@@ -0,0 +1,127 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.message_bus;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * bounded queue of {@link Message} ordered by priority, higher priority first, in arrival order within a priority
+ * when queue is full, oldest message of the lowest priority is dropped to make room for a message of higher priority,
+ * otherwise the new message is rejected
+ *
+ */
+public class PriorityMessageQueue {
+	private final int capacity;
+	private final TreeMap<Byte, Deque<Message>> messages = new TreeMap<>(Comparator.reverseOrder());
+	private int size;
+
+	/**
+	 * result of {@link #offer(Message)}
+	 *
+	 */
+	public static class OfferResult {
+		private final boolean accepted;
+		private final boolean wasEmpty;
+		private final Message dropped;
+
+		OfferResult(boolean accepted, boolean wasEmpty, Message dropped) {
+			this.accepted = accepted;
+			this.wasEmpty = wasEmpty;
+			this.dropped = dropped;
+		}
+
+		/**
+		 * @return false if queue was full of messages of the same or higher priority
+		 */
+		public boolean isAccepted() {
+			return accepted;
+		}
+
+		/**
+		 * @return true if queue was empty before message has been added
+		 */
+		public boolean wasEmpty() {
+			return wasEmpty;
+		}
+
+		/**
+		 * @return message dropped to make room, null if nothing has been dropped
+		 */
+		public Message getDropped() {
+			return dropped;
+		}
+	}
+
+	public PriorityMessageQueue(int capacity) {
+		this.capacity = capacity;
+	}
+
+	public synchronized OfferResult offer(Message message) {
+		boolean wasEmpty = size == 0;
+		Message dropped = null;
+		if (size >= capacity) {
+			Map.Entry<Byte, Deque<Message>> lowest = messages.lastEntry();
+			if (lowest == null || lowest.getKey() >= message.getPriority()) {
+				return new OfferResult(false, wasEmpty, null);
+			}
+			dropped = lowest.getValue().pollFirst();
+			if (lowest.getValue().isEmpty()) {
+				messages.remove(lowest.getKey());
+			}
+			size--;
+		}
+		messages.computeIfAbsent(message.getPriority(), priority -> new ArrayDeque<>()).addLast(message);
+		size++;
+		return new OfferResult(true, wasEmpty, dropped);
+	}
+
+	/**
+	 * @return message of the highest priority, null if queue is empty
+	 */
+	public synchronized Message poll() {
+		Map.Entry<Byte, Deque<Message>> highest = messages.firstEntry();
+		if (highest == null) {
+			return null;
+		}
+		Message message = highest.getValue().pollFirst();
+		if (highest.getValue().isEmpty()) {
+			messages.remove(highest.getKey());
+		}
+		size--;
+		return message;
+	}
+
+	/**
+	 * moves all messages to list, highest priority first
+	 *
+	 * @param result - list to add messages to
+	 */
+	public synchronized void drainTo(List<Message> result) {
+		messages.values().forEach(result::addAll);
+		messages.clear();
+		size = 0;
+	}
+
+	public synchronized int size() {
+		return size;
+	}
+
+	public synchronized boolean isEmpty() {
+		return size == 0;
+	}
+}
@@ -13,6 +13,7 @@
 package org.eclipse.iofog.microservice;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * represents Microservices
@@ -27,6 +28,7 @@ public class Microservice {
     private List<PortMapping> portMappings;
     private String config;
     private List<String> routes;
+    private Map<String, RoutePredicate> routePredicates;
     private String containerId;
     private int registryId;
     private String containerIpAddress;
@@ -42,6 +44,9 @@ public class Microservice {
 
     private boolean delete;
     private boolean deleteWithCleanup;
+    private String archiveCodec;
+    private int archiveSegmentSize;
+    private String contentHash;
 
     public Microservice(String microserviceUuid, String imageName) {
         this.microserviceUuid = microserviceUuid;
@@ -182,6 +187,14 @@ public class Microservice {
         this.routes = routes;
     }
 
+    public Map<String, RoutePredicate> getRoutePredicates() {
+        return routePredicates;
+    }
+
+    public void setRoutePredicates(Map<String, RoutePredicate> routePredicates) {
+        this.routePredicates = routePredicates;
+    }
+
     public boolean isConsumer() {
         return isConsumer;
     }
@@ -190,6 +203,22 @@ public class Microservice {
         isConsumer = consumer;
     }
 
+    public String getArchiveCodec() {
+        return archiveCodec;
+    }
+
+    public void setArchiveCodec(String archiveCodec) {
+        this.archiveCodec = archiveCodec;
+    }
+
+    public int getArchiveSegmentSize() {
+        return archiveSegmentSize;
+    }
+
+    public void setArchiveSegmentSize(int archiveSegmentSize) {
+        this.archiveSegmentSize = archiveSegmentSize;
+    }
+
     public List<String> getExtraHosts() {
         return extraHosts;
     }
@@ -197,4 +226,17 @@ public class Microservice {
     public void setExtraHosts(List<String> extraHosts) {
         this.extraHosts = extraHosts;
     }
+
+    /**
+     * returns hash of controller definition this {@link Microservice} has been built from
+     *
+     * @return content hash, null if unknown
+     */
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
 }
@@ -0,0 +1,89 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.microservice;
+
+import java.util.*;
+
+/**
+ * difference between two lists of {@link Microservice}
+ * microservices are matched by uuid and compared by content hash
+ */
+public class MicroserviceDiff {
+    private final Set<String> added = new HashSet<>();
+    private final Set<String> removed = new HashSet<>();
+    private final Set<String> changed = new HashSet<>();
+
+    private MicroserviceDiff() {
+    }
+
+    /**
+     * computes which {@link Microservice} have been added, removed or changed.
+     * microservice without content hash is always treated as changed
+     *
+     * @param previous - list of {@link Microservice} before update
+     * @param latest   - list of {@link Microservice} after update
+     * @return {@link MicroserviceDiff}
+     */
+    public static MicroserviceDiff compute(List<Microservice> previous, List<Microservice> latest) {
+        MicroserviceDiff diff = new MicroserviceDiff();
+        Map<String, String> previousHashes = new HashMap<>();
+        for (Microservice microservice : previous) {
+            previousHashes.put(microservice.getMicroserviceUuid(), microservice.getContentHash());
+        }
+
+        for (Microservice microservice : latest) {
+            String uuid = microservice.getMicroserviceUuid();
+            if (!previousHashes.containsKey(uuid)) {
+                diff.added.add(uuid);
+            } else {
+                String previousHash = previousHashes.remove(uuid);
+                if (previousHash == null || !previousHash.equals(microservice.getContentHash())) {
+                    diff.changed.add(uuid);
+                }
+            }
+        }
+        diff.removed.addAll(previousHashes.keySet());
+        return diff;
+    }
+
+    public Set<String> getAdded() {
+        return Collections.unmodifiableSet(added);
+    }
+
+    public Set<String> getRemoved() {
+        return Collections.unmodifiableSet(removed);
+    }
+
+    public Set<String> getChanged() {
+        return Collections.unmodifiableSet(changed);
+    }
+
+    /**
+     * checks if {@link Microservice} has been added or changed
+     *
+     * @param microserviceUuid - uuid of {@link Microservice}
+     * @return true if it has to be applied
+     */
+    public boolean isAddedOrChanged(String microserviceUuid) {
+        return added.contains(microserviceUuid) || changed.contains(microserviceUuid);
+    }
+
+    public boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty() && changed.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("added: %s, removed: %s, changed: %s", added, removed, changed);
+    }
+}
@@ -18,6 +18,8 @@ import com.github.dockerjava.api.model.CpuStatsConfig;
 import com.github.dockerjava.api.model.MemoryStatsConfig;
 import com.github.dockerjava.api.model.Statistics;
 import org.eclipse.iofog.process_manager.DockerUtil;
+import org.eclipse.iofog.resource_consumption_manager.ContainerResourceUsage;
+import org.eclipse.iofog.resource_consumption_manager.ResourceConsumptionManager;
 import org.eclipse.iofog.utils.logging.LoggingService;
 
 import java.util.Map;
@@ -37,6 +39,11 @@ public class MicroserviceStatus {
 	private long memoryUsage;
 	private String containerId;
 	private String percentage;
+	private long restartCount;
+	private float restartRate;
+	private float cpuThrottling;
+	private long ioReadBytes;
+	private long ioWriteBytes;
 
 	public MicroserviceStatus() {
 		this.status = MicroserviceState.UNKNOWN;
@@ -101,12 +108,51 @@ public class MicroserviceStatus {
 		this.percentage = percentage;
 	}
 
+	public long getRestartCount() {
+		return restartCount;
+	}
+
+	public void setRestartCount(long restartCount) {
+		this.restartCount = restartCount;
+	}
+
+	public float getRestartRate() {
+		return restartRate;
+	}
+
+	public void setRestartRate(float restartRate) {
+		this.restartRate = restartRate;
+	}
+
+	public float getCpuThrottling() {
+		return cpuThrottling;
+	}
+
+	public long getIoReadBytes() {
+		return ioReadBytes;
+	}
+
+	public long getIoWriteBytes() {
+		return ioWriteBytes;
+	}
+
 	/**
 	 * set in {@link MicroserviceStatus} cpu usage and memory usage of given {@link Container}
+	 * taken from cgroup accounting if available, otherwise sampled from docker stats
 	 *
 	 * @param containerId - id of {@link Container}
 	 */
 	public void setUsage(String containerId) {
+		Optional<ContainerResourceUsage> usage = ResourceConsumptionManager.getInstance().getContainerUsage(containerId);
+		if (usage.isPresent()) {
+			setCpuUsage(usage.get().getCpuUsage());
+			setMemoryUsage(usage.get().getMemoryUsage());
+			cpuThrottling = usage.get().getCpuThrottling();
+			ioReadBytes = usage.get().getIoReadBytes();
+			ioWriteBytes = usage.get().getIoWriteBytes();
+			return;
+		}
+
 		DockerUtil docker = DockerUtil.getInstance();
 		if (docker.isContainerRunning(containerId)) {
 			Optional<Statistics> statisticsBefore = docker.getContainerStats(containerId);
@@ -14,7 +14,9 @@ package org.eclipse.iofog.microservice;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * represents microservice routings
@@ -24,9 +26,11 @@ import java.util.List;
  */
 public class Route {
 	private List<String> receivers;
+	private Map<String, RoutePredicate> predicates;
 	
 	public Route() {
 		receivers = new ArrayList<>();
+		predicates = new HashMap<>();
 	}
 
 	public List<String> getReceivers() {
@@ -38,6 +42,25 @@ public class Route {
 		this.receivers.sort(String::compareTo);
 	}
 
+	/**
+	 * @param receiver - receiver of this route
+	 * @return {@link RoutePredicate} of receiver, null if receiver gets all messages
+	 */
+	public RoutePredicate getPredicate(String receiver) {
+		return predicates.get(receiver);
+	}
+
+	public void setPredicate(String receiver, RoutePredicate predicate) {
+		if (predicate == null)
+			predicates.remove(receiver);
+		else
+			predicates.put(receiver, predicate);
+	}
+
+	public Map<String, RoutePredicate> getPredicates() {
+		return predicates;
+	}
+
 	@Override
 	public String toString() {
 		StringBuilder in = new StringBuilder("\"receivers\" : [");
@@ -45,6 +68,11 @@ public class Route {
 			for (String e : receivers)
 				in.append("\"").append(e).append("\",");
 		in.append("]");
+		if (!predicates.isEmpty()) {
+			in.append(", \"predicates\" : {");
+			predicates.forEach((receiver, predicate) -> in.append("\"").append(receiver).append("\" : ").append(predicate).append(","));
+			in.append("}");
+		}
 		return "{" + in + "}";
 	}
 
@@ -53,11 +81,11 @@ public class Route {
 		if (this == o) return true;
 		if (o == null || getClass() != o.getClass()) return false;
 		Route route = (Route) o;
-		return receivers.equals(route.receivers);
+		return receivers.equals(route.receivers) && predicates.equals(route.predicates);
 	}
 
 	@Override
 	public int hashCode() {
-		return receivers.hashCode();
+		return receivers.hashCode() * 31 + predicates.hashCode();
 	}
 }
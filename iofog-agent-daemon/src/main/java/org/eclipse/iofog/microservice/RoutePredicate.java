@@ -0,0 +1,135 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.microservice;
+
+import org.eclipse.iofog.message_bus.Message;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * filter of a receiver of {@link Route} on header fields of {@link Message}
+ * each field condition is either exact value or prefix ending with "*", null matches any value
+ * conditions are compiled once, so testing a message does not allocate
+ *
+ */
+public class RoutePredicate {
+	private static final String WILDCARD = "*";
+
+	private final String tag;
+	private final String infoType;
+	private final String infoFormat;
+	private final String groupId;
+	private final int minPriority;
+
+	private final String tagValue;
+	private final boolean tagPrefix;
+	private final String infoTypeValue;
+	private final boolean infoTypePrefix;
+	private final String infoFormatValue;
+	private final boolean infoFormatPrefix;
+	private final String groupIdValue;
+	private final boolean groupIdPrefix;
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+
+	public RoutePredicate(String tag, String infoType, String infoFormat, String groupId, int minPriority) {
+		this.tag = tag;
+		this.infoType = infoType;
+		this.infoFormat = infoFormat;
+		this.groupId = groupId;
+		this.minPriority = minPriority;
+
+		this.tagPrefix = isPrefix(tag);
+		this.tagValue = compile(tag);
+		this.infoTypePrefix = isPrefix(infoType);
+		this.infoTypeValue = compile(infoType);
+		this.infoFormatPrefix = isPrefix(infoFormat);
+		this.infoFormatValue = compile(infoFormat);
+		this.groupIdPrefix = isPrefix(groupId);
+		this.groupIdValue = compile(groupId);
+	}
+
+	private static boolean isPrefix(String condition) {
+		return condition != null && condition.endsWith(WILDCARD);
+	}
+
+	private static String compile(String condition) {
+		return isPrefix(condition) ? condition.substring(0, condition.length() - WILDCARD.length()) : condition;
+	}
+
+	private static boolean matches(String value, boolean prefix, String field) {
+		if (value == null)
+			return true;
+		if (field == null)
+			return value.isEmpty();
+		return prefix ? field.startsWith(value) : field.equals(value);
+	}
+
+	/**
+	 * tests {@link Message} and counts hit or miss
+	 *
+	 * @param message - {@link Message} to be routed
+	 * @return true if message has to be sent to receiver
+	 */
+	public boolean test(Message message) {
+		boolean matches = message.getPriority() >= minPriority
+				&& matches(tagValue, tagPrefix, message.getTag())
+				&& matches(infoTypeValue, infoTypePrefix, message.getInfoType())
+				&& matches(infoFormatValue, infoFormatPrefix, message.getInfoFormat())
+				&& matches(groupIdValue, groupIdPrefix, message.getMessageGroupId());
+		(matches ? hits : misses).incrementAndGet();
+		return matches;
+	}
+
+	public long getHits() {
+		return hits.get();
+	}
+
+	public long getMisses() {
+		return misses.get();
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder in = new StringBuilder();
+		if (tag != null)
+			in.append("\"tag\" : \"").append(tag).append("\",");
+		if (infoType != null)
+			in.append("\"infoType\" : \"").append(infoType).append("\",");
+		if (infoFormat != null)
+			in.append("\"infoFormat\" : \"").append(infoFormat).append("\",");
+		if (groupId != null)
+			in.append("\"groupId\" : \"").append(groupId).append("\",");
+		in.append("\"minPriority\" : ").append(minPriority);
+		return "{" + in + "}";
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+		RoutePredicate predicate = (RoutePredicate) o;
+		return minPriority == predicate.minPriority &&
+				Objects.equals(tag, predicate.tag) &&
+				Objects.equals(infoType, predicate.infoType) &&
+				Objects.equals(infoFormat, predicate.infoFormat) &&
+				Objects.equals(groupId, predicate.groupId);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(tag, infoType, infoFormat, groupId, minPriority);
+	}
+}
@@ -5,17 +5,16 @@ import org.eclipse.iofog.utils.Constants;
 import org.eclipse.iofog.utils.configuration.Configuration;
 import org.eclipse.iofog.utils.functional.Pair;
 import org.eclipse.iofog.utils.logging.LoggingService;
+import org.eclipse.iofog.utils.scheduler.AgentScheduler;
+import org.eclipse.iofog.utils.scheduler.ScheduledTask;
+
 import java.net.InetAddress;
 import java.net.NetworkInterface;
 import java.net.SocketException;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
 public class IOFogNetworkInterfaceManager {
-    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
-    private ScheduledFuture<?> futureTask;
+    private ScheduledTask futureTask;
 
     private static final String MODULE_NAME = "IOFogNetworkInterfaceManager";
     private static IOFogNetworkInterfaceManager instance;
@@ -79,7 +78,7 @@ public class IOFogNetworkInterfaceManager {
             LoggingService.logError(MODULE_NAME,"Error in updateIOFogNetworkInterface", new AgentSystemException(e.getMessage(), e));
             if (futureTask != null)
             {
-                futureTask.cancel(true);
+                futureTask.cancel();
             }
             start();
         }
@@ -93,7 +92,8 @@ public class IOFogNetworkInterfaceManager {
             LoggingService.logError(MODULE_NAME,"Error in updating IOFogNetworkInterface", new AgentSystemException(e.getMessage(), e));
             start();
         }
-        futureTask = scheduler.scheduleAtFixedRate(getIoFogNetworkInterface, 0, 30, TimeUnit.MINUTES);
+        futureTask = AgentScheduler.getInstance().scheduleBlockingAtFixedRate(Constants.NETWORK_INTERFACE_MANAGER, getIoFogNetworkInterface,
+                0, () -> 30, TimeUnit.MINUTES);
         LoggingService.logInfo(MODULE_NAME, "Started IoFog NetworkInterface");
     }
 
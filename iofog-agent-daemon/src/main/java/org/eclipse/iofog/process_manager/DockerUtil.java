@@ -125,6 +125,7 @@ public class DockerUtil {
             public void onNext(Event item) {
                 switch (item.getType()) {
                     case CONTAINER:
+                        RestartStuckChecker.containerEvent(item.getId(), item.getStatus());
                     case IMAGE:
                         StatusReporter.setProcessManagerStatus().getMicroserviceStatus(item.getId()).setStatus(
                             fromText(item.getStatus()));
@@ -202,6 +203,36 @@ public class DockerUtil {
         }
     }
 
+    /**
+     * updates cpu shares and memory reservation of a running {@link Container}
+     *
+     * @param id                - id of {@link Container}
+     * @param cpuShares         - relative cpu weight, not changed if null
+     * @param memoryReservation - soft memory limit in bytes, not changed if null
+     */
+    public void updateContainerResources(String id, Integer cpuShares, Long memoryReservation) throws NotFoundException {
+    	LoggingService.logDebug(MODULE_NAME , "update Container resources");
+        UpdateContainerCmd updateContainerCmd = dockerClient.updateContainerCmd(id);
+        if (cpuShares != null) {
+            updateContainerCmd.withCpuShares(cpuShares);
+        }
+        if (memoryReservation != null) {
+            updateContainerCmd.withMemoryReservation(memoryReservation);
+        }
+        updateContainerCmd.exec();
+    }
+
+    /**
+     * gets host config of {@link Container}, which holds its cpu shares and memory reservation
+     *
+     * @param id - id of {@link Container}
+     * @return {@link HostConfig}
+     */
+    public HostConfig getContainerHostConfig(String id) throws NotFoundException {
+    	LoggingService.logDebug(MODULE_NAME , "get Container host config");
+        return dockerClient.inspectContainerCmd(id).exec().getHostConfig();
+    }
+
     /**
      * removes a {@link Container}
      *
@@ -321,11 +352,13 @@ public class DockerUtil {
             }
 
             MicroserviceState microserviceState = containerToMicroserviceState(containerState);
-             result.setStatus(MicroserviceState.RESTARTING.equals(microserviceState) && RestartStuckChecker.isStuck(containerId)
+            result.setStatus(isBetweenRestarts(containerState) && RestartStuckChecker.isStuck(containerId)
                 ? MicroserviceState.STUCK_IN_RESTART
                 : microserviceState);
 
             result.setContainerId(containerId);
+            result.setRestartCount(RestartStuckChecker.getRestartCount(containerId));
+            result.setRestartRate(RestartStuckChecker.getRestartRate(containerId));
             result.setUsage(containerId);
         }
         LoggingService.logDebug(MODULE_NAME , "Finished get microservice status");
@@ -345,6 +378,7 @@ public class DockerUtil {
             case "start":
                 return MicroserviceState.STARTING;
             case "restart":
+            case "restarting":
                 return MicroserviceState.RESTARTING;
             case "kill":
             case "die":
@@ -357,6 +391,25 @@ public class DockerUtil {
         return MicroserviceState.UNKNOWN;
     }
 
+    /**
+     * checks if container is down between restarts, crash looping container is mostly seen exited or dead
+     * and only briefly restarting, so all these states count when deciding if it is stuck in restart
+     *
+     * @param containerState - state of {@link Container}
+     * @return true if container is restarting, exited or dead
+     */
+    private boolean isBetweenRestarts(ContainerState containerState) {
+        switch (containerState.getStatus().toLowerCase()) {
+            case "restart":
+            case "restarting":
+            case "exited":
+            case "dead":
+                return true;
+            default:
+                return false;
+        }
+    }
+
     public List<Container> getRunningContainers() {
     	LoggingService.logDebug(MODULE_NAME ,"get Running list of Containers");
         return getContainers().stream()
@@ -502,6 +555,16 @@ public class DockerUtil {
         return dockerClient.listContainersCmd().withShowAll(true).exec();
     }
 
+    /**
+     * returns list of top level {@link Image} stored on Docker daemon
+     *
+     * @return list of {@link Image}
+     */
+    public List<Image> getImages() {
+        LoggingService.logDebug(MODULE_NAME ,"get list of images");
+        return dockerClient.listImagesCmd().exec();
+    }
+
     public void removeImageById(String imageId) throws NotFoundException, NotModifiedException {
     	LoggingService.logDebug(MODULE_NAME ,"removing image by id");
         dockerClient.removeImageCmd(imageId).withForce(true).exec();
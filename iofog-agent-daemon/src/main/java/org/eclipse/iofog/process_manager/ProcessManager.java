@@ -26,8 +26,10 @@ import org.eclipse.iofog.utils.Constants;
 import org.eclipse.iofog.utils.Constants.ModulesStatus;
 import org.eclipse.iofog.utils.configuration.Configuration;
 import org.eclipse.iofog.utils.logging.LoggingService;
+import org.eclipse.iofog.utils.scheduler.AgentScheduler;
 
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -99,25 +101,17 @@ public class ProcessManager implements IOFogModule {
 	 * updates {@link Container} if restarting failed!
 	 */
 	private final Runnable containersMonitor = () -> {
-		while (true) {
-			try {
-				Thread.sleep(Configuration.getMonitorContainersStatusFreqSeconds() * 1000);
-			} catch (InterruptedException e) {
-				logError("Error while sleeping thread", 
-						new AgentSystemException(e.getMessage(), e));
-			}
-			logDebug("Start Monitoring containers");
+		logDebug("Start Monitoring containers");
 
-			try {
-				handleLatestMicroservices();
-				deleteRemainingMicroservices();
-				updateRunningMicroservicesCount();
-			} catch (Exception ex) {
-				logError("Error monitoring container", new AgentSystemException(ex.getMessage(), ex));
-			}
-			updateCurrentMicroservices();
-			logDebug("Finished Monitoring containers");
+		try {
+			handleLatestMicroservices();
+			deleteRemainingMicroservices();
+			updateRunningMicroservicesCount();
+		} catch (Exception ex) {
+			logError("Error monitoring container", new AgentSystemException(ex.getMessage(), ex));
 		}
+		updateCurrentMicroservices();
+		logDebug("Finished Monitoring containers");
 	};
 
 	private void addMicroservice(Microservice microservice) {
@@ -355,6 +349,14 @@ public class ProcessManager implements IOFogModule {
 		boolean isNotRunning = !MicroserviceState.RUNNING.equals(status.getStatus());
 		boolean areNotEqual = !docker.areMicroserviceAndContainerEqual(container.getId(), microservice);
 		boolean isRebuild = microservice.isRebuild();
+		if (isNotRunning && !areNotEqual && !isRebuild) {
+			long backoff = RestartStuckChecker.getRemainingBackoff(container.getId());
+			if (backoff > 0) {
+				logInfo(format("Container of microservice %s is crash looping, restart is delayed by %d ms",
+						microservice.getMicroserviceUuid(), backoff));
+				return false;
+			}
+		}
 		boolean isUpdated = isNotRunning || areNotEqual || isRebuild;
 		logDebug("Finished should Container Be Updated : " + isUpdated);
 		return isUpdated;
@@ -440,7 +442,8 @@ public class ProcessManager implements IOFogModule {
 		microserviceManager = MicroserviceManager.getInstance();
 		containerManager = new ContainerManager();
 
-		new Thread(containersMonitor, Constants.PROCESS_MANAGER_CONTAINERS_MONITOR).start();
+		AgentScheduler.getInstance().scheduleBlockingAtFixedRate(Constants.PROCESS_MANAGER_CONTAINERS_MONITOR, containersMonitor,
+				Configuration.getMonitorContainersStatusFreqSeconds(), Configuration::getMonitorContainersStatusFreqSeconds, TimeUnit.SECONDS);
 		new Thread(checkTasks, Constants.PROCESS_MANAGER_CHECK_TASKS).start();
 
 		StatusReporter.setSupervisorStatus().setModuleStatus(PROCESS_MANAGER, ModulesStatus.RUNNING);
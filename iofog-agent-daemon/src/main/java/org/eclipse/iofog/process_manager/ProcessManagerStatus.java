@@ -66,7 +66,12 @@ public class ProcessManagerStatus {
                         .add("startTime", status.getStartTime())
                         .add("operatingDuration", status.getOperatingDuration())
                         .add("cpuUsage", nf.format(status.getCpuUsage()))
-                        .add("memoryUsage", String.format("%d", status.getMemoryUsage()));
+                        .add("memoryUsage", String.format("%d", status.getMemoryUsage()))
+                        .add("cpuThrottling", nf.format(status.getCpuThrottling()))
+                        .add("ioReadBytes", status.getIoReadBytes())
+                        .add("ioWriteBytes", status.getIoWriteBytes())
+                        .add("restartCount", status.getRestartCount())
+                        .add("restartRate", nf.format(status.getRestartRate()));
             }
             arrayBuilder.add(objectBuilder);
         });
@@ -13,28 +13,200 @@
 
 package org.eclipse.iofog.process_manager;
 
-import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
+ * tracks restarts of containers from docker events
+ * a restart is a start of a container which has died before, restarts are kept in a sliding window per container
+ * container restarting abnormally often is stuck in restart and is started again only after exponential backoff
+ *
  * @author elukashick
  */
 public class RestartStuckChecker {
 
-	private static final Map<String, List<LocalDateTime>> restarts = new HashMap<>();
-	private static final long INTERVAL_IN_MINUTES = 5;
+	private static final long WINDOW = TimeUnit.MINUTES.toMillis(5);
 	private static final int ABNORMAL_NUMBER_OF_RESTARTS = 5;
+	private static final long MIN_BACKOFF = TimeUnit.SECONDS.toMillis(10);
+	private static final long MAX_BACKOFF = TimeUnit.MINUTES.toMillis(5);
+	static final int MAX_CONTAINERS = 1024;
+
+	private static final Map<String, RestartHistory> restarts = new ConcurrentHashMap<>();
+
+	/**
+	 * restarts of one container
+	 */
+	private static class RestartHistory {
+		private final Deque<Long> window = new ArrayDeque<>();
+		private long restartCount;
+		private long lastDie;
+		private long lastEvent;
+		private boolean died;
+
+		private synchronized void died(long now) {
+			died = true;
+			lastDie = now;
+			lastEvent = now;
+		}
+
+		private synchronized void started(long now) {
+			if (died) {
+				restartCount++;
+				window.addLast(now);
+				expire(now);
+				if (window.size() > ABNORMAL_NUMBER_OF_RESTARTS * 2) {
+					window.removeFirst();
+				}
+			}
+			died = false;
+			lastEvent = now;
+		}
+
+		private synchronized int getRecentRestarts(long now) {
+			expire(now);
+			return window.size();
+		}
+
+		private void expire(long now) {
+			while (!window.isEmpty() && window.peekFirst() < now - WINDOW) {
+				window.removeFirst();
+			}
+		}
+
+		private synchronized long getRestartCount() {
+			return restartCount;
+		}
+
+		private synchronized long getLastDie() {
+			return died ? lastDie : 0;
+		}
+
+		private synchronized long getLastEvent() {
+			return lastEvent;
+		}
+	}
+
+	/**
+	 * records docker event of container
+	 *
+	 * @param containerId - id of container
+	 * @param status      - status of event, e.g. die, start, restart or destroy
+	 */
+	public static void containerEvent(String containerId, String status) {
+		containerEvent(containerId, status, System.currentTimeMillis());
+	}
+
+	static void containerEvent(String containerId, String status, long now) {
+		if (containerId == null || status == null) {
+			return;
+		}
+		switch (status.toLowerCase()) {
+			case "die":
+				getHistory(containerId, now).died(now);
+				break;
+			case "start":
+				getHistory(containerId, now).started(now);
+				break;
+			case "destroy":
+				restarts.remove(containerId);
+				break;
+		}
+	}
+
+	private static RestartHistory getHistory(String containerId, long now) {
+		RestartHistory history = restarts.get(containerId);
+		if (history != null) {
+			return history;
+		}
+		if (restarts.size() >= MAX_CONTAINERS) {
+			evict(now);
+		}
+		return restarts.computeIfAbsent(containerId, k -> new RestartHistory());
+	}
 
+	/**
+	 * drops containers without recent restarts, or the least recently seen one when all of them are restarting
+	 */
+	private static void evict(long now) {
+		restarts.entrySet().removeIf(entry -> entry.getValue().getRecentRestarts(now) == 0
+				&& entry.getValue().getLastEvent() < now - WINDOW);
+		if (restarts.size() >= MAX_CONTAINERS) {
+			restarts.entrySet().stream()
+					.min(Comparator.comparingLong(entry -> entry.getValue().getLastEvent()))
+					.ifPresent(entry -> restarts.remove(entry.getKey(), entry.getValue()));
+		}
+	}
+
+	/**
+	 * checks if container has restarted abnormally often within the window
+	 *
+	 * @param containerId - id of container
+	 * @return true if container is stuck in restart
+	 */
 	public static boolean isStuck(String containerId) {
-		List<LocalDateTime> datesOfRestart = restarts.computeIfAbsent(containerId, k -> new ArrayList<>());
-		LocalDateTime now = LocalDateTime.now();
+		return isStuck(containerId, System.currentTimeMillis());
+	}
+
+	static boolean isStuck(String containerId, long now) {
+		RestartHistory history = restarts.get(containerId);
+		return history != null && history.getRecentRestarts(now) >= ABNORMAL_NUMBER_OF_RESTARTS;
+	}
+
+	/**
+	 * @param containerId - id of container
+	 * @return number of restarts since agent has started tracking the container
+	 */
+	public static long getRestartCount(String containerId) {
+		RestartHistory history = restarts.get(containerId);
+		return history != null ? history.getRestartCount() : 0;
+	}
+
+	/**
+	 * @param containerId - id of container
+	 * @return restarts per minute within the window
+	 */
+	public static float getRestartRate(String containerId) {
+		return getRestartRate(containerId, System.currentTimeMillis());
+	}
+
+	static float getRestartRate(String containerId, long now) {
+		RestartHistory history = restarts.get(containerId);
+		return history != null ? history.getRecentRestarts(now) / (float) TimeUnit.MILLISECONDS.toMinutes(WINDOW) : 0;
+	}
+
+	/**
+	 * returns how long a died container has to wait before it is started again
+	 * delay doubles with every restart within the window
+	 *
+	 * @param containerId - id of container
+	 * @return remaining delay in milliseconds, 0 if container can be started
+	 */
+	public static long getRemainingBackoff(String containerId) {
+		return getRemainingBackoff(containerId, System.currentTimeMillis());
+	}
+
+	static long getRemainingBackoff(String containerId, long now) {
+		RestartHistory history = restarts.get(containerId);
+		if (history == null || history.getLastDie() == 0) {
+			return 0;
+		}
+		int recentRestarts = history.getRecentRestarts(now);
+		if (recentRestarts == 0) {
+			return 0;
+		}
+		long backoff = MIN_BACKOFF << Math.min(recentRestarts - 1, 16);
+		return Math.max(0, history.getLastDie() + Math.min(backoff, MAX_BACKOFF) - now);
+	}
 
-		datesOfRestart.removeIf(dateOfRestart -> dateOfRestart.isBefore(now.minusMinutes(INTERVAL_IN_MINUTES)));
-		datesOfRestart.add(now);
+	static int size() {
+		return restarts.size();
+	}
 
-		return datesOfRestart.size() >= ABNORMAL_NUMBER_OF_RESTARTS;
+	static void clear() {
+		restarts.clear();
 	}
 }
@@ -18,14 +18,18 @@ import org.eclipse.iofog.status_reporter.StatusReporter;
 import org.eclipse.iofog.utils.configuration.Configuration;
 import org.eclipse.iofog.utils.functional.Unit;
 import org.eclipse.iofog.utils.logging.LoggingService;
+import org.eclipse.iofog.utils.scheduler.AgentScheduler;
+import org.eclipse.iofog.utils.scheduler.ScheduledTask;
 
 import javax.json.JsonObject;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.apache.commons.lang.StringUtils.EMPTY;
 import static org.eclipse.iofog.proxy.SshConnectionStatus.*;
+import static org.eclipse.iofog.utils.Constants.SSH_PROXY_MONITOR_TUNNEL;
 import static org.eclipse.iofog.utils.functional.Unit.UNIT;
-import static org.eclipse.iofog.utils.logging.LoggingService.logError;
 import static org.eclipse.iofog.utils.logging.LoggingService.logInfo;
 
 /**
@@ -130,7 +134,7 @@ public class SshProxyManager {
     private void onSuccess() {
         setSshProxyManagerStatus(OPEN, EMPTY);
         logInfo(MODULE_NAME, "opened ssh tunnel");
-        CompletableFuture.runAsync(monitorSshTunnel());
+        monitorSshTunnel();
     }
 
     private void onError(Throwable ex) {
@@ -139,20 +143,21 @@ public class SshProxyManager {
         setSshProxyManagerStatus(FAILED, errMsg);
     }
 
-    private Runnable monitorSshTunnel() {
-        return () -> {
-            while(connection.isConnected()) {
+    /**
+     * logs heartbeat of ssh tunnel until it has been closed
+     */
+    private void monitorSshTunnel() {
+        AtomicReference<ScheduledTask> monitor = new AtomicReference<>();
+        monitor.set(AgentScheduler.getInstance().scheduleBlockingAtFixedRate(SSH_PROXY_MONITOR_TUNNEL, () -> {
+            if (connection.isConnected()) {
                 logInfo(MODULE_NAME, "ssh tunnel heartbeat message");
-                try {
-                    Thread.sleep(Configuration.getMonitorSshTunnelStatusFreqSeconds() * 1000);
-                } catch (InterruptedException e) {
-                    logError(MODULE_NAME, "Error while sleeping thread", e);
-                }
+                return;
             }
+            monitor.get().cancel();
             if (!connection.isCloseFlag()) {
                 setSshProxyManagerStatus(CLOSED, EMPTY);
             }
-        };
+        }, Configuration.getMonitorSshTunnelStatusFreqSeconds(), Configuration::getMonitorSshTunnelStatusFreqSeconds, TimeUnit.SECONDS));
     }
 
     /**
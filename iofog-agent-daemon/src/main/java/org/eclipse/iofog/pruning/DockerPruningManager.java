@@ -12,16 +12,27 @@
  */
 package org.eclipse.iofog.pruning;
 
+import com.github.dockerjava.api.model.Container;
+import com.github.dockerjava.api.model.Image;
 import org.eclipse.iofog.exception.AgentSystemException;
+import org.eclipse.iofog.microservice.Microservice;
+import org.eclipse.iofog.microservice.MicroserviceManager;
 import org.eclipse.iofog.process_manager.DockerUtil;
 import org.eclipse.iofog.status_reporter.StatusReporter;
 import org.eclipse.iofog.utils.configuration.Configuration;
 import org.eclipse.iofog.utils.logging.LoggingService;
+import org.eclipse.iofog.utils.scheduler.AgentScheduler;
 
 import java.io.File;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.eclipse.iofog.utils.Constants.DOCKER_PRUNING_MANAGER_CHECK_DISK;
+import static org.eclipse.iofog.utils.Constants.DOCKER_PRUNING_MANAGER_PRUNE;
 
 /**
  * @author nehanaithani
@@ -29,8 +40,8 @@ import java.util.concurrent.TimeUnit;
 public class DockerPruningManager {
     private final static String MODULE_NAME = "Docker Manager";
 
-    private ScheduledExecutorService scheduler = null;
     private DockerUtil docker = DockerUtil.getInstance();
+    private final ImageGarbageCollector imageGarbageCollector = new ImageGarbageCollector();
 
     private static DockerPruningManager instance;
 
@@ -49,10 +60,12 @@ public class DockerPruningManager {
      */
     public void start() throws Exception {
         LoggingService.logInfo(MODULE_NAME, "Start Create and start local api server");
-        scheduler = Executors.newScheduledThreadPool(1);
-        // one hour
-        scheduler.scheduleAtFixedRate(pruneAgent, 60, Configuration.getDockerPruningFrequency(), TimeUnit.HOURS);
-        scheduler.scheduleAtFixedRate(triggerPruneOnThresholdBreach, 0, Configuration.getDockerPruningFrequency(), TimeUnit.HOURS);
+        AgentScheduler scheduler = AgentScheduler.getInstance();
+        scheduler.scheduleBlockingAtFixedRate(DOCKER_PRUNING_MANAGER_PRUNE, pruneAgent,
+                Configuration.getDockerPruningFrequency(), Configuration::getDockerPruningFrequency, TimeUnit.HOURS);
+        // available disk is checked whenever resource consumption manager has measured it
+        scheduler.scheduleBlockingAtFixedRate(DOCKER_PRUNING_MANAGER_CHECK_DISK, collectImagesOnDiskPressure,
+                Configuration.getGetUsageDataFreqSeconds(), Configuration::getGetUsageDataFreqSeconds, TimeUnit.SECONDS);
 
         LoggingService.logInfo(MODULE_NAME, "Finished Create and start local api server");
     }
@@ -69,34 +82,89 @@ public class DockerPruningManager {
     };
 
     /**
-     * Trigger prune on available disk is equal to or less than threshold
+     * collects unused images when disk usage sample breaches available disk threshold
      */
-    private final Runnable triggerPruneOnThresholdBreach = () -> {
-        while (true){
+    private final Runnable collectImagesOnDiskPressure = () -> {
+        try {
+            long totalDiskSpace = StatusReporter.getResourceConsumptionManagerStatus().getTotalDiskSpace();
+            if (totalDiskSpace == 0) {
+                return;
+            }
             long availableDiskPercentage = StatusReporter.getResourceConsumptionManagerStatus().getAvailableDisk() * 100 /
-                    StatusReporter.getResourceConsumptionManagerStatus().getTotalDiskSpace();
-            if (Configuration.getAvailableDiskThreshold() >= availableDiskPercentage){
-                LoggingService.logDebug(MODULE_NAME, "Docker Prune when available disk is equal to or less than threshold");
-                docker.dockerPrune();
+                    totalDiskSpace;
+            List<Container> containers = docker.getContainers();
+            imageGarbageCollector.imagesUsed(getImageIds(containers), System.currentTimeMillis());
+            if (imageGarbageCollector.isCollectionRequired(availableDiskPercentage, Configuration.getAvailableDiskThreshold())) {
+                collectImages(containers);
             }
+        } catch (Exception e) {
+            LoggingService.logError(MODULE_NAME, "Error in image garbage collection", new AgentSystemException(e.getMessage(), e));
         }
     };
 
     /**
-     * Refresh schedule with different time
+     * removes unused images one by one until available disk reaches low watermark
+     *
+     * @param containers - existing containers, images of which are kept
      */
-    public void refreshSchedule(){
-        LoggingService.logInfo(MODULE_NAME, "Starting refresh scheduler of Docker pruning.");
-        if(scheduler!=null){
-            scheduler.shutdown();
+    private void collectImages(List<Container> containers) {
+        long startTime = System.currentTimeMillis();
+        long threshold = Configuration.getAvailableDiskThreshold();
+        long lowWatermark = ImageGarbageCollector.getLowWatermark(threshold);
+        Set<String> protectedImages = MicroserviceManager.getInstance().getLatestMicroservices().stream()
+                .map(Microservice::getImageName)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        List<Image> candidates = imageGarbageCollector.getCandidates(docker.getImages(), getImageIds(containers), protectedImages);
+        LoggingService.logInfo(MODULE_NAME, String.format("Available disk is below %d%%, collecting up to %d unused images",
+                threshold, candidates.size()));
+
+        long availableDiskBefore = getAvailableDisk();
+        List<String> removedImages = new ArrayList<>();
+        for (Image image : candidates) {
+            if (getAvailableDiskPercentage() >= lowWatermark) {
+                break;
+            }
             try {
-                start();
+                docker.removeImageById(image.getId());
+                removedImages.add(image.getRepoTags() != null && image.getRepoTags().length > 0 ? image.getRepoTags()[0] : image.getId());
             } catch (Exception e) {
-                LoggingService.logError(MODULE_NAME,"Error starting docker pruning manager after refresh",
-                        new AgentSystemException("Error starting docker pruning manager after refresh", e));
+                LoggingService.logWarning(MODULE_NAME, String.format("Unable to remove image %s : %s", image.getId(), e.getMessage()));
             }
         }
-        LoggingService.logInfo(MODULE_NAME, "Finished updating scheduler frequency of Docker pruning.");
+
+        long freed = Math.max(0, getAvailableDisk() - availableDiskBefore);
+        long availableDiskPercentage = getAvailableDiskPercentage();
+        imageGarbageCollector.isCollectionRequired(availableDiskPercentage, threshold);
+        LoggingService.logInfo(MODULE_NAME, String.format("Image garbage collection removed %d images, freed %d MB in %d ms, available disk %d%% %s",
+                removedImages.size(), freed / 1_000_000, System.currentTimeMillis() - startTime, availableDiskPercentage, removedImages));
+        if (availableDiskPercentage < lowWatermark) {
+            LoggingService.logWarning(MODULE_NAME, String.format("No more unused images to remove, available disk %d%% is below %d%%",
+                    availableDiskPercentage, lowWatermark));
+        }
+    }
+
+    private static Set<String> getImageIds(List<Container> containers) {
+        return containers.stream()
+                .map(Container::getImageId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+    }
+
+    private static long getAvailableDisk() {
+        long availableDisk = 0;
+        for (File root : File.listRoots()) {
+            availableDisk += root.getUsableSpace();
+        }
+        return availableDisk;
+    }
+
+    private static long getAvailableDiskPercentage() {
+        long totalDiskSpace = 0;
+        for (File root : File.listRoots()) {
+            totalDiskSpace += root.getTotalSpace();
+        }
+        return totalDiskSpace != 0 ? getAvailableDisk() * 100 / totalDiskSpace : 100;
     }
 
     /**
@@ -0,0 +1,125 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.pruning;
+
+import com.github.dockerjava.api.model.Image;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * decides when and in which order unused docker images are removed
+ * collection starts when available disk drops to high watermark (available disk threshold)
+ * and continues until available disk is back above low watermark, so that it does not flap around the threshold
+ */
+public class ImageGarbageCollector {
+    public static final long LOW_WATERMARK_MARGIN = 10;
+
+    private final Map<String, Long> lastUsedTimes = new HashMap<>();
+    private boolean collecting;
+
+    /**
+     * returns available disk percentage at which collection stops
+     *
+     * @param threshold - available disk threshold in percents
+     * @return low watermark in percents
+     */
+    public static long getLowWatermark(long threshold) {
+        return Math.min(100, threshold + LOW_WATERMARK_MARGIN);
+    }
+
+    /**
+     * updates collection state with new disk usage sample
+     *
+     * @param availablePercentage - available disk in percents
+     * @param threshold           - available disk threshold in percents
+     * @return true if images have to be collected
+     */
+    public synchronized boolean isCollectionRequired(long availablePercentage, long threshold) {
+        if (availablePercentage <= threshold) {
+            collecting = true;
+        } else if (availablePercentage >= getLowWatermark(threshold)) {
+            collecting = false;
+        }
+        return collecting;
+    }
+
+    /**
+     * remembers images used by containers
+     *
+     * @param imageIds - ids of images of existing containers
+     * @param now      - current time in milliseconds
+     */
+    public synchronized void imagesUsed(Collection<String> imageIds, long now) {
+        imageIds.forEach(imageId -> lastUsedTimes.put(imageId, now));
+    }
+
+    /**
+     * returns images which can be removed, least recently used and then largest first
+     *
+     * @param images          - images stored on docker daemon
+     * @param usedImageIds    - ids of images of existing containers
+     * @param protectedImages - image names of microservices which must be kept
+     * @return images in removal order
+     */
+    public synchronized List<Image> getCandidates(List<Image> images, Set<String> usedImageIds, Set<String> protectedImages) {
+        Set<String> imageIds = images.stream().map(Image::getId).collect(Collectors.toSet());
+        lastUsedTimes.keySet().retainAll(imageIds);
+        Set<String> protectedNames = protectedImages.stream()
+                .map(ImageGarbageCollector::normalizeImageName)
+                .collect(Collectors.toSet());
+
+        return images.stream()
+                .filter(image -> !usedImageIds.contains(image.getId()))
+                .filter(image -> getNames(image).noneMatch(protectedNames::contains))
+                .sorted(Comparator.comparingLong(this::getLastUsedTime)
+                        .thenComparing(Comparator.comparingLong(ImageGarbageCollector::getSize).reversed()))
+                .collect(Collectors.toList());
+    }
+
+    private long getLastUsedTime(Image image) {
+        Long lastUsedTime = lastUsedTimes.get(image.getId());
+        if (lastUsedTime != null) {
+            return lastUsedTime;
+        }
+        return image.getCreated() != null ? TimeUnit.SECONDS.toMillis(image.getCreated()) : 0;
+    }
+
+    static long getSize(Image image) {
+        return image.getSize() != null ? image.getSize() : 0;
+    }
+
+    private static Stream<String> getNames(Image image) {
+        Stream<String> tags = image.getRepoTags() != null ? Arrays.stream(image.getRepoTags()) : Stream.empty();
+        Stream<String> digests = image.getRepoDigests() != null ? Arrays.stream(image.getRepoDigests()) : Stream.empty();
+        return Stream.concat(tags.map(ImageGarbageCollector::normalizeImageName), digests);
+    }
+
+    /**
+     * adds default tag to image name, so that "iofog/agent" matches "iofog/agent:latest"
+     */
+    static String normalizeImageName(String imageName) {
+        if (imageName.contains("@") || imageName.lastIndexOf(':') > imageName.lastIndexOf('/')) {
+            return imageName;
+        }
+        return imageName + ":latest";
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+
+package org.eclipse.iofog.resource_consumption_manager;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * reads accounting files of docker containers from cgroup file system directly
+ * supports cgroup v1 and unified cgroup v2 hierarchies with cgroupfs and systemd cgroup drivers
+ *
+ */
+public class CgroupReader {
+	private static final String CGROUP_ROOT = "/sys/fs/cgroup";
+	private static final String[] CONTAINER_PATHS = {"docker/%s", "system.slice/docker-%s.scope"};
+
+	private final File root;
+	private final boolean unified;
+
+	public CgroupReader() {
+		this(new File(CGROUP_ROOT));
+	}
+
+	CgroupReader(File root) {
+		this.root = root;
+		this.unified = new File(root, "cgroup.controllers").exists();
+	}
+
+	public boolean isAvailable() {
+		return root.isDirectory();
+	}
+
+	public boolean isUnified() {
+		return unified;
+	}
+
+	/**
+	 * reads accounting counters of container
+	 *
+	 * @param containerId - full id of container
+	 * @return counters, empty if cgroup of container has not been found
+	 */
+	public Optional<CgroupStats> read(String containerId) {
+		try {
+			return unified ? readUnified(containerId) : readLegacy(containerId);
+		} catch (IOException | RuntimeException e) {
+			return Optional.empty();
+		}
+	}
+
+	private Optional<CgroupStats> readUnified(String containerId) throws IOException {
+		File cgroup = findCgroup(root, containerId);
+		if (cgroup == null) {
+			return Optional.empty();
+		}
+		Map<String, Long> cpu = readKeyValues(new File(cgroup, "cpu.stat"));
+		Map<String, Long> memory = readKeyValues(new File(cgroup, "memory.stat"));
+		long[] io = readUnifiedIo(new File(cgroup, "io.stat"));
+		return Optional.of(new CgroupStats(System.nanoTime(),
+				cpu.getOrDefault("usage_usec", 0L) * 1000,
+				cpu.getOrDefault("nr_periods", 0L),
+				cpu.getOrDefault("nr_throttled", 0L),
+				cpu.getOrDefault("throttled_usec", 0L) * 1000,
+				workingSet(readLong(new File(cgroup, "memory.current")), memory.getOrDefault("inactive_file", 0L)),
+				io[0], io[1]));
+	}
+
+	private Optional<CgroupStats> readLegacy(String containerId) throws IOException {
+		File cpuacct = findCgroup(new File(root, "cpuacct"), containerId);
+		File memory = findCgroup(new File(root, "memory"), containerId);
+		if (cpuacct == null || memory == null) {
+			return Optional.empty();
+		}
+		File cpu = findCgroup(new File(root, "cpu"), containerId);
+		File blkio = findCgroup(new File(root, "blkio"), containerId);
+		Map<String, Long> cpuStat = cpu != null ? readKeyValues(new File(cpu, "cpu.stat")) : new HashMap<>();
+		Map<String, Long> memoryStat = readKeyValues(new File(memory, "memory.stat"));
+		long[] io = blkio != null ? readLegacyIo(new File(blkio, "blkio.throttle.io_service_bytes")) : new long[2];
+		return Optional.of(new CgroupStats(System.nanoTime(),
+				readLong(new File(cpuacct, "cpuacct.usage")),
+				cpuStat.getOrDefault("nr_periods", 0L),
+				cpuStat.getOrDefault("nr_throttled", 0L),
+				cpuStat.getOrDefault("throttled_time", 0L),
+				workingSet(readLong(new File(memory, "memory.usage_in_bytes")), memoryStat.getOrDefault("total_inactive_file", 0L)),
+				io[0], io[1]));
+	}
+
+	private static File findCgroup(File hierarchy, String containerId) {
+		for (String path : CONTAINER_PATHS) {
+			File cgroup = new File(hierarchy, String.format(path, containerId));
+			if (cgroup.isDirectory()) {
+				return cgroup;
+			}
+		}
+		return null;
+	}
+
+	private static long workingSet(long usage, long inactiveFile) {
+		return Math.max(0, usage - inactiveFile);
+	}
+
+	private static List<String> readLines(File file) throws IOException {
+		return Files.readAllLines(file.toPath(), StandardCharsets.US_ASCII);
+	}
+
+	static long readLong(File file) throws IOException {
+		List<String> lines = readLines(file);
+		if (lines.isEmpty() || "max".equals(lines.get(0).trim())) {
+			return 0;
+		}
+		return Long.parseLong(lines.get(0).trim());
+	}
+
+	/**
+	 * parses flat keyed files like cpu.stat and memory.stat
+	 */
+	static Map<String, Long> readKeyValues(File file) throws IOException {
+		Map<String, Long> result = new HashMap<>();
+		if (!file.exists()) {
+			return result;
+		}
+		for (String line : readLines(file)) {
+			String[] items = line.trim().split("\\s+");
+			if (items.length == 2) {
+				result.put(items[0], Long.parseLong(items[1]));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * parses io.stat lines like "8:0 rbytes=1024 wbytes=2048 rios=1 wios=2 dbytes=0 dios=0"
+	 */
+	static long[] readUnifiedIo(File file) throws IOException {
+		long[] result = new long[2];
+		if (!file.exists()) {
+			return result;
+		}
+		for (String line : readLines(file)) {
+			for (String item : line.trim().split("\\s+")) {
+				if (item.startsWith("rbytes=")) {
+					result[0] += Long.parseLong(item.substring("rbytes=".length()));
+				} else if (item.startsWith("wbytes=")) {
+					result[1] += Long.parseLong(item.substring("wbytes=".length()));
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * parses blkio lines like "8:0 Read 1024", total lines are skipped
+	 */
+	static long[] readLegacyIo(File file) throws IOException {
+		long[] result = new long[2];
+		if (!file.exists()) {
+			return result;
+		}
+		for (String line : readLines(file)) {
+			String[] items = line.trim().split("\\s+");
+			if (items.length != 3) {
+				continue;
+			}
+			if ("Read".equals(items[1])) {
+				result[0] += Long.parseLong(items[2]);
+			} else if ("Write".equals(items[1])) {
+				result[1] += Long.parseLong(items[2]);
+			}
+		}
+		return result;
+	}
+}
@@ -0,0 +1,84 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+
+package org.eclipse.iofog.resource_consumption_manager;
+
+/**
+ * snapshot of cgroup accounting counters of a container
+ * counters are cumulative, usage is computed from two snapshots
+ *
+ */
+public class CgroupStats {
+	private final long timestamp;
+	private final long cpuUsage;
+	private final long periods;
+	private final long throttledPeriods;
+	private final long throttledTime;
+	private final long memoryWorkingSet;
+	private final long ioReadBytes;
+	private final long ioWriteBytes;
+
+	/**
+	 * @param timestamp        - time of snapshot in nanoseconds, see {@link System#nanoTime()}
+	 * @param cpuUsage         - cpu time in nanoseconds
+	 * @param periods          - number of elapsed cfs periods
+	 * @param throttledPeriods - number of throttled cfs periods
+	 * @param throttledTime    - throttled time in nanoseconds
+	 * @param memoryWorkingSet - memory usage without inactive file cache in bytes
+	 * @param ioReadBytes      - bytes read from block devices
+	 * @param ioWriteBytes     - bytes written to block devices
+	 */
+	public CgroupStats(long timestamp, long cpuUsage, long periods, long throttledPeriods, long throttledTime,
+					   long memoryWorkingSet, long ioReadBytes, long ioWriteBytes) {
+		this.timestamp = timestamp;
+		this.cpuUsage = cpuUsage;
+		this.periods = periods;
+		this.throttledPeriods = throttledPeriods;
+		this.throttledTime = throttledTime;
+		this.memoryWorkingSet = memoryWorkingSet;
+		this.ioReadBytes = ioReadBytes;
+		this.ioWriteBytes = ioWriteBytes;
+	}
+
+	public long getTimestamp() {
+		return timestamp;
+	}
+
+	public long getCpuUsage() {
+		return cpuUsage;
+	}
+
+	public long getPeriods() {
+		return periods;
+	}
+
+	public long getThrottledPeriods() {
+		return throttledPeriods;
+	}
+
+	public long getThrottledTime() {
+		return throttledTime;
+	}
+
+	public long getMemoryWorkingSet() {
+		return memoryWorkingSet;
+	}
+
+	public long getIoReadBytes() {
+		return ioReadBytes;
+	}
+
+	public long getIoWriteBytes() {
+		return ioWriteBytes;
+	}
+}
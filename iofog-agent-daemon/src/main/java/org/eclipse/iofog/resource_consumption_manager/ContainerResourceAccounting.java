@@ -0,0 +1,69 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+
+package org.eclipse.iofog.resource_consumption_manager;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * keeps latest cgroup snapshots of running containers and their usage
+ * node-wide total is aggregated while containers are read, so reading it costs nothing
+ *
+ */
+public class ContainerResourceAccounting {
+	private final CgroupReader reader;
+	private final Map<String, CgroupStats> samples = new ConcurrentHashMap<>();
+	private final Map<String, ContainerResourceUsage> usages = new ConcurrentHashMap<>();
+	private volatile ContainerResourceUsage total = ContainerResourceUsage.EMPTY;
+
+	ContainerResourceAccounting(CgroupReader reader) {
+		this.reader = reader;
+	}
+
+	/**
+	 * reads counters of given containers and forgets containers which are not running anymore
+	 *
+	 * @param containerIds - ids of running containers
+	 */
+	synchronized void update(Collection<String> containerIds) {
+		ContainerResourceUsage newTotal = ContainerResourceUsage.EMPTY;
+		for (String containerId : containerIds) {
+			Optional<CgroupStats> stats = reader.read(containerId);
+			if (!stats.isPresent()) {
+				continue;
+			}
+			ContainerResourceUsage usage = ContainerResourceUsage.of(samples.put(containerId, stats.get()), stats.get());
+			usages.put(containerId, usage);
+			newTotal = newTotal.add(usage);
+		}
+		samples.keySet().retainAll(containerIds);
+		usages.keySet().retainAll(containerIds);
+		total = newTotal;
+	}
+
+	public Optional<ContainerResourceUsage> getUsage(String containerId) {
+		return Optional.ofNullable(usages.get(containerId));
+	}
+
+	public Map<String, ContainerResourceUsage> getUsages() {
+		return Collections.unmodifiableMap(usages);
+	}
+
+	public ContainerResourceUsage getTotal() {
+		return total;
+	}
+}
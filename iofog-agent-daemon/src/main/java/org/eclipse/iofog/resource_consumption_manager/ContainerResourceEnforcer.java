@@ -0,0 +1,342 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+
+package org.eclipse.iofog.resource_consumption_manager;
+
+import org.eclipse.iofog.exception.AgentSystemException;
+import org.eclipse.iofog.utils.logging.LoggingService;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static java.lang.String.format;
+
+/**
+ * rebalances containers while node is under cpu or memory pressure
+ * containers using more than their fair share get lower cpu shares and a memory reservation (soft limit)
+ * equal to their fair share, both are lifted again when pressure is gone
+ * original values of limited containers are persisted, so they are restored even after restart of agent
+ * pressure is read from kernel pressure stall information, with usage based fallback on older kernels
+ *
+ */
+public class ContainerResourceEnforcer {
+	private static final String MODULE_NAME = "Resource Consumption Manager";
+	static final int DEFAULT_CPU_SHARES = 1024;
+	static final int REDUCED_CPU_SHARES = 256;
+	private static final double CPU_PRESSURE = 50;
+	private static final double MEMORY_PRESSURE = 10;
+	private static final float CPU_USAGE_PRESSURE = 90;
+	private static final long MEMORY_AVAILABLE_PRESSURE = 10;
+
+	/**
+	 * applies cpu shares and memory reservation to container, values which are null are not changed
+	 *
+	 */
+	interface Updater {
+		void update(String containerId, Integer cpuShares, Long memoryReservation) throws Exception;
+	}
+
+	/**
+	 * reads current cpu shares and memory reservation of container
+	 *
+	 */
+	interface Inspector {
+		Resources inspect(String containerId) throws Exception;
+	}
+
+	/**
+	 * cpu shares and memory reservation of container before it has been limited
+	 *
+	 */
+	static class Resources {
+		private final int cpuShares;
+		private final long memoryReservation;
+
+		/**
+		 * @param cpuShares         - cpu shares, default shares if not set
+		 * @param memoryReservation - memory reservation in bytes, 0 if not set
+		 */
+		Resources(Integer cpuShares, Long memoryReservation) {
+			this.cpuShares = cpuShares != null && cpuShares > 0 ? cpuShares : DEFAULT_CPU_SHARES;
+			this.memoryReservation = memoryReservation != null && memoryReservation > 0 ? memoryReservation : 0;
+		}
+
+		int getCpuShares() {
+			return cpuShares;
+		}
+
+		long getMemoryReservation() {
+			return memoryReservation;
+		}
+	}
+
+	private final Updater updater;
+	private final Inspector inspector;
+	private final File proc;
+	private final File stateFile;
+	private final Map<String, Resources> originals = new HashMap<>();
+	private final Set<String> cpuReduced = new HashSet<>();
+	private final Set<String> memoryReserved = new HashSet<>();
+	private String savedState;
+
+	/**
+	 * @param updater   - applies limits to containers
+	 * @param inspector - reads limits of containers before they are changed
+	 * @param proc      - proc file system to read pressure from
+	 * @param stateFile - file containers limited by previous run of agent are read from and stored to
+	 */
+	ContainerResourceEnforcer(Updater updater, Inspector inspector, File proc, File stateFile) {
+		this.updater = updater;
+		this.inspector = inspector;
+		this.proc = proc;
+		this.stateFile = stateFile;
+		loadState();
+	}
+
+	/**
+	 * @param containersCpu - cpu usage of all containers in percent of one cpu
+	 * @return true if processes of node are stalled waiting for cpu
+	 */
+	boolean isCpuPressure(float containersCpu) {
+		double pressure = readPressure(new File(proc, "pressure/cpu"));
+		if (pressure >= 0) {
+			return pressure >= CPU_PRESSURE;
+		}
+		return containersCpu >= CPU_USAGE_PRESSURE * Runtime.getRuntime().availableProcessors();
+	}
+
+	/**
+	 * @return true if processes of node are stalled waiting for memory
+	 */
+	boolean isMemoryPressure() {
+		double pressure = readPressure(new File(proc, "pressure/memory"));
+		if (pressure >= 0) {
+			return pressure >= MEMORY_PRESSURE;
+		}
+		long total = getMemInfo("MemTotal");
+		return total > 0 && getMemInfo("MemAvailable") * 100 / total < MEMORY_AVAILABLE_PRESSURE;
+	}
+
+	/**
+	 * reads "some avg10" value of pressure stall information file
+	 *
+	 * @param file - pressure file
+	 * @return percent of time some tasks were stalled in last 10 seconds, -1 if not supported
+	 */
+	static double readPressure(File file) {
+		try {
+			for (String line : Files.readAllLines(file.toPath(), StandardCharsets.US_ASCII)) {
+				if (!line.startsWith("some ")) {
+					continue;
+				}
+				for (String item : line.split("\\s+")) {
+					if (item.startsWith("avg10=")) {
+						return Double.parseDouble(item.substring("avg10=".length()));
+					}
+				}
+			}
+		} catch (IOException | RuntimeException e) {
+			return -1;
+		}
+		return -1;
+	}
+
+	/**
+	 * @param key - name of /proc/meminfo line
+	 * @return value in bytes, 0 if not found
+	 */
+	long getMemInfo(String key) {
+		try {
+			for (String line : Files.readAllLines(new File(proc, "meminfo").toPath(), StandardCharsets.US_ASCII)) {
+				String[] items = line.split("\\s+");
+				if (items.length >= 2 && items[0].equals(key + ":")) {
+					return Long.parseLong(items[1]) * 1024;
+				}
+			}
+		} catch (IOException | RuntimeException e) {
+			return 0;
+		}
+		return 0;
+	}
+
+	/**
+	 * rebalances containers according to current pressure
+	 * limits are lifted by restoring original values of containers, limited containers which are not running
+	 * are restored as well, so they do not start limited
+	 *
+	 * @param usages         - usage of running containers by container id
+	 * @param cpuPressure    - node is under cpu pressure
+	 * @param memoryPressure - node is under memory pressure
+	 * @param totalMemory    - memory of node in bytes, used as reservation of containers which had none when it is lifted
+	 */
+	synchronized void enforce(Map<String, ContainerResourceUsage> usages, boolean cpuPressure, boolean memoryPressure, long totalMemory) {
+		if (cpuPressure && !usages.isEmpty()) {
+			float fairCpu = (float) usages.values().stream().mapToDouble(ContainerResourceUsage::getCpuUsage).sum() / usages.size();
+			usages.forEach((containerId, usage) -> {
+				if (usage.getCpuUsage() > fairCpu && !cpuReduced.contains(containerId) && recordOriginal(containerId)
+						&& update(containerId, REDUCED_CPU_SHARES, null)) {
+					cpuReduced.add(containerId);
+				}
+			});
+		} else if (!cpuPressure) {
+			cpuReduced.removeIf(containerId -> restore(containerId, originals.get(containerId).getCpuShares(), null, usages));
+		}
+
+		if (memoryPressure && !usages.isEmpty()) {
+			long fairMemory = usages.values().stream().mapToLong(ContainerResourceUsage::getMemoryUsage).sum() / usages.size();
+			usages.forEach((containerId, usage) -> {
+				if (usage.getMemoryUsage() > fairMemory && !memoryReserved.contains(containerId) && recordOriginal(containerId)
+						&& update(containerId, null, fairMemory)) {
+					memoryReserved.add(containerId);
+				}
+			});
+		} else if (!memoryPressure) {
+			memoryReserved.removeIf(containerId -> {
+				long original = originals.get(containerId).getMemoryReservation();
+				return (original > 0 || totalMemory > 0) && restore(containerId, null, original > 0 ? original : totalMemory, usages);
+			});
+		}
+
+		originals.keySet().removeIf(containerId -> !cpuReduced.contains(containerId) && !memoryReserved.contains(containerId));
+		saveState();
+	}
+
+	/**
+	 * lifts all limits, used when resource enforcement is disabled
+	 *
+	 * @param usages      - usage of running containers by container id
+	 * @param totalMemory - memory of node in bytes, used as reservation of containers which had none
+	 */
+	void restoreAll(Map<String, ContainerResourceUsage> usages, long totalMemory) {
+		enforce(usages, false, false, totalMemory);
+	}
+
+	/**
+	 * reads limits of container before its first change
+	 *
+	 * @param containerId - id of container
+	 * @return true if original limits of container are known
+	 */
+	private boolean recordOriginal(String containerId) {
+		if (originals.containsKey(containerId)) {
+			return true;
+		}
+		try {
+			originals.put(containerId, inspector.inspect(containerId));
+			return true;
+		} catch (Exception e) {
+			LoggingService.logError(MODULE_NAME, "Unable to read resources of container " + containerId,
+					new AgentSystemException(e.getMessage(), e));
+			return false;
+		}
+	}
+
+	/**
+	 * restores original value of container, container which is not running and can not be updated is considered removed
+	 *
+	 * @return true if container does not need to be restored anymore
+	 */
+	private boolean restore(String containerId, Integer cpuShares, Long memoryReservation, Map<String, ContainerResourceUsage> usages) {
+		return update(containerId, cpuShares, memoryReservation) || !usages.containsKey(containerId);
+	}
+
+	private boolean update(String containerId, Integer cpuShares, Long memoryReservation) {
+		try {
+			updater.update(containerId, cpuShares, memoryReservation);
+			LoggingService.logInfo(MODULE_NAME, format("Updated resources of container %s, cpu shares: %s, memory reservation: %s",
+					containerId, cpuShares != null ? cpuShares : "unchanged", memoryReservation != null ? memoryReservation : "unchanged"));
+			return true;
+		} catch (Exception e) {
+			LoggingService.logError(MODULE_NAME, "Unable to update resources of container " + containerId,
+					new AgentSystemException(e.getMessage(), e));
+			return false;
+		}
+	}
+
+	/**
+	 * reads containers limited by previous run of agent, each line is
+	 * id=original cpu shares,original memory reservation,cpu reduced,memory reserved
+	 */
+	private void loadState() {
+		if (stateFile == null || !stateFile.exists()) {
+			return;
+		}
+		Properties state = new Properties();
+		try (InputStream in = Files.newInputStream(stateFile.toPath())) {
+			state.load(in);
+			for (String containerId : state.stringPropertyNames()) {
+				String[] values = state.getProperty(containerId).split(",");
+				originals.put(containerId, new Resources(Integer.parseInt(values[0]), Long.parseLong(values[1])));
+				if (Boolean.parseBoolean(values[2])) {
+					cpuReduced.add(containerId);
+				}
+				if (Boolean.parseBoolean(values[3])) {
+					memoryReserved.add(containerId);
+				}
+			}
+		} catch (IOException | RuntimeException e) {
+			LoggingService.logError(MODULE_NAME, "Unable to read limited containers from " + stateFile,
+					new AgentSystemException(e.getMessage(), e));
+		}
+	}
+
+	/**
+	 * stores limited containers if they have changed since last store
+	 */
+	private void saveState() {
+		if (stateFile == null) {
+			return;
+		}
+		String state = originals.entrySet().stream()
+				.sorted(Map.Entry.comparingByKey())
+				.map(entry -> format("%s=%d,%d,%b,%b%n", entry.getKey(), entry.getValue().getCpuShares(),
+						entry.getValue().getMemoryReservation(), cpuReduced.contains(entry.getKey()),
+						memoryReserved.contains(entry.getKey())))
+				.collect(Collectors.joining());
+		if (state.equals(savedState)) {
+			return;
+		}
+		File temp = new File(stateFile.getPath() + ".tmp");
+		try {
+			Files.write(temp.toPath(), state.getBytes(StandardCharsets.US_ASCII));
+			Files.move(temp.toPath(), stateFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			savedState = state;
+		} catch (IOException e) {
+			LoggingService.logError(MODULE_NAME, "Unable to store limited containers to " + stateFile,
+					new AgentSystemException(e.getMessage(), e));
+		}
+	}
+
+	Map<String, Resources> getOriginals() {
+		return Collections.unmodifiableMap(originals);
+	}
+
+	Set<String> getCpuReduced() {
+		return cpuReduced;
+	}
+
+	Set<String> getMemoryReserved() {
+		return memoryReserved;
+	}
+}
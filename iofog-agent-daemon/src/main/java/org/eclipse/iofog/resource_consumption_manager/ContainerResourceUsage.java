@@ -0,0 +1,94 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+
+package org.eclipse.iofog.resource_consumption_manager;
+
+/**
+ * resource usage of a container computed from two {@link CgroupStats} snapshots
+ *
+ */
+public class ContainerResourceUsage {
+	static final ContainerResourceUsage EMPTY = new ContainerResourceUsage(0, 0, 0, 0, 0);
+
+	private final float cpuUsage;
+	private final float cpuThrottling;
+	private final long memoryUsage;
+	private final long ioReadBytes;
+	private final long ioWriteBytes;
+
+	/**
+	 * @param cpuUsage      - cpu usage in percent of one cpu
+	 * @param cpuThrottling - percent of cfs periods in which container has been throttled
+	 * @param memoryUsage   - memory working set in bytes
+	 * @param ioReadBytes   - bytes read from block devices since container has started
+	 * @param ioWriteBytes  - bytes written to block devices since container has started
+	 */
+	public ContainerResourceUsage(float cpuUsage, float cpuThrottling, long memoryUsage, long ioReadBytes, long ioWriteBytes) {
+		this.cpuUsage = cpuUsage;
+		this.cpuThrottling = cpuThrottling;
+		this.memoryUsage = memoryUsage;
+		this.ioReadBytes = ioReadBytes;
+		this.ioWriteBytes = ioWriteBytes;
+	}
+
+	/**
+	 * computes usage between two snapshots, cpu usage is 0 without previous snapshot
+	 *
+	 * @param before - previous snapshot or null
+	 * @param after  - current snapshot
+	 * @return usage
+	 */
+	static ContainerResourceUsage of(CgroupStats before, CgroupStats after) {
+		float cpuUsage = 0;
+		float cpuThrottling = 0;
+		if (before != null) {
+			long elapsed = after.getTimestamp() - before.getTimestamp();
+			long cpu = after.getCpuUsage() - before.getCpuUsage();
+			if (elapsed > 0 && cpu > 0) {
+				cpuUsage = 100f * cpu / elapsed;
+			}
+			long periods = after.getPeriods() - before.getPeriods();
+			long throttled = after.getThrottledPeriods() - before.getThrottledPeriods();
+			if (periods > 0 && throttled > 0) {
+				cpuThrottling = 100f * throttled / periods;
+			}
+		}
+		return new ContainerResourceUsage(cpuUsage, cpuThrottling, after.getMemoryWorkingSet(),
+				after.getIoReadBytes(), after.getIoWriteBytes());
+	}
+
+	ContainerResourceUsage add(ContainerResourceUsage other) {
+		return new ContainerResourceUsage(cpuUsage + other.cpuUsage, Math.max(cpuThrottling, other.cpuThrottling),
+				memoryUsage + other.memoryUsage, ioReadBytes + other.ioReadBytes, ioWriteBytes + other.ioWriteBytes);
+	}
+
+	public float getCpuUsage() {
+		return cpuUsage;
+	}
+
+	public float getCpuThrottling() {
+		return cpuThrottling;
+	}
+
+	public long getMemoryUsage() {
+		return memoryUsage;
+	}
+
+	public long getIoReadBytes() {
+		return ioReadBytes;
+	}
+
+	public long getIoWriteBytes() {
+		return ioWriteBytes;
+	}
+}
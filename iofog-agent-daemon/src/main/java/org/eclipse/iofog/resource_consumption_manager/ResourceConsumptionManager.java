@@ -12,20 +12,28 @@
  */
 package org.eclipse.iofog.resource_consumption_manager;
 
+import com.github.dockerjava.api.model.Container;
+import com.github.dockerjava.api.model.HostConfig;
 import org.apache.commons.lang.SystemUtils;
 import org.eclipse.iofog.IOFogModule;
 import org.eclipse.iofog.command_line.util.CommandShellResultSet;
 import org.eclipse.iofog.exception.AgentSystemException;
+import org.eclipse.iofog.message_bus.MessageArchive;
+import org.eclipse.iofog.process_manager.DockerUtil;
 import org.eclipse.iofog.status_reporter.StatusReporter;
 import org.eclipse.iofog.utils.Constants;
 import org.eclipse.iofog.utils.configuration.Configuration;
 import org.eclipse.iofog.utils.functional.Pair;
 import org.eclipse.iofog.utils.logging.LoggingService;
+import org.eclipse.iofog.utils.scheduler.AgentScheduler;
 
 import java.io.*;
 import java.lang.management.ManagementFactory;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import static org.apache.commons.lang.StringUtils.EMPTY;
 import static org.eclipse.iofog.command_line.util.CommandShellExecutor.executeCommand;
@@ -43,9 +51,13 @@ public class ResourceConsumptionManager implements IOFogModule {
 	private float diskLimit, cpuLimit, memoryLimit;
 	private static ResourceConsumptionManager instance;
 
+	private static final String ENFORCEMENT_STATE_FILE = "resource_enforcement.properties";
 	private static final String POWERSHELL_GET_CPU_USAGE = "get-wmiobject Win32_PerfFormattedData_PerfProc_Process | ? { $_.IDProcess -eq %s } | select -ExpandProperty PercentProcessorTime";
 
 
+	private final ContainerResourceAccounting containerAccounting = new ContainerResourceAccounting(new CgroupReader());
+	private ContainerResourceEnforcer containerEnforcer;
+
 	private ResourceConsumptionManager() {}
 
 	@Override
@@ -75,46 +87,84 @@ public class ResourceConsumptionManager implements IOFogModule {
 	 * 
 	 */
 	private Runnable getUsageData = () -> {
-		while (true) {
-			try {
-				logDebug("Get usage data");
-				Thread.sleep(Configuration.getGetUsageDataFreqSeconds() * 1000);
-
-				float memoryUsage = getMemoryUsage();
-				float cpuUsage = getCpuUsage();
-				float diskUsage = directorySize(Configuration.getDiskDirectory() + "messages/archive/");
-
-				long availableMemory = getSystemAvailableMemory();
-				float totalCpu = getTotalCpu();
-				long availableDisk = getAvailableDisk();
-				long totalDiskSpace = getTotalDiskSpace();
-
-				StatusReporter.setResourceConsumptionManagerStatus()
-						.setMemoryUsage(memoryUsage / 1_000_000)
-						.setCpuUsage(cpuUsage)
-						.setDiskUsage(diskUsage / 1_000_000_000)
-						.setMemoryViolation(memoryUsage > memoryLimit)
-						.setDiskViolation(diskUsage > diskLimit)
-						.setCpuViolation(cpuUsage > cpuLimit)
-						.setAvailableMemory(availableMemory)
-						.setAvailableDisk(availableDisk)
-						.setTotalCpu(totalCpu)
-						.setTotalDiskSpace(totalDiskSpace);
-
-
-				if (diskUsage > diskLimit) {
-					float amount = diskUsage - (diskLimit * 0.75f);
-					removeArchives(amount);
-				}
-			}catch (InterruptedException e) {
-				logError("Error getting usage data Thread interrupted", new AgentSystemException(e.getMessage(), e));
-			} catch (Exception e) {
-			    logError("Error getting usage data", new AgentSystemException(e.getMessage(), e));
-            }
-			logDebug("Finished Get usage data");
+		try {
+			logDebug("Get usage data");
+
+			float memoryUsage = getMemoryUsage();
+			float cpuUsage = getCpuUsage();
+			float diskUsage = directorySize(Configuration.getDiskDirectory() + "messages/archive/");
+
+			long availableMemory = getSystemAvailableMemory();
+			float totalCpu = getTotalCpu();
+			long availableDisk = getAvailableDisk();
+			long totalDiskSpace = getTotalDiskSpace();
+
+			StatusReporter.setResourceConsumptionManagerStatus()
+					.setMemoryUsage(memoryUsage / 1_000_000)
+					.setCpuUsage(cpuUsage)
+					.setDiskUsage(diskUsage / 1_000_000_000)
+					.setMemoryViolation(memoryUsage > memoryLimit)
+					.setDiskViolation(diskUsage > diskLimit)
+					.setCpuViolation(cpuUsage > cpuLimit)
+					.setAvailableMemory(availableMemory)
+					.setAvailableDisk(availableDisk)
+					.setTotalCpu(totalCpu)
+					.setTotalDiskSpace(totalDiskSpace);
+
+
+			if (diskUsage > diskLimit) {
+				float amount = diskUsage - (diskLimit * 0.75f);
+				removeArchives(amount);
+			}
+		} catch (Exception e) {
+			logError("Error getting usage data", new AgentSystemException(e.getMessage(), e));
 		}
+		logDebug("Finished Get usage data");
 	};
 
+	/**
+	 * reads cgroup accounting of running ioFog containers, sets node-wide totals
+	 * and rebalances containers under pressure if resource enforcement is enabled
+	 *
+	 */
+	private Runnable accountContainers = () -> {
+		try {
+			DockerUtil docker = DockerUtil.getInstance();
+			List<String> containerIds = docker.getContainers().stream()
+					.filter(container -> "running".equals(container.getState())
+							&& docker.getContainerName(container).startsWith(Constants.IOFOG_DOCKER_CONTAINER_NAME_PREFIX))
+					.map(Container::getId)
+					.collect(Collectors.toList());
+			containerAccounting.update(containerIds);
+
+			ContainerResourceUsage total = containerAccounting.getTotal();
+			StatusReporter.setResourceConsumptionManagerStatus()
+					.setMicroservicesCpuUsage(total.getCpuUsage())
+					.setMicroservicesMemoryUsage(total.getMemoryUsage())
+					.setMicroservicesIoReadBytes(total.getIoReadBytes())
+					.setMicroservicesIoWriteBytes(total.getIoWriteBytes());
+
+			if (Configuration.isResourceEnforcement()) {
+				containerEnforcer.enforce(containerAccounting.getUsages(), containerEnforcer.isCpuPressure(total.getCpuUsage()),
+						containerEnforcer.isMemoryPressure(), containerEnforcer.getMemInfo("MemTotal"));
+			} else {
+				containerEnforcer.restoreAll(containerAccounting.getUsages(), containerEnforcer.getMemInfo("MemTotal"));
+			}
+		} catch (Exception e) {
+			logError("Error accounting containers", new AgentSystemException(e.getMessage(), e));
+		}
+	};
+
+	/**
+	 * returns usage of container read from its cgroup
+	 *
+	 * @param containerId - id of container
+	 * @return usage, empty if container has not been accounted yet
+	 */
+	public Optional<ContainerResourceUsage> getContainerUsage(String containerId) {
+		return containerAccounting.getUsage(containerId);
+	}
+
 	/**
 	 * remove old archives
 	 * 
@@ -136,11 +186,7 @@ public class ResourceConsumptionManager implements IOFogModule {
 			});
 
 			for (File indexFile : filesList) {
-				File dataFile = new File(archivesDirectory + indexFile.getName().substring(0, indexFile.getName().indexOf('.')) + ".iomsg");
-				amount -= indexFile.length();
-				indexFile.delete();
-				amount -= dataFile.length();
-				dataFile.delete();
+				amount -= MessageArchive.deleteSegment(indexFile);
 				if (amount < 0)
 					break;
 			}
@@ -332,7 +378,21 @@ public class ResourceConsumptionManager implements IOFogModule {
 		logDebug("Starting");
 		instanceConfigUpdated();
 
-		new Thread(getUsageData, Constants.RESOURCE_CONSUMPTION_MANAGER_GET_USAGE_DATA).start();
+		AgentScheduler.getInstance().scheduleAtFixedRate(Constants.RESOURCE_CONSUMPTION_MANAGER_GET_USAGE_DATA, getUsageData,
+				Configuration.getGetUsageDataFreqSeconds(), Configuration::getGetUsageDataFreqSeconds, TimeUnit.SECONDS);
+		if (SystemUtils.IS_OS_LINUX && new CgroupReader().isAvailable()) {
+			// containers limited before restart of agent are restored by first run, if they are not under pressure anymore
+			containerEnforcer = new ContainerResourceEnforcer(
+					(containerId, cpuShares, memoryReservation) ->
+							DockerUtil.getInstance().updateContainerResources(containerId, cpuShares, memoryReservation),
+					containerId -> {
+						HostConfig hostConfig = DockerUtil.getInstance().getContainerHostConfig(containerId);
+						return new ContainerResourceEnforcer.Resources(hostConfig.getCpuShares(), hostConfig.getMemoryReservation());
+					},
+					new File("/proc"), new File(Configuration.getDiskDirectory() + ENFORCEMENT_STATE_FILE));
+			AgentScheduler.getInstance().scheduleBlockingAtFixedRate(Constants.RESOURCE_CONSUMPTION_MANAGER_ACCOUNT_CONTAINERS, accountContainers,
+					Configuration.getGetUsageDataFreqSeconds(), Configuration::getGetUsageDataFreqSeconds, TimeUnit.SECONDS);
+		}
 
 		logDebug("started");
 	}
@@ -31,6 +31,10 @@ public class ResourceConsumptionManagerStatus {
 	private long availableDisk;
 
 	private long totalDiskSpace;
+	private float microservicesCpuUsage;
+	private long microservicesMemoryUsage;
+	private long microservicesIoReadBytes;
+	private long microservicesIoWriteBytes;
 	
 	public ResourceConsumptionManagerStatus() {
 	}
@@ -123,4 +127,40 @@ public class ResourceConsumptionManagerStatus {
 	public void setTotalDiskSpace(long totalDiskSpace) {
 		this.totalDiskSpace = totalDiskSpace;
 	}
+
+	public float getMicroservicesCpuUsage() {
+		return microservicesCpuUsage;
+	}
+
+	public ResourceConsumptionManagerStatus setMicroservicesCpuUsage(float microservicesCpuUsage) {
+		this.microservicesCpuUsage = microservicesCpuUsage;
+		return this;
+	}
+
+	public long getMicroservicesMemoryUsage() {
+		return microservicesMemoryUsage;
+	}
+
+	public ResourceConsumptionManagerStatus setMicroservicesMemoryUsage(long microservicesMemoryUsage) {
+		this.microservicesMemoryUsage = microservicesMemoryUsage;
+		return this;
+	}
+
+	public long getMicroservicesIoReadBytes() {
+		return microservicesIoReadBytes;
+	}
+
+	public ResourceConsumptionManagerStatus setMicroservicesIoReadBytes(long microservicesIoReadBytes) {
+		this.microservicesIoReadBytes = microservicesIoReadBytes;
+		return this;
+	}
+
+	public long getMicroservicesIoWriteBytes() {
+		return microservicesIoWriteBytes;
+	}
+
+	public ResourceConsumptionManagerStatus setMicroservicesIoWriteBytes(long microservicesIoWriteBytes) {
+		this.microservicesIoWriteBytes = microservicesIoWriteBytes;
+		return this;
+	}
 }
@@ -0,0 +1,84 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.resource_manager;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * remembers hash of HAL info last uploaded to controller
+ * info is uploaded again only if it has changed or resync interval has passed
+ */
+public class HalInfoCache {
+    public static final long RESYNC_INTERVAL = TimeUnit.HOURS.toMillis(1);
+
+    private final long resyncInterval;
+    private String uploadedHash;
+    private long uploadedTime;
+
+    public HalInfoCache() {
+        this(RESYNC_INTERVAL);
+    }
+
+    public HalInfoCache(long resyncInterval) {
+        this.resyncInterval = resyncInterval;
+    }
+
+    /**
+     * checks if info has to be uploaded to controller
+     *
+     * @param info - info read from HAL
+     * @param now  - current time in milliseconds
+     * @return true if info has changed since last upload or resync interval has passed
+     */
+    public synchronized boolean isUploadRequired(String info, long now) {
+        return uploadedHash == null
+                || !uploadedHash.equals(hash(info))
+                || now - uploadedTime >= resyncInterval;
+    }
+
+    /**
+     * remembers info which has been uploaded successfully
+     *
+     * @param info - info uploaded to controller
+     * @param now  - current time in milliseconds
+     */
+    public synchronized void uploaded(String info, long now) {
+        uploadedHash = hash(info);
+        uploadedTime = now;
+    }
+
+    /**
+     * forces next upload, e.g. after agent has been provisioned to another controller
+     */
+    public synchronized void invalidate() {
+        uploadedHash = null;
+        uploadedTime = 0;
+    }
+
+    private static String hash(String info) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(info.getBytes(UTF_8));
+            StringBuilder sb = new StringBuilder();
+            for (byte b : digest) {
+                sb.append(String.format("%02x", b));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            return info;
+        }
+    }
+}
@@ -14,11 +14,13 @@
 package org.eclipse.iofog.resource_manager;
 
 import org.eclipse.iofog.IOFogModule;
-import org.eclipse.iofog.exception.AgentSystemException;
 import org.eclipse.iofog.field_agent.FieldAgent;
 import org.eclipse.iofog.utils.Constants;
 import org.eclipse.iofog.utils.configuration.Configuration;
 import org.eclipse.iofog.utils.logging.LoggingService;
+import org.eclipse.iofog.utils.scheduler.AgentScheduler;
+
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author elukashick
@@ -42,25 +44,17 @@ public class ResourceManager implements IOFogModule {
     }
 
     public void start() {
-        new Thread(getUsageData, Constants.RESOURCE_MANAGER_GET_USAGE_DATA).start();
+        AgentScheduler.getInstance().scheduleBlockingAtFixedRate(Constants.RESOURCE_MANAGER_GET_USAGE_DATA, getUsageData,
+                0, Configuration::getDeviceScanFrequency, TimeUnit.SECONDS);
         LoggingService.logDebug("ResourceManager", "started");
 
     }
 
     private Runnable getUsageData = () -> {
-
-        while (true) {
-        	LoggingService.logDebug(MODULE_NAME, "Start getting usage data");
-            FieldAgent.getInstance().sendUSBInfoFromHalToController();
-            FieldAgent.getInstance().sendHWInfoFromHalToController();
-            try {
-                Thread.sleep(Configuration.getDeviceScanFrequency() * 1000);
-            } catch (InterruptedException e) {
-                LoggingService.logError(MODULE_NAME, "Error getting usage data",
-                		new AgentSystemException(e.getMessage(), e));
-            }
-            LoggingService.logDebug(MODULE_NAME, "Finished getting usage data");
-        }
+    	LoggingService.logDebug(MODULE_NAME, "Start getting usage data");
+        FieldAgent.getInstance().sendUSBInfoFromHalToController();
+        FieldAgent.getInstance().sendHWInfoFromHalToController();
+        LoggingService.logDebug(MODULE_NAME, "Finished getting usage data");
     };
 
 }
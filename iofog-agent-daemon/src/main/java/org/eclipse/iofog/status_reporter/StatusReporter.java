@@ -24,13 +24,13 @@ import org.eclipse.iofog.supervisor.SupervisorStatus;
 import org.eclipse.iofog.utils.Constants;
 import org.eclipse.iofog.utils.configuration.Configuration;
 import org.eclipse.iofog.utils.logging.LoggingService;
+import org.eclipse.iofog.utils.scheduler.AgentScheduler;
 
 import java.io.File;
 import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.Locale;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -58,7 +58,6 @@ public final class StatusReporter {
 	private static final Runnable setStatusReporterSystemTime = () -> {
 		LoggingService.logDebug(MODULE_NAME, "Inside setStatusReporterSystemTime");
 		try {
-			Thread.currentThread().setName(Constants.STATUS_REPORTER_SET_STATUS_REPORTER_SYSTEM_TIME);
 			setStatusReporterStatus().setSystemTime(System.currentTimeMillis());
 		} catch (Exception e) {
 			LoggingService.logError(MODULE_NAME, e.getMessage(), new AgentSystemException(e.getMessage(), e));
@@ -69,6 +68,25 @@ public final class StatusReporter {
 	private StatusReporter() {
 	}
 
+	/**
+	 * returns total startup time of daemon followed by startup time of each module
+	 *
+	 * @return startup report
+	 */
+	private static String getStartupReport() {
+		StringBuilder result = new StringBuilder();
+		result.append(supervisorStatus.getStartupDuration()).append(" ms");
+		String separator = " (";
+		for (Map.Entry<String, Long> entry : supervisorStatus.getStartupTimes().entrySet()) {
+			result.append(separator).append(entry.getKey()).append(" ").append(entry.getValue()).append(" ms");
+			separator = ", ";
+		}
+		if (!supervisorStatus.getStartupTimes().isEmpty()) {
+			result.append(")");
+		}
+		return result.toString();
+	}
+
 	/**
 	 * returns report for "status" command-line parameter
 	 *
@@ -113,9 +131,22 @@ public final class StatusReporter {
 			result.append("\\nDisk Usage                  : about ").append(String.format("%.2f GiB", diskUsage));
 		result.append("\\nCPU Usage                   : about ").append(String.format("%.2f %%", resourceConsumptionManagerStatus.getCpuUsage()));
 		result.append("\\nRunning Microservices       : ").append(processManagerStatus.getRunningMicroservicesCount());
+		result.append("\\nMicroservices Usage         : ").append(String.format("CPU about %.2f %%, memory about %.2f MiB, I/O read %.2f MiB, written %.2f MiB",
+				resourceConsumptionManagerStatus.getMicroservicesCpuUsage(),
+				resourceConsumptionManagerStatus.getMicroservicesMemoryUsage() / (double) Constants.MiB,
+				resourceConsumptionManagerStatus.getMicroservicesIoReadBytes() / (double) Constants.MiB,
+				resourceConsumptionManagerStatus.getMicroservicesIoWriteBytes() / (double) Constants.MiB));
 		result.append("\\nConnection to Controller    : ").append(connectionStatus);
 		result.append(String.format(Locale.US, "\\nMessages Processed          : about %,d", messageBusStatus.getProcessedMessages()));
+		result.append("\\nArchive Compression Ratio   : ").append(String.format(Locale.US, "%.2f", messageBusStatus.getArchiveCompressionRatio()));
+		result.append(String.format(Locale.US, "\\nOutbox Backlog              : %,d messages", messageBusStatus.getOutboxBacklog()));
+		result.append(String.format(Locale.US, "\\nMessages Routed Locally     : %,d", messageBusStatus.getLocallyRoutedMessages()));
+		result.append(String.format(Locale.US, "\\nMessages Routed via Router  : %,d", messageBusStatus.getRouterRoutedMessages()));
+		result.append("\\nMessages by Priority        : ").append(messageBusStatus.getPriorityReport());
+		result.append("\\nRoute Filters               : ").append(messageBusStatus.getRouteFilterReport());
 		result.append("\\nSystem Time                 : ").append(dateFormat.format(cal.getTime()));
+		result.append("\\nStartup Time                : ").append(getStartupReport());
+		result.append("\\nScheduled Tasks             : ").append(AgentScheduler.getInstance().getReport());
 
 		result.append("\\nSystem Available Disk       : ").append(String.format("%.2f MB (%.2f %%)", availableDisk, ((availableDisk * Constants.MiB) / getTotalDisk()) * 100.0f));
 		result.append("\\nSystem Available Memory     : ").append(String.format("%.2f MB", availableMemory));
@@ -220,8 +251,8 @@ public final class StatusReporter {
 	 */
 	public static void start() {
 		LoggingService.logInfo(MODULE_NAME, "Starting Status Reporter");
-		ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
-		scheduler.scheduleAtFixedRate(setStatusReporterSystemTime, Configuration.getSetSystemTimeFreqSeconds(), Configuration.getSetSystemTimeFreqSeconds(), TimeUnit.SECONDS);
+		AgentScheduler.getInstance().scheduleAtFixedRate(Constants.STATUS_REPORTER_SET_STATUS_REPORTER_SYSTEM_TIME, setStatusReporterSystemTime,
+				Configuration.getSetSystemTimeFreqSeconds(), Configuration::getSetSystemTimeFreqSeconds, TimeUnit.SECONDS);
 		LoggingService.logInfo(MODULE_NAME, "Started Status Reporter");
 	}
 
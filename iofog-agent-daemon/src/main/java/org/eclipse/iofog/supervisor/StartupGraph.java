@@ -0,0 +1,114 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.supervisor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.eclipse.iofog.utils.Constants.SUPERVISOR_START_MODULES;
+
+/**
+ * starts daemon modules in dependency order
+ * each step starts as soon as all its dependencies have started, so independent steps run in parallel
+ */
+public class StartupGraph {
+
+	/**
+	 * startup step of a module
+	 */
+	@FunctionalInterface
+	public interface Step {
+		void run() throws Exception;
+	}
+
+	private final Map<String, CompletableFuture<Void>> steps = new LinkedHashMap<>();
+	private final Map<String, Long> stepTimes = Collections.synchronizedMap(new LinkedHashMap<>());
+	private final AtomicInteger threadCount = new AtomicInteger();
+	private final ExecutorService executor = Executors.newCachedThreadPool(runnable ->
+			new Thread(runnable, SUPERVISOR_START_MODULES + "-" + threadCount.incrementAndGet()));
+	private final long startTime = System.currentTimeMillis();
+
+	/**
+	 * adds startup step
+	 *
+	 * @param name         - name of step
+	 * @param step         - starts module
+	 * @param dependencies - names of steps which have to be finished before this one, have to be added before
+	 * @return this graph
+	 */
+	public StartupGraph add(String name, Step step, String... dependencies) {
+		List<CompletableFuture<Void>> required = new ArrayList<>();
+		for (String dependency : dependencies) {
+			CompletableFuture<Void> future = steps.get(dependency);
+			if (future == null) {
+				throw new IllegalArgumentException("Unknown dependency " + dependency + " of " + name);
+			}
+			required.add(future);
+		}
+
+		CompletableFuture<Void> future = CompletableFuture
+				.allOf(required.toArray(new CompletableFuture[0]))
+				.thenRunAsync(() -> {
+					long stepStart = System.currentTimeMillis();
+					try {
+						step.run();
+					} catch (Exception e) {
+						throw new CompletionException(e);
+					}
+					stepTimes.put(name, System.currentTimeMillis() - stepStart);
+				}, executor);
+		steps.put(name, future);
+		return this;
+	}
+
+	/**
+	 * waits for all steps
+	 * steps which depend on failed step are not run
+	 *
+	 * @throws Exception first failure of a step
+	 */
+	public void await() throws Exception {
+		try {
+			CompletableFuture.allOf(steps.values().toArray(new CompletableFuture[0])).join();
+		} catch (CompletionException e) {
+			Throwable cause = e.getCause();
+			throw cause instanceof Exception ? (Exception) cause : e;
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * @return duration of each finished step in milliseconds, in order of finishing
+	 */
+	public Map<String, Long> getStepTimes() {
+		synchronized (stepTimes) {
+			return new LinkedHashMap<>(stepTimes);
+		}
+	}
+
+	/**
+	 * @return milliseconds since graph has been created
+	 */
+	public long getElapsedTime() {
+		return System.currentTimeMillis() - startTime;
+	}
+}
@@ -29,9 +29,7 @@ import org.eclipse.iofog.tracking.TrackingInfoUtils;
 import org.eclipse.iofog.utils.Constants;
 import org.eclipse.iofog.utils.configuration.Configuration;
 import org.eclipse.iofog.utils.logging.LoggingService;
-
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import org.eclipse.iofog.utils.scheduler.AgentScheduler;
 
 import static java.lang.System.currentTimeMillis;
 import static java.lang.Thread.State.TERMINATED;
@@ -49,17 +47,24 @@ import static org.eclipse.iofog.utils.Constants.ModulesStatus.STARTING;
 public class Supervisor implements IOFogModule {
 
 	private static final String MODULE_NAME = "Supervisor";
-	private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
-	private MessageBus messageBus;
-	private Thread localApiThread;
-	private LocalApi localApi;
+	private static final String CACHED_STATE = "Cached State";
+	private static final String NETWORK_INTERFACE = "Network Interface";
+	private static final String LOCAL_API_NAME = "Local API";
+	private static final String MESSAGE_BUS_NAME = "Message Bus";
+	private static final String RESOURCE_CONSUMPTION_MANAGER_NAME = "Resource Consumption Manager";
+	private static final String TRACKER_NAME = "Tracker";
+	private static final String FIELD_AGENT_NAME = "Field Agent";
+	private static final String PROCESS_MANAGER_NAME = "Process Manager";
+	private static final String RESOURCE_MANAGER_NAME = "Resource Manager";
+	private volatile MessageBus messageBus;
+	private volatile Thread localApiThread;
+	private volatile LocalApi localApi;
 
 	/**
 	 * monitors {@link LocalApi} module status
 	 *
 	 */
 	private Runnable checkLocalApiStatus = () -> {
-		Thread.currentThread().setName(Constants.SUPERVISOR_CHECK_LOCAL_API_STATUS);
 		logInfo("Check local API status");
 		try {
 			if (localApiThread != null && localApiThread.getState() == TERMINATED) {
@@ -91,19 +96,30 @@ public class Supervisor implements IOFogModule {
                 .setDaemonStatus(STARTING)
                 .setDaemonLastStart(currentTimeMillis())
                 .setOperationDuration(0);
-		IOFogNetworkInterfaceManager.getInstance().start();
-		startModule(ResourceConsumptionManager.getInstance());
-		startModule(FieldAgent.getInstance());
-		startModule(ProcessManager.getInstance());
-		startModule(new ResourceManager());
-		startModule(Tracker.getInstance());
-        messageBus = MessageBus.getInstance();
-        startModule(messageBus);
-
-        localApi = LocalApi.getInstance();
-        localApiThread = new Thread(localApi, Constants.LOCAL_API_EVENT);
-        localApiThread.start();
-        scheduler.scheduleAtFixedRate(checkLocalApiStatus, 0, 10, SECONDS);
+
+		// local api and message bus come up from cached microservices, before blocking controller calls of field agent
+		StartupGraph startup = new StartupGraph()
+				.add(CACHED_STATE, () -> FieldAgent.getInstance().loadCachedState())
+				.add(NETWORK_INTERFACE, () -> IOFogNetworkInterfaceManager.getInstance().start())
+				.add(LOCAL_API_NAME, this::startLocalApi, CACHED_STATE)
+				.add(MESSAGE_BUS_NAME, () -> {
+					messageBus = MessageBus.getInstance();
+					startModule(messageBus);
+				}, CACHED_STATE)
+				.add(RESOURCE_CONSUMPTION_MANAGER_NAME, () -> startModule(ResourceConsumptionManager.getInstance()))
+				.add(TRACKER_NAME, () -> startModule(Tracker.getInstance()))
+				.add(FIELD_AGENT_NAME, () -> startModule(FieldAgent.getInstance()),
+						NETWORK_INTERFACE, LOCAL_API_NAME, MESSAGE_BUS_NAME)
+				.add(PROCESS_MANAGER_NAME, () -> startModule(ProcessManager.getInstance()), FIELD_AGENT_NAME)
+				.add(RESOURCE_MANAGER_NAME, () -> startModule(new ResourceManager()), FIELD_AGENT_NAME);
+		try {
+			startup.await();
+		} finally {
+			StatusReporter.setSupervisorStatus()
+					.setStartupTimes(startup.getStepTimes())
+					.setStartupDuration(startup.getElapsedTime());
+			logInfo("Modules started in " + startup.getElapsedTime() + " ms : " + startup.getStepTimes());
+		}
 
         StatusReporter.setSupervisorStatus().setDaemonStatus(RUNNING);
 		logDebug("Started Supervisor");
@@ -112,6 +128,14 @@ public class Supervisor implements IOFogModule {
         operationDuration();
     }
 
+	private void startLocalApi() {
+		localApi = LocalApi.getInstance();
+		localApiThread = new Thread(localApi, Constants.LOCAL_API_EVENT);
+		localApiThread.start();
+		AgentScheduler.getInstance().scheduleAtFixedRate(Constants.SUPERVISOR_CHECK_LOCAL_API_STATUS, checkLocalApiStatus,
+				0, () -> 10, SECONDS);
+	}
+
 	private void startModule(IOFogModule ioFogModule) throws Exception {
         logInfo(" Starting " + ioFogModule.getModuleName());
         StatusReporter.setSupervisorStatus().setModuleStatus(ioFogModule.getModuleIndex(), STARTING);
@@ -120,20 +144,23 @@ public class Supervisor implements IOFogModule {
         logInfo(" Started " + ioFogModule.getModuleName());
     }
 
-    private void operationDuration(){
-    	logDebug(" Start checking operation duration ");
-        while (true) {
+	/**
+	 * updates operation duration periodically and blocks until agent scheduler has been shut down
+	 */
+	private void operationDuration() {
+		AgentScheduler.getInstance().scheduleAtFixedRate(Constants.SUPERVISOR_OPERATION_DURATION, () -> {
+			logDebug(" Start checking operation duration ");
 			StatusReporter.setSupervisorStatus()
-				.setOperationDuration(currentTimeMillis());
-            try {
-                Thread.sleep(Configuration.getStatusReportFreqSeconds() * 1000);
-            } catch (InterruptedException e) {
-                logError("Error checking operation duration", new AgentSystemException("Error checking operation duration", e));
-                System.exit(1);
-            }
-            logDebug(" Finished checking operation duration ");
-        }
-    }
+					.setOperationDuration(currentTimeMillis());
+			logDebug(" Finished checking operation duration ");
+		}, 0, Configuration::getStatusReportFreqSeconds, SECONDS);
+		try {
+			AgentScheduler.getInstance().awaitTermination();
+		} catch (InterruptedException e) {
+			logError("Error checking operation duration", new AgentSystemException("Error checking operation duration", e));
+			System.exit(1);
+		}
+	}
 
 	/**
 	 * shutdown hook to stop {@link MessageBus} and {@link LocalApi}
@@ -141,7 +168,7 @@ public class Supervisor implements IOFogModule {
 	 */
 	private final Runnable shutdownHook = () -> {
 		try {
-			scheduler.shutdownNow();
+			AgentScheduler.getInstance().shutdown();
 			if (localApi != null)
 				localApi.stopServer();
 			if (messageBus != null)
@@ -15,6 +15,10 @@ package org.eclipse.iofog.supervisor;
 import org.eclipse.iofog.utils.Constants;
 import org.eclipse.iofog.utils.Constants.ModulesStatus;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * represents Supervisor status
  * 
@@ -26,6 +30,8 @@ public class SupervisorStatus {
 	private final ModulesStatus[] modulesStatus;
 	private long daemonLastStart;
 	private long operationDuration;
+	private long startupDuration;
+	private Map<String, Long> startupTimes = Collections.emptyMap();
 	
 	
 	public SupervisorStatus() {
@@ -73,4 +79,25 @@ public class SupervisorStatus {
 		this.operationDuration = operationDuration;
 		return this;
 	}
+
+	public long getStartupDuration() {
+		return startupDuration;
+	}
+
+	public SupervisorStatus setStartupDuration(long startupDuration) {
+		this.startupDuration = startupDuration;
+		return this;
+	}
+
+	/**
+	 * @return startup duration of each module in milliseconds
+	 */
+	public Map<String, Long> getStartupTimes() {
+		return startupTimes;
+	}
+
+	public SupervisorStatus setStartupTimes(Map<String, Long> startupTimes) {
+		this.startupTimes = Collections.unmodifiableMap(new LinkedHashMap<>(startupTimes));
+		return this;
+	}
 }
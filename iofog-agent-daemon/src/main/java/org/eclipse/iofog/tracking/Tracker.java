@@ -1,17 +1,13 @@
 package org.eclipse.iofog.tracking;
 
-import org.apache.http.HttpResponse;
-import org.apache.http.client.HttpClient;
-import org.apache.http.client.methods.HttpPost;
-import org.apache.http.entity.ContentType;
-import org.apache.http.entity.StringEntity;
-import org.apache.http.impl.client.HttpClients;
 import org.eclipse.iofog.IOFogModule;
 import org.eclipse.iofog.exception.AgentSystemException;
 import org.eclipse.iofog.field_agent.FieldAgent;
 import org.eclipse.iofog.status_reporter.StatusReporter;
 import org.eclipse.iofog.utils.Constants;
+import org.eclipse.iofog.utils.configuration.Configuration;
 import org.eclipse.iofog.utils.logging.LoggingService;
+import org.eclipse.iofog.utils.scheduler.AgentScheduler;
 
 import static org.eclipse.iofog.utils.Constants.TRACKING_UUID_PATH;
 
@@ -23,6 +19,7 @@ import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
 import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 public class Tracker implements IOFogModule {
     private final String MODULE_NAME = "Tracker";
@@ -38,24 +35,19 @@ public class Tracker implements IOFogModule {
     }
 
     private String uuid;
-    private Timer loggerTimer = null;
-    private Timer senderTimer = null;
     private TrackingEventsStorage eventsStorage = new TrackingEventsStorage();
     @Override
     public void start() throws Exception {
         this.uuid = initTrackingUuid();
 
-        loggerTimer = new Timer();
+        AgentScheduler scheduler = AgentScheduler.getInstance();
         TimeLoggerTask timeLoggerTask = new TimeLoggerTask();
-        loggerTimer.schedule(timeLoggerTask,
-                timeLoggerTask.getTimeTrackingTimeoutMin() * 60 * 1000,
-                timeLoggerTask.getTimeTrackingTimeoutMin() * 60 * 1000);
+        scheduler.scheduleAtFixedRate(Constants.TRACKER_TIMER_LOGGER_TASK, timeLoggerTask,
+                timeLoggerTask.getTimeTrackingTimeoutMin(), timeLoggerTask::getTimeTrackingTimeoutMin, TimeUnit.MINUTES);
 
-        senderTimer = new Timer();
         SenderTask senderTask = new SenderTask();
-        senderTimer.schedule(senderTask,
-                senderTask.getSendTimeoutMin() * 60 * 1000,
-                senderTask.getSendTimeoutMin() * 60 * 1000);
+        scheduler.scheduleBlockingAtFixedRate(Constants.TRACKER_SENDER_TASK, senderTask,
+                senderTask.getSendTimeoutMin(), senderTask::getSendTimeoutMin, TimeUnit.MINUTES);
     }
 
     @Override
@@ -163,7 +155,7 @@ public class Tracker implements IOFogModule {
         LoggingService.logDebug(MODULE_NAME, "Finished handle event by pushing task");
     }
 
-    private class TimeLoggerTask extends TimerTask {
+    private class TimeLoggerTask implements Runnable {
         private final int timeTrackingTimeoutMin = 5;
         private int iterations = 0;
 
@@ -171,72 +163,49 @@ public class Tracker implements IOFogModule {
             return timeTrackingTimeoutMin;
         }
 
-        @Override
-        public boolean cancel() {
-            return super.cancel();
-        }
-
-        @Override
-        public long scheduledExecutionTime() {
-            return super.scheduledExecutionTime();
-        }
-
         @Override
         public void run() {
-        	Thread.currentThread().setName(Constants.TRACKER_TIMER_LOGGER_TASK);
             iterations++;
             handleEvent(TrackingEventType.TIME, Long.toString(iterations * timeTrackingTimeoutMin));
         }
     }
 
-    private class SenderTask extends TimerTask {
+    private class SenderTask implements Runnable {
+        private static final int MAX_EVENTS_PER_BATCH = 500;
+        private static final long MAX_SPOOL_BYTES = 10 * Constants.MiB;
+        private static final String SPOOL_DIRECTORY = "tracking/";
         private final int sendTimeoutMin = 5;
-        HttpClient httpClient = HttpClients.createDefault();
+        private TrackingSpool spool;
 
         public int getSendTimeoutMin() {
             return sendTimeoutMin;
         }
 
-        @Override
-        public boolean cancel() {
-            return super.cancel();
-        }
-
-        @Override
-        public long scheduledExecutionTime() {
-            return super.scheduledExecutionTime();
-        }
-
         @Override
         public void run() {
-        	Thread.currentThread().setName(Constants.TRACKER_SENDER_TASK);
-            List<TrackingEvent> events = eventsStorage.popAllEvents();
-            JsonArrayBuilder jsonArrayBuilder = Json.createArrayBuilder();
-
-            events
-                    .forEach(el -> {
-                        jsonArrayBuilder.add(el.toJsonObject());
-                    });
-
-            JsonObject eventsListObject = Json.createObjectBuilder()
-                    .add("events", jsonArrayBuilder.build())
-                    .build();
+            if (spool == null) {
+                spool = new TrackingSpool(new File(Configuration.getDiskDirectory() + SPOOL_DIRECTORY), MAX_SPOOL_BYTES);
+            }
 
-            HttpPost postMethod = null;
-            if (StatusReporter.getFieldAgentStatus().getControllerStatus().equals(Constants.ControllerStatus.OK)) {
-                //send to controller
-                FieldAgent.getInstance().postTracking(eventsListObject);
-            } else {
-                //send directly
-                StringEntity requestEntity = new StringEntity(eventsListObject.toString(), ContentType.APPLICATION_JSON);
-                postMethod = new HttpPost("https://analytics.iofog.org/post");
-                postMethod.setEntity(requestEntity);
+            long dropped = eventsStorage.popDropped();
+            if (dropped > 0) {
+                LoggingService.logWarning(MODULE_NAME, String.format("Tracking queue is full, %d oldest event(s) dropped", dropped));
+            }
 
+            List<TrackingEvent> events;
+            while (!(events = eventsStorage.popEvents(MAX_EVENTS_PER_BATCH)).isEmpty()) {
                 try {
-                    HttpResponse response = httpClient.execute(postMethod);
+                    spool.write(events);
                 } catch (IOException e) {
-                    logError("Error in sender task",
-                    		new AgentSystemException(e.getMessage(), e));
+                    logError("Error spooling tracking events", new AgentSystemException(e.getMessage(), e));
+                    break;
+                }
+            }
+
+            if (StatusReporter.getFieldAgentStatus().getControllerStatus().equals(Constants.ControllerStatus.OK)) {
+                int sent = spool.send(FieldAgent.getInstance()::postTrackingBatch);
+                if (sent > 0) {
+                    LoggingService.logDebug(MODULE_NAME, String.format("Sent %d tracking batch(es)", sent));
                 }
             }
         }
@@ -2,19 +2,57 @@ package org.eclipse.iofog.tracking;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * bounded lock-free queue of {@link TrackingEvent} waiting to be spooled
+ * oldest events are dropped when queue is full
+ */
 public class TrackingEventsStorage {
+    static final int MAX_EVENTS = 1000;
 
-    private List<TrackingEvent> events = new ArrayList<>();
+    private final Queue<TrackingEvent> events = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicLong dropped = new AtomicLong();
+    private final int maxEvents;
 
-    protected synchronized void pushEvent(TrackingEvent event) {
-        events.add(event);
+    public TrackingEventsStorage() {
+        this(MAX_EVENTS);
     }
 
-    protected synchronized List<TrackingEvent> popAllEvents() {
-        List<TrackingEvent> res = new ArrayList<>(events);
-        events.clear();
+    TrackingEventsStorage(int maxEvents) {
+        this.maxEvents = maxEvents;
+    }
+
+    protected void pushEvent(TrackingEvent event) {
+        events.offer(event);
+        if (size.incrementAndGet() > maxEvents && events.poll() != null) {
+            size.decrementAndGet();
+            dropped.incrementAndGet();
+        }
+    }
+
+    protected List<TrackingEvent> popEvents(int max) {
+        List<TrackingEvent> res = new ArrayList<>();
+        TrackingEvent event;
+        while (res.size() < max && (event = events.poll()) != null) {
+            size.decrementAndGet();
+            res.add(event);
+        }
         return res;
     }
+
+    protected int size() {
+        return size.get();
+    }
+
+    /**
+     * returns number of events dropped since previous call
+     */
+    protected long popDropped() {
+        return dropped.getAndSet(0);
+    }
 }
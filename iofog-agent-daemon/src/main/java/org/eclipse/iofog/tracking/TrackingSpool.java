@@ -0,0 +1,169 @@
+package org.eclipse.iofog.tracking;
+
+import org.eclipse.iofog.utils.logging.LoggingService;
+
+import javax.json.Json;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonObject;
+import javax.ws.rs.ClientErrorException;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * on-disk spool of gzip compressed batches of {@link TrackingEvent}
+ * batches survive failed uploads and agent restarts, oldest batches are deleted when spool exceeds its size
+ * batches rejected by controller are not retried, the last few of them are kept aside for inspection
+ */
+public class TrackingSpool {
+    private static final String MODULE_NAME = "Tracker";
+    private static final String BATCH_SUFFIX = ".json.gz";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final String REJECTED_SUFFIX = ".rejected";
+    static final int MAX_REJECTED = 10;
+
+    private final File directory;
+    private final long maxBytes;
+    private long sequence;
+
+    /**
+     * sends spooled batch, batch is kept if it throws
+     */
+    interface Sender {
+        void send(byte[] batch) throws Exception;
+    }
+
+    TrackingSpool(File directory, long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * writes events as one gzip compressed batch
+     *
+     * @param events - events of batch
+     * @throws IOException
+     */
+    synchronized void write(List<TrackingEvent> events) throws IOException {
+        if (events.isEmpty()) {
+            return;
+        }
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("Unable to create tracking spool directory " + directory);
+        }
+        byte[] batch = encode(events);
+        String name = String.format("%013d-%06d", System.currentTimeMillis(), sequence++ % 1000000);
+        File temp = new File(directory, name + TEMP_SUFFIX);
+        Files.write(temp.toPath(), batch);
+        Files.move(temp.toPath(), new File(directory, name + BATCH_SUFFIX).toPath(), StandardCopyOption.ATOMIC_MOVE);
+        trim();
+    }
+
+    static byte[] encode(List<TrackingEvent> events) throws IOException {
+        JsonArrayBuilder jsonArrayBuilder = Json.createArrayBuilder();
+        events.forEach(event -> jsonArrayBuilder.add(event.toJsonObject()));
+        JsonObject eventsListObject = Json.createObjectBuilder()
+                .add("events", jsonArrayBuilder.build())
+                .build();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (Writer writer = new OutputStreamWriter(new GZIPOutputStream(bytes), StandardCharsets.UTF_8)) {
+            writer.write(eventsListObject.toString());
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * deletes oldest batches while spool is larger than its limit
+     */
+    private void trim() {
+        List<File> batches = getBatches();
+        long total = batches.stream().mapToLong(File::length).sum();
+        int deleted = 0;
+        for (int i = 0; i < batches.size() - 1 && total > maxBytes; i++) {
+            total -= batches.get(i).length();
+            if (batches.get(i).delete()) {
+                deleted++;
+            }
+        }
+        if (deleted > 0) {
+            LoggingService.logWarning(MODULE_NAME, String.format("Tracking spool is full, %d oldest batch(es) dropped", deleted));
+        }
+    }
+
+    /**
+     * sends spooled batches oldest first, a batch is deleted after it has been sent, sending stops at first failure
+     * batch rejected by controller as invalid is quarantined and sending goes on with next one
+     *
+     * @param sender - {@link Sender} to send batches with
+     * @return number of sent batches
+     */
+    int send(Sender sender) {
+        int sent = 0;
+        for (File batch : getBatches()) {
+            try {
+                sender.send(Files.readAllBytes(batch.toPath()));
+            } catch (ClientErrorException e) {
+                LoggingService.logWarning(MODULE_NAME, String.format("Tracking batch %s rejected by controller and quarantined: %s",
+                        batch.getName(), e.getMessage()));
+                quarantine(batch);
+                continue;
+            } catch (Exception e) {
+                LoggingService.logWarning(MODULE_NAME, String.format("Unable to send tracking batch, %d batch(es) kept for retry: %s",
+                        getBatches().size(), e.getMessage()));
+                break;
+            }
+            synchronized (this) {
+                batch.delete();
+            }
+            sent++;
+        }
+        return sent;
+    }
+
+    /**
+     * moves rejected batch aside, so it is not sent again, and deletes oldest rejected batches above their limit
+     *
+     * @param batch - batch rejected by controller
+     */
+    private synchronized void quarantine(File batch) {
+        File rejected = new File(directory, batch.getName() + REJECTED_SUFFIX);
+        if (!batch.renameTo(rejected)) {
+            batch.delete();
+        }
+        List<File> rejectedBatches = listFiles(REJECTED_SUFFIX);
+        for (int i = 0; i < rejectedBatches.size() - MAX_REJECTED; i++) {
+            rejectedBatches.get(i).delete();
+        }
+    }
+
+    synchronized List<File> getBatches() {
+        return listFiles(BATCH_SUFFIX);
+    }
+
+    synchronized List<File> getRejectedBatches() {
+        return listFiles(REJECTED_SUFFIX);
+    }
+
+    private List<File> listFiles(String suffix) {
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(suffix));
+        if (files == null) {
+            return Collections.emptyList();
+        }
+        Arrays.sort(files);
+        return Arrays.asList(files);
+    }
+
+    long getSize() {
+        return getBatches().stream().mapToLong(File::length).sum();
+    }
+}
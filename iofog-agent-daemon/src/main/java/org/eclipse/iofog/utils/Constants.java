@@ -119,22 +119,33 @@ public class Constants {
     public static final String FIELD_AGENT_GET_CHANGE_LIST = "FACL";
     public static final String FIELD_AGENT_POST_STATUS = "FAPS";
     public static final String FIELD_AGENT_POST_DIAGNOSTIC = "FAPD";
+    public static final String FIELD_AGENT_PROCESS_CHANGES = "FACP";
 	public static final String MESSAGE_BUS_CALCULATE_SPEED = "MBCS";
+	public static final String MESSAGE_BUS_ARCHIVE_COMPRESSOR = "MBAC";
+	public static final String MESSAGE_BUS_OUTBOX_REPLAY = "MBOR";
 	public static final String STATUS_REPORTER_SET_STATUS_REPORTER_SYSTEM_TIME = "SRST";
 	public static final String LOCAL_API_EVENT = "LAPI";
 	public static final String RESOURCE_CONSUMPTION_MANAGER_GET_USAGE_DATA = "RCUD";
+	public static final String RESOURCE_CONSUMPTION_MANAGER_ACCOUNT_CONTAINERS = "RCAC";
 	public static final String PROCESS_MANAGER_CONTAINERS_MONITOR = "PMCM";
 	public static final String PROCESS_MANAGER_CHECK_TASKS = "PMCT";
 	public static final String RESOURCE_MANAGER_GET_USAGE_DATA = "RMUD";
 	public static final String TRACKER_SENDER_TASK = "TTST";
 	public static final String TRACKER_TIMER_LOGGER_TASK = "TTLT";
-	public static final String LOCAL_API_CONTROL_WEBSOCKET_WORKER = "LACW";
 	public static final String LOCAL_API_MESSAGE_WEBSOCKET_WORKER = "LAMW";
 
 	public static final String SHUTDOWN_HOOK = "SDHK";
 
 	public static final String SUPERVISOR_CHECK_LOCAL_API_STATUS = "SCLA";
+	public static final String SUPERVISOR_START_MODULES = "SVSM";
 	public static final String NETWORK_INTERFACE_MANAGER = "INIM";
+	public static final String AGENT_SCHEDULER = "ASCH";
+	public static final String SUPERVISOR_OPERATION_DURATION = "SVOD";
+	public static final String FIELD_AGENT_READY_TO_UPGRADE = "FARU";
+	public static final String MESSAGE_BUS_ID_GENERATOR = "MBIG";
+	public static final String SSH_PROXY_MONITOR_TUNNEL = "SPMT";
+	public static final String DOCKER_PRUNING_MANAGER_PRUNE = "DPMP";
+	public static final String DOCKER_PRUNING_MANAGER_CHECK_DISK = "DPMD";
 
     public static final float MAX_DISK_CONSUMPTION_LIMIT = 100;
     public static final String PERCENTAGE_COMPLETION = "100";
@@ -18,6 +18,7 @@ import org.apache.http.client.ClientProtocolException;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.*;
 import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.entity.ByteArrayEntity;
 import org.apache.http.entity.ContentType;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.entity.mime.HttpMultipartMode;
@@ -65,6 +66,7 @@ import static org.eclipse.iofog.utils.logging.LoggingService.*;
  */
 public class Orchestrator {
     private static final int CONNECTION_TIMEOUT = 5000;
+    private static final int LONG_POLL_GRACE_TIME = 10;
     private String controllerUrl;
     private String iofogUuid;
     private String iofogAccessToken;
@@ -121,10 +123,15 @@ public class Orchestrator {
     }
 
     private RequestConfig getRequestConfig() throws Exception {
+        return getRequestConfig(RequestConfig.DEFAULT.getSocketTimeout());
+    }
+
+    private RequestConfig getRequestConfig(int socketTimeout) throws Exception {
     	logDebug(MODULE_NAME, "get request config");
         return RequestConfig.copy(RequestConfig.DEFAULT)
                 .setLocalAddress(IOFogNetworkInterfaceManager.getInstance().getInetAddress())
                 .setConnectTimeout(CONNECTION_TIMEOUT)
+                .setSocketTimeout(socketTimeout)
                 .build();
     }
 
@@ -263,6 +270,35 @@ public class Orchestrator {
         return getJsonObject(queryParams, requestType, new StringEntity(json.toString(), ContentType.APPLICATION_JSON), createUri(command));
     }
 
+    /**
+     * sends gzip compressed Json to IOFog Controller endpoint
+     *
+     * @param command     - endpoint to be called
+     * @param requestType - type of request
+     * @param content     - gzip compressed Json
+     * @return result in Json format
+     * @throws Exception
+     */
+    public JsonObject requestCompressed(String command, RequestType requestType, byte[] content) throws Exception {
+        ByteArrayEntity entity = new ByteArrayEntity(content, ContentType.APPLICATION_JSON);
+        entity.setContentEncoding("gzip");
+        return getJsonObject(null, requestType, entity, createUri(command));
+    }
+
+    /**
+     * sends GET request which controller may hold until there is something to return
+     *
+     * @param command  - endpoint to be called
+     * @param holdTime - seconds controller is asked to hold request for
+     * @return result in Json format
+     * @throws Exception
+     */
+    public JsonObject longPoll(String command, int holdTime) throws Exception {
+        StringBuilder uri = createUri(command)
+                .append("?timeout=").append(holdTime);
+        return getJsonObject(null, RequestType.GET, null, uri, (holdTime + LONG_POLL_GRACE_TIME) * 1000);
+    }
+
     private StringBuilder createUri(String command) {
         StringBuilder uri = new StringBuilder(controllerUrl);
         uri.append("agent/")
@@ -272,6 +308,10 @@ public class Orchestrator {
 
 
     private JsonObject getJsonObject(Map<String, Object> queryParams, RequestType requestType, HttpEntity httpEntity, StringBuilder uri) throws Exception {
+        return getJsonObject(queryParams, requestType, httpEntity, uri, RequestConfig.DEFAULT.getSocketTimeout());
+    }
+
+    private JsonObject getJsonObject(Map<String, Object> queryParams, RequestType requestType, HttpEntity httpEntity, StringBuilder uri, int socketTimeout) throws Exception {
         // disable certificates for dev mode
     	logDebug(MODULE_NAME, "Start get JsonObject");
         boolean secure = true;
@@ -291,7 +331,7 @@ public class Orchestrator {
         initialize(secure);
         HttpRequestBase req;
 
-        RequestConfig config = getRequestConfig();
+        RequestConfig config = getRequestConfig(socketTimeout);
 
         switch (requestType) {
             case GET:
@@ -25,7 +25,6 @@ import org.eclipse.iofog.message_bus.MessageBus;
 import org.eclipse.iofog.network.IOFogNetworkInterface;
 import org.eclipse.iofog.network.IOFogNetworkInterfaceManager;
 import org.eclipse.iofog.process_manager.ProcessManager;
-import org.eclipse.iofog.pruning.DockerPruningManager;
 import org.eclipse.iofog.resource_consumption_manager.ResourceConsumptionManager;
 import org.eclipse.iofog.supervisor.Supervisor;
 import org.eclipse.iofog.tracking.Tracker;
@@ -35,6 +34,7 @@ import org.eclipse.iofog.utils.Constants;
 import org.eclipse.iofog.utils.device_info.ArchitectureType;
 import org.eclipse.iofog.utils.functional.Pair;
 import org.eclipse.iofog.utils.logging.LoggingService;
+import org.eclipse.iofog.utils.scheduler.AgentScheduler;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
@@ -127,6 +127,11 @@ public final class Configuration {
     private static int monitorSshTunnelStatusFreqSeconds;
     private static String routerHost;
     private static int routerPort;
+    private static int routerPrefetch;
+    private static boolean routerAsyncSend;
+    private static boolean localRouting;
+    private static boolean resourceEnforcement;
+    private static int changesLongPoll;
 
     public static String getRouterHost() {
         return routerHost;
@@ -144,6 +149,46 @@ public final class Configuration {
         Configuration.routerPort = routerPort;
     }
 
+    public static int getRouterPrefetch() {
+        return routerPrefetch;
+    }
+
+    public static void setRouterPrefetch(int routerPrefetch) {
+        Configuration.routerPrefetch = routerPrefetch;
+    }
+
+    public static boolean isRouterAsyncSend() {
+        return routerAsyncSend;
+    }
+
+    public static void setRouterAsyncSend(boolean routerAsyncSend) {
+        Configuration.routerAsyncSend = routerAsyncSend;
+    }
+
+    public static boolean isLocalRouting() {
+        return localRouting;
+    }
+
+    public static void setLocalRouting(boolean localRouting) {
+        Configuration.localRouting = localRouting;
+    }
+
+    public static boolean isResourceEnforcement() {
+        return resourceEnforcement;
+    }
+
+    public static void setResourceEnforcement(boolean resourceEnforcement) {
+        Configuration.resourceEnforcement = resourceEnforcement;
+    }
+
+    public static int getChangesLongPoll() {
+        return changesLongPoll;
+    }
+
+    public static void setChangesLongPoll(int changesLongPoll) {
+        Configuration.changesLongPoll = changesLongPoll;
+    }
+
     private static void updateAutomaticConfigParams() {
     	LoggingService.logInfo(MODULE_NAME, "Start update Automatic ConfigParams ");
         switch (fogType) {
@@ -398,6 +443,7 @@ public final class Configuration {
         ResourceConsumptionManager.getInstance().instanceConfigUpdated();
         LoggingService.instanceConfigUpdated();
         MessageBus.getInstance().instanceConfigUpdated();
+        AgentScheduler.getInstance().intervalsChanged();
 
         updateConfigFile(getCurrentConfigPath(), configFile);
         LoggingService.logInfo(MODULE_NAME, "Finished saving configuration data to config.xml");
@@ -693,7 +739,6 @@ public final class Configuration {
                         }
                         setNode(DOCKER_PRUNING_FREQUENCY, value, configFile, configElement);
                         setDockerPruningFrequency(Long.parseLong(value));
-                        DockerPruningManager.getInstance().refreshSchedule();
                         break;
                     case AVAILABLE_DISK_THRESHOLD:
                         LoggingService.logInfo(MODULE_NAME, "Setting available disk threshold");
@@ -709,7 +754,6 @@ public final class Configuration {
                         }
                         setNode(AVAILABLE_DISK_THRESHOLD, value, configFile, configElement);
                         setAvailableDiskThreshold(Long.parseLong(value));
-                        DockerPruningManager.getInstance().refreshSchedule();
                         break;
                     case READY_TO_UPGRADE_SCAN_FREQUENCY:
                         LoggingService.logInfo(MODULE_NAME, "Setting isReadyToUpgrade scan frequency");
@@ -725,7 +769,6 @@ public final class Configuration {
                         }
                         setNode(READY_TO_UPGRADE_SCAN_FREQUENCY, value, configFile, configElement);
                         setReadyToUpgradeScanFrequency(Integer.parseInt(value));
-                        FieldAgent.getInstance().changeReadInterval();
                         break;
                     default:
                         throw new ConfigurationItemException("Invalid parameter -" + option);
@@ -976,6 +1019,11 @@ public final class Configuration {
         setIpAddressExternal(GpsWebHandler.getExternalIp());
         setRouterHost(getNode(ROUTER_HOST, configFile));
         setRouterPort(!getNode(ROUTER_PORT, configFile).equals("") ? Integer.parseInt(getNode(ROUTER_PORT, configFile)) : 0);
+        setRouterPrefetch(!getNode(ROUTER_PREFETCH, configFile).equals("") ? Integer.parseInt(getNode(ROUTER_PREFETCH, configFile)) : 0);
+        setRouterAsyncSend(getNode(ROUTER_ASYNC_SEND, configFile).equals("on"));
+        setLocalRouting(getNode(LOCAL_ROUTING, configFile).equals("on"));
+        setResourceEnforcement(getNode(RESOURCE_ENFORCEMENT, configFile).equals("on"));
+        setChangesLongPoll(!getNode(CHANGES_LONG_POLL, configFile).equals("") ? Integer.parseInt(getNode(CHANGES_LONG_POLL, configFile)) : 0);
 
         setDockerPruningFrequency(Long.parseLong(getNode(DOCKER_PRUNING_FREQUENCY, configFile)));
         setAvailableDiskThreshold(Long.parseLong(getNode(AVAILABLE_DISK_THRESHOLD, configFile)));
@@ -1358,6 +1406,7 @@ public final class Configuration {
             ResourceConsumptionManager.getInstance().instanceConfigUpdated();
             LoggingService.instanceConfigUpdated();
             MessageBus.getInstance().instanceConfigUpdated();
+            AgentScheduler.getInstance().intervalsChanged();
 
             return "Successfully switched to new configuration.";
         } catch (Exception e) {
@@ -1372,6 +1421,7 @@ public final class Configuration {
                 ResourceConsumptionManager.getInstance().instanceConfigUpdated();
                 LoggingService.instanceConfigUpdated();
                 MessageBus.getInstance().instanceConfigUpdated();
+                AgentScheduler.getInstance().intervalsChanged();
 
                 return "Error while loading new config file, falling back to current configuration";
             } catch (Exception fatalException) {
@@ -0,0 +1,284 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.utils.scheduler;
+
+import org.eclipse.iofog.exception.AgentSystemException;
+import org.eclipse.iofog.utils.logging.LoggingService;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.eclipse.iofog.utils.Constants.AGENT_SCHEDULER;
+
+/**
+ * runs periodic tasks of all modules on one small fixed pool
+ * tasks blocking on network, docker or shell get own pool with a thread per task, so they can not starve other tasks
+ * intervals are read before every run, so they can be changed without restart
+ * fixed rate tasks do not drift, get up to 10% of jitter and are counted as overrun if a run takes longer than interval
+ * pool thread is renamed to task name while task runs, so log lines keep their thread names
+ */
+public class AgentScheduler {
+    private static final String MODULE_NAME = "Agent Scheduler";
+    public static final int POOL_SIZE = 4;
+    private static final double JITTER_RATIO = 0.1;
+    private static final long MAX_JITTER = TimeUnit.SECONDS.toMillis(30);
+    private static final long MIN_INTERVAL = 10;
+
+    private static volatile AgentScheduler instance;
+
+    private final ScheduledThreadPoolExecutor executor;
+    private final ScheduledThreadPoolExecutor blockingExecutor;
+    private final List<ScheduledTask> tasks = new CopyOnWriteArrayList<>();
+
+    public static AgentScheduler getInstance() {
+        if (instance == null) {
+            synchronized (AgentScheduler.class) {
+                if (instance == null)
+                    instance = new AgentScheduler(POOL_SIZE);
+            }
+        }
+        return instance;
+    }
+
+    AgentScheduler(int poolSize) {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ScheduledThreadPoolExecutor(poolSize, runnable ->
+                new Thread(runnable, AGENT_SCHEDULER + "-" + threadCount.incrementAndGet()));
+        executor.setRemoveOnCancelPolicy(true);
+        AtomicInteger blockingThreadCount = new AtomicInteger();
+        blockingExecutor = new ScheduledThreadPoolExecutor(1, runnable ->
+                new Thread(runnable, AGENT_SCHEDULER + "-io-" + blockingThreadCount.incrementAndGet()));
+        blockingExecutor.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * runs task periodically, next run is planned from planned start of previous one
+     *
+     * @param name         - name of task, used as thread name while task runs
+     * @param command      - task
+     * @param initialDelay - delay of first run
+     * @param period       - supplier of interval between runs
+     * @param unit         - time unit of initial delay and period
+     * @return scheduled task
+     */
+    public ScheduledTask scheduleAtFixedRate(String name, Runnable command, long initialDelay, LongSupplier period, TimeUnit unit) {
+        return schedule(new ScheduledTask(name, command, period, unit, true, false), unit.toMillis(initialDelay));
+    }
+
+    /**
+     * same as {@link #scheduleAtFixedRate(String, Runnable, long, LongSupplier, TimeUnit)} for task which blocks on I/O
+     *
+     * @param name         - name of task, used as thread name while task runs
+     * @param command      - task
+     * @param initialDelay - delay of first run
+     * @param period       - supplier of interval between runs
+     * @param unit         - time unit of initial delay and period
+     * @return scheduled task
+     */
+    public ScheduledTask scheduleBlockingAtFixedRate(String name, Runnable command, long initialDelay, LongSupplier period, TimeUnit unit) {
+        return schedule(new ScheduledTask(name, command, period, unit, true, true), unit.toMillis(initialDelay));
+    }
+
+    /**
+     * runs task periodically, next run is planned from end of previous one, without jitter
+     *
+     * @param name         - name of task, used as thread name while task runs
+     * @param command      - task
+     * @param initialDelay - delay of first run
+     * @param delay        - supplier of delay between end of a run and start of next one
+     * @param unit         - time unit of initial delay and delay
+     * @return scheduled task
+     */
+    public ScheduledTask scheduleWithFixedDelay(String name, Runnable command, long initialDelay, LongSupplier delay, TimeUnit unit) {
+        return schedule(new ScheduledTask(name, command, delay, unit, false, false), unit.toMillis(initialDelay));
+    }
+
+    /**
+     * same as {@link #scheduleWithFixedDelay(String, Runnable, long, LongSupplier, TimeUnit)} for task which blocks on I/O
+     *
+     * @param name         - name of task, used as thread name while task runs
+     * @param command      - task
+     * @param initialDelay - delay of first run
+     * @param delay        - supplier of delay between end of a run and start of next one
+     * @param unit         - time unit of initial delay and delay
+     * @return scheduled task
+     */
+    public ScheduledTask scheduleBlockingWithFixedDelay(String name, Runnable command, long initialDelay, LongSupplier delay, TimeUnit unit) {
+        return schedule(new ScheduledTask(name, command, delay, unit, false, true), unit.toMillis(initialDelay));
+    }
+
+    private synchronized ScheduledTask schedule(ScheduledTask task, long initialDelay) {
+        long now = System.currentTimeMillis();
+        tasks.add(task);
+        resizeBlockingPool();
+        plan(task, now + Math.max(0, initialDelay), now, false);
+        return task;
+    }
+
+    /**
+     * keeps a thread for every blocking task, so a task waiting on I/O does not delay other ones
+     */
+    private void resizeBlockingPool() {
+        int blockingTasks = (int) tasks.stream().filter(ScheduledTask::isBlocking).count();
+        blockingExecutor.setCorePoolSize(Math.max(1, blockingTasks));
+    }
+
+    private void run(ScheduledTask task, long generation) {
+        synchronized (this) {
+            if (task.isCancelled() || !task.isCurrent(generation)) {
+                return;
+            }
+            task.started();
+        }
+        Thread thread = Thread.currentThread();
+        String threadName = thread.getName();
+        thread.setName(task.getName());
+        long startTime = System.currentTimeMillis();
+        boolean failed = true;
+        try {
+            task.getCommand().run();
+            failed = false;
+        } catch (Exception e) {
+            LoggingService.logError(MODULE_NAME, "Error running scheduled task " + task.getName(),
+                    new AgentSystemException(e.getMessage(), e));
+        } finally {
+            thread.setName(threadName);
+            long endTime = System.currentTimeMillis();
+            scheduleNext(task, endTime, endTime - startTime, failed);
+        }
+    }
+
+    private synchronized void scheduleNext(ScheduledTask task, long now, long runtime, boolean failed) {
+        task.completed(runtime, failed);
+        if (task.isCancelled() || executor.isShutdown()) {
+            tasks.remove(task);
+            resizeBlockingPool();
+            return;
+        }
+        long interval = getInterval(task);
+        long nextTime;
+        if (task.isFixedRate()) {
+            nextTime = task.getLastPlannedTime() + interval;
+            if (nextTime < now) {
+                task.overrun();
+                LoggingService.logWarning(MODULE_NAME, format("Task %s overran its interval of %d ms, run took %d ms",
+                        task.getName(), interval, task.getLastRuntime()));
+                nextTime = now;
+            }
+        } else {
+            nextTime = now + interval;
+        }
+        plan(task, nextTime, now, true);
+    }
+
+    private void plan(ScheduledTask task, long nextTime, long now, boolean withJitter) {
+        task.setPlannedTime(nextTime);
+        long delay = nextTime - now;
+        if (withJitter && task.isFixedRate()) {
+            delay += jitter(getInterval(task));
+        }
+        long generation = task.nextGeneration();
+        ScheduledThreadPoolExecutor taskExecutor = task.isBlocking() ? blockingExecutor : executor;
+        task.setFuture(taskExecutor.schedule(() -> run(task, generation), Math.max(0, delay), MILLISECONDS));
+    }
+
+    private long getInterval(ScheduledTask task) {
+        long interval = task.getIntervalMillis();
+        return task.isFixedRate() ? Math.max(MIN_INTERVAL, interval) : interval;
+    }
+
+    private static long jitter(long interval) {
+        long maxJitter = Math.min((long) (interval * JITTER_RATIO), MAX_JITTER);
+        return maxJitter > 0 ? ThreadLocalRandom.current().nextLong(maxJitter) : 0;
+    }
+
+    /**
+     * re-plans waiting fixed rate tasks with their current intervals
+     * called when configuration has been changed, so a shorter interval applies without waiting for the old one
+     * running tasks are skipped, they are planned with current interval when their run completes
+     */
+    public synchronized void intervalsChanged() {
+        tasks.removeIf(ScheduledTask::isCancelled);
+        long now = System.currentTimeMillis();
+        for (ScheduledTask task : tasks) {
+            if (!task.isFixedRate() || task.getRuns() == 0 || task.isRunning()) {
+                continue;
+            }
+            long nextTime = Math.max(task.getLastPlannedTime() + getInterval(task), now);
+            if (nextTime != task.getPlannedTime() && task.getFuture() != null && task.getFuture().cancel(false)) {
+                plan(task, nextTime, now, true);
+            }
+        }
+    }
+
+    public List<ScheduledTask> getTasks() {
+        tasks.removeIf(ScheduledTask::isCancelled);
+        return tasks;
+    }
+
+    /**
+     * returns summary of task metrics for status report
+     *
+     * @return report
+     */
+    public String getReport() {
+        List<ScheduledTask> currentTasks = getTasks();
+        long overruns = currentTasks.stream().mapToLong(ScheduledTask::getOverruns).sum();
+        long failures = currentTasks.stream().mapToLong(ScheduledTask::getFailures).sum();
+        StringBuilder result = new StringBuilder(format("%d tasks on %d threads, %d overruns, %d failures",
+                currentTasks.size(), executor.getCorePoolSize() + blockingExecutor.getCorePoolSize(), overruns, failures));
+        currentTasks.stream()
+                .max(Comparator.comparingLong(ScheduledTask::getMaxRuntime))
+                .filter(task -> task.getMaxRuntime() > 0)
+                .ifPresent(task -> result.append(format(", slowest %s %d ms", task.getName(), task.getMaxRuntime())));
+        return result.toString();
+    }
+
+    /**
+     * blocks until scheduler has been shut down
+     *
+     * @throws InterruptedException if waiting thread has been interrupted
+     */
+    public void awaitTermination() throws InterruptedException {
+        awaitTermination(executor);
+        awaitTermination(blockingExecutor);
+    }
+
+    private static void awaitTermination(ScheduledThreadPoolExecutor pool) throws InterruptedException {
+        // agent runs until it is shut down, so pool is checked again each day rather than given up on
+        boolean terminated = false;
+        while (!terminated) {
+            terminated = pool.awaitTermination(1, TimeUnit.DAYS);
+        }
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+        blockingExecutor.shutdownNow();
+    }
+
+    /**
+     * @return number of runs waiting in pools
+     */
+    int getPlannedRunsCount() {
+        return executor.getQueue().size() + blockingExecutor.getQueue().size();
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.utils.scheduler;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * periodic task of {@link AgentScheduler} with its runtime metrics
+ */
+public class ScheduledTask {
+    private final String name;
+    private final Runnable command;
+    private final LongSupplier interval;
+    private final TimeUnit unit;
+    private final boolean fixedRate;
+    private final boolean blocking;
+
+    private volatile boolean cancelled;
+    private ScheduledFuture<?> future;
+    private long plannedTime;
+    private long lastPlannedTime;
+    private long generation;
+    private boolean running;
+
+    private long runs;
+    private long failures;
+    private long overruns;
+    private long lastRuntime;
+    private long maxRuntime;
+    private long totalRuntime;
+
+    ScheduledTask(String name, Runnable command, LongSupplier interval, TimeUnit unit, boolean fixedRate, boolean blocking) {
+        this.name = name;
+        this.command = command;
+        this.interval = interval;
+        this.unit = unit;
+        this.fixedRate = fixedRate;
+        this.blocking = blocking;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    Runnable getCommand() {
+        return command;
+    }
+
+    /**
+     * reads interval on every call, so changes of {@link org.eclipse.iofog.utils.configuration.Configuration}
+     * apply without restarting the task
+     *
+     * @return interval in milliseconds
+     */
+    long getIntervalMillis() {
+        return Math.max(0, unit.toMillis(interval.getAsLong()));
+    }
+
+    boolean isFixedRate() {
+        return fixedRate;
+    }
+
+    boolean isBlocking() {
+        return blocking;
+    }
+
+    /**
+     * stops task, run in progress completes
+     */
+    public synchronized void cancel() {
+        cancelled = true;
+        if (future != null) {
+            future.cancel(false);
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    synchronized ScheduledFuture<?> getFuture() {
+        return future;
+    }
+
+    synchronized void setFuture(ScheduledFuture<?> future) {
+        this.future = future;
+        if (cancelled) {
+            future.cancel(false);
+        }
+    }
+
+    synchronized long getPlannedTime() {
+        return plannedTime;
+    }
+
+    synchronized void setPlannedTime(long plannedTime) {
+        this.plannedTime = plannedTime;
+    }
+
+    synchronized long getLastPlannedTime() {
+        return lastPlannedTime;
+    }
+
+    /**
+     * starts new generation of planned runs, runs planned for older generations are skipped
+     *
+     * @return generation of next planned run
+     */
+    synchronized long nextGeneration() {
+        return ++generation;
+    }
+
+    synchronized boolean isCurrent(long generation) {
+        return this.generation == generation;
+    }
+
+    synchronized boolean isRunning() {
+        return running;
+    }
+
+    synchronized void started() {
+        lastPlannedTime = plannedTime;
+        running = true;
+    }
+
+    synchronized void completed(long runtime, boolean failed) {
+        running = false;
+        runs++;
+        if (failed) {
+            failures++;
+        }
+        lastRuntime = runtime;
+        maxRuntime = Math.max(maxRuntime, runtime);
+        totalRuntime += runtime;
+    }
+
+    synchronized void overrun() {
+        overruns++;
+    }
+
+    public synchronized long getRuns() {
+        return runs;
+    }
+
+    public synchronized long getFailures() {
+        return failures;
+    }
+
+    public synchronized long getOverruns() {
+        return overruns;
+    }
+
+    public synchronized long getLastRuntime() {
+        return lastRuntime;
+    }
+
+    public synchronized long getMaxRuntime() {
+        return maxRuntime;
+    }
+
+    public synchronized long getAverageRuntime() {
+        return runs == 0 ? 0 : totalRuntime / runs;
+    }
+}
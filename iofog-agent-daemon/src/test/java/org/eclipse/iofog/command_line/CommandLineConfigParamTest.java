@@ -98,6 +98,11 @@ public class CommandLineConfigParamTest {
         assertEquals("post_diagnostics_freq", commandLineConfigParam.POST_DIAGNOSTICS_FREQ.getXmlTag());
         assertEquals("fog_type", commandLineConfigParam.FOG_TYPE.getXmlTag());
         assertEquals("dev_mode", commandLineConfigParam.DEV_MODE.getXmlTag());
+        assertEquals("router_prefetch", commandLineConfigParam.ROUTER_PREFETCH.getXmlTag());
+        assertEquals("router_async_send", commandLineConfigParam.ROUTER_ASYNC_SEND.getXmlTag());
+        assertEquals("local_routing", commandLineConfigParam.LOCAL_ROUTING.getXmlTag());
+        assertEquals("resource_enforcement", commandLineConfigParam.RESOURCE_ENFORCEMENT.getXmlTag());
+        assertEquals("get_changes_long_poll", commandLineConfigParam.CHANGES_LONG_POLL.getXmlTag());
         assertEquals("docker_pruning_freq", commandLineConfigParam.DOCKER_PRUNING_FREQUENCY.getXmlTag());
         assertEquals("available_disk_threshold", commandLineConfigParam.AVAILABLE_DISK_THRESHOLD.getXmlTag());
     }
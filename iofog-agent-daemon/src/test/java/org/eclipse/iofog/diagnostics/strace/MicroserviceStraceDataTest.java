@@ -19,9 +19,7 @@ import org.junit.runner.RunWith;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
-import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
-
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.Assert.*;
 
 /**
@@ -36,7 +34,7 @@ public class MicroserviceStraceDataTest {
     private String microserviceUuid;
     private int pid;
     private boolean straceRun;
-    private List<String> resultBuffer;
+    private StraceRingBuffer resultBuffer;
 
     @Before
     public void setUp() throws Exception {
@@ -44,7 +42,7 @@ public class MicroserviceStraceDataTest {
         pid = 4001;
         straceRun = true;
         microserviceStraceData = new MicroserviceStraceData(microserviceUuid, pid, straceRun);
-        resultBuffer = new CopyOnWriteArrayList<>();
+        resultBuffer = new StraceRingBuffer();
 
     }
 
@@ -157,7 +155,7 @@ public class MicroserviceStraceDataTest {
      */
     @Test
     public void testGetAndSetResultBuffer() {
-        resultBuffer.add("data");
+        resultBuffer.write("data\n".getBytes(UTF_8), 0, 5);
         microserviceStraceData.setResultBuffer(resultBuffer);
         assertEquals(resultBuffer, microserviceStraceData.getResultBuffer());
         assertTrue(microserviceStraceData.equals(microserviceStraceData));
@@ -169,10 +167,10 @@ public class MicroserviceStraceDataTest {
      */
     @Test
     public void testGetResultBufferAsString() {
-        resultBuffer.add("data");
+        resultBuffer.write("data\n".getBytes(UTF_8), 0, 5);
         microserviceStraceData.setResultBuffer(resultBuffer);
         assertTrue(microserviceStraceData.getResultBufferAsString() instanceof String);
         assertEquals("data\n", microserviceStraceData.getResultBufferAsString());
-        assertTrue(microserviceStraceData.getResultBuffer() instanceof List);
+        assertTrue(microserviceStraceData.getResultBuffer() instanceof StraceRingBuffer);
     }
 }
\ No newline at end of file
@@ -0,0 +1,85 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.diagnostics.strace;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.*;
+
+public class StraceRingBufferTest {
+    private StraceRingBuffer ringBuffer;
+
+    @Before
+    public void setUp() {
+        ringBuffer = new StraceRingBuffer(16);
+    }
+
+    private void write(String text) {
+        byte[] bytes = text.getBytes(UTF_8);
+        ringBuffer.write(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Test peek does not remove bytes until they are acknowledged
+     */
+    @Test
+    public void testPeekAndAcknowledge() {
+        write("open\nread\n");
+        StraceRingBuffer.Chunk chunk = ringBuffer.peek(1024);
+        assertEquals("open\nread\n", chunk.toString());
+        assertEquals(10, ringBuffer.getPendingBytes());
+        assertEquals("open\nread\n", ringBuffer.peek(1024).toString());
+        ringBuffer.acknowledge(chunk.getEnd());
+        assertEquals(0, ringBuffer.getPendingBytes());
+        assertTrue(ringBuffer.peek(1024).isEmpty());
+    }
+
+    /**
+     * Test peek cuts chunk after last complete line
+     */
+    @Test
+    public void testPeekCutsAtLineBreak() {
+        write("open\nread\n");
+        StraceRingBuffer.Chunk chunk = ringBuffer.peek(8);
+        assertEquals("open\n", chunk.toString());
+        ringBuffer.acknowledge(chunk.getEnd());
+        assertEquals("read\n", ringBuffer.peek(8).toString());
+    }
+
+    /**
+     * Test oldest bytes are dropped when buffer is full and data wraps around
+     */
+    @Test
+    public void testWriteWhenBufferIsFull() {
+        write("0123456789");
+        write("abcdefghij");
+        assertEquals(16, ringBuffer.getPendingBytes());
+        assertEquals(4, ringBuffer.getDroppedBytes());
+        assertEquals("456789abcdefghij", ringBuffer.toString());
+    }
+
+    /**
+     * Test acknowledge of chunk partly dropped meanwhile
+     */
+    @Test
+    public void testAcknowledgeAfterDrop() {
+        write("0123456789");
+        StraceRingBuffer.Chunk chunk = ringBuffer.peek(1024);
+        write("abcdefghijklmnopqrst");
+        ringBuffer.acknowledge(chunk.getEnd());
+        assertEquals(16, ringBuffer.getPendingBytes());
+        assertEquals("efghijklmnopqrst", ringBuffer.toString());
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.field_agent;
+
+import org.eclipse.iofog.utils.logging.LoggingService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({ChangeSetProcessor.class, LoggingService.class})
+public class ChangeSetProcessorTest {
+    private ChangeSetProcessor changeSetProcessor;
+
+    @Before
+    public void setUp() {
+        PowerMockito.mockStatic(LoggingService.class);
+        changeSetProcessor = new ChangeSetProcessor();
+    }
+
+    @After
+    public void tearDown() {
+        changeSetProcessor.shutdown();
+    }
+
+    private JsonObject changes(String lastUpdated, String... flags) {
+        javax.json.JsonObjectBuilder builder = Json.createObjectBuilder().add("lastUpdated", lastUpdated);
+        for (String flag : flags) {
+            builder.add(flag, true);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Test kinds of changes run concurrently
+     */
+    @Test(timeout = 10000L)
+    public void testKindsRunConcurrently() {
+        CountDownLatch latch = new CountDownLatch(1);
+        changeSetProcessor.register("slow", new String[] {"slow"}, 5, 0, false, false,
+                changes -> assertTrue(latch.await(5, TimeUnit.SECONDS)));
+        changeSetProcessor.register("fast", new String[] {"fast"}, 5, 0, false, false,
+                changes -> latch.countDown());
+        assertTrue(changeSetProcessor.process(changes("1", "slow", "fast"), false));
+    }
+
+    /**
+     * Test timed out kind is not acknowledged while other kinds are not run again
+     */
+    @Test(timeout = 10000L)
+    public void testTimeoutIsPerKind() {
+        AtomicInteger fastRuns = new AtomicInteger();
+        AtomicInteger slowRuns = new AtomicInteger();
+        changeSetProcessor.register("slow", new String[] {"slow"}, 1, 0, false, false,
+                changes -> {
+                    if (slowRuns.incrementAndGet() == 1) {
+                        Thread.sleep(5000);
+                    }
+                });
+        changeSetProcessor.register("fast", new String[] {"fast"}, 5, 0, false, false,
+                changes -> fastRuns.incrementAndGet());
+
+        assertFalse(changeSetProcessor.process(changes("1", "slow", "fast"), false));
+        assertTrue(changeSetProcessor.process(changes("1", "slow", "fast"), false));
+        assertEquals(1, fastRuns.get());
+        assertEquals(2, slowRuns.get());
+
+        assertTrue(changeSetProcessor.process(changes("2", "fast"), false));
+        assertEquals(2, fastRuns.get());
+    }
+
+    /**
+     * Test failed kind is retried
+     */
+    @Test(timeout = 10000L)
+    public void testRetry() {
+        AtomicInteger runs = new AtomicInteger();
+        changeSetProcessor.register("config", new String[] {"config"}, 5, 1, false, false,
+                changes -> {
+                    if (runs.incrementAndGet() == 1) {
+                        throw new Exception("failed");
+                    }
+                });
+        assertTrue(changeSetProcessor.process(changes("1", "config"), false));
+        assertEquals(2, runs.get());
+    }
+
+    /**
+     * Test exclusive kind runs alone and only initialization kinds run on first change set
+     */
+    @Test(timeout = 10000L)
+    public void testExclusiveAndInitialization() {
+        AtomicInteger deleteRuns = new AtomicInteger();
+        AtomicInteger registriesRuns = new AtomicInteger();
+        changeSetProcessor.register("deleteNode", new String[] {"deleteNode"}, 5, 0, false, true,
+                changes -> deleteRuns.incrementAndGet());
+        changeSetProcessor.register("registries", new String[] {"registries"}, 5, 0, true, false,
+                changes -> registriesRuns.incrementAndGet());
+
+        assertTrue(changeSetProcessor.process(changes("1", "deleteNode"), true));
+        assertEquals(0, deleteRuns.get());
+        assertEquals(1, registriesRuns.get());
+
+        assertTrue(changeSetProcessor.process(changes("2", "deleteNode", "registries"), false));
+        assertEquals(1, deleteRuns.get());
+        assertEquals(1, registriesRuns.get());
+    }
+
+    /**
+     * Test dependent kind waits for the kind it depends on
+     */
+    @Test(timeout = 10000L)
+    public void testDependencyRunsFirst() {
+        AtomicBoolean registriesLoaded = new AtomicBoolean();
+        changeSetProcessor.register("registries", new String[] {"registries"}, 5, 0, true, false,
+                changes -> {
+                    Thread.sleep(500);
+                    registriesLoaded.set(true);
+                });
+        changeSetProcessor.register("microservices", new String[] {"microserviceList"}, 5, 0, true, false,
+                changes -> assertTrue(registriesLoaded.get()));
+        changeSetProcessor.registerDependency("microservices", "registries");
+        assertTrue(changeSetProcessor.process(changes("1"), true));
+    }
+
+    /**
+     * Test timeout applies to each attempt, so retry gets its own time
+     */
+    @Test(timeout = 10000L)
+    public void testTimeoutIsPerAttempt() {
+        AtomicInteger runs = new AtomicInteger();
+        changeSetProcessor.register("config", new String[] {"config"}, 1, 1, false, false,
+                changes -> {
+                    if (runs.incrementAndGet() == 1) {
+                        Thread.sleep(5000);
+                    } else {
+                        Thread.sleep(700);
+                    }
+                });
+        assertTrue(changeSetProcessor.process(changes("1", "config"), false));
+        assertEquals(2, runs.get());
+    }
+
+    /**
+     * Test next attempt is not started until timed out attempt which ignores interrupt is finished
+     */
+    @Test(timeout = 10000L)
+    public void testTimedOutAttemptIsFinishedBeforeRetry() {
+        AtomicInteger runs = new AtomicInteger();
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        changeSetProcessor.register("config", new String[] {"config"}, 1, 1, false, false,
+                changes -> {
+                    maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+                    try {
+                        if (runs.incrementAndGet() == 1) {
+                            long end = System.currentTimeMillis() + 2000;
+                            while (System.currentTimeMillis() < end) {
+                                try {
+                                    Thread.sleep(end - System.currentTimeMillis());
+                                } catch (InterruptedException e) {
+                                    // blocking I/O ignores interrupt
+                                }
+                            }
+                        }
+                    } finally {
+                        active.decrementAndGet();
+                    }
+                });
+        assertTrue(changeSetProcessor.process(changes("1", "config"), false));
+        assertEquals(2, runs.get());
+        assertEquals(1, maxActive.get());
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.field_agent;
+
+import org.eclipse.iofog.utils.configuration.Configuration;
+import org.eclipse.iofog.utils.logging.LoggingService;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({ChangesSubscription.class, Configuration.class, LoggingService.class})
+public class ChangesSubscriptionTest {
+    private ChangesSubscription changesSubscription;
+
+    @Before
+    public void setUp() {
+        PowerMockito.mockStatic(Configuration.class);
+        PowerMockito.mockStatic(LoggingService.class);
+        PowerMockito.when(Configuration.getChangeFrequency()).thenReturn(20);
+        PowerMockito.when(Configuration.getChangesLongPoll()).thenReturn(30);
+        changesSubscription = new ChangesSubscription();
+    }
+
+    /**
+     * Test fixed interval polling is used when long-poll is disabled
+     */
+    @Test
+    public void testLongPollDisabled() {
+        PowerMockito.when(Configuration.getChangesLongPoll()).thenReturn(0);
+        assertEquals(0, changesSubscription.getHoldTime(0));
+        assertEquals(20000, changesSubscription.getDelay(0));
+    }
+
+    /**
+     * Test held requests are sent right after each other
+     */
+    @Test
+    public void testHeldResponses() {
+        changesSubscription.onResponse(30, 30000, false, true, 30000);
+        changesSubscription.onResponse(30, 500, true, true, 30500);
+        assertEquals(30, changesSubscription.getHoldTime(30500));
+        assertEquals(0, changesSubscription.getDelay(30500));
+    }
+
+    /**
+     * Test next request waits if changes could not be applied
+     */
+    @Test
+    public void testChangesNotReset() {
+        changesSubscription.onResponse(30, 500, true, false, 500);
+        assertEquals(20000, changesSubscription.getDelay(500));
+    }
+
+    /**
+     * Test fallback to fixed interval polling when controller does not hold requests
+     * and long-poll retry delay grows
+     */
+    @Test
+    public void testFallBackWhenResponsesAreNotHeld() {
+        for (int i = 0; i < ChangesSubscription.MAX_UNHELD_RESPONSES; i++) {
+            assertEquals(30, changesSubscription.getHoldTime(0));
+            changesSubscription.onResponse(30, 100, false, true, 0);
+        }
+        assertEquals(0, changesSubscription.getHoldTime(0));
+        assertEquals(20000, changesSubscription.getDelay(0));
+        assertEquals(30, changesSubscription.getHoldTime(60000));
+
+        changesSubscription.onFailure(30, true, 60000);
+        assertEquals(0, changesSubscription.getHoldTime(60000 + 119000));
+        assertEquals(30, changesSubscription.getHoldTime(60000 + 120000));
+    }
+
+    /**
+     * Test failed request is not retried right away
+     */
+    @Test
+    public void testFailure() {
+        changesSubscription.onFailure(30, false, 0);
+        assertEquals(30, changesSubscription.getHoldTime(0));
+        assertEquals(20000, changesSubscription.getDelay(0));
+    }
+}
@@ -20,7 +20,9 @@ import org.eclipse.iofog.field_agent.enums.RequestType;
 import org.eclipse.iofog.local_api.LocalApi;
 import org.eclipse.iofog.message_bus.MessageBus;
 import org.eclipse.iofog.message_bus.MessageBusStatus;
+import org.eclipse.iofog.microservice.Microservice;
 import org.eclipse.iofog.microservice.MicroserviceManager;
+import org.eclipse.iofog.microservice.RoutePredicate;
 import org.eclipse.iofog.network.IOFogNetworkInterfaceManager;
 import org.eclipse.iofog.process_manager.ProcessManager;
 import org.eclipse.iofog.process_manager.ProcessManagerStatus;
@@ -36,6 +38,7 @@ import org.eclipse.iofog.utils.Constants;
 import org.eclipse.iofog.utils.Orchestrator;
 import org.eclipse.iofog.utils.configuration.Configuration;
 import org.eclipse.iofog.utils.logging.LoggingService;
+import org.eclipse.iofog.utils.scheduler.AgentScheduler;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -49,6 +52,7 @@ import javax.json.Json;
 import javax.json.JsonArray;
 import javax.json.JsonObject;
 import javax.json.JsonObjectBuilder;
+import javax.json.JsonValue;
 import javax.net.ssl.SSLHandshakeException;
 import java.io.BufferedReader;
 import java.io.InputStream;
@@ -60,7 +64,9 @@ import java.net.URL;
 import java.nio.charset.Charset;
 import java.security.cert.CertificateException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -84,7 +90,8 @@ import static org.powermock.api.mockito.PowerMockito.*;
 @PrepareForTest({FieldAgent.class, LoggingService.class, FieldAgentStatus.class, MicroserviceManager.class,
         Orchestrator.class, URL.class, HttpURLConnection.class, Configuration.class, StatusReporter.class,
         SshProxyManager.class, ProcessManager.class, MessageBus.class, LocalApi.class, Thread.class, BufferedReader.class,
-        InputStreamReader.class, ResourceManagerStatus.class, IOFogNetworkInterfaceManager.class, VersionHandler.class, CommandShellExecutor.class})
+        InputStreamReader.class, ResourceManagerStatus.class, IOFogNetworkInterfaceManager.class, VersionHandler.class, CommandShellExecutor.class,
+        AgentScheduler.class})
 public class FieldAgentTest {
     private FieldAgent fieldAgent;
     private String MODULE_NAME;
@@ -100,7 +107,7 @@ public class FieldAgentTest {
     private ProcessManager processManager;
     private MessageBus messageBus;
     private LocalApi localApi;
-    private Thread thread;
+    private AgentScheduler agentScheduler;
     private BufferedReader bufferedReader;
     private InputStreamReader inputStreamReader;
     private ResourceManagerStatus resourceManagerStatus;
@@ -121,6 +128,9 @@ public class FieldAgentTest {
         mockStatic(IOFogNetworkInterfaceManager.class);
         mockStatic(BufferedReader.class);
         mockStatic(InputStreamReader.class);
+        mockStatic(AgentScheduler.class);
+        agentScheduler = PowerMockito.mock(AgentScheduler.class);
+        when(AgentScheduler.getInstance()).thenReturn(agentScheduler);
 
         orchestrator = PowerMockito.mock(Orchestrator.class);
         sshProxyManager = PowerMockito.mock(SshProxyManager.class);
@@ -204,11 +214,7 @@ public class FieldAgentTest {
     }
 
     public void initiateMockStart() {
-        thread = PowerMockito.mock(Thread.class);
         try {
-            whenNew(Thread.class).withParameterTypes(Runnable.class,String.class).withArguments(Mockito.any(Runnable.class),
-                    Mockito.anyString()).thenReturn(thread);
-            PowerMockito.doNothing().when(thread).start();
             fieldAgent.start();
         } catch (Exception e) {
             fail("this should not happen");
@@ -242,33 +248,33 @@ public class FieldAgentTest {
     }
 
     /**
-     * Test postTracking with valid jsonObject
+     * Test postTrackingBatch sends compressed batch to controller
      */
     @Test ( timeout = 5000L )
-    public void testPostTrackingWithValidJsonObject() {
+    public void testPostTrackingBatch() {
         try {
             initiateMockStart();
-            fieldAgent.postTracking(jsonObject);
-            Mockito.verify(orchestrator).request(eq("tracking"), eq(RequestType.POST), eq(null), eq(jsonObject));
+            byte[] batch = new byte[]{1, 2, 3};
+            fieldAgent.postTrackingBatch(batch);
+            Mockito.verify(orchestrator).requestCompressed(eq("tracking"), eq(RequestType.POST), eq(batch));
         } catch (Exception e) {
             fail("This should not happen");
         }
     }
 
     /**
-     * Test postTracking with null jsonObject
+     * Test postTrackingBatch passes on error of controller, so batch is kept in spool
      */
     @Test ( timeout = 5000L )
-    public void postTrackingLogsErrorWhenRequestFails() {
+    public void testPostTrackingBatchThrowsWhenRequestFails() throws Exception {
+        initiateMockStart();
+        Exception exception = new Exception("controller is not reachable");
+        when(orchestrator.requestCompressed(any(), any(), any())).thenThrow(exception);
         try {
-            initiateMockStart();
-            when(orchestrator.request(any(), any(), any(), any())).thenThrow(PowerMockito.mock(Exception.class));
-            fieldAgent.postTracking(null);
-            Mockito.verify(orchestrator).request(eq("tracking"), eq(RequestType.POST), eq(null), eq(null));
-            PowerMockito.verifyStatic(LoggingService.class, Mockito.atLeastOnce());
-            LoggingService.logError(eq(MODULE_NAME), eq("Unable send tracking logs"), any());
+            fieldAgent.postTrackingBatch(new byte[]{1});
+            fail("This should not happen");
         } catch (Exception e) {
-            fail("this should never happen");
+            assertSame(exception, e);
         }
     }
 
@@ -1606,4 +1612,63 @@ public class FieldAgentTest {
 
     }
 
-}
\ No newline at end of file
+
+    /**
+     * Test loadMicroservices keeps unchanged microservice, but takes rebuild flag from controller again
+     */
+    @Test
+    public void testLoadMicroservicesSetsRebuildOfUnchangedMicroservice() {
+        try {
+            when(fieldAgentStatus.getControllerStatus()).thenReturn(Constants.ControllerStatus.OK);
+            JsonObject microserviceObject = Json.createObjectBuilder()
+                    .add("uuid", "uuid")
+                    .add("imageId", "imageId")
+                    .add("rebuild", true)
+                    .add("delete", false)
+                    .add("deleteWithCleanup", false)
+                    .build();
+            method = FieldAgent.class.getDeclaredMethod("checksum", String.class);
+            method.setAccessible(true);
+            Microservice previous = new Microservice("uuid", "imageId");
+            previous.setContentHash((String) method.invoke(fieldAgent, microserviceObject.toString()));
+            previous.setRebuild(false);
+            when(microserviceManager.getLatestMicroservices()).thenReturn(Collections.singletonList(previous));
+            when(orchestrator.request(eq("microservices"), any(), any(), any())).thenReturn(Json.createObjectBuilder()
+                    .add("microservices", Json.createArrayBuilder().add(microserviceObject))
+                    .build());
+            method = FieldAgent.class.getDeclaredMethod("loadMicroservices", boolean.class);
+            method.setAccessible(true);
+            List<Microservice> microservices = (List<Microservice>) method.invoke(fieldAgent, false);
+            assertEquals(1, microservices.size());
+            assertSame(previous, microservices.get(0));
+            assertTrue(previous.isRebuild());
+        } catch (Exception e) {
+            fail("This should not happen");
+        }
+    }
+
+    /**
+     * Test malformed route filter is skipped without failing other filters
+     */
+    @Test
+    public void testGetRoutePredicatesSkipsMalformedFilter() {
+        try {
+            JsonObject filters = Json.createObjectBuilder()
+                    .add("valid", Json.createObjectBuilder().add("tag", "alarm").add("minPriority", 3))
+                    .add("notObject", "alarm")
+                    .add("invalidPriority", Json.createObjectBuilder().add("minPriority", "high"))
+                    .build();
+            method = FieldAgent.class.getDeclaredMethod("getRoutePredicates", JsonValue.class);
+            method.setAccessible(true);
+            Map<String, RoutePredicate> predicates = (Map<String, RoutePredicate>) method.invoke(fieldAgent, filters);
+            assertEquals(1, predicates.size());
+            assertTrue(predicates.containsKey("valid"));
+            PowerMockito.verifyStatic(LoggingService.class);
+            LoggingService.logWarning(MODULE_NAME, "Route filter of receiver notObject is not an object, ignored");
+            PowerMockito.verifyStatic(LoggingService.class);
+            LoggingService.logWarning(MODULE_NAME, "Route filter of receiver invalidPriority has invalid minPriority, ignored");
+        } catch (Exception e) {
+            fail("This should not happen");
+        }
+    }
+}
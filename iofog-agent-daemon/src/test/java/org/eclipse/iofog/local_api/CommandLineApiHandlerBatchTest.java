@@ -0,0 +1,166 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.local_api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.HttpRequest;
+import org.eclipse.iofog.command_line.CommandLineParser;
+import org.eclipse.iofog.exception.AgentUserException;
+import org.eclipse.iofog.utils.logging.LoggingService;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static io.netty.handler.codec.http.HttpMethod.POST;
+import static io.netty.handler.codec.http.HttpResponseStatus.OK;
+import static io.netty.handler.codec.http.HttpVersion.HTTP_1_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.*;
+import static org.powermock.api.mockito.PowerMockito.*;
+
+/**
+ * Tests of batch command line requests, parsed from real json content
+ */
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({CommandLineApiHandler.class, HttpRequest.class, ByteBuf.class, LoggingService.class,
+        ApiHandlerHelpers.class, CommandLineParser.class})
+public class CommandLineApiHandlerBatchTest {
+    private HttpRequest httpRequest;
+    private ByteBuf byteBuf;
+    private DefaultFullHttpResponse defaultResponse;
+    private ObjectMapper objectMapper;
+
+    //global timeout rule
+    @Rule
+    public Timeout globalTimeout = Timeout.millis(100000l);
+
+    @Before
+    public void setUp() throws Exception {
+        httpRequest = PowerMockito.mock(HttpRequest.class);
+        byteBuf = PowerMockito.mock(ByteBuf.class);
+        objectMapper = new ObjectMapper();
+        defaultResponse = new DefaultFullHttpResponse(HTTP_1_1, OK, byteBuf);
+        PowerMockito.mockStatic(ApiHandlerHelpers.class);
+        PowerMockito.mockStatic(CommandLineParser.class);
+        PowerMockito.mockStatic(LoggingService.class);
+        PowerMockito.when(httpRequest.uri()).thenReturn(CommandLineApiHandler.BATCH_PATH);
+        PowerMockito.when(ApiHandlerHelpers.validateMethod(Mockito.eq(httpRequest), Mockito.eq(POST))).thenReturn(true);
+        PowerMockito.when(ApiHandlerHelpers.validateContentType(Mockito.eq(httpRequest), Mockito.eq("application/json")))
+                .thenReturn(null);
+        PowerMockito.when(ApiHandlerHelpers.validateAccessToken(Mockito.eq(httpRequest))).thenReturn(true);
+        PowerMockito.when(ApiHandlerHelpers.successResponse(Mockito.eq(byteBuf), Mockito.anyString())).thenReturn(defaultResponse);
+    }
+
+    private CommandLineApiHandler handler(String content) {
+        return new CommandLineApiHandler(httpRequest, byteBuf, content.getBytes(UTF_8));
+    }
+
+    /**
+     * Test batch request runs all commands and reports failed ones in their responses
+     */
+    @Test
+    public void testCallBatchSuccess() {
+        try {
+            PowerMockito.when(CommandLineParser.parse("status")).thenReturn("success");
+            PowerMockito.when(CommandLineParser.parse("info")).thenThrow(new AgentUserException("failed"));
+            PowerMockito.when(CommandLineParser.parse("version")).thenThrow(new IllegalStateException("unexpected"));
+            Map<String, String> successMap = new HashMap<>();
+            successMap.put("response", "success");
+            Map<String, String> userFailureMap = new HashMap<>();
+            userFailureMap.put("response", "failed");
+            userFailureMap.put("error", "Internal server error");
+            Map<String, String> runtimeFailureMap = new HashMap<>();
+            runtimeFailureMap.put("response", "unexpected");
+            runtimeFailureMap.put("error", "Internal server error");
+            List<Map<String, String>> responses = Arrays.asList(successMap, userFailureMap, runtimeFailureMap);
+            String jsonResult = objectMapper.writeValueAsString(Collections.singletonMap("responses", responses));
+            assertEquals(defaultResponse, handler("{\"commands\":[\"status\",\"info\",\"version\"]}").call());
+            verifyStatic(ApiHandlerHelpers.class);
+            ApiHandlerHelpers.successResponse(Mockito.eq(byteBuf), Mockito.eq(jsonResult));
+        } catch (Exception e) {
+            fail("This should not happen");
+        }
+    }
+
+    /**
+     * Test command which is not a string fails alone and the rest of batch still runs
+     */
+    @Test
+    public void testCallBatchWhenCommandIsNotString() {
+        try {
+            PowerMockito.when(CommandLineParser.parse("status")).thenReturn("success");
+            ArgumentCaptor<String> jsonResult = ArgumentCaptor.forClass(String.class);
+            assertEquals(defaultResponse, handler("{\"commands\":[1,\"status\"]}").call());
+            verifyStatic(ApiHandlerHelpers.class);
+            ApiHandlerHelpers.successResponse(Mockito.eq(byteBuf), jsonResult.capture());
+            JsonNode responses = objectMapper.readTree(jsonResult.getValue()).get("responses");
+            assertEquals(2, responses.size());
+            assertEquals("Internal server error", responses.get(0).get("error").asText());
+            assertEquals("success", responses.get(1).get("response").asText());
+            assertNull(responses.get(1).get("error"));
+        } catch (Exception e) {
+            fail("This should not happen");
+        }
+    }
+
+    /**
+     * Test batch request with too many commands is rejected
+     */
+    @Test
+    public void testCallBatchWhenBatchIsTooLarge() {
+        try {
+            StringBuilder content = new StringBuilder("{\"commands\":[");
+            for (int i = 0; i <= CommandLineApiHandler.MAX_BATCH_SIZE; i++) {
+                content.append(i == 0 ? "" : ",").append("\"status\"");
+            }
+            content.append("]}");
+            handler(content.toString()).call();
+            verifyStatic(ApiHandlerHelpers.class);
+            ApiHandlerHelpers.badRequestResponse(Mockito.eq(byteBuf), Mockito.anyString());
+            verifyStatic(CommandLineParser.class, Mockito.never());
+            CommandLineParser.parse(Mockito.anyString());
+        } catch (Exception e) {
+            fail("This should not happen");
+        }
+    }
+
+    /**
+     * Test batch request without commands array is rejected
+     */
+    @Test
+    public void testCallBatchWhenCommandsAreMissing() {
+        try {
+            handler("{}").call();
+            verifyStatic(ApiHandlerHelpers.class);
+            ApiHandlerHelpers.badRequestResponse(Mockito.eq(byteBuf), Mockito.anyString());
+        } catch (Exception e) {
+            fail("This should not happen");
+        }
+    }
+}
@@ -20,6 +20,7 @@ import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.http.HttpHeaders;
 import io.netty.handler.codec.http.HttpRequest;
 import io.netty.handler.codec.http.websocketx.*;
+import io.netty.util.concurrent.EventExecutor;
 import org.eclipse.iofog.status_reporter.StatusReporter;
 import org.eclipse.iofog.utils.logging.LoggingService;
 import org.junit.*;
@@ -30,8 +31,10 @@ import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import static io.netty.handler.codec.http.HttpHeaders.Names.HOST;
 import static org.junit.Assert.*;
@@ -63,6 +66,7 @@ public class ControlWebsocketHandlerTest {
     private BinaryWebSocketFrame binaryWebSocketFrame;
     private CloseWebSocketFrame closeWebSocketFrame;
     private Map<String, ChannelHandlerContext> contextMap;
+    private EventExecutor eventExecutor;
 
     //global timeout rule
     @Rule
@@ -90,6 +94,7 @@ public class ControlWebsocketHandlerTest {
         PowerMockito.mockStatic(WebsocketUtil.class);
         PowerMockito.mockStatic(WebSocketServerHandshakerFactory.class);
         channelHandlerContext = PowerMockito.mock(ChannelHandlerContext.class);
+        eventExecutor = PowerMockito.mock(EventExecutor.class);
         controlWebsocketHandler = PowerMockito.spy(new ControlWebsocketHandler());
         PowerMockito.when(httpRequest.uri()).thenReturn("http://localhost:54321/token/qwld");
         PowerMockito.when(channelHandlerContext.channel()).thenReturn(channel);
@@ -104,6 +109,7 @@ public class ControlWebsocketHandlerTest {
         PowerMockito.when(WebsocketUtil.hasContextInMap(Mockito.any(), Mockito.any())).thenReturn(true);
         PowerMockito.when(channelHandlerContext.alloc()).thenReturn(byteBufAllocator);
         PowerMockito.when(byteBufAllocator.buffer()).thenReturn(byteBuf);
+        PowerMockito.when(channelHandlerContext.executor()).thenReturn(eventExecutor);
     }
 
     @After
@@ -111,6 +117,8 @@ public class ControlWebsocketHandlerTest {
         MODULE_NAME = null;
         Mockito.reset(controlWebsocketHandler, httpRequest, byteBuf);
         WebSocketMap.controlWebsocketMap.remove(channelHandlerContext);
+        WebSocketMap.controlWebsocketMap.remove("id");
+        WebSocketMap.unackControlSignalsMap.remove(channelHandlerContext);
     }
 
     /**
@@ -288,60 +296,65 @@ public class ControlWebsocketHandlerTest {
     }
 
     /**
-     * Test initiateControlSignal when map is null
+     * Test initiateControlSignal when changed container has no open control socket
      */
     @Test
-    public void testInitiateControlSignalWhenOldAndNewConfigMapIsNull() {
-        controlWebsocketHandler.initiateControlSignal(null, null);
-        PowerMockito.verifyStatic(LoggingService.class);
-        LoggingService.logInfo(MODULE_NAME, "Start Helper method to compare the configuration map control signals");
-        PowerMockito.verifyStatic(LoggingService.class);
-        LoggingService.logInfo(MODULE_NAME, "Finished Helper method to compare the configuration map control signals");
+    public void testInitiateControlSignalWhenSocketIsNotOpen() {
+        WebSocketMap.addWebsocket('C', "log-directory", channelHandlerContext);
+        controlWebsocketHandler.initiateControlSignal(Collections.singleton("log-level"));
+        Mockito.verify(channelHandlerContext, Mockito.never()).alloc();
+        assertNull(WebSocketMap.unackControlSignalsMap.get(channelHandlerContext));
     }
 
     /**
-     * Test initiateControlSignal when controlWebsocketMap has different value than changedConfigElmtsList
+     * Test initiateControlSignal sends signal to changed container and schedules retransmit on its event loop
      */
     @Test
-    public void testInitiateControlSignalWhenControlWebsocketMapHasDifferentValue() {
-        Map<String, String> newConfigMap = new HashMap<>();
-        newConfigMap.put("log-level", "INFO");
-        Map<String, String> oldConfigMap = new HashMap<>();
-        oldConfigMap.put("log-level", "SEVERE");
-        WebSocketMap.addWebsocket('C', "log-directory", channelHandlerContext);
-        controlWebsocketHandler.initiateControlSignal(oldConfigMap, newConfigMap);
-        PowerMockito.verifyStatic(LoggingService.class);
-        LoggingService.logInfo(MODULE_NAME, "Start Helper method to compare the configuration map control signals");
-        PowerMockito.verifyStatic(LoggingService.class);
-        LoggingService.logInfo(MODULE_NAME, "Finished Helper method to compare the configuration map control signals");
+    public void testInitiateControlSignalSchedulesRetransmit() {
+        WebSocketMap.addWebsocket('C', "id", channelHandlerContext);
+        controlWebsocketHandler.initiateControlSignal(Collections.singleton("id"));
+        Mockito.verify(byteBuf).writeByte(Mockito.eq(0xC));
+        Mockito.verify(eventExecutor).schedule(Mockito.any(Runnable.class),
+                Mockito.eq((long) ControlWebsocketHandler.RETRANSMIT_TIMEOUT), Mockito.eq(TimeUnit.SECONDS));
+        assertEquals(1, WebSocketMap.unackControlSignalsMap.get(channelHandlerContext).getSendTryCount());
     }
 
     /**
-     * Test initiateControlSignal when controlWebsocketMap has different value than changedConfigElmtsList
+     * Test retransmitControlSignal sends signal again when it is not acknowledged
      */
     @Test
-    public void testInitiateControlSignalWhenOldAndNewConfigMapHasDifferentValue() {
-        Map<String, String> newConfigMap = new HashMap<>();
-        newConfigMap.put("log-level", "INFO");
-        Map<String, String> oldConfigMap = new HashMap<>();
-        oldConfigMap.put("log-directory", "SEVERE");
-        WebSocketMap.addWebsocket('C', "log-directory", channelHandlerContext);
-        controlWebsocketHandler.initiateControlSignal(oldConfigMap, newConfigMap);
-        PowerMockito.verifyStatic(LoggingService.class);
-        LoggingService.logInfo(MODULE_NAME, "Start Helper method to compare the configuration map control signals");
-        PowerMockito.verifyStatic(LoggingService.class);
-        LoggingService.logInfo(MODULE_NAME, "Finished Helper method to compare the configuration map control signals");
+    public void testRetransmitControlSignalWhenNotAcknowledged() {
+        ControlSignalSentInfo sentInfo = new ControlSignalSentInfo(1, System.currentTimeMillis());
+        WebSocketMap.unackControlSignalsMap.put(channelHandlerContext, sentInfo);
+        PowerMockito.when(channel.isActive()).thenReturn(true);
+        ControlWebsocketHandler.retransmitControlSignal(channelHandlerContext, sentInfo);
+        Mockito.verify(byteBuf).writeByte(Mockito.eq(0xC));
+        assertEquals(2, WebSocketMap.unackControlSignalsMap.get(channelHandlerContext).getSendTryCount());
     }
 
+    /**
+     * Test retransmitControlSignal does nothing when signal has been acknowledged
+     */
     @Test
-    public void testInitiateControlSignalWhenControlWebsocketMapHasSameValue() {
-        Map<String, String> newConfigMap = new HashMap<>();
-        newConfigMap.put("log-level", "INFO");
-        Map<String, String> oldConfigMap = new HashMap<>();
-        newConfigMap.put("log-level", "SEVERE");
-        WebSocketMap.addWebsocket('C', "log-level", channelHandlerContext);
-        controlWebsocketHandler.initiateControlSignal(oldConfigMap, newConfigMap);
-        Mockito.verify(channelHandlerContext).alloc();
-        Mockito.verify(byteBuf).writeByte(Mockito.eq(0xC));
+    public void testRetransmitControlSignalWhenAcknowledged() {
+        ControlSignalSentInfo sentInfo = new ControlSignalSentInfo(1, System.currentTimeMillis());
+        ControlWebsocketHandler.retransmitControlSignal(channelHandlerContext, sentInfo);
+        Mockito.verify(channelHandlerContext, Mockito.never()).alloc();
+        assertFalse(WebSocketMap.unackControlSignalsMap.containsKey(channelHandlerContext));
+    }
+
+    /**
+     * Test retransmitControlSignal drops socket when tries are exhausted
+     */
+    @Test
+    public void testRetransmitControlSignalWhenTriesAreExhausted() {
+        ControlSignalSentInfo sentInfo = new ControlSignalSentInfo(ControlWebsocketHandler.MAX_SEND_TRIES, System.currentTimeMillis());
+        WebSocketMap.unackControlSignalsMap.put(channelHandlerContext, sentInfo);
+        PowerMockito.when(channel.isActive()).thenReturn(true);
+        ControlWebsocketHandler.retransmitControlSignal(channelHandlerContext, sentInfo);
+        Mockito.verify(channelHandlerContext, Mockito.never()).alloc();
+        assertFalse(WebSocketMap.unackControlSignalsMap.containsKey(channelHandlerContext));
+        PowerMockito.verifyStatic(WebsocketUtil.class);
+        WebsocketUtil.removeWebsocketContextFromMap(Mockito.eq(channelHandlerContext), Mockito.eq(WebSocketMap.controlWebsocketMap));
     }
-}
\ No newline at end of file
+}
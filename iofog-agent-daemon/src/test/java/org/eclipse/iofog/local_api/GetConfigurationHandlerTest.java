@@ -30,6 +30,7 @@ import org.powermock.modules.junit4.PowerMockRunner;
 import javax.json.*;
 
 import java.io.StringReader;
+import java.util.Collections;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
@@ -37,6 +38,7 @@ import static io.netty.handler.codec.http.HttpMethod.DELETE;
 import static io.netty.handler.codec.http.HttpMethod.POST;
 import static io.netty.handler.codec.http.HttpResponseStatus.*;
 import static io.netty.handler.codec.http.HttpVersion.HTTP_1_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.Assert.*;
 import static org.powermock.api.mockito.PowerMockito.verifyStatic;
 
@@ -198,13 +200,14 @@ public class GetConfigurationHandlerTest {
             PowerMockito.when(jsonObject.containsKey("id")).thenReturn(true);
             PowerMockito.when(jsonObject.isNull("id")).thenReturn(false);
             PowerMockito.when(jsonObject.getString("id")).thenReturn("id");
-            ConfigurationMap.containerConfigMap.put("id", "value");
-            PowerMockito.when(ApiHandlerHelpers.successResponse(Mockito.any(), Mockito.any())).thenReturn(defaultResponse);
+            PowerMockito.when(Json.createObjectBuilder()).thenReturn(jsonObjectBuilder);
+            ConfigurationMap.update(Collections.singletonMap("id", "value"));
+            PowerMockito.when(ApiHandlerHelpers.serializedSuccessResponse(Mockito.any(), Mockito.any())).thenReturn(defaultResponse);
             assertEquals(defaultResponse, getConfigurationHandler.call());
             PowerMockito.verifyPrivate(getConfigurationHandler, Mockito.atLeastOnce()).invoke("validateRequest", Mockito.eq(jsonObject));
             PowerMockito.verifyStatic(ApiHandlerHelpers.class);
-            ApiHandlerHelpers.successResponse(Mockito.eq(byteBuf), Mockito.eq(result));
-            ConfigurationMap.containerConfigMap.remove("id");
+            ApiHandlerHelpers.serializedSuccessResponse(Mockito.eq(byteBuf), Mockito.eq(result.getBytes(UTF_8)));
+            ConfigurationMap.update(Collections.emptyMap());
         } catch (Exception e) {
             fail("This should not happen");
         }
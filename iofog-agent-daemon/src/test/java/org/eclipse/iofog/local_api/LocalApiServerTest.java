@@ -36,7 +36,7 @@ import static org.junit.Assert.*;
  */
 @RunWith(PowerMockRunner.class)
 @PrepareForTest({LocalApiServer.class, NioEventLoopGroup.class, SelfSignedCertificate.class, ServerBootstrap.class, LocalApiServerPipelineFactory.class, LoggingService.class,
-        ChannelFuture.class, ControlWebsocketWorker.class, MessageWebsocketWorker.class})
+        ChannelFuture.class, MessageWebsocketWorker.class})
 @Ignore
 public class LocalApiServerTest {
     private LocalApiServer localApiServer;
@@ -46,7 +46,6 @@ public class LocalApiServerTest {
     private LocalApiServerPipelineFactory localApiServerPipelineFactory;
     private ChannelFuture channelFuture;
     private Channel channel;
-    private ControlWebsocketWorker controlWebsocketWorker;
     private MessageWebsocketWorker messageWebsocketWorker;
     private String MODULE_NAME;
 
@@ -57,7 +56,6 @@ public class LocalApiServerTest {
         PowerMockito.mockStatic(LoggingService.class);
         nioEventLoopGroup = PowerMockito.mock(NioEventLoopGroup.class);
         channel = PowerMockito.mock(Channel.class);
-        controlWebsocketWorker = PowerMockito.mock(ControlWebsocketWorker.class);
         messageWebsocketWorker = PowerMockito.mock(MessageWebsocketWorker.class);
         channelFuture = PowerMockito.mock(ChannelFuture.class);
         selfSignedCertificate = PowerMockito.mock(SelfSignedCertificate.class);
@@ -76,8 +74,6 @@ public class LocalApiServerTest {
                 .thenReturn(serverBootstrap);
         PowerMockito.whenNew(MessageWebsocketWorker.class).withNoArguments()
                 .thenReturn(messageWebsocketWorker);
-        PowerMockito.whenNew(ControlWebsocketWorker.class).withNoArguments()
-                .thenReturn(controlWebsocketWorker);
         PowerMockito.when(serverBootstrap.group(Mockito.any(NioEventLoopGroup.class), Mockito.any(NioEventLoopGroup.class))).thenReturn(serverBootstrap);
         PowerMockito.when(serverBootstrap.channel(Mockito.any())).thenReturn(serverBootstrap);
         PowerMockito.when(serverBootstrap.childHandler(Mockito.any())).thenReturn(serverBootstrap);
@@ -94,7 +90,6 @@ public class LocalApiServerTest {
         MODULE_NAME = null;
         nioEventLoopGroup = null;
         channel = null;
-        controlWebsocketWorker = null;
         messageWebsocketWorker = null;
         channelFuture = null;
         selfSignedCertificate = null;
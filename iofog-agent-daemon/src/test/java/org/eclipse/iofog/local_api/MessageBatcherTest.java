@@ -0,0 +1,129 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.local_api;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
+import org.eclipse.iofog.message_bus.Message;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class MessageBatcherTest {
+    private EmbeddedChannel channel;
+    private ChannelHandlerContext ctx;
+
+    @Before
+    public void setUp() {
+        channel = new EmbeddedChannel(new ChannelInboundHandlerAdapter());
+        ctx = channel.pipeline().firstContext();
+    }
+
+    @After
+    public void tearDown() {
+        WebSocketMap.unackMessageSendingMap.remove(ctx);
+        channel.finishAndReleaseAll();
+    }
+
+    /**
+     * Test batching is enabled only by query parameters of websocket url
+     */
+    @Test
+    public void testFromUri() {
+        assertNull(MessageBatcher.fromUri(ctx, "/v2/message/socket/id/abc"));
+        MessageBatcher batcher = MessageBatcher.fromUri(ctx, "/v2/message/socket/id/abc?batchMaxDelay=5");
+        assertNotNull(batcher);
+        assertEquals(5, batcher.getMaxDelay());
+        assertEquals(64 * 1024, batcher.getMaxBytes());
+        batcher = MessageBatcher.fromUri(ctx, "/v2/message/socket/id/abc?batchMaxBytes=100&batchMaxDelay=x");
+        assertNotNull(batcher);
+        assertEquals(100, batcher.getMaxBytes());
+    }
+
+    /**
+     * Test batch is written when it reaches max bytes
+     */
+    @Test
+    public void testBatchIsWrittenWhenFull() {
+        Message message = message("data");
+        int messageLength = message.getBytes().length;
+        MessageBatcher batcher = new MessageBatcher(ctx, 1000, 2 * (Integer.BYTES + messageLength));
+        batcher.add(message);
+        assertNull(channel.readOutbound());
+        batcher.add(message("data"));
+
+        BinaryWebSocketFrame frame = channel.readOutbound();
+        ByteBuf content = frame.content();
+        assertEquals(MessageBatcher.OPCODE_MSG_BATCH, content.readByte());
+        assertEquals(2, content.readInt());
+        assertEquals(messageLength, content.readInt());
+        byte[] bytes = new byte[messageLength];
+        content.readBytes(bytes);
+        assertArrayEquals("data".getBytes(), new Message(bytes).getContentData());
+        frame.release();
+        assertEquals(2, WebSocketMap.unackMessageSendingMap.get(ctx).getBatch().size());
+    }
+
+    /**
+     * Test batch is written after max delay
+     */
+    @Test
+    public void testBatchIsWrittenAfterMaxDelay() throws InterruptedException {
+        MessageBatcher batcher = new MessageBatcher(ctx, 1, 1024 * 1024);
+        batcher.add(message("data"));
+        assertNull(channel.readOutbound());
+        Thread.sleep(10);
+        channel.runScheduledPendingTasks();
+        BinaryWebSocketFrame frame = channel.readOutbound();
+        assertNotNull(frame);
+        frame.release();
+    }
+
+    /**
+     * Test max delay of batch written when full does not flush next batch early
+     */
+    @Test
+    public void testFullBatchDoesNotShortenDelayOfNextBatch() throws InterruptedException {
+        Message message = message("data");
+        MessageBatcher batcher = new MessageBatcher(ctx, 500, 2 * (Integer.BYTES + message.getBytes().length));
+        batcher.add(message);
+        batcher.add(message("data"));
+        BinaryWebSocketFrame frame = channel.readOutbound();
+        assertNotNull(frame);
+        frame.release();
+
+        Thread.sleep(300);
+        batcher.add(message("data"));
+        Thread.sleep(300);
+        channel.runScheduledPendingTasks();
+        assertNull(channel.readOutbound());
+
+        Thread.sleep(300);
+        channel.runScheduledPendingTasks();
+        frame = channel.readOutbound();
+        assertNotNull(frame);
+        frame.release();
+    }
+
+    private static Message message(String data) {
+        Message message = new Message();
+        message.setPublisher("publisher");
+        message.setContentData(data.getBytes());
+        return message;
+    }
+}
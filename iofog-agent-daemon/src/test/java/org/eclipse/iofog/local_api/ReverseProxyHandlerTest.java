@@ -0,0 +1,289 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.local_api;
+
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.DefaultHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpServerCodec;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.util.ReferenceCountUtil;
+import org.eclipse.iofog.utils.logging.LoggingService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.netty.handler.codec.http.HttpVersion.HTTP_1_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.*;
+import static org.powermock.api.mockito.PowerMockito.mockStatic;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({LoggingService.class})
+public class ReverseProxyHandlerTest {
+    private static final String HOST = "127.0.0.1";
+    private HttpReverseProxy proxy;
+    private EventLoopGroup group;
+    private HttpReverseProxy backendProxy;
+    private AtomicInteger backendConnections;
+
+    @Before
+    public void setUp() {
+        mockStatic(LoggingService.class);
+        proxy = new HttpReverseProxy("test service", "/v2/test", "localhost", 10500);
+        group = new NioEventLoopGroup(1);
+        backendConnections = new AtomicInteger();
+    }
+
+    @After
+    public void tearDown() {
+        if (backendProxy != null) {
+            backendProxy.close();
+        }
+        group.shutdownGracefully(0, 1, TimeUnit.SECONDS).syncUninterruptibly();
+    }
+
+    /**
+     * Test path prefix of service is matched and stripped
+     */
+    @Test
+    public void testBackendUri() {
+        assertTrue(proxy.matches("/v2/test/devices?id=1"));
+        assertFalse(proxy.matches("/v2/config"));
+        assertEquals("/devices?id=1", proxy.getBackendUri("/v2/test/devices?id=1"));
+        assertEquals("/", proxy.getBackendUri("/v2/test"));
+        assertEquals("localhost:10500", proxy.getAuthority());
+    }
+
+    /**
+     * Test requests which do not match any service are passed on
+     */
+    @Test
+    public void testOtherRequestsArePassedOn() {
+        EmbeddedChannel channel = new EmbeddedChannel(new ReverseProxyHandler(Collections.singletonList(proxy)));
+        HttpRequest request = new DefaultHttpRequest(HTTP_1_1, HttpMethod.GET, "/v2/status");
+        assertTrue(channel.writeInbound(request, LastHttpContent.EMPTY_LAST_CONTENT));
+        assertSame(request, channel.readInbound());
+        assertSame(LastHttpContent.EMPTY_LAST_CONTENT, channel.readInbound());
+        assertFalse(channel.finish());
+    }
+
+    /**
+     * Test request is proxied to service with path prefix stripped and host of service
+     */
+    @Test(timeout = 10000)
+    public void testProxyRequest() throws Exception {
+        int frontendPort = startFrontend(startBackend(false));
+        try (Socket client = new Socket(HOST, frontendPort)) {
+            send(client, "GET /v2/test/devices?id=1 HTTP/1.1\r\nHost: agent\r\n\r\n");
+            assertEquals("HTTP/1.1 200 OK\n/devices?id=1 " + backendProxy.getAuthority(), readResponse(client.getInputStream()));
+        }
+    }
+
+    /**
+     * Test keep-alive requests reuse pooled connection to service
+     */
+    @Test(timeout = 10000)
+    public void testKeepAliveReusesBackendConnection() throws Exception {
+        int frontendPort = startFrontend(startBackend(false));
+        try (Socket client = new Socket(HOST, frontendPort)) {
+            send(client, "GET /v2/test/first HTTP/1.1\r\nHost: agent\r\n\r\n");
+            assertTrue(readResponse(client.getInputStream()).startsWith("HTTP/1.1 200 OK\n/first "));
+            send(client, "POST /v2/test/second HTTP/1.1\r\nHost: agent\r\nContent-Length: 4\r\n\r\nbody");
+            assertTrue(readResponse(client.getInputStream()).startsWith("HTTP/1.1 200 OK\n/second "));
+        }
+        try (Socket client = new Socket(HOST, frontendPort)) {
+            send(client, "GET /v2/test/third HTTP/1.1\r\nHost: agent\r\n\r\n");
+            assertTrue(readResponse(client.getInputStream()).startsWith("HTTP/1.1 200 OK\n/third "));
+        }
+        assertEquals(1, backendConnections.get());
+    }
+
+    /**
+     * Test unreachable service is reported with not found error
+     */
+    @Test(timeout = 10000)
+    public void testUnreachableBackend() throws Exception {
+        int closedPort;
+        try (ServerSocket serverSocket = new ServerSocket(0, 1, InetAddress.getByName(HOST))) {
+            closedPort = serverSocket.getLocalPort();
+        }
+        backendProxy = new HttpReverseProxy("test service", "/v2/test", HOST, closedPort);
+        int frontendPort = startFrontend(backendProxy);
+        try (Socket client = new Socket(HOST, frontendPort)) {
+            send(client, "GET /v2/test/devices HTTP/1.1\r\nHost: agent\r\n\r\n");
+            assertEquals("HTTP/1.1 404 Not Found\n{\"error\":\"unable to reach test service!\"}",
+                    readResponse(client.getInputStream()));
+            assertEquals(-1, client.getInputStream().read());
+        }
+    }
+
+    /**
+     * Test service answering before whole request body has been sent closes client connection
+     * and does not return connection to service into pool
+     */
+    @Test(timeout = 10000)
+    public void testBackendRespondsBeforeBodyIsSent() throws Exception {
+        int frontendPort = startFrontend(startBackend(true));
+        try (Socket client = new Socket(HOST, frontendPort)) {
+            send(client, "POST /v2/test/upload HTTP/1.1\r\nHost: agent\r\nContent-Length: 100000\r\n\r\npartial");
+            assertEquals("HTTP/1.1 413 Request Entity Too Large\nrejected", readResponse(client.getInputStream()));
+            assertEquals(-1, client.getInputStream().read());
+        }
+        try (Socket client = new Socket(HOST, frontendPort)) {
+            send(client, "GET /v2/test/next HTTP/1.1\r\nHost: agent\r\nContent-Length: 0\r\n\r\n");
+            assertEquals("HTTP/1.1 413 Request Entity Too Large\nrejected", readResponse(client.getInputStream()));
+        }
+        assertEquals(2, backendConnections.get());
+    }
+
+    /**
+     * starts service which answers with uri and host header of request
+     *
+     * @param respondEarly - true if service rejects request as soon as its head has been received
+     * @return proxy to started service
+     */
+    private HttpReverseProxy startBackend(boolean respondEarly) {
+        Channel server = new ServerBootstrap()
+                .group(group)
+                .channel(NioServerSocketChannel.class)
+                .childHandler(new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    protected void initChannel(SocketChannel ch) {
+                        ch.pipeline().addLast(new HttpServerCodec(), new Backend(respondEarly));
+                    }
+                })
+                .bind(HOST, 0).syncUninterruptibly().channel();
+        backendProxy = new HttpReverseProxy("test service", "/v2/test", HOST,
+                ((InetSocketAddress) server.localAddress()).getPort());
+        return backendProxy;
+    }
+
+    private int startFrontend(HttpReverseProxy reverseProxy) {
+        ChannelHandler initializer = new ChannelInitializer<SocketChannel>() {
+            @Override
+            protected void initChannel(SocketChannel ch) {
+                ch.pipeline().addLast(new HttpServerCodec(), new ReverseProxyHandler(Collections.singletonList(reverseProxy)));
+            }
+        };
+        Channel server = new ServerBootstrap()
+                .group(group)
+                .channel(NioServerSocketChannel.class)
+                .childHandler(initializer)
+                .bind(HOST, 0).syncUninterruptibly().channel();
+        return ((InetSocketAddress) server.localAddress()).getPort();
+    }
+
+    private static void send(Socket client, String request) throws IOException {
+        OutputStream out = client.getOutputStream();
+        out.write(request.getBytes(UTF_8));
+        out.flush();
+    }
+
+    /**
+     * reads response with content length
+     *
+     * @return status line and body separated by new line
+     */
+    private static String readResponse(InputStream in) throws IOException {
+        StringBuilder head = new StringBuilder();
+        while (head.indexOf("\r\n\r\n") < 0) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException("Connection closed after " + head);
+            }
+            head.append((char) b);
+        }
+        String[] lines = head.toString().split("\r\n");
+        int length = 0;
+        for (String line : lines) {
+            if (line.toLowerCase().startsWith("content-length:")) {
+                length = Integer.parseInt(line.substring("content-length:".length()).trim());
+            }
+        }
+        byte[] body = new byte[length];
+        new DataInputStream(in).readFully(body);
+        return lines[0] + "\n" + new String(body, UTF_8);
+    }
+
+    private class Backend extends ChannelInboundHandlerAdapter {
+        private final boolean respondEarly;
+        private String uri;
+        private String host;
+
+        Backend(boolean respondEarly) {
+            this.respondEarly = respondEarly;
+        }
+
+        @Override
+        public void channelActive(ChannelHandlerContext ctx) {
+            backendConnections.incrementAndGet();
+            ctx.fireChannelActive();
+        }
+
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) {
+            if (msg instanceof HttpRequest) {
+                uri = ((HttpRequest) msg).uri();
+                host = ((HttpRequest) msg).headers().get(HttpHeaderNames.HOST);
+                if (respondEarly) {
+                    respond(ctx, HttpResponseStatus.REQUEST_ENTITY_TOO_LARGE, "rejected");
+                }
+            }
+            if (msg instanceof LastHttpContent && !respondEarly) {
+                respond(ctx, HttpResponseStatus.OK, uri + " " + host);
+            }
+            ReferenceCountUtil.release(msg);
+        }
+
+        private void respond(ChannelHandlerContext ctx, HttpResponseStatus status, String body) {
+            FullHttpResponse response = new DefaultFullHttpResponse(HTTP_1_1, status, Unpooled.copiedBuffer(body, UTF_8));
+            HttpUtil.setContentLength(response, response.content().readableBytes());
+            HttpUtil.setKeepAlive(response, true);
+            ctx.writeAndFlush(response);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.local_api;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.eclipse.iofog.status_reporter.StatusReporter;
+import org.eclipse.iofog.utils.logging.LoggingService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import static org.junit.Assert.*;
+import static org.powermock.api.mockito.PowerMockito.mock;
+import static org.powermock.api.mockito.PowerMockito.mockStatic;
+import static org.powermock.api.mockito.PowerMockito.when;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({LoggingService.class, StatusReporter.class})
+public class WebSocketMapTest {
+    private EmbeddedChannel channel;
+    private ChannelHandlerContext ctx;
+
+    @Before
+    public void setUp() {
+        mockStatic(LoggingService.class);
+        mockStatic(StatusReporter.class);
+        when(StatusReporter.setLocalApiStatus()).thenReturn(mock(LocalApiStatus.class, Mockito.RETURNS_SELF));
+        channel = new EmbeddedChannel(new ChannelInboundHandlerAdapter());
+        ctx = channel.pipeline().firstContext();
+    }
+
+    @After
+    public void tearDown() {
+        channel.finishAndReleaseAll();
+        WebSocketMap.controlWebsocketMap.clear();
+    }
+
+    /**
+     * Test channel is found by id and id by channel
+     */
+    @Test
+    public void testAddWebsocket() {
+        WebSocketMap.addWebsocket('C', "id", ctx);
+        assertSame(ctx, WebSocketMap.controlWebsocketMap.get("id"));
+        assertTrue(WebsocketUtil.hasContextInMap(ctx, WebSocketMap.controlWebsocketMap));
+        assertEquals("id", WebsocketUtil.getIdForWebsocket(ctx, WebSocketMap.controlWebsocketMap));
+        assertFalse(WebsocketUtil.hasContextInMap(ctx, WebSocketMap.messageWebsocketMap));
+    }
+
+    /**
+     * Test channel replaced by newer channel of same microservice is no longer bound
+     */
+    @Test
+    public void testReplacedWebsocketIsUnbound() {
+        EmbeddedChannel newChannel = new EmbeddedChannel(new ChannelInboundHandlerAdapter());
+        WebSocketMap.addWebsocket('C', "id", ctx);
+        WebSocketMap.addWebsocket('C', "id", newChannel.pipeline().firstContext());
+        assertFalse(WebsocketUtil.hasContextInMap(ctx, WebSocketMap.controlWebsocketMap));
+        assertEquals("", WebsocketUtil.getIdForWebsocket(ctx, WebSocketMap.controlWebsocketMap));
+        channel.close();
+        assertSame(newChannel.pipeline().firstContext(), WebSocketMap.controlWebsocketMap.get("id"));
+        newChannel.finishAndReleaseAll();
+    }
+
+    /**
+     * Test binding is removed when channel is closed
+     */
+    @Test
+    public void testBindingIsRemovedOnClose() {
+        WebSocketMap.addWebsocket('C', "id", ctx);
+        channel.close();
+        assertFalse(WebSocketMap.controlWebsocketMap.containsKey("id"));
+        assertFalse(WebsocketUtil.hasContextInMap(ctx, WebSocketMap.controlWebsocketMap));
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.message_bus;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.*;
+
+/**
+ * Test for archive codecs
+ *
+ */
+public class ArchiveCodecTest {
+
+    /**
+     * Test parse of known, unknown and empty codec names
+     */
+    @Test
+    public void testParse() {
+        assertEquals(ArchiveCodec.DEFLATE, ArchiveCodec.parse("deflate"));
+        assertEquals(ArchiveCodec.GZIP, ArchiveCodec.parse(" GZIP "));
+        assertEquals(ArchiveCodec.NONE, ArchiveCodec.parse("lz4"));
+        assertEquals(ArchiveCodec.NONE, ArchiveCodec.parse(null));
+    }
+
+    /**
+     * Test isCompressed
+     */
+    @Test
+    public void testIsCompressed() {
+        assertFalse(ArchiveCodec.NONE.isCompressed());
+        assertTrue(ArchiveCodec.DEFLATE.isCompressed());
+        assertTrue(ArchiveCodec.GZIP.isCompressed());
+    }
+
+    /**
+     * Test compress and decompress round trip
+     */
+    @Test
+    public void testCompressAndDecompress() throws Exception {
+        byte[] data = "{\"temperature\":21.5,\"humidity\":40}{\"temperature\":21.5,\"humidity\":40}".getBytes(UTF_8);
+        for (ArchiveCodec codec : ArchiveCodec.values()) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (OutputStream out = codec.compress(compressed)) {
+                out.write(data);
+            }
+            ByteArrayOutputStream decompressed = new ByteArrayOutputStream();
+            try (InputStream in = codec.decompress(new ByteArrayInputStream(compressed.toByteArray()))) {
+                byte[] buffer = new byte[16];
+                int read;
+                while ((read = in.read(buffer)) != -1)
+                    decompressed.write(buffer, 0, read);
+            }
+            assertArrayEquals(data, decompressed.toByteArray());
+        }
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.message_bus;
+
+import org.eclipse.iofog.status_reporter.StatusReporter;
+import org.eclipse.iofog.utils.configuration.Configuration;
+import org.eclipse.iofog.utils.logging.LoggingService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+import static org.powermock.api.mockito.PowerMockito.mockStatic;
+
+/**
+ * Tests {@link MessageArchive} segments on disk
+ */
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({Configuration.class, LoggingService.class, StatusReporter.class})
+public class MessageArchiveSegmentTest {
+    private static final String ARCHIVE_DIRECTORY = "archive/";
+    private static final int FILE_HEADER_SIZE = 8;
+    private static final int ENTRY_SIZE = 45;
+    private static final int FOOTER_SIZE = 16;
+    private Path diskDirectory;
+    private File archiveDirectory;
+
+    @Before
+    public void setUp() throws Exception {
+        diskDirectory = Files.createTempDirectory("archive-test");
+        archiveDirectory = new File(diskDirectory.toFile(), ARCHIVE_DIRECTORY);
+        mockStatic(Configuration.class);
+        mockStatic(LoggingService.class);
+        mockStatic(StatusReporter.class);
+        PowerMockito.when(Configuration.getDiskDirectory()).thenReturn(diskDirectory.toString() + "/");
+        PowerMockito.when(StatusReporter.setMessageBusStatus()).thenReturn(new MessageBusStatus());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        try (Stream<Path> paths = Files.walk(diskDirectory)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    private MessageArchive archive() {
+        return new MessageArchive("publisher", ARCHIVE_DIRECTORY);
+    }
+
+    private byte[] message(long timestamp, String content) {
+        Message message = new Message();
+        message.setId("id" + timestamp);
+        message.setTimestamp(timestamp);
+        message.setContentData(content.getBytes());
+        return message.getBytes();
+    }
+
+    private File file(String extension) {
+        File[] files = archiveDirectory.listFiles((dir, name) -> name.endsWith(extension));
+        assertNotNull(files);
+        assertEquals(1, files.length);
+        return files[0];
+    }
+
+    /**
+     * Test sealed segment is queried after it has been compressed in background
+     */
+    @Test
+    public void testMessageQueryOfCompressedSegment() throws Exception {
+        MessageArchive archive = archive();
+        archive.configure(ArchiveCodec.GZIP, 1);
+        for (long timestamp = 1; timestamp <= 3; timestamp++) {
+            archive.save(message(timestamp, "content " + timestamp), timestamp);
+        }
+        archive.rollOver();
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        File rawFile = new File(archiveDirectory, "publisher_1.iomsg");
+        while (rawFile.exists() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertFalse(rawFile.exists());
+        assertTrue(new File(archiveDirectory, "publisher_1.iomsg.gz").exists());
+
+        List<Message> messages = archive.messageQuery(0, Long.MAX_VALUE);
+        assertEquals(3, messages.size());
+        assertEquals("id1", messages.get(0).getId());
+        assertEquals("content 3", new String(messages.get(2).getContentData()));
+    }
+
+    /**
+     * saves messages with timestamps 1 to count to a segment which is left open, like after a crash
+     */
+    private void saveUnsealed(int count) throws Exception {
+        MessageArchive archive = archive();
+        for (long timestamp = 1; timestamp <= count; timestamp++) {
+            archive.save(message(timestamp, "content " + timestamp), timestamp);
+        }
+        archive.close();
+    }
+
+    private long[] dataPositions() throws IOException {
+        File index = file(".idx");
+        long entries = (index.length() - FILE_HEADER_SIZE) / ENTRY_SIZE;
+        long[] positions = new long[(int) entries];
+        try (RandomAccessFile file = new RandomAccessFile(index, "r")) {
+            for (int i = 0; i < entries; i++) {
+                file.seek(FILE_HEADER_SIZE + (long) i * ENTRY_SIZE + 33);
+                positions[i] = file.readLong();
+            }
+        }
+        return positions;
+    }
+
+    private void setLength(File file, long length) throws IOException {
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+            randomAccessFile.setLength(length);
+        }
+    }
+
+    private void corruptChecksum(int entry) throws IOException {
+        try (RandomAccessFile index = new RandomAccessFile(file(".idx"), "rw")) {
+            long position = FILE_HEADER_SIZE + (long) entry * ENTRY_SIZE + ENTRY_SIZE - Integer.BYTES;
+            index.seek(position);
+            int checksum = index.readInt();
+            index.seek(position);
+            index.writeInt(~checksum);
+        }
+    }
+
+    /**
+     * Test data file torn in the middle of last message is trimmed to last whole entry
+     */
+    @Test
+    public void testRecoverTruncatedDataFile() throws Exception {
+        saveUnsealed(3);
+        long[] positions = dataPositions();
+        setLength(file(".iomsg"), positions[2] + 2);
+
+        MessageArchive archive = archive();
+        assertEquals(FILE_HEADER_SIZE + 2 * ENTRY_SIZE, file(".idx").length());
+        assertEquals(positions[2], file(".iomsg").length());
+        List<Message> messages = archive.messageQuery(0, Long.MAX_VALUE);
+        assertEquals(2, messages.size());
+        assertEquals("id2", messages.get(1).getId());
+    }
+
+    /**
+     * Test index file torn in the middle of last entry is trimmed to last whole entry,
+     * together with data of the torn entry
+     */
+    @Test
+    public void testRecoverTruncatedIndexFile() throws Exception {
+        saveUnsealed(3);
+        long[] positions = dataPositions();
+        setLength(file(".idx"), FILE_HEADER_SIZE + 2 * ENTRY_SIZE + 10);
+
+        MessageArchive archive = archive();
+        assertEquals(FILE_HEADER_SIZE + 2 * ENTRY_SIZE, file(".idx").length());
+        assertEquals(positions[2], file(".iomsg").length());
+        assertEquals(2, archive.messageQuery(0, Long.MAX_VALUE).size());
+    }
+
+    /**
+     * Test entry with wrong checksum is dropped, by recovery at the tail and by query elsewhere
+     */
+    @Test
+    public void testRecoverDropsEntryWithWrongChecksum() throws Exception {
+        saveUnsealed(3);
+        corruptChecksum(2);
+        corruptChecksum(0);
+
+        MessageArchive archive = archive();
+        assertEquals(FILE_HEADER_SIZE + 2 * ENTRY_SIZE, file(".idx").length());
+        List<Message> messages = archive.messageQuery(0, Long.MAX_VALUE);
+        assertEquals(1, messages.size());
+        assertEquals("id2", messages.get(0).getId());
+    }
+
+    /**
+     * Test sealed segment with footer is neither recovered nor appended when archive is reopened
+     */
+    @Test
+    public void testSealedSegmentReopensUnchanged() throws Exception {
+        MessageArchive archive = archive();
+        for (long timestamp = 1; timestamp <= 2; timestamp++) {
+            archive.save(message(timestamp, "content " + timestamp), timestamp);
+        }
+        archive.rollOver();
+        File index = file(".idx");
+        File data = file(".iomsg");
+        long indexLength = index.length();
+        long dataLength = data.length();
+        assertEquals(FILE_HEADER_SIZE + 2 * ENTRY_SIZE + FOOTER_SIZE, indexLength);
+
+        archive = archive();
+        assertEquals(indexLength, index.length());
+        assertEquals(dataLength, data.length());
+        archive.save(message(3, "content 3"), 3);
+        archive.close();
+        assertEquals(indexLength, index.length());
+        assertEquals(dataLength, data.length());
+        assertEquals(3, archive.messageQuery(0, Long.MAX_VALUE).size());
+    }
+}
@@ -18,6 +18,7 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.InOrder;
 import org.mockito.Mockito;
 import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
@@ -129,6 +130,21 @@ public class MessageArchiveTest {
         }
     }
 
+    /**
+     * Test save writes data before checksummed index entry
+     */
+    @Test
+    public void testSaveWritesDataBeforeIndexEntry() {
+        try {
+            messageArchive.save(message.getBytes(UTF_8),timestamp);
+            InOrder inOrder = Mockito.inOrder(randomAccessFile);
+            inOrder.verify(randomAccessFile).write(any(byte[].class), anyInt(), anyInt());
+            inOrder.verify(randomAccessFile).write(any(byte[].class));
+        } catch (Exception e) {
+            fail("This shall never happen");
+        }
+    }
+
     /**
      * Test close
      */
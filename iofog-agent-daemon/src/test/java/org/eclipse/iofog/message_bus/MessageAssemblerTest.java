@@ -0,0 +1,119 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.message_bus;
+
+import org.eclipse.iofog.status_reporter.StatusReporter;
+import org.eclipse.iofog.utils.logging.LoggingService;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import javax.jms.TextMessage;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.powermock.api.mockito.PowerMockito.mockStatic;
+
+/**
+ * Test for {@link MessageAssembler}
+ */
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({StatusReporter.class, LoggingService.class})
+public class MessageAssemblerTest {
+    private MessageAssembler assembler;
+    private MessageBusStatus messageBusStatus;
+
+    @Before
+    public void setUp() {
+        mockStatic(LoggingService.class);
+        mockStatic(StatusReporter.class);
+        messageBusStatus = new MessageBusStatus();
+        PowerMockito.when(StatusReporter.setMessageBusStatus()).thenReturn(messageBusStatus);
+        assembler = new MessageAssembler(2, 100, 1000);
+    }
+
+    private Message chunk(byte[] content, int offset, int length) {
+        Message message = new Message();
+        message.setId("id");
+        message.setContentData(Arrays.copyOfRange(content, offset, Math.min(content.length, offset + length)));
+        return message;
+    }
+
+    private byte[] content(int length) {
+        byte[] content = new byte[length];
+        for (int i = 0; i < length; i++) {
+            content[i] = (byte) i;
+        }
+        return content;
+    }
+
+    /**
+     * Test message which has not been chunked is passed on
+     */
+    @Test
+    public void testAddNotChunkedMessage() throws Exception {
+        TextMessage msg = mock(TextMessage.class);
+        Message message = new Message();
+        assertSame(message, assembler.add(msg, message));
+    }
+
+    /**
+     * Test chunks arriving in any order and duplicated are reassembled
+     */
+    @Test
+    public void testAddReassemblesChunks() {
+        byte[] content = content(25);
+        assertNull(assembler.add("a", 20, 25, chunk(content, 20, 10), 0));
+        assertNull(assembler.add("a", 0, 25, chunk(content, 0, 10), 0));
+        assertNull(assembler.add("a", 0, 25, chunk(content, 0, 10), 0));
+        assertEquals(1, assembler.getPendingCount());
+        Message message = assembler.add("a", 10, 25, chunk(content, 10, 10), 0);
+        assertNotNull(message);
+        assertEquals("id", message.getId());
+        assertArrayEquals(content, message.getContentData());
+        assertEquals(0, assembler.getPendingCount());
+        assertEquals(0, assembler.getPendingBytes());
+    }
+
+    /**
+     * Test oldest incomplete message is dropped when too many messages are incomplete
+     */
+    @Test
+    public void testAddDropsOldestIncompleteMessage() {
+        byte[] content = content(20);
+        assembler.add("a", 0, 20, chunk(content, 0, 10), 0);
+        assembler.add("b", 0, 20, chunk(content, 0, 10), 0);
+        assembler.add("c", 0, 20, chunk(content, 0, 10), 0);
+        assertEquals(2, assembler.getPendingCount());
+        assertEquals(40, assembler.getPendingBytes());
+        assertNull(assembler.add("a", 10, 20, chunk(content, 10, 10), 0));
+        assertEquals(2, messageBusStatus.getDroppedMessages((byte) 0));
+    }
+
+    /**
+     * Test incomplete messages time out and too large messages are dropped
+     */
+    @Test
+    public void testAddDropsExpiredAndTooLargeMessages() {
+        byte[] content = content(20);
+        assembler.add("a", 0, 20, chunk(content, 0, 10), 0);
+        assertNull(assembler.add("b", 0, 200, chunk(content, 0, 10), 1000));
+        assertEquals(0, assembler.getPendingCount());
+        assertEquals(0, assembler.getPendingBytes());
+        assertEquals(2, messageBusStatus.getDroppedMessages((byte) 0));
+    }
+}
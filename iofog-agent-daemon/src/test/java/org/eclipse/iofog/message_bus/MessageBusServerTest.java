@@ -117,7 +117,7 @@ public class MessageBusServerTest {
         try {
             messageBusServer.startServer("localhost", 5672);
             messageBusServer.initialize();
-            Mockito.verify(connection, Mockito.atLeastOnce()).createSession(false, Session.CLIENT_ACKNOWLEDGE);
+            Mockito.verify(connection, Mockito.never()).createSession(false, Session.CLIENT_ACKNOWLEDGE);
             Mockito.verify(connection, Mockito.atLeastOnce()).start();
             PowerMockito.verifyStatic(LoggingService.class, atLeastOnce());
             LoggingService.logDebug(MODULE_NAME, "Starting initialization");
@@ -139,7 +139,7 @@ public class MessageBusServerTest {
             messageBusServer.startServer("localhost", 5672);
             messageBusServer.initialize();
             messageBusServer.stopServer();
-            Mockito.verify(session, Mockito.atLeastOnce()).close();
+            Mockito.verify(session, Mockito.never()).close();
             Mockito.verify(connection, Mockito.atLeastOnce()).close();
             PowerMockito.verifyStatic(LoggingService.class, atLeastOnce());
             LoggingService.logInfo(MODULE_NAME, "stopping server started");
@@ -289,17 +289,50 @@ public class MessageBusServerTest {
     }
 
     /**
-     * Test create message is equal to mock session
+     * Test producers of publisher share one session, which messages are created from
+     */
+    @Test
+    public void testGetProducerSession() {
+        try {
+            messageBusServer.startServer("localhost", 5672);
+            messageBusServer.initialize();
+            assertNull(messageBusServer.getProducerSession("producer"));
+            messageBusServer.createProducer("producer", receivers);
+            assertEquals(session, messageBusServer.getProducerSession("producer"));
+            messageBusServer.removeProducer("producer");
+            assertNull(messageBusServer.getProducerSession("producer"));
+        } catch (Exception e) {
+            fail("This should not happen");
+        }
+    }
+
+    /**
+     * Test connection uri with and without prefetch and async send
+     */
+    @Test
+    public void testGetConnectionUri() {
+        assertEquals("amqp://localhost:5672", MessageBusServer.getConnectionUri("localhost", 5672));
+        PowerMockito.when(Configuration.getRouterPrefetch()).thenReturn(100);
+        PowerMockito.when(Configuration.isRouterAsyncSend()).thenReturn(true);
+        assertEquals("amqp://localhost:5672?jms.prefetchPolicy.all=100&jms.forceAsyncSend=true",
+                MessageBusServer.getConnectionUri("localhost", 5672));
+    }
+
+    /**
+     * Test every producer gets its own session
      */
     @Test
-    public void getSession() {
+    public void testCreateProducerCreatesSession() {
         try {
             messageBusServer.startServer("localhost", 5672);
             messageBusServer.initialize();
-            assertEquals(textMessage, MessageBusServer.createMessage(anyString()));
-            Mockito.verify(session, atLeastOnce()).createTextMessage(anyString());
+            messageBusServer.createProducer("producer1", receivers);
+            messageBusServer.createProducer("producer2", receivers);
+            Mockito.verify(connection, times(2)).createSession(false, Session.CLIENT_ACKNOWLEDGE);
+            messageBusServer.removeProducer("producer1");
+            Mockito.verify(session, atLeastOnce()).close();
         } catch (Exception e) {
             fail("This should not happen");
         }
     }
-}
\ No newline at end of file
+}
@@ -121,4 +121,54 @@ public class MessageBusStatusTest {
         messageBusStatus.increasePublishedMessagesPerMicroservice("microservice");
         assertTrue(messageBusStatus.getJsonPublishedMessagesPerMicroservice().contains("id"));
     }
-}
\ No newline at end of file
+
+    /**
+     * Test getArchiveCompressionRatio before and after segments are compressed
+     */
+    @Test
+    public void testGetArchiveCompressionRatio() {
+        assertEquals(0, messageBusStatus.getArchiveCompressionRatio(), 0);
+        messageBusStatus.increaseArchiveCompressedBytes(4000, 1000);
+        assertEquals(4, messageBusStatus.getArchiveCompressionRatio(), 0);
+        messageBusStatus.increaseArchiveCompressedBytes(2000, 1000);
+        assertEquals(3, messageBusStatus.getArchiveCompressionRatio(), 0);
+    }
+
+    /**
+     * Test setOutboxBacklog
+     */
+    @Test
+    public void testSetOutboxBacklog() {
+        assertEquals(0, messageBusStatus.getOutboxBacklog());
+        assertEquals(messageBusStatus, messageBusStatus.setOutboxBacklog(42));
+        assertEquals(42, messageBusStatus.getOutboxBacklog());
+    }
+
+    /**
+     * Test counters of locally routed and router routed messages
+     */
+    @Test
+    public void testRoutedMessagesCounters() {
+        messageBusStatus.increaseLocallyRoutedMessages();
+        messageBusStatus.increaseLocallyRoutedMessages();
+        messageBusStatus.increaseRouterRoutedMessages();
+        assertEquals(2, messageBusStatus.getLocallyRoutedMessages());
+        assertEquals(1, messageBusStatus.getRouterRoutedMessages());
+    }
+
+    /**
+     * Test counters of delivered and dropped messages per priority
+     */
+    @Test
+    public void testPriorityCounters() {
+        assertEquals("none", messageBusStatus.getPriorityReport());
+        messageBusStatus.increaseDeliveredMessages((byte) 5, 10);
+        messageBusStatus.increaseDeliveredMessages((byte) 5, 30);
+        messageBusStatus.increaseDroppedMessages((byte) 0);
+        assertEquals(2, messageBusStatus.getDeliveredMessages((byte) 5));
+        assertEquals(0, messageBusStatus.getDeliveredMessages((byte) 0));
+        assertEquals(1, messageBusStatus.getDroppedMessages((byte) 0));
+        assertEquals(0, messageBusStatus.getDroppedMessages((byte) 9));
+        assertTrue(messageBusStatus.getPriorityReport().startsWith("priority 5:"));
+    }
+}
@@ -20,6 +20,7 @@ import org.eclipse.iofog.supervisor.SupervisorStatus;
 import org.eclipse.iofog.utils.Constants;
 import org.eclipse.iofog.utils.Orchestrator;
 import org.eclipse.iofog.utils.logging.LoggingService;
+import org.eclipse.iofog.utils.scheduler.AgentScheduler;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -31,6 +32,7 @@ import org.powermock.modules.junit4.PowerMockRunner;
 
 import javax.jms.MessageConsumer;
 import javax.jms.MessageProducer;
+import javax.jms.Session;
 import javax.json.Json;
 import javax.json.JsonObject;
 import javax.json.JsonObjectBuilder;
@@ -53,12 +55,13 @@ import static org.powermock.api.mockito.PowerMockito.whenNew;
 @RunWith(PowerMockRunner.class)
 @PrepareForTest({MessageBus.class, MicroserviceManager.class, MessageBusServer.class, MessageProducer.class,
         LoggingService.class, MessageReceiver.class, MessageConsumer.class ,MessagePublisher.class,
-        StatusReporter.class, MessageBusStatus.class, SupervisorStatus.class, Thread.class, Orchestrator.class})
+        StatusReporter.class, MessageBusStatus.class, SupervisorStatus.class, Thread.class, Orchestrator.class,
+        AgentScheduler.class})
 public class MessageBusTest {
     private MessageBus messageBus;
     private MicroserviceManager microserviceManager;
     private MessageBusServer messageBusServer;
-    private Thread speedThread;
+    private AgentScheduler agentScheduler;
     private Route route;
     private String MODULE_NAME;
     private String receiverValue;
@@ -75,6 +78,9 @@ public class MessageBusTest {
     @Before
     public void setUp() throws Exception {
         MODULE_NAME = "Message Bus";
+        PowerMockito.mockStatic(AgentScheduler.class);
+        agentScheduler = mock(AgentScheduler.class);
+        PowerMockito.when(AgentScheduler.getInstance()).thenReturn(agentScheduler);
         messageBus = spy(MessageBus.class);
         setMock(messageBus);
         PowerMockito.mockStatic(MicroserviceManager.class);
@@ -91,7 +97,7 @@ public class MessageBusTest {
         PowerMockito.whenNew(MessageBusServer.class).withNoArguments().thenReturn(messageBusServer);
         PowerMockito.whenNew(MessageReceiver.class).withArguments(anyString(), any(MessageConsumer.class))
                 .thenReturn(messageReceiver);
-        PowerMockito.whenNew(MessagePublisher.class).withArguments(anyString(), any(Route.class), any(MessageProducer.class))
+        PowerMockito.whenNew(MessagePublisher.class).withArguments(anyString(), any(Route.class), any(Session.class), any(List.class))
                 .thenReturn(messagePublisher);
         route = new Route();
         receivers = new ArrayList<>();
@@ -107,7 +113,7 @@ public class MessageBusTest {
         PowerMockito.when(microserviceManager.getRoutes()).thenReturn(mapRoutes);
         PowerMockito.when(messageBusStatus.getPublishedMessagesPerMicroservice()).thenReturn(publishedMessagesPerMicroservice);
         PowerMockito.when(messageBusServer.getConsumer(any())).thenReturn(mock(MessageConsumer.class));
-        PowerMockito.when(messageBusServer.getProducer(any(), any())).thenReturn(mock(List.class));
+        PowerMockito.when(messageBusServer.getProducer(any(), any())).thenReturn(mock(Map.class));
         PowerMockito.when(messageBusServer.isConnected()).thenReturn(true);
         PowerMockito.doNothing().when(messageReceiver).enableRealTimeReceiving();
         PowerMockito.doNothing().when(messageReceiver).disableRealTimeReceiving();
@@ -119,6 +125,7 @@ public class MessageBusTest {
 
         MessagePublisher messagePublisher = mock(MessagePublisher.class);
         whenNew(MessagePublisher.class).withAnyArguments().thenReturn(messagePublisher);
+        whenNew(MessageOutbox.class).withArguments(anyString()).thenReturn(mock(MessageOutbox.class));
     }
 
     @After
@@ -239,6 +246,22 @@ public class MessageBusTest {
         }
     }
 
+    /**
+     * Test update keeps open receivers of unchanged microservices
+     */
+    @Test
+    public void testUpdateDoesNotRecreateOpenReceivers() {
+        initiateMockStart();
+        try {
+            messageBus.update();
+            messageBus.update();
+            Mockito.verify(messageBusServer, times(1)).getConsumer(eq("2"));
+            Mockito.verify(messageBusServer, never()).removeConsumer(any());
+        } catch (Exception e) {
+            fail("Shouldn't have happened");
+        }
+    }
+
     @Test (timeout = 100000L)
     public void testInstanceConfigUpdated() {
         initiateMockStart();
@@ -330,13 +353,9 @@ public class MessageBusTest {
      * Helper method
      */
     public void initiateMockStart() {
-        speedThread = mock(Thread.class);
         Thread startThread = mock(Thread.class);
         try {
             PowerMockito.whenNew(Thread.class).withParameterTypes(Runnable.class).withArguments(Mockito.any(Runnable.class)).thenReturn(startThread);
-            PowerMockito.whenNew(Thread.class).withParameterTypes(Runnable.class, String.class).withArguments(Mockito.any(Runnable.class),
-                    anyString()).thenReturn(speedThread);
-            PowerMockito.doNothing().when(speedThread).start();
             PowerMockito.doNothing().when(startThread).start();
             messageBus.start();
 
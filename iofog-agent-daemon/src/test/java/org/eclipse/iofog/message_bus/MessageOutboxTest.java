@@ -0,0 +1,173 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.message_bus;
+
+import org.eclipse.iofog.status_reporter.StatusReporter;
+import org.eclipse.iofog.utils.configuration.Configuration;
+import org.eclipse.iofog.utils.logging.LoggingService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+import static org.powermock.api.mockito.PowerMockito.mockStatic;
+
+/**
+ * Tests {@link MessageOutbox} replay on disk
+ */
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({Configuration.class, LoggingService.class, StatusReporter.class})
+public class MessageOutboxTest {
+    private Path diskDirectory;
+    private List<String> sent;
+
+    @Before
+    public void setUp() throws Exception {
+        diskDirectory = Files.createTempDirectory("outbox-test");
+        sent = new ArrayList<>();
+        mockStatic(Configuration.class);
+        mockStatic(LoggingService.class);
+        mockStatic(StatusReporter.class);
+        PowerMockito.when(Configuration.getDiskDirectory()).thenReturn(diskDirectory.toString() + "/");
+        PowerMockito.when(StatusReporter.setMessageBusStatus()).thenReturn(new MessageBusStatus());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        try (Stream<Path> paths = Files.walk(diskDirectory)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    private MessageOutbox outbox() {
+        MessageOutbox outbox = new MessageOutbox("publisher");
+        outbox.setReceivers(Arrays.asList("receiverA", "receiverB"));
+        return outbox;
+    }
+
+    private Message message(long timestamp) {
+        Message message = new Message();
+        message.setId("id" + timestamp);
+        message.setTimestamp(timestamp);
+        message.setContentData(("content " + timestamp).getBytes());
+        return message;
+    }
+
+    private void record(String receiver, Message message) {
+        sent.add(receiver + ":" + message.getId());
+    }
+
+    /**
+     * Test message is replayed only to receivers it has been buffered for
+     */
+    @Test
+    public void testReplayToPendingReceivers() throws Exception {
+        MessageOutbox outbox = outbox();
+        outbox.offer(message(1), Collections.singletonList("receiverB"));
+        assertFalse(outbox.offerIfPending(message(2), "receiverA"));
+        assertTrue(outbox.offerIfPending(message(2), "receiverB"));
+        assertEquals(2, outbox.getDepth());
+
+        assertEquals(2, outbox.replay(this::record, 1000));
+        assertEquals(Arrays.asList("receiverB:id1", "receiverB:id2"), sent);
+        assertEquals(0, outbox.getDepth());
+    }
+
+    /**
+     * Test failure of one receiver neither stops replay to other receivers nor duplicates their messages
+     */
+    @Test
+    public void testReplayWhenOneReceiverFails() throws Exception {
+        MessageOutbox outbox = outbox();
+        outbox.offer(message(1));
+        outbox.offer(message(2));
+        assertEquals(4, outbox.getDepth());
+
+        try {
+            outbox.replay((receiver, message) -> {
+                if (receiver.equals("receiverA"))
+                    throw new Exception("router is not reachable");
+                record(receiver, message);
+            }, 1000);
+            fail("Replay has to report failure");
+        } catch (Exception e) {
+            assertEquals("router is not reachable", e.getMessage());
+        }
+        assertEquals(Arrays.asList("receiverB:id1", "receiverB:id2"), sent);
+        assertEquals(2, outbox.getDepth());
+
+        sent.clear();
+        assertEquals(2, outbox.replay(this::record, 1000));
+        assertEquals(Arrays.asList("receiverA:id1", "receiverA:id2"), sent);
+        assertEquals(0, outbox.getDepth());
+    }
+
+    /**
+     * Test depth is reconciled after replay stopped in the middle of a segment
+     */
+    @Test
+    public void testDepthAfterPartialReplay() throws Exception {
+        MessageOutbox outbox = outbox();
+        for (long timestamp = 1; timestamp <= 3; timestamp++) {
+            outbox.offer(message(timestamp), Collections.singletonList("receiverA"));
+        }
+        try {
+            outbox.replay((receiver, message) -> {
+                if (message.getId().equals("id3"))
+                    throw new Exception("router is not reachable");
+                record(receiver, message);
+            }, 1000);
+            fail("Replay has to report failure");
+        } catch (Exception e) {
+            assertEquals(1, outbox.getDepth());
+        }
+        outbox.offer(message(4), Collections.singletonList("receiverA"));
+        assertEquals(2, outbox.getDepth());
+
+        sent.clear();
+        assertEquals(2, outbox.replay(this::record, 1000));
+        assertEquals(Arrays.asList("receiverA:id3", "receiverA:id4"), sent);
+        assertEquals(0, outbox.getDepth());
+    }
+
+    /**
+     * Test buffered messages survive restart and messages of removed receivers are deleted
+     */
+    @Test
+    public void testReopenAndRemoveReceiver() throws Exception {
+        MessageOutbox outbox = outbox();
+        outbox.offer(message(1));
+        outbox.close();
+
+        outbox = new MessageOutbox("publisher");
+        assertEquals(2, outbox.getDepth());
+        outbox.setReceivers(Collections.singletonList("receiverB"));
+        assertEquals(1, outbox.getDepth());
+        assertEquals(1, outbox.replay(this::record, 1000));
+        assertEquals(Collections.singletonList("receiverB:id1"), sent);
+    }
+}
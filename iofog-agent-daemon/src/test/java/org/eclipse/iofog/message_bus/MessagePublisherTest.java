@@ -13,6 +13,8 @@
 package org.eclipse.iofog.message_bus;
 
 import org.eclipse.iofog.microservice.Route;
+import org.eclipse.iofog.microservice.RoutePredicate;
+import org.eclipse.iofog.status_reporter.StatusReporter;
 import org.eclipse.iofog.utils.logging.LoggingService;
 import org.junit.After;
 import org.junit.Before;
@@ -23,11 +25,16 @@ import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
+import javax.jms.JMSException;
 import javax.jms.MessageProducer;
 import javax.jms.Session;
 import javax.jms.TextMessage;
+import javax.json.Json;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.eclipse.iofog.message_bus.MessageBus.MODULE_NAME;
 import static org.eclipse.iofog.utils.logging.LoggingService.logError;
@@ -44,9 +51,9 @@ import static org.powermock.api.mockito.PowerMockito.*;
 @RunWith(PowerMockRunner.class)
 @PrepareForTest({MessagePublisher.class, Route.class, MessageProducer.class, Message.class,
         MessageArchive.class, LoggingService.class, MessageBusServer.class, Session.class,
-        TextMessage.class})
+        TextMessage.class, StatusReporter.class, MessageBusStatus.class})
 public class MessagePublisherTest {
-    private final List<MessageProducer> messageProducers = new ArrayList<>();
+    private final Map<String, MessageProducer> messageProducers = new HashMap<>();
     private MessagePublisher messagePublisher;
     private String name;
     private Route route;
@@ -54,6 +61,7 @@ public class MessagePublisherTest {
     private MessageArchive messageArchive;
     private MessageBusServer messageBusServer;
     private TextMessage textMessage;
+    private Session session;
     private byte[] bytes;
     private List<String> receivers;
     private List<Message> messageList;
@@ -65,6 +73,7 @@ public class MessagePublisherTest {
         route = mock(Route.class);
         message = mock(Message.class);
         textMessage = mock(TextMessage.class);
+        session = mock(Session.class);
         messageArchive = mock(MessageArchive.class);
         messageBusServer = mock(MessageBusServer.class);
         receivers = new ArrayList<>();
@@ -74,10 +83,10 @@ public class MessagePublisherTest {
         mockStatic(MessageBusServer.class);
         PowerMockito.when(message.getBytes()).thenReturn(bytes);
         PowerMockito.when(message.getTimestamp()).thenReturn(System.currentTimeMillis());
-        PowerMockito.when(MessageBusServer.createMessage(anyString())).thenReturn(textMessage);
+        PowerMockito.when(session.createTextMessage(anyString())).thenReturn(textMessage);
         PowerMockito.when(route.getReceivers()).thenReturn(receivers);
         PowerMockito.whenNew(MessageArchive.class).withArguments(anyString()).thenReturn(messageArchive);
-        messagePublisher = spy(new MessagePublisher(name, route, messageProducers));
+        messagePublisher = spy(new MessagePublisher(name, route, session, messageProducers));
         PowerMockito.doNothing().when(messageArchive).save(Mockito.any(byte[].class), anyLong());
         PowerMockito.doNothing().when(messageArchive).close();
         PowerMockito.when(messageArchive.messageQuery(anyLong(), anyLong())).thenReturn(messageList);
@@ -131,13 +140,121 @@ public class MessagePublisherTest {
         }
     }
 
+    /**
+     * Test Publish buffers message in outbox when publisher is closed
+     */
+    @Test
+    public void testPublishWhenPublisherIsClosed() {
+        try {
+            MessageOutbox messageOutbox = mock(MessageOutbox.class);
+            messagePublisher.setOutbox(messageOutbox);
+            messagePublisher.close();
+            messagePublisher.publish(message);
+            Mockito.verify(messageArchive, atLeastOnce()).save(any(byte[].class), anyLong());
+            Mockito.verify(messageOutbox).offer(message);
+            Mockito.verify(messageOutbox, Mockito.never()).offerIfPending(any(Message.class), anyString());
+        } catch (Exception e) {
+            fail("This should not happen");
+        }
+    }
+
+    /**
+     * Test Publish buffers message in outbox when older messages are pending
+     */
+    @Test
+    public void testPublishWhenOutboxHasPendingMessages() {
+        try {
+            MessageOutbox messageOutbox = mock(MessageOutbox.class);
+            PowerMockito.when(messageOutbox.offerIfPending(any(Message.class), anyString())).thenReturn(true);
+            messageProducers.put("receiver", mock(MessageProducer.class));
+            messagePublisher.setOutbox(messageOutbox);
+            messagePublisher.publish(message);
+            Mockito.verify(messageOutbox).offerIfPending(message, "receiver");
+            Mockito.verify(messageOutbox, Mockito.never()).offer(any(Message.class));
+            Mockito.verify(messageOutbox, Mockito.never()).offer(any(Message.class), anyCollection());
+            Mockito.verify(session, Mockito.never()).createTextMessage(anyString());
+        } catch (Exception e) {
+            fail("This should not happen");
+        }
+    }
+
+    /**
+     * Test Publish buffers message only for receivers it could not be sent to
+     */
+    @Test
+    public void testPublishWhenSendingToOneReceiverFails() {
+        try {
+            mockStatic(StatusReporter.class);
+            PowerMockito.when(StatusReporter.setMessageBusStatus()).thenReturn(mock(MessageBusStatus.class));
+            PowerMockito.when(message.toJson()).thenReturn(Json.createObjectBuilder().build());
+            MessageProducer failingProducer = mock(MessageProducer.class);
+            PowerMockito.doThrow(new JMSException("router is not reachable")).when(failingProducer)
+                    .send(any(javax.jms.Message.class), anyInt(), anyInt(), anyLong());
+            messageProducers.put("failing", failingProducer);
+            messageProducers.put("sent", mock(MessageProducer.class));
+            MessageOutbox messageOutbox = mock(MessageOutbox.class);
+            messagePublisher.setOutbox(messageOutbox);
+            messagePublisher.publish(message);
+            Mockito.verify(messageOutbox).offer(message, Collections.singletonList("failing"));
+            Mockito.verify(messageOutbox, Mockito.never()).offer(any(Message.class));
+        } catch (Exception e) {
+            fail("This should not happen");
+        }
+    }
+
+    /**
+     * Test Publish delivers message to co-located receiver without going through router
+     */
+    @Test
+    public void testPublishWhenReceiverIsLocal() {
+        try {
+            mockStatic(StatusReporter.class);
+            PowerMockito.when(StatusReporter.setMessageBusStatus()).thenReturn(mock(MessageBusStatus.class));
+            MessageProducer messageProducer = mock(MessageProducer.class);
+            messageProducers.put("receiver", messageProducer);
+            MessageReceiver messageReceiver = new MessageReceiver("receiver", null);
+            assertEquals(0, messageReceiver.getMessages().size());
+            messagePublisher.setLocalReceivers(receiver -> "receiver".equals(receiver) ? messageReceiver : null);
+            messagePublisher.publish(message);
+            List<Message> messages = messageReceiver.getMessages();
+            assertEquals(1, messages.size());
+            assertEquals(message, messages.get(0));
+            Mockito.verify(messageProducer, Mockito.never()).send(any(javax.jms.Message.class), anyInt(), anyInt(), anyLong());
+        } catch (Exception e) {
+            fail("This should not happen");
+        }
+    }
+
+    /**
+     * Test Publish sends message only to receivers whose predicate accepts it
+     */
+    @Test
+    public void testPublishWhenReceiverIsFiltered() {
+        try {
+            mockStatic(StatusReporter.class);
+            PowerMockito.when(StatusReporter.setMessageBusStatus()).thenReturn(mock(MessageBusStatus.class));
+            PowerMockito.when(message.toJson()).thenReturn(Json.createObjectBuilder().build());
+            PowerMockito.when(message.getPriority()).thenReturn(1);
+            PowerMockito.when(route.getPredicate("filtered")).thenReturn(new RoutePredicate(null, null, null, null, 5));
+            MessageProducer filteredProducer = mock(MessageProducer.class);
+            MessageProducer acceptedProducer = mock(MessageProducer.class);
+            messageProducers.put("filtered", filteredProducer);
+            messageProducers.put("accepted", acceptedProducer);
+            messagePublisher.publish(message);
+            Mockito.verify(filteredProducer, Mockito.never()).send(any(javax.jms.Message.class), anyInt(), anyInt(), anyLong());
+            Mockito.verify(acceptedProducer).send(any(javax.jms.Message.class), anyInt(), anyInt(), anyLong());
+        } catch (Exception e) {
+            fail("This should not happen");
+        }
+    }
+
     /**
      * Test updateRoute
      */
     @Test
     public void testUpdateRoute() {
         try {
-            messagePublisher.updateRoute(route, messageProducers);
+            messagePublisher.updateRoute(route, session, messageProducers);
             verifyStatic(LoggingService.class);
             LoggingService.logDebug(MODULE_NAME, "Updating route");
         } catch (Exception e) {
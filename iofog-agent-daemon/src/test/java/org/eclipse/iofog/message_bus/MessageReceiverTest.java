@@ -22,11 +22,14 @@ import org.mockito.Mockito;
 import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
+import org.powermock.reflect.Whitebox;
 
 import javax.jms.JMSException;
 import javax.jms.MessageConsumer;
 import javax.jms.TextMessage;
 
+import java.util.List;
+
 import static org.junit.Assert.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.reset;
@@ -58,7 +61,7 @@ public class MessageReceiverTest {
         ioMessageListener = mock(IOMessageListener.class);
         textMessage = mock(TextMessage.class);
         message = mock(Message.class);
-        PowerMockito.whenNew(IOMessageListener.class).withArguments(any(MessageCallback.class)).thenReturn(ioMessageListener);
+        PowerMockito.whenNew(IOMessageListener.class).withArguments(any(MessageCallback.class), any(MessageAssembler.class)).thenReturn(ioMessageListener);
         PowerMockito.whenNew(Message.class).withParameterTypes(byte[].class).withArguments(any()).thenReturn(message);
         PowerMockito.when(messageConsumer.receiveNoWait()).thenReturn(textMessage).thenReturn(null);
         PowerMockito.when(messageConsumer.getMessageListener()).thenReturn(ioMessageListener);
@@ -160,6 +163,8 @@ public class MessageReceiverTest {
         try {
             messageReceiver.enableRealTimeReceiving();
             Mockito.verify(messageConsumer).setMessageListener(any(IOMessageListener.class));
+            PowerMockito.verifyNew(IOMessageListener.class).withArguments(any(MessageCallback.class),
+                    eq(Whitebox.getInternalState(messageReceiver, "assembler")));
         } catch (Exception e) {
             fail("This should not happen");
         }
@@ -281,4 +286,64 @@ public class MessageReceiverTest {
             fail("This should not happen");
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Test deliverLocally when receiver neither polls nor listens
+     */
+    @Test
+    public void testDeliverLocallyWhenReceiverIsNotPolling() {
+        assertFalse(messageReceiver.deliverLocally(message));
+    }
+
+    /**
+     * Test deliverLocally queues message of co-located publisher for polling receiver
+     */
+    @Test
+    public void testDeliverLocallyWhenReceiverIsPolling() {
+        try {
+            PowerMockito.when(messageConsumer.receiveNoWait()).thenReturn(null);
+            assertEquals(0, messageReceiver.getMessages().size());
+            assertTrue(messageReceiver.deliverLocally(message));
+            List<Message> messages = messageReceiver.getMessages();
+            assertEquals(1, messages.size());
+            assertEquals(message, messages.get(0));
+        } catch (Exception e) {
+            fail("This should not happen");
+        }
+    }
+
+    /**
+     * Test locally queued message is kept while receiver is polling
+     */
+    @Test
+    public void testTakeUndeliveredMessagesWhenReceiverIsPolling() {
+        try {
+            PowerMockito.when(messageConsumer.receiveNoWait()).thenReturn(null);
+            messageReceiver.getMessages();
+            assertTrue(messageReceiver.deliverLocally(message));
+            assertEquals(0, messageReceiver.takeUndeliveredMessages().size());
+            assertEquals(1, messageReceiver.getMessages().size());
+        } catch (Exception e) {
+            fail("This should not happen");
+        }
+    }
+
+    /**
+     * Test locally queued message is handed over when receiver is closed
+     */
+    @Test
+    public void testTakeUndeliveredMessagesWhenReceiverIsClosed() {
+        try {
+            PowerMockito.when(messageConsumer.receiveNoWait()).thenReturn(null);
+            messageReceiver.getMessages();
+            assertTrue(messageReceiver.deliverLocally(message));
+            messageReceiver.close();
+            assertFalse(messageReceiver.deliverLocally(message));
+            List<Message> messages = messageReceiver.takeUndeliveredMessages();
+            assertEquals(1, messages.size());
+            assertEquals(message, messages.get(0));
+        } catch (Exception e) {
+            fail("This should not happen");
+        }
+    }
+}
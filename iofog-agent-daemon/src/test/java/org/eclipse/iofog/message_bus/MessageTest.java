@@ -27,6 +27,7 @@ import javax.json.JsonObjectBuilder;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Base64;
 
 import static java.lang.System.currentTimeMillis;
@@ -379,6 +380,24 @@ public class MessageTest {
 
     }
 
+    /**
+     * Test envelope bytes are bytes of message without content data
+     */
+    @Test
+    public void testEnvelopeBytes() {
+        message = spy(new Message(jsonObject));
+        byte[] rawByte = message.getBytes();
+        byte[] envelope = message.getEnvelopeBytes();
+        assertEquals(rawByte.length, envelope.length + contentData.length);
+        assertArrayEquals(rawByte, concat(envelope, contentData));
+    }
+
+    private byte[] concat(byte[] first, byte[] second) {
+        byte[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+
     /**
      * Test throws exception when ByteArrayOutputStream object is created
      */
@@ -0,0 +1,91 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.message_bus;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test for {@link PriorityMessageQueue}
+ */
+public class PriorityMessageQueueTest {
+    private PriorityMessageQueue queue;
+
+    @Before
+    public void setUp() {
+        queue = new PriorityMessageQueue(3);
+    }
+
+    private Message message(int priority, String id) {
+        Message message = new Message();
+        message.setPriority((byte) priority);
+        message.setId(id);
+        return message;
+    }
+
+    /**
+     * Test messages are polled highest priority first, in arrival order within a priority
+     */
+    @Test
+    public void testPollOrder() {
+        assertTrue(queue.offer(message(1, "a")).wasEmpty());
+        assertFalse(queue.offer(message(5, "b")).wasEmpty());
+        queue.offer(message(1, "c"));
+        assertEquals(3, queue.size());
+        assertEquals("b", queue.poll().getId());
+        assertEquals("a", queue.poll().getId());
+        assertEquals("c", queue.poll().getId());
+        assertNull(queue.poll());
+        assertTrue(queue.isEmpty());
+    }
+
+    /**
+     * Test oldest message of the lowest priority is dropped for message of higher priority
+     */
+    @Test
+    public void testOfferDropsLowestPriorityWhenFull() {
+        queue.offer(message(1, "a"));
+        queue.offer(message(1, "b"));
+        queue.offer(message(3, "c"));
+        PriorityMessageQueue.OfferResult result = queue.offer(message(2, "d"));
+        assertTrue(result.isAccepted());
+        assertEquals("a", result.getDropped().getId());
+
+        List<Message> messages = new ArrayList<>();
+        queue.drainTo(messages);
+        assertEquals(3, messages.size());
+        assertEquals("c", messages.get(0).getId());
+        assertEquals("d", messages.get(1).getId());
+        assertEquals("b", messages.get(2).getId());
+        assertTrue(queue.isEmpty());
+    }
+
+    /**
+     * Test message is rejected when queue is full of messages of the same or higher priority
+     */
+    @Test
+    public void testOfferRejectsWhenFull() {
+        queue.offer(message(2, "a"));
+        queue.offer(message(2, "b"));
+        queue.offer(message(4, "c"));
+        PriorityMessageQueue.OfferResult result = queue.offer(message(2, "d"));
+        assertFalse(result.isAccepted());
+        assertNull(result.getDropped());
+        assertEquals(3, queue.size());
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.microservice;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class MicroserviceDiffTest {
+
+    private Microservice microservice(String uuid, String contentHash) {
+        Microservice microservice = new Microservice(uuid, "image");
+        microservice.setContentHash(contentHash);
+        return microservice;
+    }
+
+    /**
+     * Test added, removed and changed microservices are detected by content hash
+     */
+    @Test
+    public void testCompute() {
+        MicroserviceDiff diff = MicroserviceDiff.compute(
+                Arrays.asList(microservice("1", "a"), microservice("2", "b"), microservice("3", "c")),
+                Arrays.asList(microservice("1", "a"), microservice("2", "x"), microservice("4", "d")));
+        assertEquals(Collections.singleton("4"), diff.getAdded());
+        assertEquals(Collections.singleton("3"), diff.getRemoved());
+        assertEquals(Collections.singleton("2"), diff.getChanged());
+        assertFalse(diff.isAddedOrChanged("1"));
+        assertTrue(diff.isAddedOrChanged("2"));
+        assertFalse(diff.isEmpty());
+    }
+
+    /**
+     * Test microservices without content hash are treated as changed
+     */
+    @Test
+    public void testComputeWithoutContentHash() {
+        MicroserviceDiff diff = MicroserviceDiff.compute(
+                Collections.singletonList(microservice("1", null)),
+                Collections.singletonList(microservice("1", null)));
+        assertEquals(Collections.singleton("1"), diff.getChanged());
+    }
+
+    /**
+     * Test diff of equal lists is empty
+     */
+    @Test
+    public void testComputeUnchanged() {
+        MicroserviceDiff diff = MicroserviceDiff.compute(
+                Collections.singletonList(microservice("1", "a")),
+                Collections.singletonList(microservice("1", "a")));
+        assertTrue(diff.isEmpty());
+    }
+}
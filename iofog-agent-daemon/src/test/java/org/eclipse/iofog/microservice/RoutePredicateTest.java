@@ -0,0 +1,70 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.microservice;
+
+import org.eclipse.iofog.message_bus.Message;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class RoutePredicateTest {
+
+    private Message message(String tag, String infoType, int priority) {
+        Message message = new Message();
+        message.setTag(tag);
+        message.setInfoType(infoType);
+        message.setPriority((byte) priority);
+        return message;
+    }
+
+    /**
+     * Test exact, prefix and priority conditions and hit counters
+     */
+    @Test
+    public void testTest() {
+        RoutePredicate predicate = new RoutePredicate("alarm", "image/*", null, null, 3);
+        assertTrue(predicate.test(message("alarm", "image/jpeg", 3)));
+        assertFalse(predicate.test(message("alarm", "video/h264", 3)));
+        assertFalse(predicate.test(message("alarms", "image/jpeg", 3)));
+        assertFalse(predicate.test(message("alarm", "image/jpeg", 2)));
+        assertFalse(predicate.test(message(null, "image/jpeg", 3)));
+        assertEquals(1, predicate.getHits());
+        assertEquals(4, predicate.getMisses());
+    }
+
+    /**
+     * Test predicate without conditions matches every message
+     */
+    @Test
+    public void testTestWithoutConditions() {
+        RoutePredicate predicate = new RoutePredicate(null, null, null, null, 0);
+        assertTrue(predicate.test(message(null, null, 0)));
+        assertEquals(1, predicate.getHits());
+    }
+
+    /**
+     * Test routes with different predicates are not equal, so changed filters update route
+     */
+    @Test
+    public void testRouteEquals() {
+        Route route = new Route();
+        route.getReceivers().add("receiver");
+        Route filteredRoute = new Route();
+        filteredRoute.getReceivers().add("receiver");
+        filteredRoute.setPredicate("receiver", new RoutePredicate("alarm", null, null, null, 0));
+        assertNotEquals(route, filteredRoute);
+        route.setPredicate("receiver", new RoutePredicate("alarm", null, null, null, 0));
+        assertEquals(route, filteredRoute);
+        assertNull(route.getPredicate("other"));
+    }
+}
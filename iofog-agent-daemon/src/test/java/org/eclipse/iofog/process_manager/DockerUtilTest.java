@@ -629,6 +629,61 @@ public class DockerUtilTest {
         }
     }
 
+    /**
+     * Test getMicroserviceStatus
+     * When containerState is exited
+     * RestartStuckChecker.isStuck() returns true
+     */
+    @Test
+    public void testGetMicroserviceStatusWhenExecReturnsContainerStateIsExitedIsStuck() {
+        try {
+            PowerMockito.when(containerState.getStatus()).thenReturn("exited");
+            PowerMockito.when(RestartStuckChecker.isStuck(any())).thenReturn(true);
+            assertEquals(microserviceStatus, dockerUtil.getMicroserviceStatus(containerID));
+            Mockito.verify(microserviceStatus).setStatus(eq(MicroserviceState.STUCK_IN_RESTART));
+            PowerMockito.verifyStatic(RestartStuckChecker.class);
+            RestartStuckChecker.isStuck(any());
+        } catch (Exception e) {
+            fail("This should not happen");
+        }
+    }
+
+    /**
+     * Test getMicroserviceStatus
+     * When containerState is dead
+     * RestartStuckChecker.isStuck() returns false
+     */
+    @Test
+    public void testGetMicroserviceStatusWhenExecReturnsContainerStateIsDeadIsNotStuck() {
+        try {
+            PowerMockito.when(containerState.getStatus()).thenReturn("dead");
+            PowerMockito.when(RestartStuckChecker.isStuck(any())).thenReturn(false);
+            assertEquals(microserviceStatus, dockerUtil.getMicroserviceStatus(containerID));
+            Mockito.verify(microserviceStatus).setStatus(eq(MicroserviceState.UNKNOWN));
+        } catch (Exception e) {
+            fail("This should not happen");
+        }
+    }
+
+    /**
+     * Test getMicroserviceStatus
+     * When containerState is running
+     * RestartStuckChecker.isStuck() is not asked
+     */
+    @Test
+    public void testGetMicroserviceStatusWhenExecReturnsContainerStateIsRunningIsNotStuck() {
+        try {
+            PowerMockito.when(containerState.getStatus()).thenReturn("running");
+            PowerMockito.when(RestartStuckChecker.isStuck(any())).thenReturn(true);
+            assertEquals(microserviceStatus, dockerUtil.getMicroserviceStatus(containerID));
+            Mockito.verify(microserviceStatus).setStatus(eq(MicroserviceState.RUNNING));
+            PowerMockito.verifyStatic(RestartStuckChecker.class, Mockito.never());
+            RestartStuckChecker.isStuck(any());
+        } catch (Exception e) {
+            fail("This should not happen");
+        }
+    }
+
     /**
      * Test getRunningContainers when none of the container is not RUNNING
      */
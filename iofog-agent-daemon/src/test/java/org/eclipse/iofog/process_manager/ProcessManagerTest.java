@@ -25,6 +25,7 @@ import org.eclipse.iofog.supervisor.SupervisorStatus;
 import org.eclipse.iofog.utils.Constants;
 import org.eclipse.iofog.utils.configuration.Configuration;
 import org.eclipse.iofog.utils.logging.LoggingService;
+import org.eclipse.iofog.utils.scheduler.AgentScheduler;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -52,7 +53,7 @@ import static org.powermock.api.mockito.PowerMockito.mock;
 @RunWith(PowerMockRunner.class)
 @PrepareForTest({ProcessManager.class, StatusReporter.class, LoggingService.class, ProcessManagerStatus.class, MicroserviceManager.class,
         DockerUtil.class, ContainerManager.class, Microservice.class, Container.class, Thread.class, SupervisorStatus.class, Configuration.class,
-        ContainerTask.class, StraceDiagnosticManager.class, MicroserviceStatus.class, FieldAgentStatus.class})
+        ContainerTask.class, StraceDiagnosticManager.class, MicroserviceStatus.class, FieldAgentStatus.class, AgentScheduler.class})
 public class ProcessManagerTest {
     private ProcessManager processManager;
     private ProcessManagerStatus processManagerStatus;
@@ -84,6 +85,8 @@ public class ProcessManagerTest {
         PowerMockito.mockStatic(MicroserviceManager.class);
         PowerMockito.mockStatic(Configuration.class);
         PowerMockito.mockStatic(StraceDiagnosticManager.class);
+        PowerMockito.mockStatic(AgentScheduler.class);
+        PowerMockito.when(AgentScheduler.getInstance()).thenReturn(mock(AgentScheduler.class));
         processManagerStatus = mock(ProcessManagerStatus.class);
         microserviceManager = mock(MicroserviceManager.class);
         microservice = mock(Microservice.class);
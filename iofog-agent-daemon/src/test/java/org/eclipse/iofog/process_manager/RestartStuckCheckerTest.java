@@ -13,40 +13,119 @@
 package org.eclipse.iofog.process_manager;
 
 import org.junit.After;
-import org.junit.Before;
 import org.junit.Test;
-import org.junit.runner.RunWith;
-import org.powermock.core.classloader.annotations.PrepareForTest;
-import org.powermock.modules.junit4.PowerMockRunner;
+
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.*;
-import static org.mockito.Mockito.reset;
-import static org.powermock.api.mockito.PowerMockito.spy;
 
 /**
  * @author nehanaithani
  *
  */
-@RunWith(PowerMockRunner.class)
-@PrepareForTest({RestartStuckChecker.class})
 public class RestartStuckCheckerTest {
+    private static final long MINUTE = TimeUnit.MINUTES.toMillis(1);
+
+    @After
+    public void tearDown() {
+        RestartStuckChecker.clear();
+    }
+
+    private void crash(String containerId, int times, long start, long step) {
+        for (int i = 0; i < times; i++) {
+            RestartStuckChecker.containerEvent(containerId, "die", start + i * step);
+            RestartStuckChecker.containerEvent(containerId, "start", start + i * step + 1);
+        }
+    }
 
     /**
-     * Test isStuck is False for first five times
+     * Test isStuck is False for unknown container
      */
     @Test
     public void testIsStuckFirstTime() {
-       assertFalse(RestartStuckChecker.isStuck("containerId"));
+        assertFalse(RestartStuckChecker.isStuck("containerId"));
+        assertEquals(0, RestartStuckChecker.getRestartCount("containerId"));
+        assertEquals(0, RestartStuckChecker.size());
+    }
+
+    /**
+     * Test isStuck is true after five restarts within window
+     */
+    @Test
+    public void testIsStuckAfterFiveRestarts() {
+        crash("uuid", 4, 0, 1000);
+        assertFalse(RestartStuckChecker.isStuck("uuid", 5000));
+        crash("uuid", 1, 4000, 1000);
+        assertTrue(RestartStuckChecker.isStuck("uuid", 5000));
+        assertEquals(5, RestartStuckChecker.getRestartCount("uuid"));
+        assertEquals(1f, RestartStuckChecker.getRestartRate("uuid", 5000), 0f);
+    }
+
+    /**
+     * Test start without die and restart events are not counted as restarts
+     */
+    @Test
+    public void testStartWithoutDieIsNotRestart() {
+        for (int i = 0; i < 10; i++) {
+            RestartStuckChecker.containerEvent("uuid", "start", i);
+            RestartStuckChecker.containerEvent("uuid", "restart", i);
+        }
+        assertFalse(RestartStuckChecker.isStuck("uuid", 10));
+        assertEquals(0, RestartStuckChecker.getRestartCount("uuid"));
+    }
+
+    /**
+     * Test restarts leave window, while total count is kept
+     */
+    @Test
+    public void testRestartsLeaveWindow() {
+        crash("uuid", 5, 0, 1000);
+        assertFalse(RestartStuckChecker.isStuck("uuid", 6 * MINUTE));
+        assertEquals(0f, RestartStuckChecker.getRestartRate("uuid", 6 * MINUTE), 0f);
+        assertEquals(5, RestartStuckChecker.getRestartCount("uuid"));
+    }
+
+    /**
+     * Test backoff doubles with restarts in window and is capped
+     */
+    @Test
+    public void testBackoff() {
+        RestartStuckChecker.containerEvent("uuid", "die", 0);
+        assertEquals(0, RestartStuckChecker.getRemainingBackoff("uuid", 0));
+        RestartStuckChecker.containerEvent("uuid", "start", 1);
+        assertEquals(0, RestartStuckChecker.getRemainingBackoff("uuid", 2));
+
+        RestartStuckChecker.containerEvent("uuid", "die", 1000);
+        assertEquals(10000, RestartStuckChecker.getRemainingBackoff("uuid", 1000));
+        assertEquals(0, RestartStuckChecker.getRemainingBackoff("uuid", 11000));
+        RestartStuckChecker.containerEvent("uuid", "start", 11000);
+        RestartStuckChecker.containerEvent("uuid", "die", 12000);
+        assertEquals(20000, RestartStuckChecker.getRemainingBackoff("uuid", 12000));
+
+        crash("uuid", 20, 13000, 1000);
+        RestartStuckChecker.containerEvent("uuid", "die", 40000);
+        assertEquals(5 * MINUTE, RestartStuckChecker.getRemainingBackoff("uuid", 40000));
+    }
+
+    /**
+     * Test destroyed container is forgotten
+     */
+    @Test
+    public void testDestroy() {
+        crash("uuid", 5, 0, 1000);
+        RestartStuckChecker.containerEvent("uuid", "destroy", 6000);
+        assertFalse(RestartStuckChecker.isStuck("uuid", 6000));
+        assertEquals(0, RestartStuckChecker.size());
     }
 
     /**
-     * Test isStuck is true when called sixth time for the same containerID
+     * Test number of tracked containers is bounded
      */
     @Test
-    public void testIsStuckSixthTime() {
-        for (int i =1 ; i<=5 ; i++){
-            RestartStuckChecker.isStuck("uuid");
+    public void testBounded() {
+        for (int i = 0; i < RestartStuckChecker.MAX_CONTAINERS + 10; i++) {
+            RestartStuckChecker.containerEvent("container" + i, "die", i);
         }
-       assertTrue(RestartStuckChecker.isStuck("uuid"));
+        assertEquals(RestartStuckChecker.MAX_CONTAINERS, RestartStuckChecker.size());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,97 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.pruning;
+
+import com.github.dockerjava.api.model.Image;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.powermock.api.mockito.PowerMockito.mock;
+import static org.powermock.api.mockito.PowerMockito.when;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({Image.class})
+public class ImageGarbageCollectorTest {
+    private ImageGarbageCollector imageGarbageCollector;
+
+    @Before
+    public void setUp() {
+        imageGarbageCollector = new ImageGarbageCollector();
+    }
+
+    /**
+     * Test collection starts at threshold and stops only above low watermark
+     */
+    @Test
+    public void testIsCollectionRequiredWithHysteresis() {
+        assertFalse(imageGarbageCollector.isCollectionRequired(25, 20));
+        assertTrue(imageGarbageCollector.isCollectionRequired(20, 20));
+        assertTrue(imageGarbageCollector.isCollectionRequired(25, 20));
+        assertFalse(imageGarbageCollector.isCollectionRequired(30, 20));
+        assertFalse(imageGarbageCollector.isCollectionRequired(25, 20));
+    }
+
+    /**
+     * Test images of containers and microservices are never candidates
+     */
+    @Test
+    public void testGetCandidatesSkipsUsedAndProtectedImages() {
+        Image used = image("used", new String[]{"iofog/used:1"}, 10, 1);
+        Image protectedImage = image("protected", new String[]{"iofog/protected:latest"}, 10, 1);
+        Image unused = image("unused", new String[]{"iofog/unused:1"}, 10, 1);
+        List<Image> candidates = imageGarbageCollector.getCandidates(Arrays.asList(used, protectedImage, unused),
+                Collections.singleton("used"), Collections.singleton("iofog/protected"));
+        assertEquals(Collections.singletonList(unused), candidates);
+    }
+
+    /**
+     * Test least recently used images come first and larger ones first among equally old
+     */
+    @Test
+    public void testGetCandidatesOrder() {
+        Image recentlyUsed = image("recent", null, 100, 1);
+        Image oldSmall = image("oldSmall", null, 10, 2);
+        Image oldLarge = image("oldLarge", null, 50, 2);
+        imageGarbageCollector.imagesUsed(Collections.singleton("recent"), 5000);
+        List<Image> candidates = imageGarbageCollector.getCandidates(Arrays.asList(recentlyUsed, oldSmall, oldLarge),
+                Collections.emptySet(), Collections.emptySet());
+        assertEquals(Arrays.asList(oldLarge, oldSmall, recentlyUsed), candidates);
+    }
+
+    /**
+     * Test image name without tag gets default tag
+     */
+    @Test
+    public void testNormalizeImageName() {
+        assertEquals("iofog/agent:latest", ImageGarbageCollector.normalizeImageName("iofog/agent"));
+        assertEquals("registry:5000/agent:latest", ImageGarbageCollector.normalizeImageName("registry:5000/agent"));
+        assertEquals("iofog/agent:1.0", ImageGarbageCollector.normalizeImageName("iofog/agent:1.0"));
+    }
+
+    private static Image image(String id, String[] repoTags, long size, long created) {
+        Image image = mock(Image.class);
+        when(image.getId()).thenReturn(id);
+        when(image.getRepoTags()).thenReturn(repoTags);
+        when(image.getSize()).thenReturn(size);
+        when(image.getCreated()).thenReturn(created);
+        return image;
+    }
+}
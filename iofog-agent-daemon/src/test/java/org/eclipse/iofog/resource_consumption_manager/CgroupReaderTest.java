@@ -0,0 +1,151 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.resource_consumption_manager;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class CgroupReaderTest {
+    private static final String CONTAINER_ID = "0123456789abcdef";
+    private Path root;
+
+    @Before
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("cgroup");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    private void write(String path, String content) throws IOException {
+        Path file = root.resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private void writeUnified(long usageUsec, long periods, long throttled) throws IOException {
+        String cgroup = "system.slice/docker-" + CONTAINER_ID + ".scope/";
+        write(cgroup + "cpu.stat", "usage_usec " + usageUsec + "\nuser_usec 10\nsystem_usec 10\nnr_periods " + periods
+                + "\nnr_throttled " + throttled + "\nthrottled_usec 500\n");
+        write(cgroup + "memory.current", "10485760\n");
+        write(cgroup + "memory.stat", "anon 4096\nfile 8192\ninactive_file 2097152\n");
+        write(cgroup + "io.stat", "8:0 rbytes=1000 wbytes=200 rios=1 wios=2 dbytes=0 dios=0\n"
+                + "8:16 rbytes=24 wbytes=56 rios=1 wios=2 dbytes=0 dios=0\n");
+    }
+
+    /**
+     * Test reading unified cgroup v2 hierarchy with systemd driver
+     */
+    @Test
+    public void testReadUnified() throws IOException {
+        write("cgroup.controllers", "cpu io memory pids\n");
+        writeUnified(1500, 10, 2);
+
+        CgroupReader reader = new CgroupReader(root.toFile());
+        assertTrue(reader.isUnified());
+        CgroupStats stats = reader.read(CONTAINER_ID).orElseThrow(AssertionError::new);
+        assertEquals(1_500_000, stats.getCpuUsage());
+        assertEquals(10, stats.getPeriods());
+        assertEquals(2, stats.getThrottledPeriods());
+        assertEquals(500_000, stats.getThrottledTime());
+        assertEquals(8388608, stats.getMemoryWorkingSet());
+        assertEquals(1024, stats.getIoReadBytes());
+        assertEquals(256, stats.getIoWriteBytes());
+    }
+
+    /**
+     * Test reading cgroup v1 hierarchies with cgroupfs driver
+     */
+    @Test
+    public void testReadLegacy() throws IOException {
+        write("cpuacct/docker/" + CONTAINER_ID + "/cpuacct.usage", "123456789\n");
+        write("cpu/docker/" + CONTAINER_ID + "/cpu.stat", "nr_periods 40\nnr_throttled 4\nthrottled_time 1000\n");
+        write("memory/docker/" + CONTAINER_ID + "/memory.usage_in_bytes", "5000\n");
+        write("memory/docker/" + CONTAINER_ID + "/memory.stat", "cache 100\ntotal_inactive_file 1000\n");
+        write("blkio/docker/" + CONTAINER_ID + "/blkio.throttle.io_service_bytes",
+                "8:0 Read 300\n8:0 Write 70\n8:0 Sync 10\n8:0 Total 370\nTotal 370\n");
+
+        CgroupReader reader = new CgroupReader(root.toFile());
+        assertFalse(reader.isUnified());
+        CgroupStats stats = reader.read(CONTAINER_ID).orElseThrow(AssertionError::new);
+        assertEquals(123456789, stats.getCpuUsage());
+        assertEquals(4, stats.getThrottledPeriods());
+        assertEquals(4000, stats.getMemoryWorkingSet());
+        assertEquals(300, stats.getIoReadBytes());
+        assertEquals(70, stats.getIoWriteBytes());
+    }
+
+    /**
+     * Test unknown container is not read
+     */
+    @Test
+    public void testReadUnknownContainer() throws IOException {
+        write("cgroup.controllers", "cpu io memory pids\n");
+        assertFalse(new CgroupReader(root.toFile()).read("unknown").isPresent());
+    }
+
+    /**
+     * Test usage is computed from two snapshots and totals are aggregated
+     */
+    @Test
+    public void testUsage() {
+        CgroupStats before = new CgroupStats(0, 1_000_000, 10, 0, 0, 100, 10, 20);
+        CgroupStats after = new CgroupStats(1_000_000_000, 501_000_000, 20, 5, 0, 200, 30, 40);
+        ContainerResourceUsage usage = ContainerResourceUsage.of(before, after);
+        assertEquals(50f, usage.getCpuUsage(), 0.001f);
+        assertEquals(50f, usage.getCpuThrottling(), 0.001f);
+        assertEquals(200, usage.getMemoryUsage());
+        assertEquals(0f, ContainerResourceUsage.of(null, after).getCpuUsage(), 0f);
+
+        ContainerResourceUsage total = usage.add(usage);
+        assertEquals(100f, total.getCpuUsage(), 0.001f);
+        assertEquals(400, total.getMemoryUsage());
+        assertEquals(80, total.getIoWriteBytes());
+    }
+
+    /**
+     * Test accounting forgets containers which are not running anymore
+     */
+    @Test
+    public void testAccounting() throws IOException {
+        write("cgroup.controllers", "cpu io memory pids\n");
+        writeUnified(1500, 10, 2);
+        ContainerResourceAccounting accounting = new ContainerResourceAccounting(new CgroupReader(root.toFile()));
+
+        accounting.update(Collections.singletonList(CONTAINER_ID));
+        Optional<ContainerResourceUsage> usage = accounting.getUsage(CONTAINER_ID);
+        assertTrue(usage.isPresent());
+        assertEquals(8388608, accounting.getTotal().getMemoryUsage());
+
+        accounting.update(Collections.emptyList());
+        assertFalse(accounting.getUsage(CONTAINER_ID).isPresent());
+        assertEquals(0, accounting.getTotal().getMemoryUsage());
+    }
+}
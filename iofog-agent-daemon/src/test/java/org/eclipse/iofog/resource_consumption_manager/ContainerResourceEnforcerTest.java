@@ -0,0 +1,190 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.resource_consumption_manager;
+
+import org.eclipse.iofog.utils.logging.LoggingService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+import static org.powermock.api.mockito.PowerMockito.mockStatic;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({LoggingService.class})
+public class ContainerResourceEnforcerTest {
+    private Path proc;
+    private List<String> updates;
+    private ContainerResourceEnforcer enforcer;
+    private Map<String, ContainerResourceUsage> usages;
+    private Map<String, ContainerResourceEnforcer.Resources> originals;
+    private File stateFile;
+
+    @Before
+    public void setUp() throws IOException {
+        mockStatic(LoggingService.class);
+        proc = Files.createTempDirectory("proc");
+        updates = new ArrayList<>();
+        originals = new HashMap<>();
+        stateFile = proc.resolve("resource_enforcement.properties").toFile();
+        enforcer = newEnforcer();
+        usages = new HashMap<>();
+        usages.put("busy", new ContainerResourceUsage(150, 0, 3000, 0, 0));
+        usages.put("idle", new ContainerResourceUsage(10, 0, 1000, 0, 0));
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(proc)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    private ContainerResourceEnforcer newEnforcer() {
+        return new ContainerResourceEnforcer((containerId, cpuShares, memoryReservation) ->
+                updates.add(containerId + " " + cpuShares + " " + memoryReservation),
+                containerId -> originals.getOrDefault(containerId, new ContainerResourceEnforcer.Resources(null, null)),
+                proc.toFile(), stateFile);
+    }
+
+    private void write(String path, String content) throws IOException {
+        Path file = proc.resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Test pressure is read from pressure stall information
+     */
+    @Test
+    public void testPressureStallInformation() throws IOException {
+        write("pressure/cpu", "some avg10=75.00 avg60=20.00 avg300=5.00 total=123\n");
+        write("pressure/memory", "some avg10=1.50 avg60=0.00 avg300=0.00 total=1\nfull avg10=0.00 avg60=0.00 avg300=0.00 total=0\n");
+        assertTrue(enforcer.isCpuPressure(0));
+        assertFalse(enforcer.isMemoryPressure());
+    }
+
+    /**
+     * Test pressure falls back to usage without pressure stall information
+     */
+    @Test
+    public void testPressureFallback() throws IOException {
+        write("meminfo", "MemTotal:       1000 kB\nMemFree:          10 kB\nMemAvailable:     50 kB\n");
+        assertTrue(enforcer.isMemoryPressure());
+        assertEquals(1024000, enforcer.getMemInfo("MemTotal"));
+        assertFalse(enforcer.isCpuPressure(0));
+        assertTrue(enforcer.isCpuPressure(Float.MAX_VALUE));
+    }
+
+    /**
+     * Test containers above fair share are limited under pressure once and restored after it
+     */
+    @Test
+    public void testEnforce() {
+        enforcer.enforce(usages, true, true, 8000);
+        assertEquals(2, updates.size());
+        assertTrue(updates.contains("busy " + ContainerResourceEnforcer.REDUCED_CPU_SHARES + " null"));
+        assertTrue(updates.contains("busy null 2000"));
+
+        updates.clear();
+        enforcer.enforce(usages, true, true, 8000);
+        assertTrue(updates.isEmpty());
+
+        enforcer.enforce(usages, false, false, 8000);
+        assertEquals(2, updates.size());
+        assertTrue(updates.contains("busy " + ContainerResourceEnforcer.DEFAULT_CPU_SHARES + " null"));
+        assertTrue(updates.contains("busy null 8000"));
+        assertTrue(enforcer.getCpuReduced().isEmpty());
+        assertTrue(enforcer.getMemoryReserved().isEmpty());
+    }
+
+    /**
+     * Test container is limited again after failed update
+     */
+    @Test
+    public void testEnforceRetriesFailedUpdate() {
+        ContainerResourceEnforcer failing = new ContainerResourceEnforcer((containerId, cpuShares, memoryReservation) -> {
+            throw new Exception("container is gone");
+        }, containerId -> new ContainerResourceEnforcer.Resources(null, null), proc.toFile(), stateFile);
+        failing.enforce(usages, true, false, 8000);
+        assertTrue(failing.getCpuReduced().isEmpty());
+    }
+
+    /**
+     * Test lifting limits restores values container had before it was limited
+     */
+    @Test
+    public void testLiftRestoresOriginalValues() {
+        originals.put("busy", new ContainerResourceEnforcer.Resources(512, 1500L));
+        enforcer.enforce(usages, true, true, 8000);
+        updates.clear();
+
+        enforcer.enforce(usages, false, false, 8000);
+        assertEquals(2, updates.size());
+        assertTrue(updates.contains("busy 512 null"));
+        assertTrue(updates.contains("busy null 1500"));
+        assertTrue(enforcer.getOriginals().isEmpty());
+    }
+
+    /**
+     * Test containers limited before restart of agent are restored to their original values after it
+     */
+    @Test
+    public void testLiftAfterRestart() {
+        originals.put("busy", new ContainerResourceEnforcer.Resources(512, 1500L));
+        enforcer.enforce(usages, true, false, 8000);
+        assertTrue(stateFile.exists());
+        originals.clear();
+        updates.clear();
+
+        ContainerResourceEnforcer restarted = newEnforcer();
+        assertTrue(restarted.getCpuReduced().contains("busy"));
+        restarted.enforce(usages, false, false, 8000);
+        assertEquals(1, updates.size());
+        assertTrue(updates.contains("busy 512 null"));
+        assertTrue(restarted.getCpuReduced().isEmpty());
+
+        updates.clear();
+        newEnforcer().enforce(usages, false, false, 8000);
+        assertTrue(updates.isEmpty());
+    }
+
+    /**
+     * Test limited container which has stopped is restored too, so it does not start limited
+     */
+    @Test
+    public void testLiftRestoresStoppedContainer() {
+        enforcer.enforce(usages, true, false, 8000);
+        updates.clear();
+
+        enforcer.restoreAll(new HashMap<>(), 8000);
+        assertEquals(1, updates.size());
+        assertTrue(updates.contains("busy " + ContainerResourceEnforcer.DEFAULT_CPU_SHARES + " null"));
+        assertTrue(enforcer.getCpuReduced().isEmpty());
+    }
+}
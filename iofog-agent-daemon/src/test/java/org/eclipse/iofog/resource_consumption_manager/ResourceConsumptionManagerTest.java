@@ -19,6 +19,7 @@ import org.eclipse.iofog.status_reporter.StatusReporter;
 import org.eclipse.iofog.utils.Constants;
 import org.eclipse.iofog.utils.configuration.Configuration;
 import org.eclipse.iofog.utils.logging.LoggingService;
+import org.eclipse.iofog.utils.scheduler.AgentScheduler;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -44,7 +45,7 @@ import static org.mockito.Mockito.*;
  */
 @RunWith(PowerMockRunner.class)
 @PrepareForTest({ResourceConsumptionManager.class, LoggingService.class,
-        Configuration.class, CommandShellExecutor.class, StatusReporter.class})
+        Configuration.class, CommandShellExecutor.class, StatusReporter.class, AgentScheduler.class})
 public class ResourceConsumptionManagerTest {
     private ResourceConsumptionManager resourceConsumptionManager;
     private static final String MODULE_NAME = "Resource Consumption Manager";
@@ -63,6 +64,8 @@ public class ResourceConsumptionManagerTest {
         PowerMockito.mockStatic(Configuration.class);
         PowerMockito.mockStatic(CommandShellExecutor.class);
         PowerMockito.mockStatic(StatusReporter.class);
+        PowerMockito.mockStatic(AgentScheduler.class);
+        PowerMockito.when(AgentScheduler.getInstance()).thenReturn(mock(AgentScheduler.class));
         PowerMockito.when(Configuration.getGetUsageDataFreqSeconds()).thenReturn(1l);
         PowerMockito.when(Configuration.getMemoryLimit()).thenReturn(1.0f);
         PowerMockito.when(Configuration.getCpuLimit()).thenReturn(1.0f);
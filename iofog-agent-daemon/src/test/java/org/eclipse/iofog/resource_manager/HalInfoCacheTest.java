@@ -0,0 +1,58 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.resource_manager;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class HalInfoCacheTest {
+	private HalInfoCache halInfoCache;
+
+	@Before
+	public void setUp() {
+		halInfoCache = new HalInfoCache(1000);
+	}
+
+	/**
+	 * Test info is uploaded first time and when it changes
+	 */
+	@Test
+	public void testUploadRequiredWhenInfoChanges() {
+		assertTrue(halInfoCache.isUploadRequired("info", 0));
+		halInfoCache.uploaded("info", 0);
+		assertFalse(halInfoCache.isUploadRequired("info", 10));
+		assertTrue(halInfoCache.isUploadRequired("new info", 10));
+	}
+
+	/**
+	 * Test unchanged info is uploaded again after resync interval
+	 */
+	@Test
+	public void testUploadRequiredAfterResyncInterval() {
+		halInfoCache.uploaded("info", 0);
+		assertFalse(halInfoCache.isUploadRequired("info", 999));
+		assertTrue(halInfoCache.isUploadRequired("info", 1000));
+	}
+
+	/**
+	 * Test invalidate forces next upload
+	 */
+	@Test
+	public void testInvalidate() {
+		halInfoCache.uploaded("info", 0);
+		halInfoCache.invalidate();
+		assertTrue(halInfoCache.isUploadRequired("info", 10));
+	}
+}
@@ -24,19 +24,22 @@ import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 import org.eclipse.iofog.field_agent.FieldAgent;
 import org.eclipse.iofog.utils.logging.LoggingService;
+import org.eclipse.iofog.utils.scheduler.AgentScheduler;
 import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * @author nehanaithani
  */
 @RunWith(PowerMockRunner.class)
-@PrepareForTest({ResourceManager.class, FieldAgent.class, LoggingService.class})
+@PrepareForTest({ResourceManager.class, FieldAgent.class, LoggingService.class, AgentScheduler.class})
 public class ResourceManagerTest {
     private ResourceManager resourceManager;
     private FieldAgent fieldAgent;
-    private Thread getUsageData;
+    private AgentScheduler agentScheduler;
 
     /**
      * @throws Exception
@@ -51,9 +54,9 @@ public class ResourceManagerTest {
         PowerMockito.doNothing().when(fieldAgent).sendUSBInfoFromHalToController();
         PowerMockito.doNothing().when(fieldAgent).sendHWInfoFromHalToController();
 
-        getUsageData = mock(Thread.class);
-        PowerMockito.whenNew(Thread.class).withParameterTypes(Runnable.class, String.class).withArguments(Mockito.any(Runnable.class),
-                anyString()).thenReturn(getUsageData);
+        agentScheduler = mock(AgentScheduler.class);
+        PowerMockito.mockStatic(AgentScheduler.class);
+        when(AgentScheduler.getInstance()).thenReturn(agentScheduler);
     }
 
     /**
@@ -74,6 +77,8 @@ public class ResourceManagerTest {
         verify(resourceManager, Mockito.times(1)).start();
         assertEquals(Constants.RESOURCE_MANAGER, resourceManager.getModuleIndex());
         assertEquals("ResourceManager", resourceManager.getModuleName());
+        verify(agentScheduler).scheduleBlockingAtFixedRate(eq(Constants.RESOURCE_MANAGER_GET_USAGE_DATA), any(Runnable.class),
+                eq(0L), any(), eq(TimeUnit.SECONDS));
         PowerMockito.verifyStatic(LoggingService.class, atLeastOnce());
         LoggingService.logDebug("ResourceManager", "started");
     }
@@ -0,0 +1,89 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.supervisor;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class StartupGraphTest {
+
+    /**
+     * Test step starts only after its dependencies have finished
+     */
+    @Test(timeout = 10000)
+    public void testStepRunsAfterDependencies() throws Exception {
+        List<String> order = new CopyOnWriteArrayList<>();
+        StartupGraph startup = new StartupGraph()
+                .add("a", () -> {
+                    Thread.sleep(50);
+                    order.add("a");
+                })
+                .add("b", () -> order.add("b"))
+                .add("c", () -> order.add("c"), "a", "b");
+        startup.await();
+        assertEquals(3, order.size());
+        assertEquals("c", order.get(2));
+        assertEquals(3, startup.getStepTimes().size());
+    }
+
+    /**
+     * Test independent steps run in parallel
+     */
+    @Test(timeout = 10000)
+    public void testIndependentStepsRunInParallel() throws Exception {
+        CountDownLatch bothRunning = new CountDownLatch(2);
+        StartupGraph.Step step = () -> {
+            bothRunning.countDown();
+            assertTrue(bothRunning.await(5, TimeUnit.SECONDS));
+        };
+        new StartupGraph()
+                .add("a", step)
+                .add("b", step)
+                .await();
+    }
+
+    /**
+     * Test failure of step is thrown and its dependents are not run
+     */
+    @Test(timeout = 10000)
+    public void testFailedStepSkipsDependents() {
+        List<String> order = new CopyOnWriteArrayList<>();
+        StartupGraph startup = new StartupGraph()
+                .add("a", () -> {
+                    throw new IllegalStateException("failed");
+                })
+                .add("b", () -> order.add("b"), "a");
+        try {
+            startup.await();
+            fail("Failure of step has to be thrown");
+        } catch (Exception e) {
+            assertEquals("failed", e.getMessage());
+        }
+        assertTrue(order.isEmpty());
+        assertFalse(startup.getStepTimes().containsKey("a"));
+    }
+
+    /**
+     * Test dependency has to be added before dependent step
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownDependency() {
+        new StartupGraph().add("a", () -> {}, "b");
+    }
+}
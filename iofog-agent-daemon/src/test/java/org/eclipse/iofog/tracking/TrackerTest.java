@@ -16,6 +16,7 @@ import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
 import org.eclipse.iofog.utils.Constants;
 import org.eclipse.iofog.utils.logging.LoggingService;
+import org.eclipse.iofog.utils.scheduler.AgentScheduler;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -33,7 +34,6 @@ import java.lang.reflect.Field;
 import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Timer;
 
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
@@ -43,12 +43,12 @@ import static org.mockito.Mockito.*;
  *
  */
 @RunWith(PowerMockRunner.class)
-@PrepareForTest({Tracker.class, HttpClients.class, LoggingService.class, Timer.class})
+@PrepareForTest({Tracker.class, HttpClients.class, LoggingService.class, AgentScheduler.class})
 // @PowerMockIgnore({"javax.net.ssl.*"})
 public class TrackerTest {
     private Tracker tracker;
     private String MODULE_NAME;
-    private Timer timer;
+    private AgentScheduler agentScheduler;
 
     @Before
     public void setUp() throws Exception {
@@ -56,11 +56,10 @@ public class TrackerTest {
         setMock(tracker);
         PowerMockito.mockStatic(LoggingService.class);
         PowerMockito.mockStatic(HttpClients.class);
-        PowerMockito.mockStatic(Timer.class);
-        timer = mock(Timer.class);
+        PowerMockito.mockStatic(AgentScheduler.class);
+        agentScheduler = mock(AgentScheduler.class);
         PowerMockito.when(HttpClients.createDefault()).thenReturn(Mockito.mock(CloseableHttpClient.class));
-        PowerMockito.whenNew(Timer.class).withNoArguments().thenReturn(timer);
-        PowerMockito.doNothing().when(timer).schedule(any(), anyLong(), anyLong());
+        PowerMockito.when(AgentScheduler.getInstance()).thenReturn(agentScheduler);
         PowerMockito.mockStatic(Files.class);
         MODULE_NAME = "Tracker";
     }
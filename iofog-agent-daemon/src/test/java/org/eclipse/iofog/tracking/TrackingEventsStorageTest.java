@@ -59,11 +59,28 @@ public class TrackingEventsStorageTest {
      *
      */
     @Test
-    public void testPushEventAndPopAllEvents() {
-        assertTrue(trackingEventsStorage.popAllEvents().isEmpty());
+    public void testPushEventAndPopEvents() {
+        assertTrue(trackingEventsStorage.popEvents(10).isEmpty());
         trackingEventsStorage.pushEvent(newTrackingEvent);
-        assertTrue(trackingEventsStorage.popAllEvents().size() == 1);
-        assertTrue(trackingEventsStorage.popAllEvents().isEmpty());
+        assertTrue(trackingEventsStorage.popEvents(10).size() == 1);
+        assertTrue(trackingEventsStorage.popEvents(10).isEmpty());
+    }
+
+    /**
+     * Test oldest events are dropped when storage is full
+     */
+    @Test
+    public void testPushEventDropsOldestWhenFull() throws Exception {
+        TrackingEventsStorage boundedStorage = new TrackingEventsStorage(2);
+        JsonObject data = Json.createObjectBuilder().add("message", "message").build();
+        for (long i = 0; i < 5; i++) {
+            boundedStorage.pushEvent(new TrackingEvent("uuid", i, TrackingEventType.ERROR, data));
+        }
+        assertEquals(2, boundedStorage.size());
+        assertEquals(3, boundedStorage.popDropped());
+        assertEquals(0, boundedStorage.popDropped());
+        assertEquals(1, boundedStorage.popEvents(1).size());
+        assertEquals(Long.valueOf(4), boundedStorage.popEvents(10).get(0).getTimestamp());
     }
 
 }
\ No newline at end of file
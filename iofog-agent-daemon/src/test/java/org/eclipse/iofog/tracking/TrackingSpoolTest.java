@@ -0,0 +1,166 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.tracking;
+
+import org.eclipse.iofog.utils.logging.LoggingService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.json.JsonReader;
+import javax.ws.rs.BadRequestException;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.*;
+import static org.powermock.api.mockito.PowerMockito.mockStatic;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({LoggingService.class})
+public class TrackingSpoolTest {
+    private File directory;
+    private List<byte[]> received;
+
+    @Before
+    public void setUp() throws Exception {
+        mockStatic(LoggingService.class);
+        directory = Files.createTempDirectory("tracking").toFile();
+        received = new ArrayList<>();
+    }
+
+    @After
+    public void tearDown() {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    private List<TrackingEvent> events(int count) throws Exception {
+        List<TrackingEvent> events = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            events.add(new TrackingEvent("uuid", (long) i, TrackingEventType.TIME,
+                    Json.createObjectBuilder().add("deltaTime", i + " min").build()));
+        }
+        return events;
+    }
+
+    private JsonObject decode(byte[] batch) throws IOException {
+        try (JsonReader reader = Json.createReader(new InputStreamReader(
+                new GZIPInputStream(new ByteArrayInputStream(batch)), StandardCharsets.UTF_8))) {
+            return reader.readObject();
+        }
+    }
+
+    /**
+     * Test batches are sent in order, compressed and deleted after sending
+     */
+    @Test
+    public void testSendInOrder() throws Exception {
+        TrackingSpool spool = new TrackingSpool(directory, 1024 * 1024);
+        spool.write(events(3));
+        spool.write(events(2));
+        spool.write(new ArrayList<>());
+        assertEquals(2, spool.getBatches().size());
+
+        assertEquals(2, spool.send(received::add));
+        assertEquals(3, decode(received.get(0)).getJsonArray("events").size());
+        assertEquals(2, decode(received.get(1)).getJsonArray("events").size());
+        assertTrue(spool.getBatches().isEmpty());
+    }
+
+    /**
+     * Test batches are kept when sending fails and sent on retry
+     */
+    @Test
+    public void testRetryAfterFailure() throws Exception {
+        TrackingSpool spool = new TrackingSpool(directory, 1024 * 1024);
+        spool.write(events(1));
+        spool.write(events(1));
+
+        assertEquals(0, spool.send(batch -> {
+            throw new IOException("controller is not reachable");
+        }));
+        assertEquals(2, spool.getBatches().size());
+
+        assertEquals(2, new TrackingSpool(directory, 1024 * 1024).send(received::add));
+        assertEquals(2, received.size());
+    }
+
+    /**
+     * Test oldest batches are dropped when spool exceeds its size, newest one is kept
+     */
+    @Test
+    public void testSizeIsCapped() throws Exception {
+        TrackingSpool spool = new TrackingSpool(directory, 1);
+        spool.write(events(10));
+        spool.write(events(20));
+        assertEquals(1, spool.getBatches().size());
+        spool.send(received::add);
+        assertEquals(20, decode(received.get(0)).getJsonArray("events").size());
+    }
+
+    /**
+     * Test batch rejected by controller is quarantined and does not block batches after it
+     */
+    @Test
+    public void testRejectedBatchIsQuarantined() throws Exception {
+        TrackingSpool spool = new TrackingSpool(directory, 1024 * 1024);
+        spool.write(events(1));
+        spool.write(events(2));
+
+        assertEquals(1, spool.send(batch -> {
+            if (decode(batch).getJsonArray("events").size() == 1) {
+                throw new BadRequestException("invalid event");
+            }
+            received.add(batch);
+        }));
+        assertEquals(1, received.size());
+        assertTrue(spool.getBatches().isEmpty());
+        assertEquals(1, spool.getRejectedBatches().size());
+
+        assertEquals(0, spool.send(received::add));
+        assertEquals(1, received.size());
+    }
+
+    /**
+     * Test only newest rejected batches are kept
+     */
+    @Test
+    public void testRejectedBatchesAreCapped() throws Exception {
+        TrackingSpool spool = new TrackingSpool(directory, 1024 * 1024);
+        for (int i = 0; i < TrackingSpool.MAX_REJECTED + 3; i++) {
+            spool.write(events(1));
+        }
+        assertEquals(0, spool.send(batch -> {
+            throw new BadRequestException("invalid event");
+        }));
+        assertTrue(spool.getBatches().isEmpty());
+        assertEquals(TrackingSpool.MAX_REJECTED, spool.getRejectedBatches().size());
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * *******************************************************************************
+ *  * Copyright (c) 2018-2020 Edgeworx, Inc.
+ *  *
+ *  * This program and the accompanying materials are made available under the
+ *  * terms of the Eclipse Public License v. 2.0 which is available at
+ *  * http://www.eclipse.org/legal/epl-2.0
+ *  *
+ *  * SPDX-License-Identifier: EPL-2.0
+ *  *******************************************************************************
+ *
+ */
+package org.eclipse.iofog.utils.scheduler;
+
+import org.eclipse.iofog.utils.logging.LoggingService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+import static org.powermock.api.mockito.PowerMockito.mockStatic;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({LoggingService.class})
+public class AgentSchedulerTest {
+    private AgentScheduler agentScheduler;
+
+    @Before
+    public void setUp() {
+        mockStatic(LoggingService.class);
+        agentScheduler = new AgentScheduler(1);
+    }
+
+    @After
+    public void tearDown() {
+        agentScheduler.shutdown();
+    }
+
+    /**
+     * Test fixed rate task runs repeatedly and counts runs
+     */
+    @Test(timeout = 5000)
+    public void testScheduleAtFixedRate() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(3);
+        ScheduledTask task = agentScheduler.scheduleAtFixedRate("test", latch::countDown, 0, () -> 20, TimeUnit.MILLISECONDS);
+        latch.await();
+        assertTrue(agentScheduler.getTasks().contains(task));
+        task.cancel();
+        assertTrue(task.getRuns() >= 2);
+        assertEquals(0, task.getFailures());
+        assertFalse(agentScheduler.getTasks().contains(task));
+    }
+
+    /**
+     * Test failing task is counted and keeps being scheduled
+     */
+    @Test(timeout = 5000)
+    public void testFailureDoesNotStopTask() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(2);
+        ScheduledTask task = agentScheduler.scheduleWithFixedDelay("failing", () -> {
+            latch.countDown();
+            throw new IllegalStateException("failure");
+        }, 0, () -> 10, TimeUnit.MILLISECONDS);
+        latch.await();
+        task.cancel();
+        assertTrue(task.getFailures() >= 1);
+    }
+
+    /**
+     * Test run taking longer than interval is counted as overrun
+     */
+    @Test(timeout = 5000)
+    public void testOverrunIsDetected() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(2);
+        ScheduledTask task = agentScheduler.scheduleAtFixedRate("slow", () -> {
+            latch.countDown();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, 0, () -> 10, TimeUnit.MILLISECONDS);
+        latch.await();
+        String report = agentScheduler.getReport();
+        task.cancel();
+        assertTrue(task.getOverruns() >= 1);
+        assertTrue(task.getMaxRuntime() >= 50);
+        assertTrue(report.contains("slowest slow"));
+    }
+
+    /**
+     * Test cancelled task does not run again
+     */
+    @Test(timeout = 5000)
+    public void testCancel() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        ScheduledTask task = agentScheduler.scheduleAtFixedRate("cancelled", latch::countDown, 0, () -> 10, TimeUnit.MILLISECONDS);
+        latch.await();
+        task.cancel();
+        long runs = task.getRuns();
+        Thread.sleep(100);
+        assertTrue(task.isCancelled());
+        assertTrue(task.getRuns() <= runs + 1);
+    }
+
+    /**
+     * Test shorter interval is applied to waiting task without restart
+     */
+    @Test(timeout = 5000)
+    public void testIntervalsChanged() throws InterruptedException {
+        AtomicLong interval = new AtomicLong(TimeUnit.HOURS.toMillis(1));
+        CountDownLatch latch = new CountDownLatch(2);
+        ScheduledTask task = agentScheduler.scheduleAtFixedRate("reconfigured", latch::countDown, 0, interval::get, TimeUnit.MILLISECONDS);
+        while (task.getRuns() == 0) {
+            Thread.sleep(5);
+        }
+        interval.set(10);
+        agentScheduler.intervalsChanged();
+        latch.await();
+        task.cancel();
+    }
+
+    /**
+     * Test intervals changed while task runs does not fork a second chain of runs
+     */
+    @Test(timeout = 5000)
+    public void testIntervalsChangedDuringRunKeepsSingleChain() throws InterruptedException {
+        AtomicLong interval = new AtomicLong(20);
+        AtomicLong calls = new AtomicLong();
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ScheduledTask task = agentScheduler.scheduleAtFixedRate("reconfiguredWhileRunning", () -> {
+            if (calls.incrementAndGet() == 2) {
+                running.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }, 0, interval::get, TimeUnit.MILLISECONDS);
+        running.await();
+        interval.set(TimeUnit.HOURS.toMillis(1));
+        agentScheduler.intervalsChanged();
+        release.countDown();
+        while (task.getRuns() < 2) {
+            Thread.sleep(5);
+        }
+        Thread.sleep(50);
+        assertEquals(2, task.getRuns());
+        assertEquals(1, agentScheduler.getPlannedRunsCount());
+        task.cancel();
+    }
+
+    /**
+     * Test task blocked on I/O does not delay other tasks
+     */
+    @Test(timeout = 5000)
+    public void testBlockingTaskDoesNotStarveOtherTasks() throws InterruptedException {
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch latch = new CountDownLatch(3);
+        ScheduledTask blockingTask = agentScheduler.scheduleBlockingWithFixedDelay("blocking", () -> {
+            blocked.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, 0, () -> 10, TimeUnit.MILLISECONDS);
+        ScheduledTask otherBlockingTask = agentScheduler.scheduleBlockingAtFixedRate("otherBlocking", latch::countDown,
+                0, () -> 10, TimeUnit.MILLISECONDS);
+        blocked.await();
+        ScheduledTask task = agentScheduler.scheduleAtFixedRate("compute", latch::countDown, 0, () -> 10, TimeUnit.MILLISECONDS);
+        latch.await();
+        release.countDown();
+        blockingTask.cancel();
+        otherBlockingTask.cancel();
+        task.cancel();
+    }
+
+    /**
+     * Test pool thread carries task name while task runs
+     */
+    @Test(timeout = 5000)
+    public void testThreadIsNamedAfterTask() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicReference<String> threadName = new AtomicReference<>();
+        agentScheduler.scheduleWithFixedDelay("named", () -> {
+            threadName.set(Thread.currentThread().getName());
+            latch.countDown();
+        }, 0, () -> 1, TimeUnit.SECONDS);
+        latch.await();
+        assertEquals("named", threadName.get());
+    }
+}